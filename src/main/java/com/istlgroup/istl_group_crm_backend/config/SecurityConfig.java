@@ -1,12 +1,18 @@
 package com.istlgroup.istl_group_crm_backend.config;
 
+import com.istlgroup.istl_group_crm_backend.filter.SessionFilter;
+import com.istlgroup.istl_group_crm_backend.service.AuthTokenService;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -23,7 +29,15 @@ public class SecurityConfig {
     private String allowedOrigin;
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, SessionFilter sessionFilter,
+                                           AuthTokenService authTokenService) throws Exception {
+
+        // Token mode: no HttpSession at all; SessionFilter authenticates each request from its token
+        if (authTokenService.isTokenMode()) {
+            http
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(sessionFilter, AuthorizationFilter.class);
+        }
 
         http
             .csrf(csrf -> csrf.disable())
@@ -57,12 +71,22 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // In token mode SessionFilter runs inside the security chain only, not a second time as a servlet filter
+    @Bean
+    public FilterRegistrationBean<SessionFilter> sessionFilterRegistration(SessionFilter sessionFilter,
+                                                                           AuthTokenService authTokenService) {
+        FilterRegistrationBean<SessionFilter> registration = new FilterRegistrationBean<>(sessionFilter);
+        registration.setEnabled(!authTokenService.isTokenMode());
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration();
         config.setAllowedOrigins(List.of(allowedOrigin));
         config.setAllowedMethods(List.of("GET","POST","PUT","DELETE","OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of(AuthTokenService.RENEWED_TOKEN_HEADER));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
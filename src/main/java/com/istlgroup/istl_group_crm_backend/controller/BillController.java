@@ -17,9 +17,12 @@ import com.istlgroup.istl_group_crm_backend.entity.VendorEntity;
 import com.istlgroup.istl_group_crm_backend.repo.PurchaseOrderRepository;
 import com.istlgroup.istl_group_crm_backend.repo.VendorRepository;
 import com.istlgroup.istl_group_crm_backend.service.BillService;
+import com.istlgroup.istl_group_crm_backend.service.KeysetCursor;
+import com.istlgroup.istl_group_crm_backend.service.VendorPickerService;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.BillDTO;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.BillItemDTO;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.BillStatsDTO;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.PaymentDTO;
 
 
@@ -43,6 +46,7 @@ public class BillController {
     
 	 private final BillService billService;
 	    private final VendorRepository vendorRepository;
+	    private final VendorPickerService vendorPickerService;
 	    private  VendorEntity vendorEntity;
 	    private PurchaseOrderRepository purchaseOrderRepository;
     /**
@@ -62,12 +66,36 @@ public class BillController {
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "billDate") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
             @RequestHeader("X-User-Role") String userRole
     ) {
         try {
             boolean isAdmin = "ADMIN".equalsIgnoreCase(userRole) || 
                             "SUPERADMIN".equalsIgnoreCase(userRole);
             
+            // Cursor mode: pass cursor (empty for the first page), then the returned nextCursor
+            if (cursor != null) {
+                if (search != null && !search.trim().isEmpty()) {
+                    throw new RuntimeException("Search is not supported with cursor paging");
+                }
+                KeysetCursor.requireDefaultSort("billDate", sortBy, sortDirection);
+                KeysetPage<BillDTO> bills = billService.getBillsKeyset(
+                        projectId, groupId, subGroupId, status, vendorId, poId,
+                        cursor, size, includeTotal, isAdmin
+                );
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("bills", bills.getContent());
+                response.put("nextCursor", bills.getNextCursor());
+                response.put("hasNext", bills.isHasNext());
+                response.put("pageSize", bills.getSize());
+                if (bills.getTotalElements() != null) {
+                    response.put("totalItems", bills.getTotalElements());
+                }
+                return ResponseEntity.ok(response);
+            }
+            
             Page<BillDTO> bills = billService.getBills(
                     projectId, groupId, subGroupId, status, vendorId, poId,
                     search, page, size, sortBy, sortDirection, isAdmin
@@ -186,6 +214,7 @@ public class BillController {
                             newVendor.setTotalPurchaseValue(BigDecimal.ZERO);
                             newVendor.setCreatedBy(userId);
                             vendorEntity = vendorRepository.save(newVendor);
+                            vendorPickerService.invalidate();
                             System.err.println(vendorEntity.getId());
                             Long vendorId = vendorEntity.getId();
                             String name = vendorEntity.getName();
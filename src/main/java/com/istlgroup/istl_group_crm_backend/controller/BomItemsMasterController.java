@@ -1,11 +1,14 @@
 package com.istlgroup.istl_group_crm_backend.controller;
 
 import com.istlgroup.istl_group_crm_backend.service.BomItemsMasterService;
+import com.istlgroup.istl_group_crm_backend.service.ReferenceDataCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -18,6 +21,7 @@ import java.util.Map;
 public class BomItemsMasterController {
 
     private final BomItemsMasterService bomItemsMasterService;
+    private final ReferenceDataCacheService referenceData;
 
     /**
      * GET /api/bom-items-master/all
@@ -63,17 +67,18 @@ public class BomItemsMasterController {
     }
 
     /**
-     * GET /api/bom-items-master/search?searchTerm=solar&category=EPC
-     * Search BOM items (autocomplete)
+     * GET /api/bom-items-master/search?searchTerm=solar&category=EPC&limit=20
+     * Search BOM items (autocomplete), best matches first
      */
     @GetMapping("/search")
     public ResponseEntity<Map<String, Object>> searchBomItems(
             @RequestParam(required = false) String searchTerm,
-            @RequestParam(required = false) String category) {
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "" + BomItemsMasterService.DEFAULT_SEARCH_LIMIT) int limit) {
         try {
-            log.info("Searching BOM items - searchTerm: {}, category: {}", searchTerm, category);
+            log.debug("Searching BOM items - searchTerm: {}, category: {}, limit: {}", searchTerm, category, limit);
             
-            List<Map<String, Object>> items = bomItemsMasterService.searchBomItems(searchTerm, category);
+            List<Map<String, Object>> items = bomItemsMasterService.searchBomItems(searchTerm, category, limit);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -92,15 +97,18 @@ public class BomItemsMasterController {
      * Get distinct categories
      */
     @GetMapping("/categories")
-    public ResponseEntity<Map<String, Object>> getCategories() {
+    public ResponseEntity<Map<String, Object>> getCategories(WebRequest request) {
         try {
-            List<String> categories = bomItemsMasterService.getDistinctCategories();
+            ReferenceDataCacheService.Snapshot snapshot = referenceData.snapshot();
+            if (request.checkNotModified(snapshot.getEtag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+            }
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", categories);
+            response.put("data", snapshot.getBomCategories());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(snapshot.getEtag()).cacheControl(CacheControl.noCache()).body(response);
         } catch (Exception e) {
             log.error("Error fetching BOM categories", e);
             return createErrorResponse("Failed to fetch categories", e.getMessage());
@@ -6,40 +6,50 @@ import com.istlgroup.istl_group_crm_backend.wrapperClasses.DropdownSubGroupWrapp
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.LeadsGroupWrapper;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.LeadsSubGroupWrapper;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.LeadsUserWrapper;
-import com.istlgroup.istl_group_crm_backend.service.DropdownFilterService;
+import com.istlgroup.istl_group_crm_backend.service.ReferenceDataCacheService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Dropdown filters served from the reference data snapshot. Responses carry the
+ * snapshot's ETag; a request with a matching If-None-Match gets 304.
+ */
 @RestController
 @RequestMapping("/api/filters")
 @RequiredArgsConstructor
 //@CrossOrigin(origins = "${cros.allowed-origins}")
 public class DropdownFilterController {
     
-    private final DropdownFilterService filterService;
+    private final ReferenceDataCacheService referenceData;
     
     @GetMapping("/groups")
-    public ResponseEntity<List<DropdownGroupWrapper>> getAllGroups() {
-        return ResponseEntity.ok(filterService.getAllGroups());
+    public ResponseEntity<List<DropdownGroupWrapper>> getAllGroups(WebRequest request) {
+        ReferenceDataCacheService.Snapshot snapshot = referenceData.snapshot();
+        return conditional(request, snapshot, () -> snapshot.getGroups());
     }
     
     @GetMapping("/subgroups")
     public ResponseEntity<List<DropdownSubGroupWrapper>> getSubGroups(
-            @RequestParam String groupName) {
-        return ResponseEntity.ok(filterService.getSubGroupsByGroup(groupName));
+            @RequestParam String groupName, WebRequest request) {
+        ReferenceDataCacheService.Snapshot snapshot = referenceData.snapshot();
+        return conditional(request, snapshot, () -> snapshot.getSubGroups(groupName));
     }
     
     @GetMapping("/projects")
     public ResponseEntity<List<DropdownProjectWrapper>> getProjects(
             @RequestParam String groupName,
-            @RequestParam String subGroupName) {
-        return ResponseEntity.ok(
-            filterService.getProjectsByGroupAndSubGroup(groupName, subGroupName)
-        );
+            @RequestParam String subGroupName,
+            WebRequest request) {
+        ReferenceDataCacheService.Snapshot snapshot = referenceData.snapshot();
+        return conditional(request, snapshot, () -> snapshot.getProjects(groupName, subGroupName));
     }
     
     // ============ LEADS-SPECIFIC ENDPOINTS (Unique Names) ============
@@ -49,15 +59,13 @@ public class DropdownFilterController {
      * Endpoint: GET /api/filters/leads-groups
      */
     @GetMapping("/leads-groups")
-    public ResponseEntity<List<LeadsGroupWrapper>> getLeadsGroups() {
-        List<DropdownGroupWrapper> groups = filterService.getAllGroups();
+    public ResponseEntity<List<LeadsGroupWrapper>> getLeadsGroups(WebRequest request) {
+        ReferenceDataCacheService.Snapshot snapshot = referenceData.snapshot();
         
         // Convert to LeadsGroupWrapper to avoid naming conflicts
-        List<LeadsGroupWrapper> leadsGroups = groups.stream()
+        return conditional(request, snapshot, () -> snapshot.getGroups().stream()
             .map(g -> new LeadsGroupWrapper(g.getValue(), g.getLabel()))
-            .collect(Collectors.toList());
-            
-        return ResponseEntity.ok(leadsGroups);
+            .collect(Collectors.toList()));
     }
     
     /**
@@ -66,22 +74,32 @@ public class DropdownFilterController {
      */
     @GetMapping("/leads-subgroups")
     public ResponseEntity<List<LeadsSubGroupWrapper>> getLeadsSubGroups(
-            @RequestParam String groupName) {
-        List<DropdownSubGroupWrapper> subGroups = filterService.getSubGroupsByGroup(groupName);
+            @RequestParam String groupName, WebRequest request) {
+        ReferenceDataCacheService.Snapshot snapshot = referenceData.snapshot();
         
         // Convert to LeadsSubGroupWrapper to avoid naming conflicts
-        List<LeadsSubGroupWrapper> leadsSubGroups = subGroups.stream()
+        return conditional(request, snapshot, () -> snapshot.getSubGroups(groupName).stream()
             .map(sg -> new LeadsSubGroupWrapper(sg.getValue(), sg.getLabel()))
-            .collect(Collectors.toList());
-            
-        return ResponseEntity.ok(leadsSubGroups);
+            .collect(Collectors.toList()));
     }
     /**
      * Get users for Leads assignment dropdown with unique wrapper
      * Endpoint: GET /api/filters/leads-users
      */
     @GetMapping("/leads-users")
-    public ResponseEntity<List<LeadsUserWrapper>> getLeadsUsers() {
-        return ResponseEntity.ok(filterService.getLeadsUsers()); 
+    public ResponseEntity<List<LeadsUserWrapper>> getLeadsUsers(WebRequest request) {
+        ReferenceDataCacheService.Snapshot snapshot = referenceData.snapshot();
+        return conditional(request, snapshot, () -> snapshot.getLeadsUsers());
+    }
+    
+    /**
+     * 304 when the client holds the current snapshot, otherwise the body with the snapshot's ETag
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, ReferenceDataCacheService.Snapshot snapshot,
+                                              Supplier<T> body) {
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+        return ResponseEntity.ok().eTag(snapshot.getEtag()).cacheControl(CacheControl.noCache()).body(body.get());
     }
 }
\ No newline at end of file
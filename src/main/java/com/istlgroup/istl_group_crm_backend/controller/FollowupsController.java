@@ -13,6 +13,7 @@ import com.istlgroup.istl_group_crm_backend.customException.CustomException;
 import com.istlgroup.istl_group_crm_backend.service.FollowupsService;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.FollowupWrapper;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.FollowupRequestWrapper;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
 
 @RestController
 @RequestMapping("/followups")
@@ -28,7 +29,10 @@ public class FollowupsController {
     @GetMapping("/all")
     public ResponseEntity<Map<String, Object>> getAllFollowups(
             @RequestHeader("User-Id") Long userId,
-            @RequestHeader("User-Role") String userRole) {
+            @RequestHeader("User-Role") String userRole,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
         try {
             // Only allow SuperAdmin and Admin
             if (!"SUPERADMIN".equalsIgnoreCase(userRole) && !"ADMIN".equalsIgnoreCase(userRole)) {
@@ -38,6 +42,12 @@ public class FollowupsController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
             }
 
+            // Cursor mode: pass cursor (empty for the first page), then the returned nextCursor
+            if (cursor != null) {
+                return ResponseEntity.ok(keysetResponse(
+                    followupsService.getAllFollowupsKeyset(cursor, size, includeTotal)));
+            }
+
             List<FollowupWrapper> followups = followupsService.getAllFollowups();
             
             Map<String, Object> response = new HashMap<>();
@@ -161,8 +171,16 @@ public class FollowupsController {
      * Get overdue follow-ups
      */
     @GetMapping("/overdue")
-    public ResponseEntity<Map<String, Object>> getOverdueFollowups() {
+    public ResponseEntity<Map<String, Object>> getOverdueFollowups(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
         try {
+            if (cursor != null) {
+                return ResponseEntity.ok(keysetResponse(
+                    followupsService.getOverdueFollowupsKeyset(cursor, size, includeTotal)));
+            }
+
             List<FollowupWrapper> followups = followupsService.getOverdueFollowups();
             
             Map<String, Object> response = new HashMap<>();
@@ -183,8 +201,16 @@ public class FollowupsController {
      * Get today's follow-ups
      */
     @GetMapping("/today")
-    public ResponseEntity<Map<String, Object>> getTodaysFollowups() {
+    public ResponseEntity<Map<String, Object>> getTodaysFollowups(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
         try {
+            if (cursor != null) {
+                return ResponseEntity.ok(keysetResponse(
+                    followupsService.getTodaysFollowupsKeyset(cursor, size, includeTotal)));
+            }
+
             List<FollowupWrapper> followups = followupsService.getTodaysFollowups();
             
             Map<String, Object> response = new HashMap<>();
@@ -228,4 +254,18 @@ public class FollowupsController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
-}
\ No newline at end of file
+    
+    private Map<String, Object> keysetResponse(KeysetPage<FollowupWrapper> followups) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", followups.getContent());
+        response.put("count", followups.getContent().size());
+        response.put("nextCursor", followups.getNextCursor());
+        response.put("hasNext", followups.isHasNext());
+        response.put("pageSize", followups.getSize());
+        if (followups.getTotalElements() != null) {
+            response.put("totalElements", followups.getTotalElements());
+        }
+        return response;
+    }
+}
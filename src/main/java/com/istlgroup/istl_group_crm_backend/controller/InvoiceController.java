@@ -1,10 +1,13 @@
 package com.istlgroup.istl_group_crm_backend.controller;
 
+import com.istlgroup.istl_group_crm_backend.customException.CustomException;
 import com.istlgroup.istl_group_crm_backend.entity.InvoiceEntity;
 import com.istlgroup.istl_group_crm_backend.entity.PaymentHistoryEntity;
 import com.istlgroup.istl_group_crm_backend.entity.CustomersEntity;
 import com.istlgroup.istl_group_crm_backend.service.InvoiceService;
 import com.istlgroup.istl_group_crm_backend.service.CustomersService;
+import com.istlgroup.istl_group_crm_backend.service.KeysetCursor;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,7 +17,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
@@ -40,10 +45,34 @@ public class InvoiceController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "invoiceDate") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
             @RequestHeader("x-user-id") Long userId,
             @RequestHeader("x-user-role") String userRole
     ) {
         try {
+            // Cursor mode: pass cursor (empty for the first page), then the returned nextCursor
+            if (cursor != null) {
+                if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+                    throw new RuntimeException("Search is not supported with cursor paging");
+                }
+                KeysetCursor.requireDefaultSort("invoiceDate", sortBy, sortDirection);
+                KeysetPage<InvoiceEntity> invoices = invoiceService.getInvoicesKeyset(
+                        groupId, subGroupId, projectId, status,
+                        userId, userRole, cursor, size, includeTotal
+                );
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("invoices", invoices.getContent());
+                response.put("nextCursor", invoices.getNextCursor());
+                response.put("hasNext", invoices.isHasNext());
+                response.put("pageSize", invoices.getSize());
+                if (invoices.getTotalElements() != null) {
+                    response.put("totalElements", invoices.getTotalElements());
+                }
+                return ResponseEntity.ok(response);
+            }
+            
             Page<InvoiceEntity> invoices = invoiceService.getInvoices(
                     groupId, subGroupId, projectId, status, searchTerm,
                     userId, userRole, page, size, sortBy, sortDirection
@@ -256,7 +285,8 @@ public class InvoiceController {
     public ResponseEntity<?> downloadInvoicePdf(@PathVariable Long id) {
         try {
             InvoiceEntity invoice = invoiceService.getInvoiceByIdWithItems(id);
-            byte[] pdfBytes = invoiceService.generatePdf(invoice);
+            // Validate up front; once streaming starts the status is already committed
+            CustomersEntity customer = invoiceService.preparePdf(invoice);
             
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
@@ -264,7 +294,14 @@ public class InvoiceController {
                 "Invoice-" + invoice.getInvoiceNo() + ".pdf");
             headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
             
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+            StreamingResponseBody body = out -> {
+                try {
+                    invoiceService.writePdf(invoice, customer, out);
+                } catch (CustomException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            };
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
         } catch (Exception e) {
             log.error("Error generating PDF for invoice: {}", id, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
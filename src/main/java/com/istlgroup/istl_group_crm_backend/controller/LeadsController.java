@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -33,15 +34,13 @@ public class LeadsController {
             @RequestHeader("User-Id") Long userId,
             @RequestHeader("User-Role") String userRole,
             @RequestParam(required = false) String groupName,
-            @RequestParam(required = false) String subGroupName) {
+            @RequestParam(required = false) String subGroupName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-        	
-            List<LeadWrapper> leads = leadsService.getAllLeads(userId, userRole, groupName, subGroupName);
+            Page<LeadWrapper> leads = leadsService.getAllLeads(userId, userRole, groupName, subGroupName, page, size);
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", leads);
-            response.put("count", leads.size());
+            Map<String, Object> response = pageResponse(leads);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -113,16 +112,15 @@ public class LeadsController {
             @RequestHeader("User-Id") Long userId,
             @RequestHeader("User-Role") String userRole,
             @RequestParam(required = false) String groupName,
-            @RequestParam(required = false) String subGroupName) {
+            @RequestParam(required = false) String subGroupName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         try {
 //            log.info("Fetching leads by group: {}, subGroup: {}", groupName, subGroupName);
             
-            List<LeadWrapper> leads = leadsService.getAllLeads(userId, userRole, groupName, subGroupName);
+            Page<LeadWrapper> leads = leadsService.getAllLeads(userId, userRole, groupName, subGroupName, page, size);
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", leads);
-            response.put("count", leads.size());
+            Map<String, Object> response = pageResponse(leads);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -229,14 +227,13 @@ public class LeadsController {
     public ResponseEntity<Map<String, Object>> getLeadsByGroup(
             @PathVariable String groupName,
             @RequestHeader("User-Id") Long userId,
-            @RequestHeader("User-Role") String userRole) {
+            @RequestHeader("User-Role") String userRole,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            List<LeadWrapper> leads = leadsService.getLeadsByGroup(groupName, userId, userRole);
+            Page<LeadWrapper> leads = leadsService.getLeadsByGroup(groupName, userId, userRole, page, size);
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", leads);
-            response.put("count", leads.size());
+            Map<String, Object> response = pageResponse(leads);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -254,14 +251,13 @@ public class LeadsController {
     public ResponseEntity<Map<String, Object>> getLeadsByStatus(
             @PathVariable String status,
             @RequestHeader("User-Id") Long userId,
-            @RequestHeader("User-Role") String userRole) {
+            @RequestHeader("User-Role") String userRole,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            List<LeadWrapper> leads = leadsService.getLeadsByStatus(status, userId, userRole);
+            Page<LeadWrapper> leads = leadsService.getLeadsByStatus(status, userId, userRole, page, size);
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", leads);
-            response.put("count", leads.size());
+            Map<String, Object> response = pageResponse(leads);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -279,14 +275,13 @@ public class LeadsController {
     public ResponseEntity<Map<String, Object>> getLeadsAssignedTo(
             @PathVariable Long assignedUserId,
             @RequestHeader("User-Id") Long userId,
-            @RequestHeader("User-Role") String userRole) {
+            @RequestHeader("User-Role") String userRole,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            List<LeadWrapper> leads = leadsService.getLeadsAssignedTo(assignedUserId, userId, userRole);
+            Page<LeadWrapper> leads = leadsService.getLeadsAssignedTo(assignedUserId, userId, userRole, page, size);
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", leads);
-            response.put("count", leads.size());
+            Map<String, Object> response = pageResponse(leads);
             
             return ResponseEntity.ok(response);
         } catch (CustomException e) {
@@ -309,14 +304,13 @@ public class LeadsController {
     public ResponseEntity<Map<String, Object>> getLeadsCreatedBy(
             @PathVariable Long createdByUserId,
             @RequestHeader("User-Id") Long userId,
-            @RequestHeader("User-Role") String userRole) {
+            @RequestHeader("User-Role") String userRole,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         try {
-            List<LeadWrapper> leads = leadsService.getLeadsCreatedBy(createdByUserId, userId, userRole);
+            Page<LeadWrapper> leads = leadsService.getLeadsCreatedBy(createdByUserId, userId, userRole, page, size);
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", leads);
-            response.put("count", leads.size());
+            Map<String, Object> response = pageResponse(leads);
             
             return ResponseEntity.ok(response);
         } catch (CustomException e) {
@@ -331,4 +325,19 @@ public class LeadsController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Page content stays under "data" so list consumers keep working; paging details sit beside it
+     */
+    private Map<String, Object> pageResponse(Page<LeadWrapper> leads) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", leads.getContent());
+        response.put("count", leads.getNumberOfElements());
+        response.put("currentPage", leads.getNumber());
+        response.put("pageSize", leads.getSize());
+        response.put("totalElements", leads.getTotalElements());
+        response.put("totalPages", leads.getTotalPages());
+        return response;
+    }
+}
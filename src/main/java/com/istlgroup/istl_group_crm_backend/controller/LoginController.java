@@ -9,7 +9,9 @@ import org.springframework.web.bind.annotation.*;
 
 import com.istlgroup.istl_group_crm_backend.customException.CustomException;
 import com.istlgroup.istl_group_crm_backend.entity.LoginEntity;
+import com.istlgroup.istl_group_crm_backend.service.AuthTokenService;
 import com.istlgroup.istl_group_crm_backend.service.LoginService;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.AuthTokenClaims;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.LoginResponseWrapper;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.UsersResponseWrapper;
 
@@ -23,6 +25,9 @@ public class LoginController {
     @Autowired
     private LoginService logingService;
 
+    @Autowired
+    private AuthTokenService authTokenService;
+
     // ✅ LOGIN
     @PostMapping("/userLogin")
     public ResponseEntity<LoginResponseWrapper> login(
@@ -34,14 +39,23 @@ public class LoginController {
 
     // ✅ LOGOUT
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpSession session) {
-        session.invalidate();
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
+        // Token mode: revoke the presented token
+        AuthTokenClaims claims = authTokenService.verify(authTokenService.resolve(request));
+        if (claims != null) {
+            authTokenService.revoke(claims);
+        }
         return ResponseEntity.ok("Logged out");
     }
     
     @GetMapping("/ping")
-    public ResponseEntity<String> keepAlive(HttpSession session) {
-        // Just touching session is enough
+    public ResponseEntity<String> keepAlive(HttpServletRequest request) {
+        // Just touching session is enough (token mode: SessionFilter renews the token when due)
+        request.getSession(false);
         return ResponseEntity.ok("ALIVE");
     }
 
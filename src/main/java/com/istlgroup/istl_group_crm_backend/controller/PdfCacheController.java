@@ -0,0 +1,47 @@
+package com.istlgroup.istl_group_crm_backend.controller;
+
+import com.istlgroup.istl_group_crm_backend.service.PdfCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/pdf-cache")
+@RequiredArgsConstructor
+public class PdfCacheController {
+
+    private final PdfCacheService pdfCacheService;
+
+    /**
+     * GET /api/pdf-cache/stats
+     * Hit/miss counters and memory usage of the generated-PDF cache
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        return ResponseEntity.ok(pdfCacheService.getStats());
+    }
+
+    /**
+     * DELETE /api/pdf-cache
+     * Drop all cached PDFs (memory and disk) - Admin/SuperAdmin only
+     */
+    @DeleteMapping
+    public ResponseEntity<?> clear(@RequestHeader("User-Role") String userRole) {
+        if (!"SUPERADMIN".equalsIgnoreCase(userRole) && !"ADMIN".equalsIgnoreCase(userRole)) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Access denied");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+
+        pdfCacheService.clear();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "PDF cache cleared");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,15 +1,28 @@
 package com.istlgroup.istl_group_crm_backend.controller;
 
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.ProjectDashboardDTO;
-import com.istlgroup.istl_group_crm_backend.service.ProjectDashboardService;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.ProjectDashboardDTO.TimelineMilestoneDTO;
+import com.istlgroup.istl_group_crm_backend.service.ProjectDashboardCacheService;
+import com.istlgroup.istl_group_crm_backend.service.ProjectDashboardCacheService.Part;
+import com.istlgroup.istl_group_crm_backend.service.ProjectTimelineService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
 
 /**
  * REST Controller for Project Dashboard
  * Endpoint: /api/projects/{projectId}/dashboard
+ *
+ * Responses carry a strong ETag; a request with a matching If-None-Match
+ * gets 304 from the in-memory dashboard cache.
  */
 @Slf4j
 @RestController
@@ -17,7 +30,8 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class ProjectDashboardController {
     
-    private final ProjectDashboardService dashboardService;
+    private final ProjectDashboardCacheService dashboardCache;
+    private final ProjectTimelineService timelineService;
     
     /**
      * Get complete dashboard data for a project
@@ -27,14 +41,14 @@ public class ProjectDashboardController {
      */
     @GetMapping("/{projectId}/dashboard")
     public ResponseEntity<ProjectDashboardDTO> getProjectDashboard(
-            @PathVariable String projectId) {
+            @PathVariable String projectId, WebRequest request) {
         
         log.info("GET /api/projects/{}/dashboard - Fetching project dashboard", projectId);
         
         try {
-            ProjectDashboardDTO dashboard = dashboardService.getDashboardData(projectId);
+            ProjectDashboardCacheService.Snapshot snapshot = dashboardCache.get(projectId);
             log.info("Successfully retrieved dashboard for project: {}", projectId);
-            return ResponseEntity.ok(dashboard);
+            return conditional(request, snapshot, Part.DASHBOARD, snapshot.getDashboard());
             
         } catch (RuntimeException e) {
             log.error("Error fetching dashboard for project {}: {}", projectId, e.getMessage());
@@ -53,13 +67,13 @@ public class ProjectDashboardController {
      */
     @GetMapping("/{projectId}/dashboard/financial")
     public ResponseEntity<ProjectDashboardDTO.FinancialData> getProjectFinancialData(
-            @PathVariable String projectId) {
+            @PathVariable String projectId, WebRequest request) {
         
         log.info("GET /api/projects/{}/dashboard/financial", projectId);
         
         try {
-            ProjectDashboardDTO dashboard = dashboardService.getDashboardData(projectId);
-            return ResponseEntity.ok(dashboard.getFinancialData());
+            ProjectDashboardCacheService.Snapshot snapshot = dashboardCache.get(projectId);
+            return conditional(request, snapshot, Part.FINANCIAL, snapshot.getDashboard().getFinancialData());
         } catch (RuntimeException e) {
             log.error("Error fetching financial data for project {}: {}", projectId, e.getMessage());
             return ResponseEntity.notFound().build();
@@ -74,16 +88,58 @@ public class ProjectDashboardController {
      */
     @GetMapping("/{projectId}/dashboard/procurement")
     public ResponseEntity<ProjectDashboardDTO.ProcurementData> getProjectProcurementData(
-            @PathVariable String projectId) {
+            @PathVariable String projectId, WebRequest request) {
         
         log.info("GET /api/projects/{}/dashboard/procurement", projectId);
         
         try {
-            ProjectDashboardDTO dashboard = dashboardService.getDashboardData(projectId);
-            return ResponseEntity.ok(dashboard.getProcurementData());
+            ProjectDashboardCacheService.Snapshot snapshot = dashboardCache.get(projectId);
+            return conditional(request, snapshot, Part.PROCUREMENT, snapshot.getDashboard().getProcurementData());
         } catch (RuntimeException e) {
             log.error("Error fetching procurement data for project {}: {}", projectId, e.getMessage());
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Get one page of the project timeline, oldest first
+     * 
+     * @param projectId The project unique ID
+     * @param from First date to include (optional)
+     * @param to Last date to include (optional)
+     * @param cursor nextCursor of the previous page; omit for the first page
+     * @return Timeline entries with the cursor of the next page
+     */
+    @GetMapping("/{projectId}/timeline")
+    public ResponseEntity<KeysetPage<TimelineMilestoneDTO>> getProjectTimeline(
+            @PathVariable String projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        
+        log.info("GET /api/projects/{}/timeline", projectId);
+        
+        try {
+            return ResponseEntity.ok(timelineService.getTimeline(projectId, from, to, cursor, size));
+        } catch (RuntimeException e) {
+            log.error("Error fetching timeline for project {}: {}", projectId, e.getMessage());
+            if (e.getMessage() != null && e.getMessage().startsWith("Project not found")) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * 304 when the client already holds this version of the part, otherwise the body with its ETag
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest request, ProjectDashboardCacheService.Snapshot snapshot,
+                                              Part part, T body) {
+        String etag = snapshot.etag(part);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body);
+    }
+}
@@ -1,6 +1,7 @@
 package com.istlgroup.istl_group_crm_backend.controller;
 
 import com.istlgroup.istl_group_crm_backend.customException.CustomException;
+import com.istlgroup.istl_group_crm_backend.entity.ProposalsEntity;
 import com.istlgroup.istl_group_crm_backend.service.ProposalsService;
 import com.istlgroup.istl_group_crm_backend.service.LeadHistoryService;
 import com.istlgroup.istl_group_crm_backend.service.ProposalsPDFService;
@@ -13,6 +14,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
 import java.util.List;
 
 
@@ -217,22 +221,29 @@ public ResponseEntity<Map<String, Object>> createProposal(
      * Download proposal as PDF
      */
     @GetMapping("/download-pdf/{id}")
-    public ResponseEntity<byte[]> downloadProposalPDF(
+    public ResponseEntity<StreamingResponseBody> downloadProposalPDF(
             @PathVariable Long id,
             @RequestHeader("User-Id") Long userId,
             @RequestHeader("User-Role") String userRole) {
         
         try {
-            byte[] pdfBytes = proposalsPDFService.generateProposalPDF(id, userId, userRole);
+            // Access checks run before streaming so failures still return 400
+            ProposalsEntity proposal = proposalsPDFService.loadForDownload(id, userId, userRole);
             
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
             headers.setContentDispositionFormData("attachment", "proposal-" + id + ".pdf");
-            headers.setContentLength(pdfBytes.length);
             
+            StreamingResponseBody body = out -> {
+                try {
+                    proposalsPDFService.writeProposalPDF(proposal, out);
+                } catch (CustomException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            };
             return ResponseEntity.ok()
                 .headers(headers)
-                .body(pdfBytes);
+                .body(body);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -3,7 +3,9 @@ package com.istlgroup.istl_group_crm_backend.controller;
 import com.istlgroup.istl_group_crm_backend.entity.PurchaseOrderEntity;
 import com.istlgroup.istl_group_crm_backend.entity.PurchaseOrderItemEntity;
 import com.istlgroup.istl_group_crm_backend.repo.PurchaseOrderItemRepository;
+import com.istlgroup.istl_group_crm_backend.service.KeysetCursor;
 import com.istlgroup.istl_group_crm_backend.service.PurchaseOrderService;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.PurchaseOrderDropdownWrapper;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -50,10 +52,34 @@ public class PurchaseOrderController {
         @RequestParam(defaultValue = "10") int size,
         @RequestParam(defaultValue = "orderDate") String sortBy,
         @RequestParam(defaultValue = "DESC") String sortDirection,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "true") boolean includeTotal,
         @RequestHeader(value = "X-User-Id", required = false) Long userId,
         @RequestHeader(value = "X-User-Role", required = false) String userRole
 ) {
     try {
+        // Cursor mode: pass cursor (empty for the first page), then the returned nextCursor
+        if (cursor != null) {
+            if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+                throw new RuntimeException("Search is not supported with cursor paging");
+            }
+            KeysetCursor.requireDefaultSort("orderDate", sortBy, sortDirection);
+            KeysetPage<PurchaseOrderEntity> pos = purchaseOrderService.getPurchaseOrdersKeyset(
+                groupName, subGroupName, projectId, status, paymentStatus,
+                userId, userRole, cursor, size, includeTotal
+            );
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("purchaseOrders", pos.getContent());
+            response.put("nextCursor", pos.getNextCursor());
+            response.put("hasNext", pos.isHasNext());
+            response.put("pageSize", pos.getSize());
+            if (pos.getTotalElements() != null) {
+                response.put("totalElements", pos.getTotalElements());
+            }
+            return ResponseEntity.ok(response);
+        }
+
         Page<PurchaseOrderEntity> pos = purchaseOrderService.getPurchaseOrders(
             groupName,
             subGroupName,
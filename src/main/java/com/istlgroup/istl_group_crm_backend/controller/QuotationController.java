@@ -4,12 +4,16 @@ import com.istlgroup.istl_group_crm_backend.wrapperClasses.QuotationDTO;
 import com.istlgroup.istl_group_crm_backend.entity.QuotationEntity;
 import com.istlgroup.istl_group_crm_backend.repo.QuotationRepository;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.QuotationMapper;
+import com.istlgroup.istl_group_crm_backend.service.QuotationFileStorageService;
+import com.istlgroup.istl_group_crm_backend.service.KeysetCursor;
 import com.istlgroup.istl_group_crm_backend.service.QuotationService;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -18,6 +22,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -33,6 +39,7 @@ public class QuotationController {
     
     private final QuotationService quotationService;
     private final QuotationRepository quotationRepository;
+    private final QuotationFileStorageService fileStorageService;
     /**
      * GET /api/quotations/procurement
      * Get all procurement quotations with filters
@@ -48,12 +55,38 @@ public class QuotationController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "uploadedAt") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
             HttpServletRequest request
     ) {
         try {
             Long userId = getUserIdFromRequest(request);
             String userRole = getUserRoleFromRequest(request);
             
+            // Cursor mode: pass cursor (empty for the first page), then the returned nextCursor
+            if (cursor != null) {
+                if (searchTerm != null && !searchTerm.trim().isEmpty()) {
+                    throw new RuntimeException("Search is not supported with cursor paging");
+                }
+                KeysetCursor.requireDefaultSort("uploadedAt", sortBy, sortDirection);
+                KeysetPage<QuotationEntity> quotations = quotationService.getQuotationsKeyset(
+                        groupName, subGroupName, projectId, status,
+                        userId, userRole, cursor, size, includeTotal
+                );
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("quotations", quotations.getContent().stream()
+                        .map(QuotationMapper::toDTO)
+                        .collect(Collectors.toList()));
+                response.put("nextCursor", quotations.getNextCursor());
+                response.put("hasNext", quotations.isHasNext());
+                response.put("pageSize", quotations.getSize());
+                if (quotations.getTotalElements() != null) {
+                    response.put("totalElements", quotations.getTotalElements());
+                }
+                return ResponseEntity.ok(response);
+            }
+            
             Page<QuotationEntity> quotations = quotationService.getQuotations(
                     groupName, subGroupName, projectId, status, searchTerm,
                     userId, userRole, page, size, sortBy, sortDirection
@@ -136,16 +169,11 @@ public class QuotationController {
                     return ResponseEntity.badRequest()
                             .body(createErrorResponse("Only PDF and image files are allowed"));
                 }
-                
-                // Attach file to quotation
-                quotation.setQuotationFile(file.getBytes());
-                quotation.setFileName(file.getOriginalFilename());
-                quotation.setFileType(contentType);
-                quotation.setFileSize(file.getSize());
             }
             
-            // Create quotation
-            QuotationEntity created = quotationService.createQuotation(quotation, userId);
+            // Create the quotation and stream the upload into the file store
+            // (never buffered in memory) in one transaction
+            QuotationEntity created = quotationService.createQuotationWithFile(quotation, userId, file);
             
             // Convert to DTO to avoid circular reference
             QuotationDTO dto = QuotationMapper.toDTO(created);
@@ -168,20 +196,23 @@ public class QuotationController {
     public ResponseEntity<?> downloadFile(@PathVariable Long id) {
         try {
             QuotationEntity quotation = quotationService.getQuotationById(id);
+            Path filePath = fileStorageService.open(id);
             
-            if (quotation.getQuotationFile() == null || quotation.getQuotationFile().length == 0) {
+            if (filePath == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(createErrorResponse("No file attached to this quotation"));
             }
             
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(quotation.getFileType()));
+            headers.setContentType(MediaType.parseMediaType(
+                    quotation.getFileType() != null ? quotation.getFileType() : "application/octet-stream"));
             headers.setContentDispositionFormData("attachment", quotation.getFileName());
-            headers.setContentLength(quotation.getFileSize());
+            headers.setContentLength(Files.size(filePath));
             
+            // Streamed from disk by the resource message converter
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(quotation.getQuotationFile());
+                    .body(new FileSystemResource(filePath));
                     
         } catch (Exception e) {
             log.error("Error downloading file for quotation: {}", id, e);
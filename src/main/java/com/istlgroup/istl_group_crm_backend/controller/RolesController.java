@@ -3,15 +3,20 @@ package com.istlgroup.istl_group_crm_backend.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.istlgroup.istl_group_crm_backend.customException.CustomException;
 import com.istlgroup.istl_group_crm_backend.entity.RolesEntity;
+import com.istlgroup.istl_group_crm_backend.service.ReferenceDataCacheService;
 import com.istlgroup.istl_group_crm_backend.service.RolesService;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.GetRolesWrapper;
 
@@ -23,9 +28,16 @@ public class RolesController {
 	@Autowired
 	private RolesService rolesService;
 	
+	@Autowired
+	private ReferenceDataCacheService referenceData;
+	
 	@GetMapping("/getAllRoles")
-	public List<GetRolesWrapper> GetAllRoles() {
-		return rolesService.GetAllRoles();
+	public ResponseEntity<List<GetRolesWrapper>> GetAllRoles(WebRequest request) {
+		ReferenceDataCacheService.Snapshot snapshot = referenceData.snapshot();
+		if (request.checkNotModified(snapshot.getEtag())) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+		}
+		return ResponseEntity.ok().eTag(snapshot.getEtag()).cacheControl(CacheControl.noCache()).body(snapshot.getRoles());
 	}
 	
 	@PostMapping("/addNewRole")
@@ -1,7 +1,12 @@
 package com.istlgroup.istl_group_crm_backend.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 
+import com.istlgroup.istl_group_crm_backend.service.AuthTokenService;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.AuthTokenClaims;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -9,8 +14,21 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class SessionController {
 
+    @Autowired
+    private AuthTokenService authTokenService;
+
     @GetMapping("/session/check")
-    public ResponseEntity<?> checkSession(HttpSession session) {
+    public ResponseEntity<?> checkSession(HttpServletRequest request) {
+
+        // Token mode: a valid token is an active session
+        if (authTokenService.isTokenMode()) {
+            AuthTokenClaims claims = authTokenService.verify(authTokenService.resolve(request));
+            return claims != null
+                    ? ResponseEntity.ok().body("SESSION_ACTIVE")
+                    : ResponseEntity.status(401).body("SESSION_EXPIRED");
+        }
+
+        HttpSession session = request.getSession(false);
 
         // If session exists, backend considers user logged in
         if (session != null && session.getAttribute("USER_ID") != null) {
@@ -1,6 +1,7 @@
 package com.istlgroup.istl_group_crm_backend.controller;
 
 import com.istlgroup.istl_group_crm_backend.entity.VendorEntity;
+import com.istlgroup.istl_group_crm_backend.service.VendorRankingService;
 import com.istlgroup.istl_group_crm_backend.service.VendorService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +23,7 @@ import java.util.Map;
 public class VendorController {
     
     private final VendorService vendorService;
+    private final VendorRankingService vendorRankingService;
     
     /**
      * GET /api/vendors
@@ -100,6 +102,31 @@ public class VendorController {
                     .body(Map.of("error", e.getMessage()));
         }
     }
+    /**
+     * GET /api/vendors/leaderboard
+     * Top vendors by purchase order value with order counts, delivered value and rating.
+     * Scoped by project, sub-group or group; company-wide when no filter is given.
+     * Non-admin users only see their own vendors, as in GET /api/vendors
+     */
+    @GetMapping("/leaderboard")
+    public ResponseEntity<?> getVendorLeaderboard(
+            @RequestParam(required = false) String groupName,
+            @RequestParam(required = false) String subGroupName,
+            @RequestParam(required = false) String projectId,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestHeader("x-user-id") Long userId,
+            @RequestHeader("x-user-role") String userRole
+    ) {
+        try {
+            return ResponseEntity.ok(vendorRankingService.getTopVendors(
+                    groupName, subGroupName, projectId, userId, userRole, limit));
+        } catch (Exception e) {
+            log.error("Error fetching vendor leaderboard", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
     /**
      * GET /api/vendors/by-group-subgroup?groupName=X&subGroupName=Y
      * Get vendors filtered by group and subgroup
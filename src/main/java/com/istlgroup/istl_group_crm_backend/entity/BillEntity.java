@@ -1,8 +1,11 @@
 package com.istlgroup.istl_group_crm_backend.entity;
 
+import com.istlgroup.istl_group_crm_backend.event.ProjectDataChangeListener;
+import com.istlgroup.istl_group_crm_backend.event.ProjectStatsChangeListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Formula;
 
 import java.math.BigDecimal;
@@ -12,6 +15,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners({ProjectDataChangeListener.class, ProjectStatsChangeListener.class})
 @Table(name = "bills")
 @Data
 @NoArgsConstructor
@@ -92,10 +96,13 @@ public class BillEntity {
     private Long billFileSize;
     
     // Relationships - ALWAYS INITIALIZED
+    // Batch-fetched so a page of bills loads items/payments with a few IN queries
     @OneToMany(mappedBy = "bill", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<BillItemEntity> items = new ArrayList<>();
     
     @OneToMany(mappedBy = "bill", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<BillPaymentEntity> payments = new ArrayList<>();
     
     @Transient
@@ -1,5 +1,6 @@
 package com.istlgroup.istl_group_crm_backend.entity;
 
+import com.istlgroup.istl_group_crm_backend.event.BomItemChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(BomItemChangeListener.class)
 public class BomItemsMasterEntity {
 
     @Id
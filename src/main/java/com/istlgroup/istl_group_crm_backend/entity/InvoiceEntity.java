@@ -2,6 +2,8 @@
 package com.istlgroup.istl_group_crm_backend.entity;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.istlgroup.istl_group_crm_backend.event.ProjectDataChangeListener;
+import com.istlgroup.istl_group_crm_backend.event.ProjectStatsChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
@@ -11,6 +13,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners({ProjectDataChangeListener.class, ProjectStatsChangeListener.class})
 @Table(name = "invoices", indexes = {
     @Index(name = "idx_invoice_no", columnList = "invoice_no"),
     @Index(name = "idx_customer_id", columnList = "customer_id"),
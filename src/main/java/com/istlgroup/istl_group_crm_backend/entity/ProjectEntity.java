@@ -1,5 +1,6 @@
 package com.istlgroup.istl_group_crm_backend.entity;
 
+import com.istlgroup.istl_group_crm_backend.event.ProjectDataChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
  * Maps to the 'projects' table with all dashboard tracking columns
  */
 @Entity
+@EntityListeners(ProjectDataChangeListener.class)
 @Table(name = "projects")
 @Data
 @NoArgsConstructor
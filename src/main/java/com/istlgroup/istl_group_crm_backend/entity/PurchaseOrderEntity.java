@@ -1,6 +1,8 @@
 package com.istlgroup.istl_group_crm_backend.entity;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.istlgroup.istl_group_crm_backend.event.ProjectDataChangeListener;
+import com.istlgroup.istl_group_crm_backend.event.ProjectStatsChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
@@ -13,6 +15,7 @@ import java.util.List;
  * Purchase Order Entity - Matches existing purchase_orders table
  */
 @Entity
+@EntityListeners({ProjectDataChangeListener.class, ProjectStatsChangeListener.class})
 @Table(name = "purchase_orders", indexes = {
     @Index(name = "idx_po_no", columnList = "po_no"),
     @Index(name = "idx_vendor_id", columnList = "vendor_id"),
@@ -1,5 +1,7 @@
 package com.istlgroup.istl_group_crm_backend.entity;
 
+import com.istlgroup.istl_group_crm_backend.event.ProjectDataChangeListener;
+import com.istlgroup.istl_group_crm_backend.event.ProjectStatsChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
@@ -13,6 +15,7 @@ import java.util.List;
  * Supports both existing vendors (vendor_id) and new vendors (vendor_name, vendor_contact)
  */
 @Entity
+@EntityListeners({ProjectDataChangeListener.class, ProjectStatsChangeListener.class})
 @Table(name = "quotations", indexes = {
     @Index(name = "idx_quote_no", columnList = "quote_no"),
     @Index(name = "idx_vendor_id", columnList = "vendor_id"),
@@ -110,9 +113,8 @@ public class QuotationEntity {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
-    @Lob
-    @Column(name = "quotation_file", columnDefinition = "LONGBLOB")
-    private byte[] quotationFile;
+    // Attachment bytes live in QuotationFileStorageService (keyed by id);
+    // the legacy quotation_file column is no longer mapped so reads never load it
 
     @Column(name = "file_name", length = 255)
     private String fileName;
@@ -154,7 +156,7 @@ public class QuotationEntity {
     // Helper methods
     @Transient
     public boolean hasFile() {
-        return quotationFile != null && quotationFile.length > 0;
+        return fileSize != null && fileSize > 0;
     }
     
     /**
@@ -1,5 +1,7 @@
 package com.istlgroup.istl_group_crm_backend.entity;
 
+import com.istlgroup.istl_group_crm_backend.event.ProjectDataChangeListener;
+import com.istlgroup.istl_group_crm_backend.event.ProjectStatsChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
@@ -10,6 +12,7 @@ import java.time.LocalDateTime;
  * Linked to Purchase Orders and Quotations
  */
 @Entity
+@EntityListeners({ProjectDataChangeListener.class, ProjectStatsChangeListener.class})
 @Table(name = "vendors", indexes = {
     @Index(name = "idx_vendor_code", columnList = "vendor_code"),
     @Index(name = "idx_name", columnList = "name"),
@@ -0,0 +1,42 @@
+package com.istlgroup.istl_group_crm_backend.event;
+
+import com.istlgroup.istl_group_crm_backend.entity.BomItemsMasterEntity;
+import com.istlgroup.istl_group_crm_backend.service.BomTypeaheadService;
+import com.istlgroup.istl_group_crm_backend.service.ReferenceDataCacheService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on BOM master items: every flushed change is applied to the
+ * typeahead index and refreshes the cached BOM categories, whichever service
+ * made it.
+ */
+@Component
+public class BomItemChangeListener {
+
+    private final BomTypeaheadService bomTypeaheadService;
+    private final ReferenceDataCacheService referenceData;
+
+    // Lazy: the reference data cache needs repositories, which need the entity manager this listener is part of
+    public BomItemChangeListener(BomTypeaheadService bomTypeaheadService,
+                                 @Lazy ReferenceDataCacheService referenceData) {
+        this.bomTypeaheadService = bomTypeaheadService;
+        this.referenceData = referenceData;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(BomItemsMasterEntity item) {
+        bomTypeaheadService.itemChanged(item, false);
+        referenceData.invalidate();
+    }
+
+    @PostRemove
+    public void onRemove(BomItemsMasterEntity item) {
+        bomTypeaheadService.itemChanged(item, true);
+        referenceData.invalidate();
+    }
+}
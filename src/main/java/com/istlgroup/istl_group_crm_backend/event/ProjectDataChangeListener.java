@@ -0,0 +1,59 @@
+package com.istlgroup.istl_group_crm_backend.event;
+
+import com.istlgroup.istl_group_crm_backend.entity.BillEntity;
+import com.istlgroup.istl_group_crm_backend.entity.InvoiceEntity;
+import com.istlgroup.istl_group_crm_backend.entity.ProjectEntity;
+import com.istlgroup.istl_group_crm_backend.entity.PurchaseOrderEntity;
+import com.istlgroup.istl_group_crm_backend.entity.QuotationEntity;
+import com.istlgroup.istl_group_crm_backend.entity.VendorEntity;
+import com.istlgroup.istl_group_crm_backend.service.ProjectDataVersionService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on the entities the project dashboard is built from. Every
+ * flushed insert, update or delete bumps the project's data version, so
+ * cached dashboards are dropped whichever service made the change.
+ *
+ * Payments are covered through their bill or invoice, which is updated in
+ * the same transaction. Writes that bypass JPA (JDBC batches on projects)
+ * bump the version themselves.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectDataChangeListener {
+
+    private final ProjectDataVersionService projectDataVersionService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        projectDataVersionService.changed(projectIdOf(entity));
+    }
+
+    private static String projectIdOf(Object entity) {
+        if (entity instanceof PurchaseOrderEntity po) {
+            return po.getProjectId();
+        }
+        if (entity instanceof QuotationEntity quotation) {
+            return quotation.getProjectId();
+        }
+        if (entity instanceof BillEntity bill) {
+            return bill.getProjectId();
+        }
+        if (entity instanceof InvoiceEntity invoice) {
+            return invoice.getProjectId();
+        }
+        if (entity instanceof VendorEntity vendor) {
+            return vendor.getProjectId();
+        }
+        if (entity instanceof ProjectEntity project) {
+            return project.getProjectUniqueId();
+        }
+        return null;
+    }
+}
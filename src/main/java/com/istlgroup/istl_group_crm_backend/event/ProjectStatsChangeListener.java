@@ -0,0 +1,176 @@
+package com.istlgroup.istl_group_crm_backend.event;
+
+import com.istlgroup.istl_group_crm_backend.entity.BillEntity;
+import com.istlgroup.istl_group_crm_backend.entity.InvoiceEntity;
+import com.istlgroup.istl_group_crm_backend.entity.PurchaseOrderEntity;
+import com.istlgroup.istl_group_crm_backend.entity.QuotationEntity;
+import com.istlgroup.istl_group_crm_backend.entity.VendorEntity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * JPA listener on the POs, quotations, bills, invoices and vendors that feed the
+ * stats columns of the projects table. Publishes a {@link ProjectStatsEvent} with
+ * the row's old and new contribution for every flushed insert, update or delete,
+ * so status changes, payments and value edits made by any service reach the
+ * project stats as increments.
+ *
+ * The old contribution of an updated row is taken from a snapshot recorded when
+ * the row was loaded in the same read-write transaction. Rows without one (loaded
+ * in an earlier transaction and still attached) are published as RESYNC.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectStatsChangeListener {
+
+    private static final Object SNAPSHOTS_KEY = new Object();
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        Map<Object, Snapshot> snapshots = snapshots();
+        if (snapshots != null) {
+            snapshots.put(entity, Snapshot.of(entity));
+        }
+    }
+
+    @PostPersist
+    public void onCreate(Object entity) {
+        Snapshot after = Snapshot.of(entity);
+        publish(after.projectId, ProjectStatsEvent.Type.CREATED, entity, new ProjectStatsDelta(), after.contribution);
+        remember(entity, after);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        Snapshot after = Snapshot.of(entity);
+        Map<Object, Snapshot> snapshots = snapshots();
+        Snapshot before = snapshots != null ? snapshots.get(entity) : null;
+
+        if (before == null) {
+            publish(after.projectId, ProjectStatsEvent.Type.RESYNC, entity, null, null);
+        } else if (Objects.equals(before.projectId, after.projectId)) {
+            publish(after.projectId, ProjectStatsEvent.Type.UPDATED, entity, before.contribution, after.contribution);
+        } else {
+            // Moved to another project: take it off the old one, add it to the new one
+            publish(before.projectId, ProjectStatsEvent.Type.UPDATED, entity, before.contribution, new ProjectStatsDelta());
+            publish(after.projectId, ProjectStatsEvent.Type.UPDATED, entity, new ProjectStatsDelta(), after.contribution);
+        }
+        remember(entity, after);
+    }
+
+    @PostRemove
+    public void onDelete(Object entity) {
+        Map<Object, Snapshot> snapshots = snapshots();
+        Snapshot before = snapshots != null ? snapshots.remove(entity) : null;
+        if (before == null) {
+            before = Snapshot.of(entity);
+        }
+        publish(before.projectId, ProjectStatsEvent.Type.DELETED, entity, before.contribution, new ProjectStatsDelta());
+    }
+
+    private void publish(String projectId, ProjectStatsEvent.Type type, Object entity,
+                         ProjectStatsDelta before, ProjectStatsDelta after) {
+        if (projectId == null) {
+            return;
+        }
+        eventPublisher.publishEvent(new ProjectStatsEvent(
+            projectId, type, entity.getClass().getSimpleName(), idOf(entity), before, after));
+    }
+
+    private void remember(Object entity, Snapshot snapshot) {
+        Map<Object, Snapshot> snapshots = snapshots();
+        if (snapshots != null) {
+            snapshots.put(entity, snapshot);
+        }
+    }
+
+    /**
+     * Snapshots of the current read-write transaction, bound on first use and
+     * released when it completes; null outside such a transaction
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Snapshot> snapshots() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        Map<Object, Snapshot> snapshots =
+            (Map<Object, Snapshot>) TransactionSynchronizationManager.getResource(SNAPSHOTS_KEY);
+        if (snapshots == null) {
+            snapshots = new IdentityHashMap<>();
+            TransactionSynchronizationManager.bindResource(SNAPSHOTS_KEY, snapshots);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SNAPSHOTS_KEY);
+                }
+            });
+        }
+        return snapshots;
+    }
+
+    private static Long idOf(Object entity) {
+        if (entity instanceof PurchaseOrderEntity po) {
+            return po.getId();
+        }
+        if (entity instanceof QuotationEntity quotation) {
+            return quotation.getId();
+        }
+        if (entity instanceof BillEntity bill) {
+            return bill.getId();
+        }
+        if (entity instanceof InvoiceEntity invoice) {
+            return invoice.getId();
+        }
+        if (entity instanceof VendorEntity vendor) {
+            return vendor.getId();
+        }
+        return null;
+    }
+
+    private static String projectIdOf(Object entity) {
+        if (entity instanceof PurchaseOrderEntity po) {
+            return po.getProjectId();
+        }
+        if (entity instanceof QuotationEntity quotation) {
+            return quotation.getProjectId();
+        }
+        if (entity instanceof BillEntity bill) {
+            return bill.getProjectId();
+        }
+        if (entity instanceof InvoiceEntity invoice) {
+            return invoice.getProjectId();
+        }
+        if (entity instanceof VendorEntity vendor) {
+            return vendor.getProjectId();
+        }
+        return null;
+    }
+
+    private static final class Snapshot {
+        private final String projectId;
+        private final ProjectStatsDelta contribution;
+
+        private Snapshot(String projectId, ProjectStatsDelta contribution) {
+            this.projectId = projectId;
+            this.contribution = contribution;
+        }
+
+        static Snapshot of(Object entity) {
+            return new Snapshot(projectIdOf(entity), ProjectStatsDelta.contributionOf(entity));
+        }
+    }
+}
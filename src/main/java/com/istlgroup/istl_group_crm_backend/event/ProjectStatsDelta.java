@@ -0,0 +1,221 @@
+package com.istlgroup.istl_group_crm_backend.event;
+
+import com.istlgroup.istl_group_crm_backend.entity.BillEntity;
+import com.istlgroup.istl_group_crm_backend.entity.InvoiceEntity;
+import com.istlgroup.istl_group_crm_backend.entity.PurchaseOrderEntity;
+import com.istlgroup.istl_group_crm_backend.entity.QuotationEntity;
+import com.istlgroup.istl_group_crm_backend.entity.VendorEntity;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Values of the stats columns on the projects table, used both for what one
+ * PO, quotation, bill, invoice or vendor row contributes to its project and
+ * for the difference between two such contributions.
+ *
+ * The contribution rules mirror the aggregateStatsByProjectId queries of the
+ * repositories, so summing the contributions of all rows of a project gives
+ * the same figures as the full recalculation.
+ */
+@Data
+@NoArgsConstructor
+public class ProjectStatsDelta {
+
+    private static final Set<String> PENDING_PO_STATUSES = Set.of("Approved", "Ordered", "In-Transit");
+    private static final Set<String> PENDING_INVOICE_STATUSES = Set.of("Sent", "Partially Paid");
+
+    // Purchase Orders
+    private int totalPoCount;
+    private BigDecimal totalPoValue = BigDecimal.ZERO;
+    private int deliveredPoCount;
+    private BigDecimal deliveredPoValue = BigDecimal.ZERO;
+    private BigDecimal pendingPoValue = BigDecimal.ZERO;
+    private BigDecimal cancelledPoValue = BigDecimal.ZERO;
+
+    // Quotations
+    private int totalQuotationCount;
+    private BigDecimal totalQuotationValue = BigDecimal.ZERO;
+    private int approvedQuotationCount;
+    private BigDecimal approvedQuotationValue = BigDecimal.ZERO;
+
+    // Bills (vendor payments)
+    private int totalBillCount;
+    private BigDecimal totalBillValue = BigDecimal.ZERO;
+    private int paidBillCount;
+    private BigDecimal paidBillValue = BigDecimal.ZERO;
+    private BigDecimal pendingPaymentValue = BigDecimal.ZERO;
+
+    // Invoices (client billing)
+    private int totalInvoiceCount;
+    private BigDecimal totalInvoiceValue = BigDecimal.ZERO;
+    private int paidInvoiceCount;
+    private BigDecimal paidInvoiceValue = BigDecimal.ZERO;
+    private BigDecimal pendingInvoiceValue = BigDecimal.ZERO;
+
+    // Vendors
+    private int activeVendorCount;
+    private BigDecimal totalVendorSpend = BigDecimal.ZERO;
+
+    /**
+     * What the row adds to its project's stats in its current state; zero for deleted
+     * rows, null when the entity does not feed the project stats
+     */
+    public static ProjectStatsDelta contributionOf(Object entity) {
+        if (entity instanceof PurchaseOrderEntity po) {
+            return purchaseOrder(po);
+        }
+        if (entity instanceof QuotationEntity quotation) {
+            return quotation(quotation);
+        }
+        if (entity instanceof BillEntity bill) {
+            return bill(bill);
+        }
+        if (entity instanceof InvoiceEntity invoice) {
+            return invoice(invoice);
+        }
+        if (entity instanceof VendorEntity vendor) {
+            return vendor(vendor);
+        }
+        return null;
+    }
+
+    private static ProjectStatsDelta purchaseOrder(PurchaseOrderEntity po) {
+        ProjectStatsDelta delta = new ProjectStatsDelta();
+        if (po.getDeletedAt() != null) {
+            return delta;
+        }
+        BigDecimal value = amount(po.getTotalValue());
+        delta.totalPoCount = 1;
+        delta.totalPoValue = value;
+        if ("Delivered".equals(po.getStatus())) {
+            delta.deliveredPoCount = 1;
+            delta.deliveredPoValue = value;
+        }
+        if (PENDING_PO_STATUSES.contains(po.getStatus())) {
+            delta.pendingPoValue = value;
+        }
+        if ("Cancelled".equals(po.getStatus())) {
+            delta.cancelledPoValue = value;
+        }
+        return delta;
+    }
+
+    private static ProjectStatsDelta quotation(QuotationEntity quotation) {
+        ProjectStatsDelta delta = new ProjectStatsDelta();
+        if (quotation.getDeletedAt() != null) {
+            return delta;
+        }
+        BigDecimal value = amount(quotation.getTotalValue());
+        delta.totalQuotationCount = 1;
+        delta.totalQuotationValue = value;
+        if ("Approved".equals(quotation.getStatus())) {
+            delta.approvedQuotationCount = 1;
+            delta.approvedQuotationValue = value;
+        }
+        return delta;
+    }
+
+    // balance_amount is computed by the database, so it is derived from total and paid here
+    private static ProjectStatsDelta bill(BillEntity bill) {
+        ProjectStatsDelta delta = new ProjectStatsDelta();
+        if (bill.getDeletedAt() != null) {
+            return delta;
+        }
+        BigDecimal total = amount(bill.getTotalAmount());
+        BigDecimal paid = amount(bill.getPaidAmount());
+        delta.totalBillCount = 1;
+        delta.totalBillValue = total;
+        delta.paidBillCount = "Paid".equals(bill.getStatus()) ? 1 : 0;
+        delta.paidBillValue = paid;
+        delta.pendingPaymentValue = total.subtract(paid);
+        return delta;
+    }
+
+    private static ProjectStatsDelta invoice(InvoiceEntity invoice) {
+        ProjectStatsDelta delta = new ProjectStatsDelta();
+        if (invoice.getDeletedAt() != null || "Cancelled".equals(invoice.getStatus())) {
+            return delta;
+        }
+        BigDecimal total = amount(invoice.getTotalAmount());
+        BigDecimal paid = amount(invoice.getPaidAmount());
+        delta.totalInvoiceCount = 1;
+        delta.totalInvoiceValue = total;
+        delta.paidInvoiceCount = "Paid".equals(invoice.getStatus()) ? 1 : 0;
+        delta.paidInvoiceValue = paid;
+        if (PENDING_INVOICE_STATUSES.contains(invoice.getStatus())) {
+            delta.pendingInvoiceValue = total.subtract(paid);
+        }
+        return delta;
+    }
+
+    private static ProjectStatsDelta vendor(VendorEntity vendor) {
+        ProjectStatsDelta delta = new ProjectStatsDelta();
+        if (vendor.getDeletedAt() != null) {
+            return delta;
+        }
+        delta.activeVendorCount = "Active".equals(vendor.getStatus()) ? 1 : 0;
+        delta.totalVendorSpend = amount(vendor.getTotalPurchaseValue());
+        return delta;
+    }
+
+    /**
+     * Change from before to after, as a new delta
+     */
+    public static ProjectStatsDelta difference(ProjectStatsDelta after, ProjectStatsDelta before) {
+        return new ProjectStatsDelta().add(after, 1).add(before, -1);
+    }
+
+    /**
+     * Merge another delta into this one
+     */
+    public ProjectStatsDelta add(ProjectStatsDelta other) {
+        return add(other, 1);
+    }
+
+    private ProjectStatsDelta add(ProjectStatsDelta other, int sign) {
+        BigDecimal factor = BigDecimal.valueOf(sign);
+        totalPoCount += sign * other.totalPoCount;
+        totalPoValue = totalPoValue.add(other.totalPoValue.multiply(factor));
+        deliveredPoCount += sign * other.deliveredPoCount;
+        deliveredPoValue = deliveredPoValue.add(other.deliveredPoValue.multiply(factor));
+        pendingPoValue = pendingPoValue.add(other.pendingPoValue.multiply(factor));
+        cancelledPoValue = cancelledPoValue.add(other.cancelledPoValue.multiply(factor));
+        totalQuotationCount += sign * other.totalQuotationCount;
+        totalQuotationValue = totalQuotationValue.add(other.totalQuotationValue.multiply(factor));
+        approvedQuotationCount += sign * other.approvedQuotationCount;
+        approvedQuotationValue = approvedQuotationValue.add(other.approvedQuotationValue.multiply(factor));
+        totalBillCount += sign * other.totalBillCount;
+        totalBillValue = totalBillValue.add(other.totalBillValue.multiply(factor));
+        paidBillCount += sign * other.paidBillCount;
+        paidBillValue = paidBillValue.add(other.paidBillValue.multiply(factor));
+        pendingPaymentValue = pendingPaymentValue.add(other.pendingPaymentValue.multiply(factor));
+        totalInvoiceCount += sign * other.totalInvoiceCount;
+        totalInvoiceValue = totalInvoiceValue.add(other.totalInvoiceValue.multiply(factor));
+        paidInvoiceCount += sign * other.paidInvoiceCount;
+        paidInvoiceValue = paidInvoiceValue.add(other.paidInvoiceValue.multiply(factor));
+        pendingInvoiceValue = pendingInvoiceValue.add(other.pendingInvoiceValue.multiply(factor));
+        activeVendorCount += sign * other.activeVendorCount;
+        totalVendorSpend = totalVendorSpend.add(other.totalVendorSpend.multiply(factor));
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return totalPoCount == 0 && deliveredPoCount == 0 && totalQuotationCount == 0
+            && approvedQuotationCount == 0 && totalBillCount == 0 && paidBillCount == 0
+            && totalInvoiceCount == 0 && paidInvoiceCount == 0 && activeVendorCount == 0
+            && totalPoValue.signum() == 0 && deliveredPoValue.signum() == 0
+            && pendingPoValue.signum() == 0 && cancelledPoValue.signum() == 0
+            && totalQuotationValue.signum() == 0 && approvedQuotationValue.signum() == 0
+            && totalBillValue.signum() == 0 && paidBillValue.signum() == 0
+            && pendingPaymentValue.signum() == 0 && totalInvoiceValue.signum() == 0
+            && paidInvoiceValue.signum() == 0 && pendingInvoiceValue.signum() == 0
+            && totalVendorSpend.signum() == 0;
+    }
+
+    private static BigDecimal amount(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,42 @@
+package com.istlgroup.istl_group_crm_backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Change of a PO, quotation, bill, invoice or vendor row as seen by the project
+ * stats: what the row contributed to its project before and after the change.
+ * Published by {@link ProjectStatsChangeListener} for every flushed insert,
+ * update or delete, and applied after commit by
+ * {@link com.istlgroup.istl_group_crm_backend.service.ProjectStatsEventListener}
+ * as an increment of after - before.
+ *
+ * A RESYNC event carries no amounts: the old state of the row was not known
+ * (it was loaded outside the writing transaction), so its project is
+ * recalculated instead.
+ */
+@Data
+@AllArgsConstructor
+public class ProjectStatsEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        RESYNC
+    }
+
+    private String projectId;
+    private Type type;
+    private String entityType;
+    private Long entityId;
+    private ProjectStatsDelta before;
+    private ProjectStatsDelta after;
+
+    /**
+     * Increment to apply to the project's stats columns
+     */
+    public ProjectStatsDelta delta() {
+        return ProjectStatsDelta.difference(after, before);
+    }
+}
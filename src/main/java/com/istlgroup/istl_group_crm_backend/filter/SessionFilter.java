@@ -9,6 +9,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
+import com.istlgroup.istl_group_crm_backend.service.AuthTokenService;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.AuthTokenClaims;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,9 +21,23 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 
+/**
+ * Rejects unauthenticated requests with 401 SESSION_EXPIRED.
+ *
+ * Session mode (default): the SecurityContext stored in the HttpSession at login.
+ * Token mode (auth.mode=token): the signed bearer token, verified without any
+ * server-side session; in this mode the filter runs inside the security chain
+ * (see SecurityConfig) and sends a renewed token in X-Auth-Token when due. A
+ * renewal that is refused (account removed or deactivated) ends the session.
+ * Controllers then see the user id and role headers taken from the token, not
+ * the values sent by the client (see TokenIdentityRequest).
+ */
 @Component
 public class SessionFilter implements Filter {
 
+    @Autowired
+    private AuthTokenService authTokenService;
+
     @Override
     public void doFilter(
             ServletRequest request,
@@ -42,6 +60,11 @@ public class SessionFilter implements Filter {
             return;
         }
 
+        if (authTokenService.isTokenMode()) {
+            doFilterToken(req, res, chain);
+            return;
+        }
+
         // ✅ Get session safely (JAVA WAY)
         HttpSession session = req.getSession(false);
 
@@ -66,4 +89,42 @@ public class SessionFilter implements Filter {
         SecurityContextHolder.setContext(context);
         chain.doFilter(request, response);
     }
+
+    private void doFilterToken(
+            HttpServletRequest req,
+            HttpServletResponse res,
+            FilterChain chain
+    ) throws IOException, ServletException {
+
+        AuthTokenClaims claims = authTokenService.verify(authTokenService.resolve(req));
+
+        // ❌ Missing, forged, expired or revoked token
+        if (claims == null) {
+            res.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            res.getWriter().write("SESSION_EXPIRED");
+            return;
+        }
+
+        if (authTokenService.isRenewalDue(claims)) {
+            String renewed = authTokenService.renew(claims);
+
+            // ❌ Account removed, deactivated or left without permissions
+            if (renewed == null) {
+                res.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                res.getWriter().write("SESSION_EXPIRED");
+                return;
+            }
+            res.setHeader(AuthTokenService.RENEWED_TOKEN_HEADER, renewed);
+        }
+
+        // ✅ Token valid - request-scoped context only, nothing is stored
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authTokenService.authentication(claims));
+        SecurityContextHolder.setContext(context);
+        try {
+            chain.doFilter(new TokenIdentityRequest(req, claims), res);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
 }
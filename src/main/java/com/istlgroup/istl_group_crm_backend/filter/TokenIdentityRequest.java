@@ -0,0 +1,71 @@
+package com.istlgroup.istl_group_crm_backend.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.AuthTokenClaims;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Request seen by the controllers in token mode: the user id and role headers
+ * (User-Id / X-User-Id, User-Role / X-User-Role, any case) are answered from
+ * the verified token claims, so values sent by the client are ignored.
+ */
+final class TokenIdentityRequest extends HttpServletRequestWrapper {
+
+    private static final Set<String> ID_HEADERS = Set.of("user-id", "x-user-id");
+    private static final Set<String> ROLE_HEADERS = Set.of("user-role", "x-user-role");
+
+    private final String id;
+    private final String role;
+
+    TokenIdentityRequest(HttpServletRequest request, AuthTokenClaims claims) {
+        super(request);
+        this.id = String.valueOf(claims.getId());
+        this.role = claims.getRole();
+    }
+
+    @Override
+    public String getHeader(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (ID_HEADERS.contains(lower)) {
+            return id;
+        }
+        if (ROLE_HEADERS.contains(lower)) {
+            return role;
+        }
+        return super.getHeader(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        if (!isIdentityHeader(name)) {
+            return super.getHeaders(name);
+        }
+        String value = getHeader(name);
+        return value != null ? Collections.enumeration(List.of(value)) : Collections.emptyEnumeration();
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        Set<String> names = new LinkedHashSet<>(Collections.list(super.getHeaderNames()));
+        names.add("User-Id");
+        names.add("X-User-Id");
+        if (role != null) {
+            names.add("User-Role");
+            names.add("X-User-Role");
+        }
+        return Collections.enumeration(names);
+    }
+
+    private static boolean isIdentityHeader(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return ID_HEADERS.contains(lower) || ROLE_HEADERS.contains(lower);
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -169,6 +170,62 @@ public interface BillRepository extends JpaRepository<BillEntity, Long> {
     @Query("SELECT COALESCE(SUM(b.balanceAmount), 0) FROM BillEntity b WHERE b.projectId = :projectId AND b.deletedAt IS NULL")
     Optional<BigDecimal> sumBalanceAmountByProjectId(@Param("projectId") String projectId);
 
+    /**
+     * Aggregate all bill dashboard figures for a project in a single pass.
+     * Row: [totalCount, totalAmount, paidCount, paidAmount, balanceAmount]
+     */
+    @Query("SELECT COUNT(b), COALESCE(SUM(b.totalAmount), 0), " +
+           "COALESCE(SUM(CASE WHEN b.status = 'Paid' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(b.paidAmount), 0), COALESCE(SUM(b.balanceAmount), 0) " +
+           "FROM BillEntity b WHERE b.projectId = :projectId AND b.deletedAt IS NULL")
+    List<Object[]> aggregateStatsByProjectId(@Param("projectId") String projectId);
+
+    /**
+     * Same aggregate as {@link #aggregateStatsByProjectId(String)} for many projects at once.
+     * Row: [projectId, totalCount, totalAmount, paidCount, paidAmount, balanceAmount]
+     */
+    @Query("SELECT b.projectId, COUNT(b), COALESCE(SUM(b.totalAmount), 0), " +
+           "COALESCE(SUM(CASE WHEN b.status = 'Paid' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(b.paidAmount), 0), COALESCE(SUM(b.balanceAmount), 0) " +
+           "FROM BillEntity b WHERE b.projectId IN :projectIds AND b.deletedAt IS NULL " +
+           "GROUP BY b.projectId")
+    List<Object[]> aggregateStatsGroupByProjectId(@Param("projectIds") Collection<String> projectIds);
+
+    /**
+     * Monthly billed amount and count in [from, to), one row per month with bills.
+     * Row: [year, month, sumTotalAmount, count]
+     */
+    @Query("SELECT YEAR(b.billDate), MONTH(b.billDate), COALESCE(SUM(b.totalAmount), 0), COUNT(b) " +
+           "FROM BillEntity b WHERE b.projectId = :projectId " +
+           "AND b.billDate >= :from AND b.billDate < :to AND b.deletedAt IS NULL " +
+           "GROUP BY YEAR(b.billDate), MONTH(b.billDate)")
+    List<Object[]> sumMonthlyByProjectId(
+        @Param("projectId") String projectId,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    /**
+     * Non-pending bills of a project for the timeline, ordered by (billDate, id), after (afterDate, afterId)
+     * and within the optional [fromDate, toDate] window.
+     * Row: [id, billDate, billNo, totalAmount, status]
+     */
+    @Query("SELECT b.id, b.billDate, b.billNo, b.totalAmount, b.status FROM BillEntity b " +
+           "WHERE b.projectId = :projectId AND b.status != 'Pending' AND b.deletedAt IS NULL " +
+           "AND b.billDate IS NOT NULL " +
+           "AND (:fromDate IS NULL OR b.billDate >= :fromDate) " +
+           "AND (:toDate IS NULL OR b.billDate <= :toDate) " +
+           "AND (:afterDate IS NULL OR b.billDate > :afterDate OR (b.billDate = :afterDate AND b.id > :afterId)) " +
+           "ORDER BY b.billDate ASC, b.id ASC")
+    List<Object[]> findTimelineRows(
+        @Param("projectId") String projectId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        @Param("afterDate") LocalDate afterDate,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
     // Overdue bills
     @Query("SELECT COUNT(b) FROM BillEntity b WHERE b.projectId = :projectId AND b.dueDate < CURRENT_DATE AND b.status != 'Paid' AND b.deletedAt IS NULL")
     Long countOverdueBillsByProjectId(@Param("projectId") String projectId);
@@ -185,4 +242,44 @@ public interface BillRepository extends JpaRepository<BillEntity, Long> {
     	    @Param("projectId") String projectId, 
     	    @Param("status") String status
     	);
-}
\ No newline at end of file
+
+    // =========================================
+    // Keyset (cursor) paging
+    // =========================================
+
+    // Null filters are ignored
+    String KEYSET_FILTER =
+           "b.deletedAt IS NULL AND " +
+           "(:projectId IS NULL OR b.projectId = :projectId) AND " +
+           "(:groupId IS NULL OR b.groupId = :groupId) AND " +
+           "(:subGroupId IS NULL OR b.subGroupId = :subGroupId) AND " +
+           "(:status IS NULL OR :status = 'all' OR b.status = :status) AND " +
+           "(:vendorId IS NULL OR b.vendorId = :vendorId) AND " +
+           "(:poId IS NULL OR b.poId = :poId)";
+
+    /**
+     * Page after (afterDate, afterId) ordered by billDate DESC, id DESC; null afterDate for the first page
+     */
+    @Query("SELECT b FROM BillEntity b WHERE " + KEYSET_FILTER + " AND " +
+           "(:afterDate IS NULL OR b.billDate < :afterDate OR (b.billDate = :afterDate AND b.id < :afterId)) " +
+           "ORDER BY b.billDate DESC, b.id DESC")
+    List<BillEntity> findKeysetPage(
+            @Param("projectId") String projectId,
+            @Param("groupId") String groupId,
+            @Param("subGroupId") String subGroupId,
+            @Param("status") String status,
+            @Param("vendorId") Long vendorId,
+            @Param("poId") Long poId,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("SELECT COUNT(b) FROM BillEntity b WHERE " + KEYSET_FILTER)
+    long countKeysetPage(
+            @Param("projectId") String projectId,
+            @Param("groupId") String groupId,
+            @Param("subGroupId") String subGroupId,
+            @Param("status") String status,
+            @Param("vendorId") Long vendorId,
+            @Param("poId") Long poId);
+}
@@ -319,6 +319,33 @@ public interface CustomersRepo extends JpaRepository<CustomersEntity, Long> {
      @Param("toDate") LocalDateTime toDate,
      Pageable pageable
  );
+
+ /**
+  * Hydrate search index hits with the same filters as searchCustomersPaginated; userId is null for admins
+  */
+ @Query("SELECT c FROM CustomersEntity c WHERE " +
+        "c.id IN :ids AND c.deletedAt IS NULL AND " +
+        "(:userId IS NULL OR c.createdBy = :userId OR c.assignedTo = :userId) AND " +
+        "(:groupName IS NULL OR c.groupName = :groupName) AND " +
+        "(:subGroupName IS NULL OR c.subGroupName = :subGroupName) AND " +
+        "(:status IS NULL OR c.status = :status) AND " +
+        "(:city IS NULL OR LOWER(c.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
+        "(:state IS NULL OR LOWER(c.state) LIKE LOWER(CONCAT('%', :state, '%'))) AND " +
+        "(:assignedTo IS NULL OR c.assignedTo = :assignedTo) AND " +
+        "(:fromDate IS NULL OR c.createdAt >= :fromDate) AND " +
+        "(:toDate IS NULL OR c.createdAt <= :toDate)")
+ List<CustomersEntity> findSearchHits(
+     @Param("ids") List<Long> ids,
+     @Param("userId") Long userId,
+     @Param("groupName") String groupName,
+     @Param("subGroupName") String subGroupName,
+     @Param("status") String status,
+     @Param("city") String city,
+     @Param("state") String state,
+     @Param("assignedTo") Long assignedTo,
+     @Param("fromDate") LocalDateTime fromDate,
+     @Param("toDate") LocalDateTime toDate
+ );
  /**
   * Find customer by project ID
   * FIXED: Changed from CustomerEntity to CustomersEntity (plural)
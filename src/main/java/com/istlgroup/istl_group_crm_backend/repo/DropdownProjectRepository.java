@@ -24,6 +24,15 @@ public interface DropdownProjectRepository extends JpaRepository<DropdownProject
         @Param("subGroupName") String subGroupName
     );
     
+    /**
+     * Active projects for the dropdown cache, without loading the sub-group and group entities.
+     * Row: [groupName, subGroupName, projectUniqueId, projectName, location, status]
+     */
+    @Query("SELECT g.groupName, sg.subGroupName, p.projectUniqueId, p.projectName, p.location, p.status " +
+           "FROM DropdownProjectEntity p JOIN p.subGroup sg JOIN sg.group g " +
+           "WHERE p.isActive = true ORDER BY p.id")
+    List<Object[]> findActiveDropdownRows();
+    
     Optional<DropdownProjectEntity> findByProjectUniqueId(String projectUniqueId);
     
     @Query("SELECT MAX(p.projectUniqueId) FROM DropdownProjectEntity p WHERE p.projectUniqueId LIKE :prefix%")
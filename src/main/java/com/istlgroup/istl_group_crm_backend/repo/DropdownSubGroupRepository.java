@@ -16,6 +16,14 @@ public interface DropdownSubGroupRepository extends JpaRepository<DropdownSubGro
     List<DropdownSubGroupEntity> findByGroupNameAndIsActiveTrue(@Param("groupName") String groupName);
     List<DropdownSubGroupEntity> findAll();
     
+    /**
+     * Active sub-groups for the dropdown cache, without loading the group entities.
+     * Row: [groupName, subGroupName, subGroupLabel]
+     */
+    @Query("SELECT g.groupName, sg.subGroupName, sg.subGroupLabel FROM DropdownSubGroupEntity sg " +
+           "JOIN sg.group g WHERE sg.isActive = true ORDER BY sg.id")
+    List<Object[]> findActiveDropdownRows();
+    
     Optional<DropdownSubGroupEntity> findBysubGroupName(String subGroupName); 
 
 }
@@ -1,7 +1,9 @@
 package com.istlgroup.istl_group_crm_backend.repo;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -32,13 +34,23 @@ public interface FollowupsRepo extends JpaRepository<FollowupsEntity, Long> {
     @Query("SELECT COUNT(f) FROM FollowupsEntity f WHERE f.leadId = :leadId AND f.status = 'Pending'")
     int countPendingByLeadId(@Param("leadId") Long leadId);
     
+    // Pending followup counts for a page of leads - Row: [leadId, count]; leads without pending followups are absent
+    @Query("SELECT f.leadId, COUNT(f) FROM FollowupsEntity f WHERE f.leadId IN :leadIds AND f.status = 'Pending' GROUP BY f.leadId")
+    List<Object[]> countPendingByLeadIdIn(@Param("leadIds") Collection<Long> leadIds);
+    
     // Find overdue followups
     @Query("SELECT f FROM FollowupsEntity f WHERE f.status = 'Pending' AND f.scheduledAt < :now ORDER BY f.scheduledAt ASC")
     List<FollowupsEntity> findOverdueFollowups(@Param("now") LocalDateTime now);
     
-    // Find today's followups
-    @Query("SELECT f FROM FollowupsEntity f WHERE f.status = 'Pending' AND DATE(f.scheduledAt) = DATE(:today) ORDER BY f.scheduledAt ASC")
-    List<FollowupsEntity> findTodaysFollowups(@Param("today") LocalDateTime today);
+    // Find today's followups: [dayStart, nextDayStart) keeps scheduled_at usable by an index, unlike DATE(scheduled_at)
+    @Query("SELECT f FROM FollowupsEntity f WHERE f.status = 'Pending' AND f.scheduledAt >= :dayStart AND f.scheduledAt < :nextDayStart ORDER BY f.scheduledAt ASC")
+    List<FollowupsEntity> findTodaysFollowups(
+        @Param("dayStart") LocalDateTime dayStart,
+        @Param("nextDayStart") LocalDateTime nextDayStart
+    );
+    
+    // All followups, newest schedule first
+    List<FollowupsEntity> findAllByOrderByScheduledAtDescIdDesc();
     
     // Search followups
     @Query("SELECT f FROM FollowupsEntity f WHERE " +
@@ -59,4 +71,47 @@ public interface FollowupsRepo extends JpaRepository<FollowupsEntity, Long> {
         @Param("fromDate") LocalDateTime fromDate,
         @Param("toDate") LocalDateTime toDate
     );
-}
\ No newline at end of file
+    
+    // Followup feed filter; fromTime is inclusive and toTime exclusive so both stay range scans on scheduled_at
+    String KEYSET_FILTER =
+        "(:status IS NULL OR f.status = :status) AND " +
+        "(:fromTime IS NULL OR f.scheduledAt >= :fromTime) AND " +
+        "(:toTime IS NULL OR f.scheduledAt < :toTime)";
+    
+    /**
+     * Page after (afterTime, afterId) ordered by scheduledAt DESC, id DESC; null afterTime for the first page
+     */
+    @Query("SELECT f FROM FollowupsEntity f WHERE " + KEYSET_FILTER + " AND " +
+           "(:afterTime IS NULL OR f.scheduledAt < :afterTime OR (f.scheduledAt = :afterTime AND f.id < :afterId)) " +
+           "ORDER BY f.scheduledAt DESC, f.id DESC")
+    List<FollowupsEntity> findKeysetPageDesc(
+        @Param("status") String status,
+        @Param("fromTime") LocalDateTime fromTime,
+        @Param("toTime") LocalDateTime toTime,
+        @Param("afterTime") LocalDateTime afterTime,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+    
+    /**
+     * Page after (afterTime, afterId) ordered by scheduledAt ASC, id ASC; null afterTime for the first page
+     */
+    @Query("SELECT f FROM FollowupsEntity f WHERE " + KEYSET_FILTER + " AND " +
+           "(:afterTime IS NULL OR f.scheduledAt > :afterTime OR (f.scheduledAt = :afterTime AND f.id > :afterId)) " +
+           "ORDER BY f.scheduledAt ASC, f.id ASC")
+    List<FollowupsEntity> findKeysetPageAsc(
+        @Param("status") String status,
+        @Param("fromTime") LocalDateTime fromTime,
+        @Param("toTime") LocalDateTime toTime,
+        @Param("afterTime") LocalDateTime afterTime,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+    
+    @Query("SELECT COUNT(f) FROM FollowupsEntity f WHERE " + KEYSET_FILTER)
+    long countKeysetPage(
+        @Param("status") String status,
+        @Param("fromTime") LocalDateTime fromTime,
+        @Param("toTime") LocalDateTime toTime
+    );
+}
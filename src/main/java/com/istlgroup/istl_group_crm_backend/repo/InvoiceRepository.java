@@ -10,6 +10,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -94,6 +96,32 @@ public interface InvoiceRepository extends JpaRepository<InvoiceEntity, Long> {
     @Query("SELECT SUM(i.balanceAmount) FROM InvoiceEntity i WHERE i.status IN ('Sent', 'Partially Paid') AND i.deletedAt IS NULL")
     BigDecimal sumPendingAmount();
 
+    /**
+     * Invoice figures of the project stats in a single pass; cancelled invoices are left out
+     * and only sent / partially paid invoices count as pending.
+     * Row: [totalCount, totalAmount, paidCount, paidAmount, pendingAmount]
+     */
+    @Query("SELECT COUNT(i), COALESCE(SUM(i.totalAmount), 0), " +
+           "COALESCE(SUM(CASE WHEN i.status = 'Paid' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(i.paidAmount), 0), " +
+           "COALESCE(SUM(CASE WHEN i.status IN ('Sent', 'Partially Paid') THEN i.balanceAmount ELSE 0 END), 0) " +
+           "FROM InvoiceEntity i WHERE i.projectId = :projectId AND i.deletedAt IS NULL " +
+           "AND (i.status IS NULL OR i.status <> 'Cancelled')")
+    List<Object[]> aggregateStatsByProjectId(@Param("projectId") String projectId);
+
+    /**
+     * Same aggregate as {@link #aggregateStatsByProjectId(String)} for many projects at once.
+     * Row: [projectId, totalCount, totalAmount, paidCount, paidAmount, pendingAmount]
+     */
+    @Query("SELECT i.projectId, COUNT(i), COALESCE(SUM(i.totalAmount), 0), " +
+           "COALESCE(SUM(CASE WHEN i.status = 'Paid' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(i.paidAmount), 0), " +
+           "COALESCE(SUM(CASE WHEN i.status IN ('Sent', 'Partially Paid') THEN i.balanceAmount ELSE 0 END), 0) " +
+           "FROM InvoiceEntity i WHERE i.projectId IN :projectIds AND i.deletedAt IS NULL " +
+           "AND (i.status IS NULL OR i.status <> 'Cancelled') " +
+           "GROUP BY i.projectId")
+    List<Object[]> aggregateStatsGroupByProjectId(@Param("projectIds") Collection<String> projectIds);
+
     /**
      * Find invoices by project (not deleted)
      */
@@ -102,6 +130,73 @@ public interface InvoiceRepository extends JpaRepository<InvoiceEntity, Long> {
            "AND inv.deletedAt IS NULL " +
            "ORDER BY inv.invoiceDate DESC")
     List<InvoiceEntity> findByProjectIdAndDeletedAtIsNull(@Param("projectId") String projectId);
-    
-    
-}
\ No newline at end of file
+
+    // Keyset (cursor) paging - null filters are ignored, userId is null for admins
+    String KEYSET_FILTER =
+           "i.deletedAt IS NULL AND " +
+           "(:projectId IS NULL OR i.projectId = :projectId) AND " +
+           "(:groupId IS NULL OR i.groupId = :groupId) AND " +
+           "(:subGroupId IS NULL OR i.subGroupId = :subGroupId) AND " +
+           "(:status IS NULL OR i.status = :status) AND " +
+           "(:userId IS NULL OR i.createdBy = :userId)";
+
+    /**
+     * Invoices of a project for the timeline, ordered by (invoiceDate, id), after (afterDate, afterId)
+     * and within the optional [fromDate, toDate] window.
+     * Row: [id, invoiceDate, invoiceNo, totalAmount, status]
+     */
+    @Query("SELECT i.id, i.invoiceDate, i.invoiceNo, i.totalAmount, i.status FROM InvoiceEntity i " +
+           "WHERE i.projectId = :projectId AND i.deletedAt IS NULL AND i.invoiceDate IS NOT NULL " +
+           "AND (:fromDate IS NULL OR i.invoiceDate >= :fromDate) " +
+           "AND (:toDate IS NULL OR i.invoiceDate <= :toDate) " +
+           "AND (:afterDate IS NULL OR i.invoiceDate > :afterDate OR (i.invoiceDate = :afterDate AND i.id > :afterId)) " +
+           "ORDER BY i.invoiceDate ASC, i.id ASC")
+    List<Object[]> findTimelineRows(
+        @Param("projectId") String projectId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        @Param("afterDate") LocalDate afterDate,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Monthly invoiced amount and count in [from, to), one row per month with invoices.
+     * Row: [year, month, sumTotalAmount, count]
+     */
+    @Query("SELECT YEAR(i.invoiceDate), MONTH(i.invoiceDate), COALESCE(SUM(i.totalAmount), 0), COUNT(i) " +
+           "FROM InvoiceEntity i WHERE i.projectId = :projectId " +
+           "AND i.invoiceDate >= :from AND i.invoiceDate < :to AND i.deletedAt IS NULL " +
+           "GROUP BY YEAR(i.invoiceDate), MONTH(i.invoiceDate)")
+    List<Object[]> sumMonthlyByProjectId(
+        @Param("projectId") String projectId,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to
+    );
+
+    /**
+     * Page after (afterDate, afterId) ordered by invoiceDate DESC, id DESC; null afterDate for the first page
+     */
+    @Query("SELECT i FROM InvoiceEntity i WHERE " + KEYSET_FILTER + " AND " +
+           "(:afterDate IS NULL OR i.invoiceDate < :afterDate OR (i.invoiceDate = :afterDate AND i.id < :afterId)) " +
+           "ORDER BY i.invoiceDate DESC, i.id DESC")
+    List<InvoiceEntity> findKeysetPage(
+        @Param("projectId") String projectId,
+        @Param("groupId") String groupId,
+        @Param("subGroupId") String subGroupId,
+        @Param("status") String status,
+        @Param("userId") Long userId,
+        @Param("afterDate") LocalDate afterDate,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    @Query("SELECT COUNT(i) FROM InvoiceEntity i WHERE " + KEYSET_FILTER)
+    long countKeysetPage(
+        @Param("projectId") String projectId,
+        @Param("groupId") String groupId,
+        @Param("subGroupId") String subGroupId,
+        @Param("status") String status,
+        @Param("userId") Long userId
+    );
+}
@@ -1,9 +1,12 @@
 package com.istlgroup.istl_group_crm_backend.repo;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -95,6 +98,53 @@ public interface LeadsRepo extends JpaRepository<LeadsEntity, Long> {
         @Param("toDate") LocalDateTime toDate
     );
 
+    // Paged listing with every filter in SQL; a null parameter means no filter, userId is null for admins
+    @Query("SELECT l FROM LeadsEntity l WHERE l.deletedAt IS NULL " +
+           "AND (:userId IS NULL OR l.createdBy = :userId OR l.assignedTo = :userId) " +
+           "AND (:groupName IS NULL OR l.groupName = :groupName) " +
+           "AND (:subGroupName IS NULL OR l.subGroupName = :subGroupName) " +
+           "AND (:status IS NULL OR l.status = :status) " +
+           "AND (:assignedTo IS NULL OR l.assignedTo = :assignedTo) " +
+           "AND (:createdBy IS NULL OR l.createdBy = :createdBy) " +
+           "ORDER BY l.createdAt DESC, l.id DESC")
+    Page<LeadsEntity> findLeadsPage(
+        @Param("userId") Long userId,
+        @Param("groupName") String groupName,
+        @Param("subGroupName") String subGroupName,
+        @Param("status") String status,
+        @Param("assignedTo") Long assignedTo,
+        @Param("createdBy") Long createdBy,
+        Pageable pageable
+    );
+
+    // Hydrate search index hits with the same filters as searchLeads; userId is null for admins
+    @Query("SELECT l FROM LeadsEntity l WHERE l.id IN :ids AND l.deletedAt IS NULL " +
+           "AND (:userId IS NULL OR l.createdBy = :userId OR l.assignedTo = :userId) " +
+           "AND (:status IS NULL OR l.status = :status) " +
+           "AND (:priority IS NULL OR l.priority = :priority) " +
+           "AND (:source IS NULL OR l.source = :source) " +
+           "AND (:groupName IS NULL OR l.groupName = :groupName) " +
+           "AND (:subGroupName IS NULL OR l.subGroupName = :subGroupName) " +
+           "AND (:assignedTo IS NULL OR l.assignedTo = :assignedTo) " +
+           "AND (:fromDate IS NULL OR l.createdAt >= :fromDate) " +
+           "AND (:toDate IS NULL OR l.createdAt <= :toDate)")
+    List<LeadsEntity> findSearchHits(
+        @Param("ids") List<Long> ids,
+        @Param("userId") Long userId,
+        @Param("status") String status,
+        @Param("priority") String priority,
+        @Param("source") String source,
+        @Param("groupName") String groupName,
+        @Param("subGroupName") String subGroupName,
+        @Param("assignedTo") Long assignedTo,
+        @Param("fromDate") LocalDateTime fromDate,
+        @Param("toDate") LocalDateTime toDate
+    );
+
+    // Batch lead code lookup for list pages - Row: [id, leadCode]
+    @Query("SELECT l.id, l.leadCode FROM LeadsEntity l WHERE l.id IN :ids")
+    List<Object[]> findLeadCodesByIdIn(@Param("ids") Collection<Long> ids);
+
     // Count leads by status
     @Query("SELECT COUNT(l) FROM LeadsEntity l WHERE l.deletedAt IS NULL AND l.status = :status")
     Long countByStatus(@Param("status") String status);
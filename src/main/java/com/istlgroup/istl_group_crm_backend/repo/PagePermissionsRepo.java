@@ -1,9 +1,12 @@
 package com.istlgroup.istl_group_crm_backend.repo;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.istlgroup.istl_group_crm_backend.entity.PagePermissionsEntity;
@@ -13,6 +16,15 @@ public interface PagePermissionsRepo extends JpaRepository<PagePermissionsEntity
 	@Query("SELECT c FROM PagePermissionsEntity c WHERE c.user_id = :user_id")
 	Optional<PagePermissionsEntity> findByUserId(Long user_id);
 	
+	/**
+	 * Page and menu permission rows for a page of users in one round trip
+	 * Row: [userId, PagePermissionsEntity or null, MenuPermissionsEntity or null]
+	 */
+	@Query("SELECT u.id, p, m FROM UsersEntity u " +
+	       "LEFT JOIN PagePermissionsEntity p ON p.user_id = u.id " +
+	       "LEFT JOIN MenuPermissionsEntity m ON m.usersId = u.id " +
+	       "WHERE u.id IN :userIds")
+	List<Object[]> findPermissionRowsByUserIdIn(@Param("userIds") Collection<Long> userIds);
 
 
 
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -45,6 +46,22 @@ public interface PaymentHistoryRepository extends JpaRepository<PaymentHistoryEn
            nativeQuery = true)
     List<Object[]> getMonthlyPaymentsByProject(@Param("projectId") String projectId);
     
+    /**
+     * Monthly payments received in [from, to), one row per month with payments.
+     * Row: [year, month, sumAmount, count]
+     */
+    @Query("SELECT YEAR(ph.paymentDate), MONTH(ph.paymentDate), COALESCE(SUM(ph.amount), 0), COUNT(ph) " +
+           "FROM PaymentHistoryEntity ph " +
+           "WHERE ph.invoice.projectId = :projectId " +
+           "AND ph.invoice.deletedAt IS NULL " +
+           "AND ph.paymentDate >= :from AND ph.paymentDate < :to " +
+           "GROUP BY YEAR(ph.paymentDate), MONTH(ph.paymentDate)")
+    List<Object[]> sumMonthlyByProjectId(
+        @Param("projectId") String projectId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+    
     /**
      * Get recent payments by project (top 10)
      * FIXED: Use 'invoice' relationship
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import com.istlgroup.istl_group_crm_backend.entity.ProjectEntity;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,20 @@ public interface ProjectRepository extends JpaRepository<ProjectEntity, Long> {
     
     List<ProjectEntity> findByIsActive(Boolean isActive);
 
+    /**
+     * Narrow projection used by the bulk stats recalculation
+     * Row: [projectUniqueId, budget]
+     */
+    @Query("SELECT p.projectUniqueId, p.budget FROM ProjectEntity p WHERE p.isActive = true ORDER BY p.id")
+    List<Object[]> findActiveProjectIdsAndBudgets();
+
+    /**
+     * Same projection for the given projects, used by the event-driven recalculation
+     * Row: [projectUniqueId, budget]
+     */
+    @Query("SELECT p.projectUniqueId, p.budget FROM ProjectEntity p WHERE p.projectUniqueId IN :projectUniqueIds")
+    List<Object[]> findProjectIdsAndBudgets(@Param("projectUniqueIds") Collection<String> projectUniqueIds);
+
     // Dashboard Statistics Queries
     
     /**
@@ -183,6 +183,29 @@ public interface ProposalsRepo extends JpaRepository<ProposalsEntity, Long> {
         Pageable pageable
     );
     
+    /**
+     * Hydrate search index hits with the same filters as searchProposalsPaginated; userId is null for admins
+     */
+    @Query("SELECT p FROM ProposalsEntity p WHERE " +
+           "p.id IN :ids AND p.deletedAt IS NULL AND " +
+           "(:userId IS NULL OR p.preparedBy = :userId) AND " +
+           "(:status IS NULL OR p.status = :status) AND " +
+           "(:groupName IS NULL OR p.groupName = :groupName) AND " +
+           "(:subGroupName IS NULL OR p.subGroupName = :subGroupName) AND " +
+           "(:preparedBy IS NULL OR p.preparedBy = :preparedBy) AND " +
+           "(:fromDate IS NULL OR p.createdAt >= :fromDate) AND " +
+           "(:toDate IS NULL OR p.createdAt <= :toDate)")
+    List<ProposalsEntity> findSearchHits(
+        @Param("ids") List<Long> ids,
+        @Param("userId") Long userId,
+        @Param("status") String status,
+        @Param("groupName") String groupName,
+        @Param("subGroupName") String subGroupName,
+        @Param("preparedBy") Long preparedBy,
+        @Param("fromDate") LocalDateTime fromDate,
+        @Param("toDate") LocalDateTime toDate
+    );
+    
     /**
      * Find proposals by lead ID
      */
@@ -13,7 +13,9 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -92,6 +94,13 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrderEnti
     
     Optional<PurchaseOrderEntity> findByQuotationId(Long quotationId);
     
+    /**
+     * Batch PO number lookup for bill list pages
+     * Row: [id, poNo, quotationId]
+     */
+    @Query("SELECT po.id, po.poNo, po.quotationId FROM PurchaseOrderEntity po WHERE po.id IN :ids")
+    List<Object[]> findPoNumbersByIdIn(@Param("ids") Collection<Long> ids);
+    
     // ========== Search ==========
     
     @Query("SELECT po FROM PurchaseOrderEntity po WHERE " +
@@ -111,6 +120,25 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrderEnti
     @Query("SELECT SUM(po.totalValue) FROM PurchaseOrderEntity po WHERE po.deletedAt IS NULL")
     Double getTotalPOValue();
     
+    /**
+     * Status breakdown for the statistics endpoint
+     * Same scope filters as the list queries; null parameters are ignored
+     * Row: [status, count, totalValue]
+     */
+    @Query("SELECT po.status, COUNT(po), COALESCE(SUM(po.totalValue), 0) FROM PurchaseOrderEntity po WHERE " +
+           "(:groupName IS NULL OR po.groupName = :groupName) AND " +
+           "(:subGroupName IS NULL OR po.subGroupName = :subGroupName) AND " +
+           "(:projectId IS NULL OR po.projectId = :projectId) AND " +
+           "(:userId IS NULL OR po.createdBy = :userId OR po.approvedBy = :userId) AND " +
+           "po.deletedAt IS NULL " +
+           "GROUP BY po.status")
+    List<Object[]> countAndSumGroupByStatus(
+        @Param("groupName") String groupName,
+        @Param("subGroupName") String subGroupName,
+        @Param("projectId") String projectId,
+        @Param("userId") Long userId
+    );
+    
     
     @Query("SELECT p FROM PurchaseOrderEntity p " +
     	       "WHERE p.paymentStatus = :paymentStatus AND p.deletedAt IS NULL " +
@@ -172,6 +200,31 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrderEnti
 
 
 
+    /**
+     * Aggregate all PO dashboard figures for a project in a single pass.
+     * Row: [totalCount, totalValue, deliveredCount, deliveredValue, pendingValue, cancelledValue]
+     */
+    @Query("SELECT COUNT(po), COALESCE(SUM(po.totalValue), 0), " +
+           "COALESCE(SUM(CASE WHEN po.status = 'Delivered' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN po.status = 'Delivered' THEN po.totalValue ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN po.status IN ('Approved', 'Ordered', 'In-Transit') THEN po.totalValue ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN po.status = 'Cancelled' THEN po.totalValue ELSE 0 END), 0) " +
+           "FROM PurchaseOrderEntity po WHERE po.projectId = :projectId AND po.deletedAt IS NULL")
+    List<Object[]> aggregateStatsByProjectId(@Param("projectId") String projectId);
+
+    /**
+     * Same aggregate as {@link #aggregateStatsByProjectId(String)} for many projects at once.
+     * Row: [projectId, totalCount, totalValue, deliveredCount, deliveredValue, pendingValue, cancelledValue]
+     */
+    @Query("SELECT po.projectId, COUNT(po), COALESCE(SUM(po.totalValue), 0), " +
+           "COALESCE(SUM(CASE WHEN po.status = 'Delivered' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN po.status = 'Delivered' THEN po.totalValue ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN po.status IN ('Approved', 'Ordered', 'In-Transit') THEN po.totalValue ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN po.status = 'Cancelled' THEN po.totalValue ELSE 0 END), 0) " +
+           "FROM PurchaseOrderEntity po WHERE po.projectId IN :projectIds AND po.deletedAt IS NULL " +
+           "GROUP BY po.projectId")
+    List<Object[]> aggregateStatsGroupByProjectId(@Param("projectIds") Collection<String> projectIds);
+
     @Query("SELECT COUNT(po) FROM PurchaseOrderEntity po WHERE po.projectId = :projectId AND po.paymentStatus = :paymentStatus AND po.deletedAt IS NULL")
     Long countByProjectIdAndPaymentStatus(@Param("projectId") String projectId, @Param("paymentStatus") String paymentStatus);
     /**
@@ -222,6 +275,22 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrderEnti
          @Param("endDate") LocalDateTime endDate
      );
      
+     /**
+      * Monthly PO value and count in [from, to), one row per month with orders.
+      * Row: [year, month, sumTotalValue, count]
+      */
+     @Query("SELECT YEAR(po.orderDate), MONTH(po.orderDate), COALESCE(SUM(po.totalValue), 0), COUNT(po) " +
+            "FROM PurchaseOrderEntity po " +
+            "WHERE po.projectId = :projectId " +
+            "AND po.orderDate >= :from AND po.orderDate < :to " +
+            "AND po.deletedAt IS NULL " +
+            "GROUP BY YEAR(po.orderDate), MONTH(po.orderDate)")
+     List<Object[]> sumMonthlyByProjectId(
+         @Param("projectId") String projectId,
+         @Param("from") LocalDateTime from,
+         @Param("to") LocalDateTime to
+     );
+     
      /**
       * Count POs by project and date range
       */
@@ -290,6 +359,19 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrderEnti
 	 List<PurchaseOrderEntity> findByGroupNameAndSubGroupName(String groupName, String subGroupName);
 
 	 List<PurchaseOrderEntity> findByGroupName(String groupName);
+
+	 // Vendors entered inline on POs for the bill vendor picker, oldest PO first - Row: [poId, vendorName, vendorContact]
+	 @Query("SELECT po.id, po.vendorName, po.vendorContact FROM PurchaseOrderEntity po WHERE " +
+	        "po.vendorName IS NOT NULL AND TRIM(po.vendorName) <> '' AND " +
+	        "(:groupName IS NULL OR po.groupName = :groupName) AND " +
+	        "(:subGroupName IS NULL OR po.subGroupName = :subGroupName) AND " +
+	        "(:projectId IS NULL OR po.projectId = :projectId) " +
+	        "ORDER BY po.id")
+	 List<Object[]> findInlineVendorRows(
+	     @Param("groupName") String groupName,
+	     @Param("subGroupName") String subGroupName,
+	     @Param("projectId") String projectId
+	 );
 	// Find POs by vendorId and project
 	 @Query("SELECT po FROM PurchaseOrderEntity po WHERE po.vendorId = :vendorId AND po.projectId = :projectId AND po.deletedAt IS NULL ORDER BY po.orderDate DESC")
 	 List<PurchaseOrderEntity> findByVendorIdAndProjectId(@Param("vendorId") Long vendorId, @Param("projectId") String projectId);
@@ -301,6 +383,31 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrderEnti
 	 @Query("SELECT po FROM PurchaseOrderEntity po WHERE po.vendorName = :vendorName AND po.deletedAt IS NULL ORDER BY po.orderDate DESC")
 	 List<PurchaseOrderEntity> findByVendorNameOrderByOrderDateDesc(@Param("vendorName") String vendorName);
 
+	 // Timeline date of a delivered PO: expected delivery, else order date
+	 String TIMELINE_DATE = "CAST(COALESCE(po.expectedDelivery, po.orderDate) AS LocalDate)";
+
+	 /**
+	  * Delivered POs of a project for the timeline, ordered by (date, id), after (afterDate, afterId)
+	  * and within the optional [fromDate, toDate] window.
+	  * Row: [id, date, poNo, totalValue]
+	  */
+	 @Query("SELECT po.id, " + TIMELINE_DATE + ", po.poNo, po.totalValue FROM PurchaseOrderEntity po " +
+	        "WHERE po.projectId = :projectId AND po.status = 'Delivered' AND po.deletedAt IS NULL " +
+	        "AND COALESCE(po.expectedDelivery, po.orderDate) IS NOT NULL " +
+	        "AND (:fromDate IS NULL OR " + TIMELINE_DATE + " >= :fromDate) " +
+	        "AND (:toDate IS NULL OR " + TIMELINE_DATE + " <= :toDate) " +
+	        "AND (:afterDate IS NULL OR " + TIMELINE_DATE + " > :afterDate " +
+	        "OR (" + TIMELINE_DATE + " = :afterDate AND po.id > :afterId)) " +
+	        "ORDER BY " + TIMELINE_DATE + " ASC, po.id ASC")
+	 List<Object[]> findTimelineRows(
+	     @Param("projectId") String projectId,
+	     @Param("fromDate") LocalDate fromDate,
+	     @Param("toDate") LocalDate toDate,
+	     @Param("afterDate") LocalDate afterDate,
+	     @Param("afterId") Long afterId,
+	     Pageable pageable
+	 );
+
 	 // Find POs by project (excluding cancelled)
 	 @Query("SELECT po FROM PurchaseOrderEntity po WHERE po.projectId = :projectId AND po.status != :status AND po.deletedAt IS NULL ORDER BY po.orderDate DESC")
 	 List<PurchaseOrderEntity> findByProjectIdAndStatusNot(@Param("projectId") String projectId, @Param("status") String status);
@@ -460,8 +567,43 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrderEnti
 	         @Param("projectId") String projectId
 	 );
 
-}
-
+    // ========== Keyset (cursor) Paging ==========
 
+    // Null filters are ignored; userId is null for admins
+    String KEYSET_FILTER =
+        "po.deletedAt IS NULL AND " +
+        "(:groupName IS NULL OR po.groupName = :groupName) AND " +
+        "(:subGroupName IS NULL OR po.subGroupName = :subGroupName) AND " +
+        "(:projectId IS NULL OR po.projectId = :projectId) AND " +
+        "(:status IS NULL OR po.status = :status) AND " +
+        "(:paymentStatus IS NULL OR po.paymentStatus = :paymentStatus) AND " +
+        "(:userId IS NULL OR po.createdBy = :userId OR po.approvedBy = :userId)";
 
+    /**
+     * Page after (afterDate, afterId) ordered by orderDate DESC, id DESC; null afterDate for the first page
+     */
+    @Query("SELECT po FROM PurchaseOrderEntity po WHERE " + KEYSET_FILTER + " AND " +
+           "(:afterDate IS NULL OR po.orderDate < :afterDate OR (po.orderDate = :afterDate AND po.id < :afterId)) " +
+           "ORDER BY po.orderDate DESC, po.id DESC")
+    List<PurchaseOrderEntity> findKeysetPage(
+        @Param("groupName") String groupName,
+        @Param("subGroupName") String subGroupName,
+        @Param("projectId") String projectId,
+        @Param("status") String status,
+        @Param("paymentStatus") String paymentStatus,
+        @Param("userId") Long userId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
 
+    @Query("SELECT COUNT(po) FROM PurchaseOrderEntity po WHERE " + KEYSET_FILTER)
+    long countKeysetPage(
+        @Param("groupName") String groupName,
+        @Param("subGroupName") String subGroupName,
+        @Param("projectId") String projectId,
+        @Param("status") String status,
+        @Param("paymentStatus") String paymentStatus,
+        @Param("userId") Long userId
+    );
+}
@@ -10,6 +10,8 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -103,6 +105,25 @@ public interface QuotationRepository extends JpaRepository<QuotationEntity, Long
     @Query("SELECT COUNT(q) FROM QuotationEntity q WHERE q.type = 'Procurement' AND q.status = :status AND q.deletedAt IS NULL")
     long countByStatus(@Param("status") String status);
     
+    /**
+     * Status breakdown for the statistics endpoint
+     * Same scope filters as the list queries; null parameters are ignored
+     * Row: [status, count]
+     */
+    @Query("SELECT q.status, COUNT(q) FROM QuotationEntity q WHERE q.type = 'Procurement' AND " +
+           "(:groupName IS NULL OR q.groupName = :groupName) AND " +
+           "(:subGroupName IS NULL OR q.subGroupName = :subGroupName) AND " +
+           "(:projectId IS NULL OR q.projectId = :projectId) AND " +
+           "(:userId IS NULL OR q.preparedBy = :userId) AND " +
+           "q.deletedAt IS NULL " +
+           "GROUP BY q.status")
+    List<Object[]> countProcurementGroupByStatus(
+        @Param("groupName") String groupName,
+        @Param("subGroupName") String subGroupName,
+        @Param("projectId") String projectId,
+        @Param("userId") Long userId
+    );
+    
     
     @Query("SELECT COUNT(q) FROM QuotationEntity q WHERE q.projectId = :projectId AND q.deletedAt IS NULL")
     Long countByProjectId(@Param("projectId") String projectId);
@@ -116,6 +137,27 @@ public interface QuotationRepository extends JpaRepository<QuotationEntity, Long
     @Query("SELECT COALESCE(SUM(q.totalValue), 0) FROM QuotationEntity q WHERE q.projectId = :projectId AND q.status = :status AND q.deletedAt IS NULL")
     Optional<BigDecimal> sumTotalValueByProjectIdAndStatus(@Param("projectId") String projectId, @Param("status") String status);
 
+    /**
+     * Aggregate all quotation dashboard figures for a project in a single pass.
+     * Row: [totalCount, totalValue, approvedCount, approvedValue]
+     */
+    @Query("SELECT COUNT(q), COALESCE(SUM(q.totalValue), 0), " +
+           "COALESCE(SUM(CASE WHEN q.status = 'Approved' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN q.status = 'Approved' THEN q.totalValue ELSE 0 END), 0) " +
+           "FROM QuotationEntity q WHERE q.projectId = :projectId AND q.deletedAt IS NULL")
+    List<Object[]> aggregateStatsByProjectId(@Param("projectId") String projectId);
+
+    /**
+     * Same aggregate as {@link #aggregateStatsByProjectId(String)} for many projects at once.
+     * Row: [projectId, totalCount, totalValue, approvedCount, approvedValue]
+     */
+    @Query("SELECT q.projectId, COUNT(q), COALESCE(SUM(q.totalValue), 0), " +
+           "COALESCE(SUM(CASE WHEN q.status = 'Approved' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN q.status = 'Approved' THEN q.totalValue ELSE 0 END), 0) " +
+           "FROM QuotationEntity q WHERE q.projectId IN :projectIds AND q.deletedAt IS NULL " +
+           "GROUP BY q.projectId")
+    List<Object[]> aggregateStatsGroupByProjectId(@Param("projectIds") Collection<String> projectIds);
+
     @Query("SELECT AVG(q.totalValue) FROM QuotationEntity q WHERE q.projectId = :projectId AND q.deletedAt IS NULL")
     Optional<BigDecimal> avgTotalValueByProjectId(@Param("projectId") String projectId);
     
@@ -134,9 +176,42 @@ public interface QuotationRepository extends JpaRepository<QuotationEntity, Long
            "WHERE q.projectId = :projectId AND q.deletedAt IS NULL " +
            "ORDER BY q.uploadedAt DESC")
     List<QuotationEntity> findTop5ByProjectIdOrderByUploadedAtDesc(@Param("projectId") String projectId);
-    
-}
 
-    
+    // ========== Keyset (cursor) Paging ==========
 
+    // Procurement quotations only; null filters are ignored, userId is null for admins
+    String KEYSET_FILTER =
+        "q.type = 'Procurement' AND q.deletedAt IS NULL AND " +
+        "(:groupName IS NULL OR q.groupName = :groupName) AND " +
+        "(:subGroupName IS NULL OR q.subGroupName = :subGroupName) AND " +
+        "(:projectId IS NULL OR q.projectId = :projectId) AND " +
+        "(:status IS NULL OR q.status = :status) AND " +
+        "(:userId IS NULL OR q.preparedBy = :userId)";
 
+    /**
+     * Page after (afterUploadedAt, afterId) ordered by uploadedAt DESC, id DESC; null afterUploadedAt for the first page
+     */
+    @Query("SELECT q FROM QuotationEntity q WHERE " + KEYSET_FILTER + " AND " +
+           "(:afterUploadedAt IS NULL OR q.uploadedAt < :afterUploadedAt OR " +
+           "(q.uploadedAt = :afterUploadedAt AND q.id < :afterId)) " +
+           "ORDER BY q.uploadedAt DESC, q.id DESC")
+    List<QuotationEntity> findKeysetPage(
+        @Param("groupName") String groupName,
+        @Param("subGroupName") String subGroupName,
+        @Param("projectId") String projectId,
+        @Param("status") String status,
+        @Param("userId") Long userId,
+        @Param("afterUploadedAt") LocalDateTime afterUploadedAt,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    @Query("SELECT COUNT(q) FROM QuotationEntity q WHERE " + KEYSET_FILTER)
+    long countKeysetPage(
+        @Param("groupName") String groupName,
+        @Param("subGroupName") String subGroupName,
+        @Param("projectId") String projectId,
+        @Param("status") String status,
+        @Param("userId") Long userId
+    );
+}
@@ -1,5 +1,6 @@
 package com.istlgroup.istl_group_crm_backend.repo;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -228,4 +229,8 @@ public interface UsersRepo extends JpaRepository<UsersEntity, Long> {
 	    Optional<UsersEntity> findByName(String name);
 	    Optional<UsersEntity> findByPhone(String phone);
 	    Optional<UsersEntity> findByRole(String role);
+
+	// Batch name lookup for list pages - Row: [id, name]
+	@Query("SELECT u.id, u.name FROM UsersEntity u WHERE u.id IN :ids")
+	List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -258,6 +259,25 @@ public interface VendorRepository extends JpaRepository<VendorEntity, Long> {
     @Query("SELECT COALESCE(SUM(v.totalPurchaseValue), 0) FROM VendorEntity v WHERE v.projectId = :projectId AND v.deletedAt IS NULL")
     Optional<BigDecimal> sumTotalPurchaseValueByProjectId(@Param("projectId") String projectId);
 
+    /**
+     * Aggregate vendor dashboard figures for a project in a single pass.
+     * Row: [activeCount, totalPurchaseValue]
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN v.status = 'Active' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(v.totalPurchaseValue), 0) " +
+           "FROM VendorEntity v WHERE v.projectId = :projectId AND v.deletedAt IS NULL")
+    List<Object[]> aggregateStatsByProjectId(@Param("projectId") String projectId);
+
+    /**
+     * Same aggregate as {@link #aggregateStatsByProjectId(String)} for many projects at once.
+     * Row: [projectId, activeCount, totalPurchaseValue]
+     */
+    @Query("SELECT v.projectId, COALESCE(SUM(CASE WHEN v.status = 'Active' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(v.totalPurchaseValue), 0) " +
+           "FROM VendorEntity v WHERE v.projectId IN :projectIds AND v.deletedAt IS NULL " +
+           "GROUP BY v.projectId")
+    List<Object[]> aggregateStatsGroupByProjectId(@Param("projectIds") Collection<String> projectIds);
+
     @Query("SELECT AVG(v.rating) FROM VendorEntity v WHERE v.projectId = :projectId AND v.rating IS NOT NULL AND v.rating > 0 AND v.deletedAt IS NULL")
     Optional<Double> avgRatingByProjectId(@Param("projectId") String projectId);
 
@@ -287,6 +307,32 @@ public interface VendorRepository extends JpaRepository<VendorEntity, Long> {
            "ORDER BY v.lastPurchaseAmount DESC")
     List<VendorEntity> findTop5ByProjectIdOrderByTotalPurchaseValueDesc(@Param("projectId") String projectId);
 
+    /**
+     * Vendors ranked by purchase order value within a project, sub-group, group or
+     * company-wide (all filters null), one row per vendor record. The rating is the
+     * vendor's own rating, not weighted by its order count. accessUserId limits the
+     * ranking to vendors the user created or is assigned to; null for admins.
+     * Row: [vendorId, name, orderCount, totalValue, deliveredValue, rating]
+     */
+    @Query("SELECT v.id, v.name, COUNT(po), COALESCE(SUM(po.totalValue), 0), " +
+           "COALESCE(SUM(CASE WHEN po.status = 'Delivered' THEN po.totalValue ELSE 0 END), 0), " +
+           "v.rating " +
+           "FROM PurchaseOrderEntity po JOIN VendorEntity v ON v.id = po.vendorId " +
+           "WHERE po.deletedAt IS NULL AND v.deletedAt IS NULL " +
+           "AND (:groupName IS NULL OR po.groupName = :groupName) " +
+           "AND (:subGroupName IS NULL OR po.subGroupName = :subGroupName) " +
+           "AND (:projectId IS NULL OR po.projectId = :projectId) " +
+           "AND (:accessUserId IS NULL OR v.createdBy = :accessUserId OR v.assignedTo = :accessUserId) " +
+           "GROUP BY v.id, v.name, v.rating " +
+           "ORDER BY COALESCE(SUM(po.totalValue), 0) DESC, COUNT(po) DESC, v.id ASC")
+    List<Object[]> findVendorRanking(
+        @Param("groupName") String groupName,
+        @Param("subGroupName") String subGroupName,
+        @Param("projectId") String projectId,
+        @Param("accessUserId") Long accessUserId,
+        Pageable pageable
+    );
+
 	List<VendorEntity> findByProjectId(String projectId);
 
 	List<VendorEntity> findByGroupNameAndSubGroupName(String groupName, String subGroupName);
@@ -294,6 +340,21 @@ public interface VendorRepository extends JpaRepository<VendorEntity, Long> {
 	List<VendorEntity> findByGroupName(String groupName);
 	Optional<VendorEntity> findByName(String name);
 
+	// Batch name lookup for list pages - Row: [id, name]
+	@Query("SELECT v.id, v.name FROM VendorEntity v WHERE v.id IN :ids")
+	List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
 	Optional<VendorEntity> findByPhone(String vendorContact);
 
+	// Bill vendor picker, a null parameter means no filter - Row: [id, name, phone]
+	@Query("SELECT v.id, v.name, v.phone FROM VendorEntity v WHERE " +
+	       "(:groupName IS NULL OR v.groupName = :groupName) AND " +
+	       "(:subGroupName IS NULL OR v.subGroupName = :subGroupName) AND " +
+	       "(:projectId IS NULL OR v.projectId = :projectId)")
+	List<Object[]> findPickerRows(
+	    @Param("groupName") String groupName,
+	    @Param("subGroupName") String subGroupName,
+	    @Param("projectId") String projectId
+	);
+
 }
\ No newline at end of file
@@ -2,7 +2,9 @@ package com.istlgroup.istl_group_crm_backend.scheduler;
 
 import com.istlgroup.istl_group_crm_backend.service.ProjectStatsService;
 import lombok.RequiredArgsConstructor;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.StatsRecalculationResultDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -19,21 +21,42 @@ public class ProjectStatsScheduler {
 
     private final ProjectStatsService projectStatsService;
 
+    /**
+     * "bulk" = grouped queries + chunked JDBC batch writes, "per-project" = legacy loop
+     */
+    @Value("${scheduler.project-stats.full-recalc.mode:bulk}")
+    private String fullRecalcMode;
+
+    // @ConditionalOnProperty has no effect on @Scheduled methods, so each job checks its own switch
+    @Value("${scheduler.project-stats.full-recalc.enabled:false}")
+    private boolean fullRecalcEnabled;
+
+    @Value("${scheduler.project-stats.fix-inconsistent.enabled:true}")
+    private boolean fixInconsistentEnabled;
+
+    @Value("${scheduler.project-stats.health-check.enabled:false}")
+    private boolean healthCheckEnabled;
+
     /**
      * Recalculate all project statistics every 6 hours
      */
     @Scheduled(cron = "${scheduler.project-stats.full-recalc.cron:0 0 */6 * * *}")
-    @ConditionalOnProperty(
-            value = "scheduler.project-stats.full-recalc.enabled",
-            havingValue = "true",
-            matchIfMissing = true
-    )
     public void recalculateAllProjectStats() {
+        if (!fullRecalcEnabled) {
+            return;
+        }
         log.info("Starting scheduled full project statistics recalculation");
         long startTime = System.currentTimeMillis();
 
         try {
-            projectStatsService.recalculateAllProjectStats();
+            if ("per-project".equalsIgnoreCase(fullRecalcMode)) {
+                projectStatsService.recalculateAllProjectStats();
+            } else {
+                StatsRecalculationResultDTO result = projectStatsService.recalculateAllProjectStatsBulk();
+                log.info("Bulk recalculation: {} projects, {} updated, {} failed in {} chunks",
+                        result.getTotalProjects(), result.getUpdatedProjects(),
+                        result.getFailedProjects(), result.getChunks().size());
+            }
             long duration = System.currentTimeMillis() - startTime;
             log.info("Scheduled full project statistics recalculation completed in {} ms", duration);
         } catch (Exception e) {
@@ -45,12 +68,10 @@ public class ProjectStatsScheduler {
      * Fix inconsistent project statistics every day at 3 AM
      */
     @Scheduled(cron = "${scheduler.project-stats.fix-inconsistent.cron:0 0 3 * * *}")
-    @ConditionalOnProperty(
-            value = "scheduler.project-stats.fix-inconsistent.enabled",
-            havingValue = "true",
-            matchIfMissing = true
-    )
     public void fixInconsistentStats() {
+        if (!fixInconsistentEnabled) {
+            return;
+        }
         log.info("Starting scheduled inconsistent stats fix");
 
         try {
@@ -65,12 +86,10 @@ public class ProjectStatsScheduler {
      * Health check
      */
     @Scheduled(cron = "0 0 * * * *")
-    @ConditionalOnProperty(
-            value = "scheduler.project-stats.health-check.enabled",
-            havingValue = "true",
-            matchIfMissing = false
-    )
     public void healthCheck() {
+        if (!healthCheckEnabled) {
+            return;
+        }
         log.info("ProjectStatsScheduler is active and healthy");
     }
 }
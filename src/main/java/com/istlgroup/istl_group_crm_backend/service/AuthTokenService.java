@@ -0,0 +1,255 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.istlgroup.istl_group_crm_backend.entity.LoginEntity;
+import com.istlgroup.istl_group_crm_backend.entity.MenuPermissionsEntity;
+import com.istlgroup.istl_group_crm_backend.repo.LoginRepo;
+import com.istlgroup.istl_group_crm_backend.repo.MenuPermissionsRepo;
+import com.istlgroup.istl_group_crm_backend.repo.PagePermissionsRepo;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.AuthTokenClaims;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signed auth tokens for the stateless auth mode (auth.mode=token).
+ *
+ * A token is base64url(JSON claims) + "." + base64url(HMAC-SHA256 of the claims)
+ * and carries the user id, role and menu/page permission bitmasks, so any node
+ * holding the secret can authenticate a request without a server-side session.
+ * The filter answers the controllers' user id and role headers from these claims.
+ * Tokens expire after auth.token.ttl; one used for more than half of that is
+ * renewed on the next request, which keeps the inactivity timeout of sessions.
+ * Renewal reloads the user, so the new token carries the current role and
+ * permissions and is refused once the account is removed, deactivated or left
+ * without menu permissions. A role or permission change revokes the user's
+ * tokens, so the bitmasks of a token that verifies are current. No token outlives auth.token.max-lifetime counted from the login, after which the
+ * user has to log in again.
+ *
+ * The revocation list holds logged-out token ids and users whose account or
+ * permissions changed, each only until the tokens it covers have expired. It is
+ * kept per node: on other nodes a revoked token stays valid until it is due for
+ * renewal, which reads the account from the database, and at the latest until it
+ * expires.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthTokenService {
+
+    public static final String RENEWED_TOKEN_HEADER = "X-Auth-Token";
+
+    private static final String BEARER = "Bearer ";
+    private static final String HMAC = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final ObjectMapper objectMapper;
+    private final LoginRepo loginRepo;
+    private final MenuPermissionsRepo menuPermissionsRepo;
+    private final PagePermissionsRepo pagePermissionsRepo;
+
+    @Value("${auth.mode:session}")
+    private String mode;
+
+    @Value("${auth.token.secret:}")
+    private String secret;
+
+    @Value("${auth.token.ttl:${server.servlet.session.timeout:15m}}")
+    private Duration ttl;
+
+    @Value("${auth.token.max-lifetime:12h}")
+    private Duration maxLifetime;
+
+    // jti -> expiry of the revoked token
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // users.id -> tokens issued before this time are revoked
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    private SecretKeySpec key;
+
+    @PostConstruct
+    void init() {
+        if (!isTokenMode()) {
+            return;
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("auth.token.secret must be at least " + MIN_SECRET_BYTES
+                + " bytes when auth.mode=token");
+        }
+        key = new SecretKeySpec(bytes, HMAC);
+        log.info("Token auth mode enabled, token TTL {}, max lifetime {}", ttl, maxLifetime);
+    }
+
+    public boolean isTokenMode() {
+        return "token".equalsIgnoreCase(mode);
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Token for a user who has just logged in
+     */
+    public String issue(Long id, String userId, String role, long menuBits, long[] pageBits) {
+        return issue(id, userId, role, menuBits, pageBits, System.currentTimeMillis());
+    }
+
+    private String issue(Long id, String userId, String role, long menuBits, long[] pageBits, long auth) {
+        long now = System.currentTimeMillis();
+        long exp = Math.min(now + ttl.toMillis(), auth + maxLifetime.toMillis());
+        return sign(new AuthTokenClaims(id, userId, role, menuBits, pageBits, auth, now, exp,
+            UUID.randomUUID().toString()));
+    }
+
+    /**
+     * Claims of a well-signed, unexpired and unrevoked token, otherwise null
+     */
+    public AuthTokenClaims verify(String token) {
+        if (key == null || token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return null;
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(0, dot));
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(mac(payload), signature)) {
+                return null;
+            }
+            AuthTokenClaims claims = objectMapper.readValue(payload, AuthTokenClaims.class);
+            return isValid(claims) ? claims : null;
+        } catch (Exception e) {
+            log.debug("Rejected malformed auth token", e);
+            return null;
+        }
+    }
+
+    /**
+     * Whether more than half of the token's TTL is used and a renewal would extend it
+     */
+    public boolean isRenewalDue(AuthTokenClaims claims) {
+        long now = System.currentTimeMillis();
+        return claims.getExp() - now <= ttl.toMillis() / 2
+            && claims.getAuth() + maxLifetime.toMillis() > claims.getExp();
+    }
+
+    /**
+     * A fresh token with the user's current role and permissions, keeping the login time.
+     * Null when the user no longer exists, is inactive or has no menu permissions left,
+     * in which case the request is refused as well.
+     */
+    public String renew(AuthTokenClaims claims) {
+        LoginEntity user = loginRepo.findById(claims.getId()).orElse(null);
+        if (user == null || user.getIs_active() == null || user.getIs_active() != 1L) {
+            log.info("Refused token renewal for user {}: account removed or inactive", claims.getId());
+            return null;
+        }
+        // Same rule as login: a user without any menu permission cannot sign in
+        MenuPermissionsEntity menu = menuPermissionsRepo.findByUsersId(user.getId());
+        long menuBits = menu != null ? MenuPermissionAccessors.encode(menu) : 0L;
+        if (menuBits == 0L) {
+            log.info("Refused token renewal for user {}: no menu permissions", claims.getId());
+            return null;
+        }
+        long[] pageBits = pagePermissionsRepo.findByUserId(user.getId())
+            .map(PagePermissionAccessors::encode)
+            .orElseGet(() -> new long[PagePermissionAccessors.WORDS]);
+        return issue(user.getId(), user.getUser_id(), user.getRole(), menuBits, pageBits, claims.getAuth());
+    }
+
+    /**
+     * Bearer token of the request, or null
+     */
+    public String resolve(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        String token = header.substring(BEARER.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    public UsernamePasswordAuthenticationToken authentication(AuthTokenClaims claims) {
+        UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken(claims.getUserId(), null, List.of());
+        authentication.setDetails(claims);
+        return authentication;
+    }
+
+    public void revoke(AuthTokenClaims claims) {
+        revokedTokens.put(claims.getJti(), claims.getExp());
+    }
+
+    /**
+     * Revoke every token issued to the user so far, e.g. after a role or permission change
+     */
+    public void revokeUser(Long id) {
+        if (!isTokenMode() || id == null) {
+            return;
+        }
+        revokedBefore.put(id, System.currentTimeMillis());
+    }
+
+    /**
+     * Drop revocations whose tokens have expired anyway
+     */
+    @Scheduled(fixedDelayString = "${auth.token.revocation-purge-interval-ms:60000}")
+    public void purgeRevocations() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(exp -> exp < now);
+        revokedBefore.values().removeIf(before -> before + ttl.toMillis() < now);
+    }
+
+    private boolean isValid(AuthTokenClaims claims) {
+        long now = System.currentTimeMillis();
+        if (claims.getId() == null || claims.getJti() == null || claims.getExp() < now
+                || claims.getAuth() + maxLifetime.toMillis() < now) {
+            return false;
+        }
+        if (revokedTokens.containsKey(claims.getJti())) {
+            return false;
+        }
+        Long before = revokedBefore.get(claims.getId());
+        return before == null || claims.getIat() > before;
+    }
+
+    private String sign(AuthTokenClaims claims) {
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(claims);
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            return encoder.encodeToString(payload) + "." + encoder.encodeToString(mac(payload));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not sign auth token", e);
+        }
+    }
+
+    private byte[] mac(byte[] payload) throws GeneralSecurityException {
+        if (key == null) {
+            throw new IllegalStateException("Token auth mode is not enabled");
+        }
+        Mac mac = Mac.getInstance(HMAC);
+        mac.init(key);
+        return mac.doFinal(payload);
+    }
+}
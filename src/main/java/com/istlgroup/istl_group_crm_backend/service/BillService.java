@@ -15,12 +15,14 @@ import com.istlgroup.istl_group_crm_backend.repo.VendorRepository;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.BillDTO;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.BillItemDTO;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.BillStatsDTO;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.PaymentDTO;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.PaymentHistoryDTO;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -37,7 +39,12 @@ import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -53,8 +60,10 @@ public class BillService {
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final UsersRepo usersRepo;
     private final PurchaseOrderItemRepository purchaseOrderItemRepository;
+    private final DocumentSequenceService documentSequenceService;
     private static final String UPLOAD_DIR = "uploads/bills/";
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
+    private static final String KEYSET_SCOPE = "bill";
     
     /**
      * Get bills with role-based filtering
@@ -101,7 +110,54 @@ public class BillService {
             bills = billRepository.findByProjectIdWithFilters(projectId, status, vendorId, poId, pageable);
         }
         
-        return bills.map(this::enrichBillEntity);
+        return new PageImpl<>(enrichBills(bills.getContent()), pageable, bills.getTotalElements());
+    }
+    
+    /**
+     * Cursor (keyset) variant of getBills, ordered by billDate DESC, id DESC.
+     * Same scope rules: admins use project > group + subgroup > group, others need a project.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BillDTO> getBillsKeyset(
+            String projectId,
+            String groupId,
+            String subGroupId,
+            String status,
+            Long vendorId,
+            Long poId,
+            String cursor,
+            int size,
+            boolean includeTotal,
+            boolean isAdmin
+    ) {
+        KeysetCursor after = KeysetCursor.decode(KEYSET_SCOPE, cursor);
+        
+        String scopeProject = projectId != null && !projectId.isEmpty() ? projectId : null;
+        if (!isAdmin && scopeProject == null) {
+            throw new RuntimeException("Project ID is required for non-admin users");
+        }
+        String scopeSubGroup = scopeProject == null && subGroupId != null && !subGroupId.isEmpty() ? subGroupId : null;
+        String scopeGroup = scopeProject == null && groupId != null && !groupId.isEmpty() ? groupId : null;
+        
+        List<BillEntity> rows = billRepository.findKeysetPage(
+                scopeProject, scopeGroup, scopeSubGroup, status, vendorId, poId,
+                after != null ? after.dateKey() : null,
+                after != null ? after.getId() : null,
+                KeysetCursor.fetch(size)
+        );
+        Long total = includeTotal
+                ? billRepository.countKeysetPage(scopeProject, scopeGroup, scopeSubGroup, status, vendorId, poId)
+                : null;
+        
+        KeysetPage<BillEntity> page = KeysetCursor.page(KEYSET_SCOPE, rows, size,
+                BillEntity::getBillDate, BillEntity::getId, total);
+        return KeysetPage.<BillDTO>builder()
+                .content(enrichBills(page.getContent()))
+                .nextCursor(page.getNextCursor())
+                .hasNext(page.isHasNext())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .build();
     }
     
     @Transactional(readOnly = true)
@@ -563,6 +619,60 @@ public void deleteBill(Long id, Long userId) {
     // ========== HELPER METHODS ==========
     
     private BillDTO enrichBillEntity(BillEntity bill) {
+        return enrichBills(List.of(bill)).get(0);
+    }
+    
+    /**
+     * Page-level enrichment: vendor names, PO numbers and user names for all
+     * bills are resolved with one IN query each instead of per-row lookups
+     */
+    private List<BillDTO> enrichBills(List<BillEntity> bills) {
+        if (bills.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Set<Long> vendorIds = new HashSet<>();
+        Set<Long> poIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (BillEntity bill : bills) {
+            if (bill.getVendorId() != null) vendorIds.add(bill.getVendorId());
+            if (bill.getPoId() != null) poIds.add(bill.getPoId());
+            if (bill.getUploadedBy() != null) userIds.add(bill.getUploadedBy());
+            for (BillPaymentEntity payment : bill.getPayments()) {
+                if (payment.getPaidBy() != null) userIds.add(payment.getPaidBy());
+            }
+        }
+        
+        Map<Long, String> vendorNames = new HashMap<>();
+        if (!vendorIds.isEmpty()) {
+            for (Object[] row : vendorRepository.findNamesByIdIn(vendorIds)) {
+                vendorNames.put((Long) row[0], (String) row[1]);
+            }
+        }
+        
+        Map<Long, Object[]> poRows = new HashMap<>();
+        if (!poIds.isEmpty()) {
+            for (Object[] row : purchaseOrderRepository.findPoNumbersByIdIn(poIds)) {
+                poRows.put((Long) row[0], row);
+            }
+        }
+        
+        Map<Long, String> userNames = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (Object[] row : usersRepo.findNamesByIdIn(userIds)) {
+                userNames.put((Long) row[0], (String) row[1]);
+            }
+        }
+        
+        List<BillDTO> result = new ArrayList<>(bills.size());
+        for (BillEntity bill : bills) {
+            result.add(toBillDTO(bill, vendorNames, poRows, userNames));
+        }
+        return result;
+    }
+    
+    private BillDTO toBillDTO(BillEntity bill, Map<Long, String> vendorNames,
+                              Map<Long, Object[]> poRows, Map<Long, String> userNames) {
         BillDTO dto = new BillDTO();
         dto.setId(bill.getId());
         dto.setBillNo(bill.getBillNo());
@@ -585,24 +695,21 @@ public void deleteBill(Long id, Long userId) {
         dto.setCreatedAt(bill.getCreatedAt());
         dto.setUpdatedAt(bill.getUpdatedAt());
         
-        // Get vendor name
-        vendorRepository.findById(bill.getVendorId()).ifPresent(vendor -> {
-            dto.setVendorName(vendor.getName());
-        });
+        // Vendor name
+        dto.setVendorName(vendorNames.get(bill.getVendorId()));
         
-        // Get PO number
+        // PO number
         if (bill.getPoId() != null) {
-            purchaseOrderRepository.findById(bill.getPoId()).ifPresent(po -> {
-                dto.setPoNumber(po.getPoNo());
-                dto.setQuotationId(po.getQuotationId() != null ? po.getQuotationId().toString() : null);
-            });
+            Object[] po = poRows.get(bill.getPoId());
+            if (po != null) {
+                dto.setPoNumber((String) po[1]);
+                dto.setQuotationId(po[2] != null ? po[2].toString() : null);
+            }
         }
         
-        // Get uploader name
+        // Uploader name
         if (bill.getUploadedBy() != null) {
-            usersRepo.findById(bill.getUploadedBy()).ifPresent(user -> {
-                dto.setUploadedByName(user.getName());
-            });
+            dto.setUploadedByName(userNames.get(bill.getUploadedBy()));
         }
         
         // Get items
@@ -630,13 +737,9 @@ public void deleteBill(Long id, Long userId) {
                     paymentDTO.setPaymentMode(payment.getPaymentMode());
                     paymentDTO.setReferenceNumber(payment.getReferenceNumber());
                     paymentDTO.setAmount(payment.getAmount());
-                    
                     if (payment.getPaidBy() != null) {
-                        usersRepo.findById(payment.getPaidBy()).ifPresent(user -> {
-                            paymentDTO.setPaidByName(user.getName());
-                        });
+                        paymentDTO.setPaidByName(userNames.get(payment.getPaidBy()));
                     }
-                    
                     return paymentDTO;
                 })
                 .collect(Collectors.toList());
@@ -658,17 +761,7 @@ public void deleteBill(Long id, Long userId) {
     }
     
     private String generateBillNumber() {
-        String year = String.valueOf(LocalDateTime.now().getYear());
-        String prefix = "BILL-" + year + "-";
-        String maxBillNo = billRepository.findMaxBillNoWithPrefix(prefix + "%");
-        
-        int nextNumber = 1;
-        if (maxBillNo != null) {
-            String numberPart = maxBillNo.substring(maxBillNo.lastIndexOf("-") + 1);
-            nextNumber = Integer.parseInt(numberPart) + 1;
-        }
-        
-        return prefix + String.format("%03d", nextNumber);
+        return documentSequenceService.nextCode(DocumentSequenceService.Sequence.BILL);
     }
     
     private boolean isValidFileType(String contentType) {
@@ -15,7 +15,12 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BomItemsMasterService {
 
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+
     private final BomItemsMasterRepo bomItemsMasterRepo;
+    private final ReferenceDataCacheService referenceData;
+    private final BomTypeaheadService bomTypeaheadService;
 
     /**
      * Get all active BOM items
@@ -38,16 +43,25 @@ public class BomItemsMasterService {
     }
 
     /**
-     * Search BOM items (autocomplete)
+     * Search BOM items (autocomplete) - at most limit best matches; a blank term lists the first items by name
      */
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> searchBomItems(String searchTerm, String category) {
+    public List<Map<String, Object>> searchBomItems(String searchTerm, String category, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        List<Map<String, Object>> indexed = bomTypeaheadService.search(searchTerm, category, max);
+        if (indexed != null) {
+            return indexed;
+        }
+
+        // Typeahead index not loaded yet
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            // Return all items if no search term
-            if (category != null && !category.isEmpty()) {
-                return getBomItemsByCategory(category);
-            }
-            return getAllActiveBomItems();
+            List<BomItemsMasterEntity> items = category != null && !category.isEmpty()
+                    ? bomItemsMasterRepo.findByCategoryAndIsActiveTrue(category)
+                    : bomItemsMasterRepo.findByIsActiveTrue();
+            return items.stream()
+                    .limit(max)
+                    .map(this::convertToMap)
+                    .collect(Collectors.toList());
         }
 
         List<BomItemsMasterEntity> items;
@@ -58,17 +72,16 @@ public class BomItemsMasterService {
         }
 
         return items.stream()
-                .limit(20) // Limit to 20 results for autocomplete
+                .limit(max)
                 .map(this::convertToMap)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Get distinct categories
+     * Get distinct categories (from the reference data cache)
      */
-    @Transactional(readOnly = true)
     public List<String> getDistinctCategories() {
-        return bomItemsMasterRepo.findDistinctCategories();
+        return referenceData.snapshot().getBomCategories();
     }
 
     /**
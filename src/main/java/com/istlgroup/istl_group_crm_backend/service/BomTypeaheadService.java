@@ -0,0 +1,258 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.entity.BomItemsMasterEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typeahead over the active BOM items master, used while proposal BOMs are built.
+ *
+ * Items are held in memory with one n-gram index per category plus one over all
+ * categories, so a keystroke is a lookup in the partition being searched and
+ * returns the top matches (name above specification above description) without
+ * a LIKE scan. Each item's API map is built once when the item is indexed.
+ *
+ * The index is loaded in the background at startup. JPA writes to BOM items are
+ * applied after commit; a periodic check of the table's row count and latest
+ * updated_at rebuilds the index when rows change outside the application.
+ *
+ * Until the first load finishes the search returns null and callers use the
+ * existing LIKE queries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BomTypeaheadService {
+
+    private static final String COLUMNS =
+        "id, category, item_name, description, specification, default_unit, default_tax_percent, make_brand, hsn_code";
+
+    private static final Comparator<Item> BY_NAME = Comparator
+        .comparing((Item item) -> item.sortName, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparingLong(item -> item.id);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${bom-typeahead.enabled:true}")
+    private boolean enabled;
+
+    private volatile Index index;
+    private volatile String tableSignature;
+
+    /**
+     * Best matches of the term, within one category when given; a blank term lists
+     * the first items by name. Returns null when the index is not ready.
+     */
+    public List<Map<String, Object>> search(String term, String category, int limit) {
+        Index current = index;
+        if (!enabled || current == null) {
+            return null;
+        }
+        return current.search(term, category, limit);
+    }
+
+    /**
+     * Apply a BOM item insert, update or delete once the surrounding transaction commits
+     */
+    public void itemChanged(BomItemsMasterEntity entity, boolean removed) {
+        if (entity == null || entity.getId() == null) {
+            return;
+        }
+        long id = entity.getId();
+        Item item = removed || !Boolean.TRUE.equals(entity.getIsActive()) ? null : new Item(id,
+            entity.getCategory(), entity.getItemName(), entity.getDescription(), entity.getSpecification(),
+            entity.getDefaultUnit(), entity.getDefaultTaxPercent(), entity.getMakeBrand(), entity.getHsnCode());
+        afterCommit(() -> {
+            Index current = index;
+            if (current == null) {
+                return;
+            }
+            if (item == null) {
+                current.remove(id);
+            } else {
+                current.put(item);
+            }
+        });
+    }
+
+    /**
+     * Load the index on the first run, then rebuild it whenever the table changed since the last load
+     */
+    @Scheduled(fixedDelayString = "${bom-typeahead.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            String signature = readSignature();
+            if (index == null || !Objects.equals(signature, tableSignature)) {
+                rebuild(signature);
+            }
+        } catch (Exception e) {
+            log.error("BOM typeahead refresh failed", e);
+        }
+    }
+
+    private synchronized void rebuild(String signature) {
+        long start = System.currentTimeMillis();
+        Index built = new Index();
+        jdbcTemplate.query("SELECT " + COLUMNS + " FROM bom_items_master WHERE is_active = true",
+            rs -> { built.put(readItem(rs)); });
+        index = built;
+        // Writes committed while the table was read change the signature, so the next refresh picks them up
+        tableSignature = signature;
+        log.info("BOM typeahead built in {} ms: {} items in {} categories",
+            System.currentTimeMillis() - start, built.items.size(), built.byCategory.size());
+    }
+
+    private String readSignature() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*), MAX(updated_at) FROM bom_items_master",
+            (rs, rowNum) -> rs.getLong(1) + "|" + rs.getTimestamp(2));
+    }
+
+    private static Item readItem(ResultSet rs) throws SQLException {
+        return new Item(rs.getLong("id"), rs.getString("category"), rs.getString("item_name"),
+            rs.getString("description"), rs.getString("specification"), rs.getString("default_unit"),
+            rs.getBigDecimal("default_tax_percent"), rs.getString("make_brand"), rs.getString("hsn_code"));
+    }
+
+    private static String categoryKey(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Field weights in the order passed by Index.put: item name, specification, description
+    private static NGramIndex newPartition() {
+        return new NGramIndex(4, 2, 1);
+    }
+
+    /**
+     * Apply the index change once the surrounding transaction commits, or now if there is none
+     */
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private static final class Index {
+        private final Map<Long, Item> items = new ConcurrentHashMap<>();
+        private final Map<String, NGramIndex> byCategory = new ConcurrentHashMap<>();
+        private final NGramIndex all = newPartition();
+
+        void put(Item item) {
+            Item previous = items.put(item.id, item);
+            if (previous != null && !previous.categoryKey.equals(item.categoryKey)) {
+                NGramIndex old = byCategory.get(previous.categoryKey);
+                if (old != null) {
+                    old.remove(item.id);
+                }
+            }
+            all.put(item.id, null, null, item.itemName, item.specification, item.description);
+            byCategory.computeIfAbsent(item.categoryKey, k -> newPartition())
+                .put(item.id, null, null, item.itemName, item.specification, item.description);
+        }
+
+        void remove(long id) {
+            Item previous = items.remove(id);
+            if (previous == null) {
+                return;
+            }
+            all.remove(id);
+            NGramIndex partition = byCategory.get(previous.categoryKey);
+            if (partition != null) {
+                partition.remove(id);
+            }
+        }
+
+        List<Map<String, Object>> search(String term, String category, int limit) {
+            boolean scoped = category != null && !category.isEmpty();
+            String key = categoryKey(category);
+
+            if (term == null || term.trim().isEmpty()) {
+                return firstByName(scoped ? key : null, limit);
+            }
+
+            NGramIndex partition = scoped ? byCategory.get(key) : all;
+            if (partition == null) {
+                return List.of();
+            }
+            List<Long> ids = partition.search(term, null, limit);
+            List<Map<String, Object>> result = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Item item = items.get(id);
+                if (item != null) {
+                    result.add(item.response);
+                }
+            }
+            return result;
+        }
+
+        private List<Map<String, Object>> firstByName(String key, int limit) {
+            return items.values().stream()
+                .filter(item -> key == null || key.equals(item.categoryKey))
+                .sorted(BY_NAME)
+                .limit(Math.max(0, limit))
+                .map(item -> item.response)
+                .toList();
+        }
+    }
+
+    private static final class Item {
+        private final long id;
+        private final String categoryKey;
+        private final String itemName;
+        private final String specification;
+        private final String description;
+        private final String sortName;
+        private final Map<String, Object> response;
+
+        Item(long id, String category, String itemName, String description, String specification,
+             String defaultUnit, BigDecimal defaultTaxPercent, String makeBrand, String hsnCode) {
+            this.id = id;
+            this.categoryKey = categoryKey(category);
+            this.itemName = itemName;
+            this.specification = specification;
+            this.description = description;
+            this.sortName = itemName != null ? itemName.toLowerCase(Locale.ROOT) : null;
+
+            // Same shape as BomItemsMasterService.convertToMap
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", id);
+            map.put("category", category);
+            map.put("itemName", itemName);
+            map.put("description", description);
+            map.put("specification", specification);
+            map.put("defaultUnit", defaultUnit);
+            map.put("defaultTaxPercent", defaultTaxPercent);
+            map.put("makeBrand", makeBrand);
+            map.put("hsnCode", hsnCode);
+            this.response = Collections.unmodifiableMap(map);
+        }
+    }
+}
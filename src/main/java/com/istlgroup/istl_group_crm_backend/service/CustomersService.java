@@ -32,6 +32,10 @@ public class CustomersService {
     private UsersRepo usersRepo;
     @Autowired
     private DropdownProjectService projectService;
+    @Autowired
+    private DocumentSequenceService documentSequenceService;
+    @Autowired
+    private SearchIndexService searchIndexService;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
     /**
@@ -199,6 +203,7 @@ public class CustomersService {
         customer.setCreatedBy(createdBy); // Set created by user
         
         CustomersEntity savedCustomer = customersRepo.save(customer);
+        searchIndexService.indexCustomer(savedCustomer);
         DropdownProjectEntity projectEntity =
                 projectService.createProjectFromCustomers(savedCustomer); 
         return convertToWrapper(savedCustomer);
@@ -247,6 +252,7 @@ public class CustomersService {
         }
         customer.setSubGroupName(lead.getSubGroupName());
         CustomersEntity savedCustomer = customersRepo.save(customer);
+        searchIndexService.indexCustomer(savedCustomer);
         return convertToWrapper(savedCustomer);
     }
     
@@ -323,6 +329,7 @@ public class CustomersService {
         }
         
         CustomersEntity updatedCustomer = customersRepo.save(customer);
+        searchIndexService.indexCustomer(updatedCustomer);
         return convertToWrapper(updatedCustomer);
     }
     
@@ -344,6 +351,7 @@ public class CustomersService {
         
         customer.setDeletedAt(LocalDateTime.now());
         customersRepo.save(customer);
+        searchIndexService.indexCustomer(customer);
     }
     
     /**
@@ -363,10 +371,7 @@ public class CustomersService {
      * Generate unique customer code with format: CUST-YYYY-NNNN
      */
     private String generateCustomerCode() {
-        String year = String.valueOf(LocalDateTime.now().getYear());
-        long countInYear = customersRepo.countByCustomerCodeStartingWith("CUST-" + year);
-        long nextSequence = countInYear + 1;
-        return String.format("CUST-%s-%04d", year, nextSequence);
+        return documentSequenceService.nextCode(DocumentSequenceService.Sequence.CUSTOMER);
     }
     
     /**
@@ -504,7 +509,31 @@ public Page<CustomerWrapper> getFilteredCustomersPaginated(Long userId, String u
     LocalDateTime toDate = parseDate(filterRequest.getToDate());
     String subGroupName = filterRequest.getSubGroupName(); // Get sub-group from filter
     
-    if ("SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole)) {
+    boolean isAdmin = "SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole);
+    
+    // Ranked ids from the search index, hydrated with the remaining filters and paged in rank order
+    // (best match first); null for too-broad terms, which fall through to the SQL search
+    List<Long> hitIds = searchIndexService.searchCustomers(filterRequest.getSearchTerm(), isAdmin ? null : userId);
+    if (hitIds != null) {
+        List<CustomersEntity> hits = hitIds.isEmpty() ? List.of() : customersRepo.findSearchHits(
+            hitIds,
+            isAdmin ? null : userId,
+            groupName,
+            subGroupName,
+            status,
+            filterRequest.getCity(),
+            filterRequest.getState(),
+            isAdmin ? filterRequest.getAssignedTo() : null,
+            fromDate,
+            toDate
+        );
+        List<CustomersEntity> ranked = SearchIndexService.inRankOrder(hitIds, hits, CustomersEntity::getId);
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        return new PageImpl<>(ranked.subList(from, to), pageable, ranked.size()).map(this::convertToWrapper);
+    }
+    
+    if (isAdmin) {
         // Admin searches all customers
         customerPage = customersRepo.searchCustomersPaginated(
             filterRequest.getSearchTerm(),
@@ -0,0 +1,164 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out document numbers (BILL-2025-001, INV-2025-0001, VEN-00001, ...) from
+ * a counter row per (prefix, year) in document_sequences.
+ *
+ * Each node reserves a block of numbers with one locked update of the counter
+ * row and serves creates from memory until the block runs out, so a create no
+ * longer scans the document table and two nodes never hand out the same number.
+ * Numbers left in a block when the node stops are skipped, so sequences can
+ * have gaps but never duplicates.
+ *
+ * The first reservation for a (prefix, year) seeds the counter from the highest
+ * number already stored in the document table, so existing numbering continues.
+ *
+ * The document_sequences table is created by db/document_sequences.sql.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentSequenceService {
+
+    /**
+     * Generated codes: table/column are only used to seed a new counter
+     */
+    public enum Sequence {
+        BILL("BILL", true, 3, "bills", "bill_no"),
+        CUSTOMER("CUST", true, 4, "customers", "customer_code"),
+        INVOICE("INV", true, 4, "invoices", "invoice_no"),
+        LEAD("LEAD", true, 4, "leads", "lead_code"),
+        ORDER_BOOK("ORD", true, 4, "order_book", "order_book_no"),
+        PROJECT("PROJ", true, 4, "projects", "project_unique_id"),
+        PROJECT_GROUP(null, false, 3, "projects", "project_unique_id"),
+        PROPOSAL("PROP", true, 4, "proposals", "proposal_no"),
+        PURCHASE_ORDER("PO", true, 3, "purchase_orders", "po_no"),
+        QUOTATION("QUO", true, 3, "quotations", "quote_no"),
+        VENDOR("VEN", false, 5, "vendors", "vendor_code");
+
+        private final String stem;
+        private final boolean yearly;
+        private final int width;
+        private final String table;
+        private final String column;
+
+        Sequence(String stem, boolean yearly, int width, String table, String column) {
+            this.stem = stem;
+            this.yearly = yearly;
+            this.width = width;
+            this.table = table;
+            this.column = column;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${document-sequence.block-size:20}")
+    private int blockSize;
+
+    private TransactionTemplate reserveTemplate;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        // Own transaction: the counter row lock is released as soon as the block is reserved,
+        // not when the caller's create commits
+        reserveTemplate = new TransactionTemplate(transactionManager);
+        reserveTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Next code of a sequence with a fixed prefix, e.g. BILL-2025-001
+     */
+    public String nextCode(Sequence sequence) {
+        if (sequence.stem == null) {
+            throw new IllegalArgumentException("Sequence " + sequence + " needs a prefix");
+        }
+        return nextCode(sequence, sequence.stem);
+    }
+
+    /**
+     * Next code of a sequence with a caller-supplied prefix, e.g. ISTL-SOLAR-001
+     */
+    public String nextCode(Sequence sequence, String stem) {
+        int year = sequence.yearly ? Year.now().getValue() : 0;
+        String prefix = sequence.yearly ? stem + "-" + year + "-" : stem + "-";
+        long value = nextValue(sequence, prefix, year);
+        return prefix + String.format("%0" + sequence.width + "d", value);
+    }
+
+    private long nextValue(Sequence sequence, String prefix, int year) {
+        Block block = blocks.computeIfAbsent(prefix, k -> new Block());
+        synchronized (block) {
+            if (block.next >= block.end) {
+                long start = reserve(sequence, prefix, year);
+                block.next = start;
+                block.end = start + blockSize;
+            }
+            return block.next++;
+        }
+    }
+
+    /**
+     * Reserve [start, start + blockSize) under the counter row lock and return start
+     */
+    private long reserve(Sequence sequence, String prefix, int year) {
+        Long start = reserveTemplate.execute(status -> {
+            Long current = lockCounter(prefix, year);
+            if (current == null) {
+                // Concurrent seeders race on the primary key; the loser's insert is ignored
+                jdbcTemplate.update(
+                    "INSERT IGNORE INTO document_sequences (seq_prefix, seq_year, next_value) VALUES (?, ?, ?)",
+                    prefix, year, highestStored(sequence, prefix) + 1);
+                current = lockCounter(prefix, year);
+            }
+            jdbcTemplate.update(
+                "UPDATE document_sequences SET next_value = ? WHERE seq_prefix = ? AND seq_year = ?",
+                current + blockSize, prefix, year);
+            return current;
+        });
+        log.debug("Reserved {} numbers for {} starting at {}", blockSize, prefix, start);
+        return start;
+    }
+
+    private Long lockCounter(String prefix, int year) {
+        List<Long> rows = jdbcTemplate.queryForList(
+            "SELECT next_value FROM document_sequences WHERE seq_prefix = ? AND seq_year = ? FOR UPDATE",
+            Long.class, prefix, year);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Highest number already used with the prefix, including soft-deleted rows
+     */
+    private long highestStored(Sequence sequence, String prefix) {
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        Long max = jdbcTemplate.queryForObject(
+            "SELECT MAX(CAST(SUBSTRING(" + sequence.column + ", ?) AS UNSIGNED)) FROM " + sequence.table +
+            " WHERE " + sequence.column + " LIKE ?",
+            Long.class, prefix.length() + 1, pattern);
+        return max != null ? max : 0;
+    }
+
+    private static final class Block {
+        private long next;
+        private long end;
+    }
+}
@@ -20,6 +20,7 @@ public class DropdownAdminService {
     private final DropdownGroupRepository groupRepository;
     private final DropdownSubGroupRepository subGroupRepository;
     private final DropdownProjectRepository projectRepository;
+    private final ReferenceDataCacheService referenceData;
     
     // ============ GROUP OPERATIONS ============
     
@@ -34,6 +35,7 @@ public class DropdownAdminService {
     
     @Transactional
     public DropdownGroupEntity createGroup(DropdownGroupEntity group) {
+        referenceData.invalidate();
         return groupRepository.save(group);
     }
     
@@ -46,6 +48,7 @@ public class DropdownAdminService {
         existingGroup.setDescription(updatedGroup.getDescription());
         existingGroup.setIsActive(updatedGroup.getIsActive());
         
+        referenceData.invalidate();
         return groupRepository.save(existingGroup);
     }
     
@@ -54,6 +57,7 @@ public class DropdownAdminService {
         DropdownGroupEntity group = getGroupById(id);
         group.setIsActive(false);
         groupRepository.save(group);
+        referenceData.invalidate();
     }
     
     // ============ SUBGROUP OPERATIONS ============
@@ -71,6 +75,7 @@ public class DropdownAdminService {
     public DropdownSubGroupEntity createSubGroup(DropdownSubGroupEntity subGroup, Long groupId) {
         DropdownGroupEntity group = getGroupById(groupId);
         subGroup.setGroup(group);
+        referenceData.invalidate();
         return subGroupRepository.save(subGroup);
     }
     
@@ -83,6 +88,7 @@ public class DropdownAdminService {
         existingSubGroup.setDescription(updatedSubGroup.getDescription());
         existingSubGroup.setIsActive(updatedSubGroup.getIsActive());
         
+        referenceData.invalidate();
         return subGroupRepository.save(existingSubGroup);
     }
     
@@ -91,6 +97,7 @@ public class DropdownAdminService {
         DropdownSubGroupEntity subGroup = getSubGroupById(id);
         subGroup.setIsActive(false);
         subGroupRepository.save(subGroup);
+        referenceData.invalidate();
     }
     
     // ============ PROJECT OPERATIONS ============
@@ -13,7 +13,6 @@ import com.istlgroup.istl_group_crm_backend.repo.ProposalsRepo;
 import lombok.RequiredArgsConstructor;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +25,9 @@ public class DropdownProjectService {
     
     private final DropdownProjectRepository projectRepository;
     private final DropdownSubGroupRepository subGroupRepository;
+    private final DocumentSequenceService documentSequenceService;
+    private final SearchIndexService searchIndexService;
+    private final ReferenceDataCacheService referenceData;
     @Autowired
     private CustomersRepo customersRepo;
     @Autowired
@@ -53,6 +55,7 @@ public class DropdownProjectService {
         }
         
         DropdownProjectEntity projectEntity = projectRepository.save(project);
+        referenceData.invalidate();
         CustomersEntity customerEntity =
         		createCustomerFromProject(projectEntity);
         return projectEntity;
@@ -72,6 +75,7 @@ public class DropdownProjectService {
         existingProject.setBudget(updatedProject.getBudget());
         existingProject.setIsActive(updatedProject.getIsActive());
         
+        referenceData.invalidate();
         return projectRepository.save(existingProject);
     }
     
@@ -83,6 +87,7 @@ public class DropdownProjectService {
         // Soft delete
         project.setIsActive(false);
         projectRepository.save(project);
+        referenceData.invalidate();
     }
     
     private String generateUniqueProjectId(DropdownSubGroupEntity subGroup) {
@@ -98,33 +103,12 @@ public class DropdownProjectService {
             subGroupPrefix = subGroupPrefix.substring(0, subGroupPrefix.length() - 1);
         }
         
-        String prefix = groupPrefix + "-" + subGroupPrefix + "-";
-        
-        String maxId = projectRepository.findMaxProjectIdByPrefix(prefix);
-        
-        int nextNumber = 1;
-        if (maxId != null && !maxId.isEmpty()) {
-            try {
-                String numberPart = maxId.substring(prefix.length());
-                nextNumber = Integer.parseInt(numberPart) + 1;
-            } catch (Exception e) {
-                // If parsing fails, start from 1
-                nextNumber = 1;
-            }
-        }
-        
-        return prefix + String.format("%03d", nextNumber);
+        return documentSequenceService.nextCode(DocumentSequenceService.Sequence.PROJECT_GROUP,
+            groupPrefix + "-" + subGroupPrefix);
     }
     
     private String generateProjectCode() {
-        String year = String.valueOf(LocalDateTime.now().getYear());
-        
-        // Get count of leads with codes starting with "LEAD-2025"
-        long countInYear = projectRepository.countByProjectUniqueIdStartingWith("PROJ-" + year);
-        long nextSequence = countInYear + 1;
-        
-        // Use 4 digits minimum, expands automatically beyond 9999
-        return String.format("PROJ-%s-%04d", year, nextSequence);
+        return documentSequenceService.nextCode(DocumentSequenceService.Sequence.PROJECT);
     }
     
     public DropdownProjectEntity createProjectFromLead(LeadsEntity Lead, String customerCode) {
@@ -150,6 +134,7 @@ public class DropdownProjectService {
             projectEntity.setProjectUniqueId(generateProjectCode());
         }
         DropdownProjectEntity ent = projectRepository.save(projectEntity);
+        referenceData.invalidate();
         return  ent;
     }
     private BigDecimal getBudgetFromProposal(Long id) {
@@ -177,13 +162,11 @@ public class DropdownProjectService {
             projectEntity.setProjectUniqueId(generateProjectCode());
         }
         DropdownProjectEntity ent = projectRepository.save(projectEntity);
+        referenceData.invalidate();
         return  ent;
     }
     private String generateCustomerCode() {
-        String year = String.valueOf(LocalDateTime.now().getYear());
-        long countInYear = customersRepo.countByCustomerCodeStartingWith("CUST-" + year);
-        long nextSequence = countInYear + 1;
-        return String.format("CUST-%s-%04d", year, nextSequence);
+        return documentSequenceService.nextCode(DocumentSequenceService.Sequence.CUSTOMER);
     }
     
     public  CustomersEntity createCustomerFromProject(DropdownProjectEntity projectEntity) {
@@ -214,7 +197,7 @@ public class DropdownProjectService {
         customer.setCreatedBy(projectEntity.getCreatedBy()); // Set created by user
         
         CustomersEntity savedCustomer = customersRepo.save(customer);
-       
+        searchIndexService.indexCustomer(savedCustomer);
         return savedCustomer;
     }
 
@@ -1,9 +1,15 @@
 package com.istlgroup.istl_group_crm_backend.service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -16,6 +22,7 @@ import com.istlgroup.istl_group_crm_backend.repo.LeadsRepo;
 import com.istlgroup.istl_group_crm_backend.repo.UsersRepo;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.FollowupWrapper;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.FollowupRequestWrapper;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
 
 @Service
 public class FollowupsService {
@@ -34,6 +41,11 @@ public class FollowupsService {
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
+    // Cursor scopes of the followup feeds, so a cursor of one feed is rejected by the others
+    private static final String KEYSET_SCOPE_ALL = "followup";
+    private static final String KEYSET_SCOPE_OVERDUE = "followup-overdue";
+    private static final String KEYSET_SCOPE_TODAY = "followup-today";
+    
     /**
      * Create a new follow-up
      */
@@ -134,9 +146,7 @@ public class FollowupsService {
      */
     public List<FollowupWrapper> getFollowupsForLead(Long leadId) {
         List<FollowupsEntity> followups = followupsRepo.findByLeadIdOrderByScheduledAtDesc(leadId);
-        return followups.stream()
-            .map(this::convertToWrapper)
-            .collect(Collectors.toList());
+        return convertToWrappers(followups);
     }
     
     /**
@@ -144,9 +154,7 @@ public class FollowupsService {
      */
     public List<FollowupWrapper> getFollowupsForUser(Long userId) {
         List<FollowupsEntity> followups = followupsRepo.findByAssignedToOrderByScheduledAtDesc(userId);
-        return followups.stream()
-            .map(this::convertToWrapper)
-            .collect(Collectors.toList());
+        return convertToWrappers(followups);
     }
     
     /**
@@ -154,9 +162,7 @@ public class FollowupsService {
      */
     public List<FollowupWrapper> getPendingFollowupsForLead(Long leadId) {
         List<FollowupsEntity> followups = followupsRepo.findPendingByLeadId(leadId);
-        return followups.stream()
-            .map(this::convertToWrapper)
-            .collect(Collectors.toList());
+        return convertToWrappers(followups);
     }
     
     /**
@@ -173,24 +179,35 @@ public class FollowupsService {
         return followupsRepo.countPendingByLeadId(leadId);
     }
     
+    /**
+     * Pending followup counts for several leads in one query; leads without pending followups are absent
+     */
+    public Map<Long, Integer> getPendingFollowupsCountsForLeads(Collection<Long> leadIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        if (leadIds.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : followupsRepo.countPendingByLeadIdIn(leadIds)) {
+            counts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return counts;
+    }
+    
     /**
      * Get overdue follow-ups
      */
     public List<FollowupWrapper> getOverdueFollowups() {
         List<FollowupsEntity> followups = followupsRepo.findOverdueFollowups(LocalDateTime.now());
-        return followups.stream()
-            .map(this::convertToWrapper)
-            .collect(Collectors.toList());
+        return convertToWrappers(followups);
     }
     
     /**
      * Get today's follow-ups
      */
     public List<FollowupWrapper> getTodaysFollowups() {
-        List<FollowupsEntity> followups = followupsRepo.findTodaysFollowups(LocalDateTime.now());
-        return followups.stream()
-            .map(this::convertToWrapper)
-            .collect(Collectors.toList());
+        LocalDateTime dayStart = LocalDate.now().atStartOfDay();
+        List<FollowupsEntity> followups = followupsRepo.findTodaysFollowups(dayStart, dayStart.plusDays(1));
+        return convertToWrappers(followups);
     }
     
     /**
@@ -217,56 +234,135 @@ public class FollowupsService {
      * Convert Entity to Wrapper
      */
     private FollowupWrapper convertToWrapper(FollowupsEntity entity) {
-        FollowupWrapper wrapper = new FollowupWrapper();
-        wrapper.setId(entity.getId());
-        wrapper.setRelatedType(entity.getRelatedType());
-        wrapper.setRelatedId(entity.getRelatedId());
-        wrapper.setLeadId(entity.getLeadId());
-        wrapper.setCustomerId(entity.getCustomerId());
-        wrapper.setProjectId(entity.getProjectId());
-        wrapper.setGroupName(entity.getGroupName());
-        wrapper.setSubGroupName(entity.getSubGroupName());
-        wrapper.setFollowupType(entity.getFollowupType());
-        wrapper.setScheduledAt(entity.getScheduledAt() != null ? entity.getScheduledAt().toString() : null);
-        wrapper.setCreatedBy(entity.getCreatedBy());
-        wrapper.setAssignedTo(entity.getAssignedTo());
-        wrapper.setStatus(entity.getStatus());
-        wrapper.setPriority(entity.getPriority());
-        wrapper.setCompletedAt(entity.getCompletedAt() != null ? entity.getCompletedAt().toString() : null);
-        wrapper.setNotes(entity.getNotes());
-        wrapper.setOutcome(entity.getOutcome());
-        wrapper.setCreatedAt(entity.getCreatedAt() != null ? entity.getCreatedAt().toString() : null);
-        wrapper.setUpdatedAt(entity.getUpdatedAt() != null ? entity.getUpdatedAt().toString() : null);
+        return convertToWrappers(List.of(entity)).get(0);
+    }
+    
+    /**
+     * Convert a list of follow-ups, loading user names and lead codes for the
+     * whole list with one query each instead of per follow-up
+     */
+    private List<FollowupWrapper> convertToWrappers(List<FollowupsEntity> entities) {
+        if (entities.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        // Fetch user names
-        if (entity.getCreatedBy() != null) {
-            usersRepo.findById(entity.getCreatedBy()).ifPresent(user -> 
-                wrapper.setCreatedByName(user.getName())
-            );
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> leadIds = new HashSet<>();
+        for (FollowupsEntity entity : entities) {
+            if (entity.getCreatedBy() != null) {
+                userIds.add(entity.getCreatedBy());
+            }
+            if (entity.getAssignedTo() != null) {
+                userIds.add(entity.getAssignedTo());
+            }
+            if (entity.getLeadId() != null) {
+                leadIds.add(entity.getLeadId());
+            }
         }
-        if (entity.getAssignedTo() != null) {
-            usersRepo.findById(entity.getAssignedTo()).ifPresent(user -> 
-                wrapper.setAssignedToName(user.getName())
-            );
+        
+        // Fetch user names
+        Map<Long, String> userNames = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (Object[] row : usersRepo.findNamesByIdIn(userIds)) {
+                userNames.put((Long) row[0], (String) row[1]);
+            }
         }
         
         // Fetch related codes
-        if (entity.getLeadId() != null) {
-            leadsRepo.findById(entity.getLeadId()).ifPresent(lead -> 
-                wrapper.setLeadCode(lead.getLeadCode())
-            );
+        Map<Long, String> leadCodes = new HashMap<>();
+        if (!leadIds.isEmpty()) {
+            for (Object[] row : leadsRepo.findLeadCodesByIdIn(leadIds)) {
+                leadCodes.put((Long) row[0], (String) row[1]);
+            }
         }
         
-        return wrapper;
+        List<FollowupWrapper> wrappers = new ArrayList<>(entities.size());
+        for (FollowupsEntity entity : entities) {
+            FollowupWrapper wrapper = new FollowupWrapper();
+            wrapper.setId(entity.getId());
+            wrapper.setRelatedType(entity.getRelatedType());
+            wrapper.setRelatedId(entity.getRelatedId());
+            wrapper.setLeadId(entity.getLeadId());
+            wrapper.setCustomerId(entity.getCustomerId());
+            wrapper.setProjectId(entity.getProjectId());
+            wrapper.setGroupName(entity.getGroupName());
+            wrapper.setSubGroupName(entity.getSubGroupName());
+            wrapper.setFollowupType(entity.getFollowupType());
+            wrapper.setScheduledAt(entity.getScheduledAt() != null ? entity.getScheduledAt().toString() : null);
+            wrapper.setCreatedBy(entity.getCreatedBy());
+            wrapper.setAssignedTo(entity.getAssignedTo());
+            wrapper.setStatus(entity.getStatus());
+            wrapper.setPriority(entity.getPriority());
+            wrapper.setCompletedAt(entity.getCompletedAt() != null ? entity.getCompletedAt().toString() : null);
+            wrapper.setNotes(entity.getNotes());
+            wrapper.setOutcome(entity.getOutcome());
+            wrapper.setCreatedAt(entity.getCreatedAt() != null ? entity.getCreatedAt().toString() : null);
+            wrapper.setUpdatedAt(entity.getUpdatedAt() != null ? entity.getUpdatedAt().toString() : null);
+            if (entity.getCreatedBy() != null) {
+                wrapper.setCreatedByName(userNames.get(entity.getCreatedBy()));
+            }
+            if (entity.getAssignedTo() != null) {
+                wrapper.setAssignedToName(userNames.get(entity.getAssignedTo()));
+            }
+            if (entity.getLeadId() != null) {
+                wrapper.setLeadCode(leadCodes.get(entity.getLeadId()));
+            }
+            wrappers.add(wrapper);
+        }
+        return wrappers;
     }
     /**
      * Get all follow-ups (for Admin/SuperAdmin)
      */
     public List<FollowupWrapper> getAllFollowups() {
-        List<FollowupsEntity> followups = followupsRepo.findAll();
-        return followups.stream()
-            .map(this::convertToWrapper)
-            .sorted((a, b) -> b.getScheduledAt().compareTo(a.getScheduledAt()))
-            .collect(Collectors.toList());
+        return convertToWrappers(followupsRepo.findAllByOrderByScheduledAtDescIdDesc());
+    }
+    
+    /**
+     * Page of all follow-ups, latest schedule first
+     */
+    public KeysetPage<FollowupWrapper> getAllFollowupsKeyset(String cursor, int size, boolean includeTotal) {
+        return feedPage(KEYSET_SCOPE_ALL, false, null, null, null, cursor, size, includeTotal);
+    }
+    
+    /**
+     * Page of pending follow-ups scheduled before now, oldest first
+     */
+    public KeysetPage<FollowupWrapper> getOverdueFollowupsKeyset(String cursor, int size, boolean includeTotal) {
+        return feedPage(KEYSET_SCOPE_OVERDUE, true, "Pending", null, LocalDateTime.now(), cursor, size, includeTotal);
+    }
+    
+    /**
+     * Page of pending follow-ups scheduled today, earliest first
+     */
+    public KeysetPage<FollowupWrapper> getTodaysFollowupsKeyset(String cursor, int size, boolean includeTotal) {
+        LocalDateTime dayStart = LocalDate.now().atStartOfDay();
+        return feedPage(KEYSET_SCOPE_TODAY, true, "Pending", dayStart, dayStart.plusDays(1), cursor, size, includeTotal);
+    }
+    
+    /**
+     * One keyset page of follow-ups in [fromTime, toTime), ordered by scheduledAt then id
+     */
+    private KeysetPage<FollowupWrapper> feedPage(String scope, boolean ascending, String status,
+                                                 LocalDateTime fromTime, LocalDateTime toTime,
+                                                 String cursor, int size, boolean includeTotal) {
+        KeysetCursor after = KeysetCursor.decode(scope, cursor);
+        LocalDateTime afterTime = after != null ? after.dateTimeKey() : null;
+        Long afterId = after != null ? after.getId() : null;
+        
+        List<FollowupsEntity> rows = ascending
+            ? followupsRepo.findKeysetPageAsc(status, fromTime, toTime, afterTime, afterId, KeysetCursor.fetch(size))
+            : followupsRepo.findKeysetPageDesc(status, fromTime, toTime, afterTime, afterId, KeysetCursor.fetch(size));
+        Long total = includeTotal ? followupsRepo.countKeysetPage(status, fromTime, toTime) : null;
+        
+        KeysetPage<FollowupsEntity> page = KeysetCursor.page(scope, rows, size,
+            FollowupsEntity::getScheduledAt, FollowupsEntity::getId, total);
+        return KeysetPage.<FollowupWrapper>builder()
+            .content(convertToWrappers(page.getContent()))
+            .nextCursor(page.getNextCursor())
+            .hasNext(page.isHasNext())
+            .size(page.getSize())
+            .totalElements(page.getTotalElements())
+            .build();
     }
-}
\ No newline at end of file
+}
@@ -7,10 +7,8 @@ import com.istlgroup.istl_group_crm_backend.customException.CustomException;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.font.PdfFont;
-import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.*;
 import com.itextpdf.layout.properties.TextAlignment;
@@ -23,9 +21,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 @Service
@@ -34,59 +36,98 @@ import java.util.Locale;
 public class InvoicePdfService {
 
     private final CustomersService customersService;
+    private final PdfResourceService pdfResources;
+    private final PdfCacheService pdfCache;
 
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
     
-    // ISTL Company details
-    private static final String ISTL_NAME = "ISCIENTIFIC TECHSOLUTIONS LABS PVT LTD";
-    private static final String ISTL_ADDRESS = "133/1/B, 1st Floor, Phase II, IDA Cherlapally";
-    private static final String ISTL_CITY = "Hyderabad, Telangana - 500051";
-    private static final String ISTL_GSTIN = "36AAGCI8913D1ZL";
-    private static final String ISTL_PAN = "AAGCI8913D";
-    private static final String ISTL_EMAIL = "accounts@istlabs.in";
-    private static final String ISTL_UDYAM = "UDYAM(MSME)- TS-20-0045223";
-    private static final String ISTL_CIN = "U31900KA2022PTC167257";
-
-    // SESOLA Company details
-    private static final String SESOLA_NAME = "SESOLA POWER PROJECTS PRIVATE LIMITED";
-    private static final String SESOLA_ADDRESS = "8th Floor, Pranava Vaishnoi Business Park";
-    private static final String SESOLA_CITY = "Survey Nos.29, 30, 31, 32 And 33 Of Kothaguda Village, Serilingampally Mandal, Ranga Reddy District, Telangana India 500084";
-    private static final String SESOLA_GSTIN = "36AASCS1234D1ZL";
-    private static final String SESOLA_PAN = "AASCS1234D";
-    private static final String SESOLA_EMAIL = "accounts@sesola.com";
-    private static final String SESOLA_UDYAM = "";
-    private static final String SESOLA_CIN = "";
-
-    private static final String STATE_CODE = "36";
-    private static final String STATE_NAME = "Telangana";
+    private static final String STATE_CODE = PdfResourceService.STATE_CODE;
+    private static final String STATE_NAME = PdfResourceService.STATE_NAME;
+
+    // Item rows are flushed to the output every this many rows
+    private static final int TABLE_FLUSH_ROWS = 50;
+
+    // Part of the cache fingerprint; bump when the layout changes
+    private static final String LAYOUT_VERSION = "1";
 
     public byte[] generateInvoicePdf(InvoiceEntity invoice) throws CustomException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
         try {
-            log.info("Generating GST compliant PDF for invoice: {}", invoice.getInvoiceNo());
-            
-            if (invoice.getProjectId() == null || invoice.getProjectId().isEmpty()) {
-                throw new CustomException("Invoice must have a project ID");
-            }
-            
-            if (invoice.getItems() == null || invoice.getItems().isEmpty()) {
-                throw new CustomException("Invoice must have at least one item");
-            }
+            writeInvoicePdf(invoice, resolveCustomer(invoice), baos);
+        } catch (IOException e) {
+            throw new CustomException("Error generating invoice PDF: " + e.getMessage());
+        }
+        return baos.toByteArray();
+    }
 
-            CustomersEntity customer = customersService.getCustomerByProjectId(invoice.getProjectId());
-            if (customer == null) {
-                throw new CustomException("Customer not found for project: " + invoice.getProjectId());
-            }
+    /**
+     * Validate the invoice and load its customer.
+     * Called before streaming starts so errors can still produce a normal response.
+     */
+    public CustomersEntity resolveCustomer(InvoiceEntity invoice) throws CustomException {
+        if (invoice.getProjectId() == null || invoice.getProjectId().isEmpty()) {
+            throw new CustomException("Invoice must have a project ID");
+        }
+        
+        if (invoice.getItems() == null || invoice.getItems().isEmpty()) {
+            throw new CustomException("Invoice must have at least one item");
+        }
+
+        CustomersEntity customer = customersService.getCustomerByProjectId(invoice.getProjectId());
+        if (customer == null) {
+            throw new CustomException("Customer not found for project: " + invoice.getProjectId());
+        }
+        return customer;
+    }
+
+    /**
+     * Write the invoice PDF into the given stream (left open), served from the
+     * PDF cache when nothing it renders has changed
+     */
+    public void writeInvoicePdf(InvoiceEntity invoice, CustomersEntity customer, OutputStream out)
+            throws CustomException, IOException {
+        pdfCache.write(PdfCacheService.INVOICE, invoice.getId(), fingerprint(invoice, customer),
+                o -> renderInvoicePdf(invoice, customer, o), out);
+    }
+
+    /**
+     * Fingerprint of everything the invoice PDF shows.
+     * Payments and status changes do not appear on the PDF, so they keep the cached copy valid.
+     */
+    public String fingerprint(InvoiceEntity invoice, CustomersEntity customer) {
+        List<Object> parts = new ArrayList<>();
+        parts.add(LAYOUT_VERSION);
+        parts.add(invoice.getInvoiceNo());
+        parts.add(invoice.getInvoiceDate());
+        parts.add(invoice.getCompany());
+        for (InvoiceItemEntity item : invoice.getItems()) {
+            parts.add(item.getDescription());
+            parts.add(item.getQuantity());
+            parts.add(item.getUnitPrice());
+            parts.add(item.getTaxPercent());
+            parts.add(item.getUnitType());
+        }
+        parts.add(customer.getId());
+        parts.add(customer.getName());
+        parts.add(customer.getCompanyName());
+        parts.add(customer.getAddress());
+        parts.add(customer.getCity());
+        parts.add(customer.getState());
+        parts.add(customer.getPincode());
+        parts.add(customer.getGstNumber());
+        return PdfCacheService.fingerprint(parts.toArray());
+    }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter writer = new PdfWriter(baos);
-            PdfDocument pdf = new PdfDocument(writer);
+    private void renderInvoicePdf(InvoiceEntity invoice, CustomersEntity customer, OutputStream out) throws CustomException {
+        try {
+            log.info("Generating GST compliant PDF for invoice: {}", invoice.getInvoiceNo());
+
+            PdfDocument pdf = pdfResources.openDocument(out);
             Document document = new Document(pdf, PageSize.A4);
             document.setMargins(20, 20, 20, 20);
 
-            PdfFont bold = PdfFontFactory.createFont(
-                    com.itextpdf.io.font.constants.StandardFonts.HELVETICA_BOLD);
-            PdfFont normal = PdfFontFactory.createFont(
-                    com.itextpdf.io.font.constants.StandardFonts.HELVETICA);
+            PdfFont bold = pdfResources.boldFont();
+            PdfFont normal = pdfResources.normalFont();
 
             // Add title
             addTitle(document, bold);
@@ -106,11 +147,7 @@ public class InvoicePdfService {
             document.close();
             
             log.info("PDF generated successfully for invoice: {}", invoice.getInvoiceNo());
-            return baos.toByteArray();
 
-        } catch (CustomException e) {
-            log.error("Custom error generating invoice PDF: {}", e.getMessage());
-            throw e;
         } catch (Exception e) {
             log.error("Error generating invoice PDF", e);
             throw new CustomException("Error generating invoice PDF: " + e.getMessage());
@@ -129,16 +166,7 @@ public class InvoicePdfService {
     private void addCompanyAndCustomerInfo(Document document, InvoiceEntity invoice, 
             CustomersEntity customer, PdfFont bold, PdfFont normal) {
 
-        boolean isSesola = "SESOLA".equalsIgnoreCase(invoice.getCompany());
-        
-        String companyName = isSesola ? SESOLA_NAME : ISTL_NAME;
-        String companyAddress = isSesola ? SESOLA_ADDRESS : ISTL_ADDRESS;
-        String companyCity = isSesola ? SESOLA_CITY : ISTL_CITY;
-        String companyGstin = isSesola ? SESOLA_GSTIN : ISTL_GSTIN;
-        String companyPan = isSesola ? SESOLA_PAN : ISTL_PAN;
-        String companyEmail = isSesola ? SESOLA_EMAIL : ISTL_EMAIL;
-        String companyUdyam = isSesola ? SESOLA_UDYAM : ISTL_UDYAM;
-        String companyCin = isSesola ? SESOLA_CIN : ISTL_CIN;
+        PdfResourceService.CompanyHeader company = pdfResources.companyHeader(invoice.getCompany());
 
         // Main header table
         Table mainTable = new Table(2).setWidth(UnitValue.createPercentValue(100));
@@ -150,38 +178,14 @@ public class InvoicePdfService {
                 .setBorderRight(new SolidBorder(ColorConstants.BLACK, 1))
                 .setPadding(8);
 
-        companyCell.add(new Paragraph(companyName)
+        companyCell.add(new Paragraph(company.getName())
                 .setFont(bold)
                 .setFontSize(10));
-        companyCell.add(new Paragraph(companyAddress)
-                .setFont(normal)
-                .setFontSize(8));
-        companyCell.add(new Paragraph(companyCity)
-                .setFont(normal)
-                .setFontSize(8));
-        
-        if (companyUdyam != null && !companyUdyam.isEmpty()) {
-            companyCell.add(new Paragraph(companyUdyam)
+        for (String line : company.getDetailLines()) {
+            companyCell.add(new Paragraph(line)
                     .setFont(normal)
                     .setFontSize(8));
         }
-        
-        companyCell.add(new Paragraph("GSTIN/UIN: " + companyGstin)
-                .setFont(normal)
-                .setFontSize(8));
-        companyCell.add(new Paragraph("State Name: " + STATE_NAME + ", Code: " + STATE_CODE)
-                .setFont(normal)
-                .setFontSize(8));
-        
-        if (companyCin != null && !companyCin.isEmpty()) {
-            companyCell.add(new Paragraph("CIN: " + companyCin)
-                    .setFont(normal)
-                    .setFontSize(8));
-        }
-        
-        companyCell.add(new Paragraph("E-Mail: " + companyEmail)
-                .setFont(normal)
-                .setFontSize(8));
 
         mainTable.addCell(companyCell);
 
@@ -293,8 +297,9 @@ public class InvoicePdfService {
     private void addItemsTableExact(Document document, InvoiceEntity invoice, 
                                     PdfFont bold, PdfFont normal) {
         
-        // Table with exact column structure from sample
-        Table itemsTable = new Table(new float[]{0.7f, 4f, 1.5f, 1.5f, 1.5f, 1.3f, 2f})
+        // Table with exact column structure from sample; large-table mode so
+        // rendered rows are flushed instead of held until the table is complete
+        Table itemsTable = new Table(new float[]{0.7f, 4f, 1.5f, 1.5f, 1.5f, 1.3f, 2f}, true)
                 .setWidth(UnitValue.createPercentValue(100))
                 .setMarginTop(0);
 
@@ -306,6 +311,7 @@ public class InvoicePdfService {
         addTableHeader(itemsTable, "Rate\nper", bold, TextAlignment.CENTER);
         addTableHeader(itemsTable, "per", bold, TextAlignment.CENTER);
         addTableHeader(itemsTable, "Amount", bold, TextAlignment.CENTER);
+        document.add(itemsTable);
 
         // Calculate totals
         BigDecimal subtotal = BigDecimal.ZERO;
@@ -329,6 +335,10 @@ public class InvoicePdfService {
             itemsTable.addCell(createDataCell(formatAmount(unitPrice), normal, TextAlignment.RIGHT));
             itemsTable.addCell(createDataCell(unitType, normal, TextAlignment.CENTER));
             itemsTable.addCell(createDataCell(formatAmount(lineAmount), normal, TextAlignment.RIGHT));
+
+            if ((slNo - 1) % TABLE_FLUSH_ROWS == 0) {
+                itemsTable.flush();
+            }
         }
 
         // Tax rows - exactly like sample
@@ -390,7 +400,7 @@ public class InvoicePdfService {
         itemsTable.addCell(createDataCell(unitType, bold, TextAlignment.CENTER));
         itemsTable.addCell(createDataCell("₹ " + formatAmount(grandTotal), bold, TextAlignment.RIGHT));
 
-        document.add(itemsTable);
+        itemsTable.complete();
 
         // Amount in words - with E & O.E
         Paragraph amountInWords = new Paragraph("Amount Chargeable (in words)")
@@ -516,9 +526,9 @@ public class InvoicePdfService {
 
     private void addFooter(Document document, InvoiceEntity invoice, PdfFont bold, PdfFont normal) {
         
-        boolean isSesola = "SESOLA".equalsIgnoreCase(invoice.getCompany());
-        String companyName = isSesola ? SESOLA_NAME : ISTL_NAME;
-        String companyPan = isSesola ? SESOLA_PAN : ISTL_PAN;
+        PdfResourceService.CompanyHeader company = pdfResources.companyHeader(invoice.getCompany());
+        String companyName = company.getName();
+        String companyPan = company.getPan();
         
         Paragraph pan = new Paragraph("Company's PAN: " + companyPan)
                 .setFont(normal)
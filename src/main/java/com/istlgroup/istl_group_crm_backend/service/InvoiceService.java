@@ -1,6 +1,7 @@
 // InvoiceService.java
 package com.istlgroup.istl_group_crm_backend.service;
 
+import com.istlgroup.istl_group_crm_backend.customException.CustomException;
 import com.istlgroup.istl_group_crm_backend.entity.InvoiceEntity;
 import com.istlgroup.istl_group_crm_backend.entity.InvoiceItemEntity;
 import com.istlgroup.istl_group_crm_backend.entity.PaymentHistoryEntity;
@@ -9,6 +10,7 @@ import com.istlgroup.istl_group_crm_backend.repo.InvoiceRepository;
 import com.istlgroup.istl_group_crm_backend.repo.PaymentHistoryRepository;
 import com.istlgroup.istl_group_crm_backend.repo.InvoiceItemRepository;
 import com.istlgroup.istl_group_crm_backend.repo.CustomersRepo;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -21,11 +23,12 @@ import com.istlgroup.istl_group_crm_backend.repo.OrderBookRepo;
 import com.istlgroup.istl_group_crm_backend.repo.OrderBookItemRepo;
 import com.istlgroup.istl_group_crm_backend.entity.OrderBookEntity;
 import com.istlgroup.istl_group_crm_backend.entity.OrderBookItemEntity;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.Year;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -43,6 +46,10 @@ public class InvoiceService {
     private final PaymentHistoryRepository paymentHistoryRepository;
     private final OrderBookRepo orderBookRepo;
     private final OrderBookItemRepo orderBookItemRepo;
+    private final PdfCacheService pdfCache;
+    private final DocumentSequenceService documentSequenceService;
+    
+    private static final String KEYSET_SCOPE = "invoice";
     /**
      * Get invoices with role-based and project-based filtering
      */
@@ -103,6 +110,44 @@ public class InvoiceService {
         }
     }
     
+    /**
+     * Cursor (keyset) variant of getInvoices, ordered by invoiceDate DESC, id DESC.
+     * Same scope precedence: project > group + subgroup > group. Search is not supported.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<InvoiceEntity> getInvoicesKeyset(
+            String groupId,
+            String subGroupId,
+            String projectId,
+            String status,
+            Long userId,
+            String userRole,
+            String cursor,
+            int size,
+            boolean includeTotal
+    ) {
+        KeysetCursor after = KeysetCursor.decode(KEYSET_SCOPE, cursor);
+        
+        String scopeProject = hasText(projectId) ? projectId : null;
+        String scopeSubGroup = scopeProject == null && hasText(subGroupId) ? subGroupId : null;
+        String scopeGroup = scopeProject == null && hasText(groupId) ? groupId : null;
+        String statusFilter = hasText(status) ? status : null;
+        Long accessUserId = isAdmin(userRole) ? null : userId;
+        
+        List<InvoiceEntity> rows = invoiceRepository.findKeysetPage(
+                scopeProject, scopeGroup, scopeSubGroup, statusFilter, accessUserId,
+                after != null ? after.dateKey() : null,
+                after != null ? after.getId() : null,
+                KeysetCursor.fetch(size)
+        );
+        Long total = includeTotal
+                ? invoiceRepository.countKeysetPage(scopeProject, scopeGroup, scopeSubGroup, statusFilter, accessUserId)
+                : null;
+        
+        return KeysetCursor.page(KEYSET_SCOPE, rows, size,
+                InvoiceEntity::getInvoiceDate, InvoiceEntity::getId, total);
+    }
+    
     /**
      * Get invoice by ID
      */
@@ -343,7 +388,9 @@ public class InvoiceService {
         }
         
         existing.setUpdatedAt(LocalDateTime.now());
-        return invoiceRepository.save(existing);
+        InvoiceEntity saved = invoiceRepository.save(existing);
+        pdfCache.invalidate(PdfCacheService.INVOICE, id);
+        return saved;
     }
     
     /**
@@ -393,6 +440,7 @@ public class InvoiceService {
         InvoiceEntity invoice = getInvoiceById(id);
         invoice.setDeletedAt(LocalDateTime.now());
         invoiceRepository.save(invoice);
+        pdfCache.invalidate(PdfCacheService.INVOICE, id);
         
         log.info("Soft deleted invoice: {}", invoice.getInvoiceNo());
     }
@@ -429,24 +477,37 @@ public class InvoiceService {
         return pdfService.generateInvoicePdf(invoice);
     }
     
+    /**
+     * Validate the invoice for PDF rendering and load its customer
+     */
+    public CustomersEntity preparePdf(InvoiceEntity invoice) throws CustomException {
+        return pdfService.resolveCustomer(invoice);
+    }
+    
+    /**
+     * Render the invoice PDF directly into the output stream
+     */
+    public void writePdf(InvoiceEntity invoice, CustomersEntity customer, OutputStream out)
+            throws CustomException, IOException {
+        pdfService.writeInvoicePdf(invoice, customer, out);
+    }
+    
     // Helper methods
     
     private boolean isAdmin(String userRole) {
         return "ADMIN".equalsIgnoreCase(userRole) || "SUPERADMIN".equalsIgnoreCase(userRole);
     }
     
+    private boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+    
     /**
      * Generate unique invoice number
      * Format: INV-YYYY-NNNN
      */
     private String generateInvoiceNumber() {
-        int currentYear = Year.now().getValue();
-        String prefix = "INV-" + currentYear + "-";
-        
-        long count = invoiceRepository.countByInvoiceNoPrefix(prefix + "%");
-        String number = String.format("%04d", count + 1);
-        
-        return prefix + number;
+        return documentSequenceService.nextCode(DocumentSequenceService.Sequence.INVOICE);
     }
     
     private BigDecimal calculateTotalAmount(List<InvoiceItemEntity> items) {
@@ -0,0 +1,129 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Continuation token for keyset listings: the sort key and id of the last row
+ * of a page. The token is opaque to clients and tagged with the listing it
+ * belongs to, so a purchase order cursor cannot be replayed against bills.
+ *
+ * Listings using it are ordered by (sort key DESC, id DESC) and fetch the next
+ * page with "key < :afterKey OR (key = :afterKey AND id < :afterId)", so every
+ * page costs the same regardless of how deep the client has scrolled.
+ * Ascending listings work the same way with the comparisons flipped.
+ */
+public final class KeysetCursor {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final String sortKey;
+    private final long id;
+
+    private KeysetCursor(String sortKey, long id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    /**
+     * Decode a token; null or blank means the first page and returns null
+     */
+    public static KeysetCursor decode(String scope, String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !parts[0].equals(scope)) {
+                throw new RuntimeException("Invalid cursor");
+            }
+            return new KeysetCursor(parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor", e);
+        }
+    }
+
+    public static String encode(String scope, Object sortKey, Long id) {
+        String raw = scope + "|" + sortKey + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Fetch one row more than requested so hasNext is known without a count
+     */
+    public static Pageable fetch(int size) {
+        return PageRequest.of(0, pageSize(size) + 1);
+    }
+
+    public static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Trim the extra row fetched by {@link #fetch(int)} and build the next cursor from the last row kept
+     */
+    public static <T> KeysetPage<T> page(String scope, List<T> rows, int size,
+                                         Function<T, Object> sortKey, Function<T, Long> id, Long total) {
+        int pageSize = pageSize(size);
+        boolean hasNext = rows.size() > pageSize;
+        List<T> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            T last = content.get(content.size() - 1);
+            nextCursor = encode(scope, sortKey.apply(last), id.apply(last));
+        }
+        return KeysetPage.<T>builder()
+                .content(content)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(pageSize)
+                .totalElements(total)
+                .build();
+    }
+
+    /**
+     * Reject sort orders the seek queries do not implement
+     */
+    public static void requireDefaultSort(String sortKey, String sortBy, String sortDirection) {
+        if (!sortKey.equals(sortBy) || !"DESC".equalsIgnoreCase(sortDirection)) {
+            throw new RuntimeException("Cursor paging only supports sortBy=" + sortKey + " DESC");
+        }
+    }
+
+    public LocalDate dateKey() {
+        try {
+            return LocalDate.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor", e);
+        }
+    }
+
+    public LocalDateTime dateTimeKey() {
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Raw sort key, for listings whose key is not a single date
+     */
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
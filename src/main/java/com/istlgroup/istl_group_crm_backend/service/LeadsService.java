@@ -2,10 +2,18 @@ package com.istlgroup.istl_group_crm_backend.service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.istlgroup.istl_group_crm_backend.customException.CustomException;
@@ -24,6 +32,12 @@ public class LeadsService {
     @Autowired
     private LeadsRepo leadsRepo;
 
+    @Autowired
+    private DocumentSequenceService documentSequenceService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
     @Autowired
     private UsersRepo usersRepo;
     @Autowired
@@ -42,39 +56,28 @@ public class LeadsService {
    
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     /**
-     * Get all leads based on user role
+     * Get all leads based on user role, one page at a time
      * - SUPERADMIN: sees all leads
      * - ADMIN: sees all leads + their created leads
      * - Others: sees only their created leads and assigned leads
      */
-    public List<LeadWrapper> getAllLeads(Long userId, String userRole, String groupName, String subGroupName) {
-        List<LeadsEntity> leads;
-        System.err.print(userRole);
-        if ("SUPERADMIN".equalsIgnoreCase(userRole)) {
-            leads = leadsRepo.findByDeletedAtIsNull();
-        } else if ("ADMIN".equalsIgnoreCase(userRole)) {
-            leads = leadsRepo.findByDeletedAtIsNull();
-        } else {
-            leads = leadsRepo.findByCreatedByOrAssignedTo(userId);
-        }
-
-        // Apply group/subgroup filters
-        if (groupName != null && !groupName.isEmpty()) {
-            leads = leads.stream()
-                    .filter(lead -> groupName.equals(lead.getGroupName()))
-                    .collect(Collectors.toList());
-        }
-
-        if (subGroupName != null && !subGroupName.isEmpty()) {
-            leads = leads.stream()
-                    .filter(lead -> subGroupName.equals(lead.getSubGroupName()))
-                    .collect(Collectors.toList());
-        }
+    public Page<LeadWrapper> getAllLeads(Long userId, String userRole, String groupName, String subGroupName,
+                                         int page, int size) {
+        return getLeadsPage(userId, userRole, groupName, subGroupName, null, page, size);
+    }
 
-        return leads.stream()
-                .map(this::convertToWrapper)
-                .collect(Collectors.toList());
+    /**
+     * One page of leads, newest first, with group / sub-group / status filters applied
+     * in SQL; null or blank means no filter. Non-admins only see leads they created
+     * or are assigned to.
+     */
+    public Page<LeadWrapper> getLeadsPage(Long userId, String userRole, String groupName, String subGroupName,
+                                          String status, int page, int size) {
+        boolean isAdmin = "SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole);
+        return findLeadsPage(isAdmin ? null : userId, groupName, subGroupName, status, null, null, page, size);
     }
 
     /**
@@ -94,7 +97,28 @@ public class LeadsService {
             toDate = LocalDateTime.parse(filterRequest.getToDate() + " 23:59:59", DATE_FORMATTER);
         }
 
-        if ("SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole)) {
+        boolean isAdmin = "SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole);
+        
+        // Ranked ids from the search index, hydrated with the remaining filters and kept in rank order
+        // (best match first); null for too-broad terms, which fall through to the SQL search
+        List<Long> hitIds = searchIndexService.searchLeads(filterRequest.getSearchTerm(), isAdmin ? null : userId);
+        if (hitIds != null) {
+            List<LeadsEntity> hits = hitIds.isEmpty() ? List.of() : leadsRepo.findSearchHits(
+                hitIds,
+                isAdmin ? null : userId,
+                filterRequest.getStatus(),
+                filterRequest.getPriority(),
+                filterRequest.getSource(),
+                filterRequest.getGroupName(),
+                filterRequest.getSubGroupName(),
+                filterRequest.getAssignedTo(),
+                fromDate,
+                toDate
+            );
+            return convertToWrappers(SearchIndexService.inRankOrder(hitIds, hits, LeadsEntity::getId));
+        }
+
+        if (isAdmin) {
             // SuperAdmin and Admin can search all leads
             leads = leadsRepo.searchLeads(
                 filterRequest.getSearchTerm(),
@@ -123,9 +147,7 @@ public class LeadsService {
             );
         }
 
-        return leads.stream()
-                .map(this::convertToWrapper)
-                .collect(Collectors.toList());
+        return convertToWrappers(leads);
     }
 
     /**
@@ -173,6 +195,7 @@ public LeadWrapper createLead(LeadRequestWrapper requestWrapper, Long createdBy)
     lead.setCreatedBy(createdBy);
 
     LeadsEntity savedLead = leadsRepo.save(lead);
+    searchIndexService.indexLead(savedLead);
     
     // *** ADD HISTORY - Lead Creation ***
     try {
@@ -292,6 +315,7 @@ public LeadWrapper updateLead(Long leadId, LeadRequestWrapper requestWrapper, Lo
     }
 
     LeadsEntity updatedLead = leadsRepo.save(lead);
+    searchIndexService.indexLead(updatedLead);
     
     // *** ADD HISTORY TRACKING - Status Change ***
     if (requestWrapper.getStatus() != null && !requestWrapper.getStatus().equals(oldStatus)) {
@@ -416,86 +440,69 @@ public LeadWrapper updateLead(Long leadId, LeadRequestWrapper requestWrapper, Lo
 
         lead.setDeletedAt(LocalDateTime.now());
         leadsRepo.save(lead);
+        searchIndexService.indexLead(lead);
     }
 
     /**
      * Get leads by group name with role-based access
      */
-    public List<LeadWrapper> getLeadsByGroup(String groupName, Long userId, String userRole) {
-        List<LeadsEntity> leads;
-
-        if ("SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole)) {
-            leads = leadsRepo.findByGroupNameAndDeletedAtIsNull(groupName);
-        } else {
-            leads = leadsRepo.findByCreatedByOrAssignedTo(userId).stream()
-                    .filter(lead -> groupName.equals(lead.getGroupName()))
-                    .collect(Collectors.toList());
-        }
-
-        return leads.stream()
-                .map(this::convertToWrapper)
-                .collect(Collectors.toList());
+    public Page<LeadWrapper> getLeadsByGroup(String groupName, Long userId, String userRole, int page, int size) {
+        return getLeadsPage(userId, userRole, groupName, null, null, page, size);
     }
 
     /**
      * Get leads by status with role-based access
      */
-    public List<LeadWrapper> getLeadsByStatus(String status, Long userId, String userRole) {
-        List<LeadsEntity> leads;
-
-        if ("SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole)) {
-            leads = leadsRepo.findByStatusAndDeletedAtIsNull(status);
-        } else {
-            leads = leadsRepo.findByCreatedByOrAssignedTo(userId).stream()
-                    .filter(lead -> status.equals(lead.getStatus()))
-                    .collect(Collectors.toList());
-        }
-
-        return leads.stream()
-                .map(this::convertToWrapper)
-                .collect(Collectors.toList());
+    public Page<LeadWrapper> getLeadsByStatus(String status, Long userId, String userRole, int page, int size) {
+        return getLeadsPage(userId, userRole, null, null, status, page, size);
     }
 
     /**
      * Get leads assigned to a specific user
      */
-    public List<LeadWrapper> getLeadsAssignedTo(Long assignedUserId, Long requestingUserId, String userRole) throws CustomException {
-        List<LeadsEntity> leads;
+    public Page<LeadWrapper> getLeadsAssignedTo(Long assignedUserId, Long requestingUserId, String userRole,
+                                                int page, int size) throws CustomException {
+        boolean isAdmin = "SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole);
 
-        if ("SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole)) {
-            leads = leadsRepo.findByAssignedToAndDeletedAtIsNull(assignedUserId);
-        } else {
-            // Regular users can only see leads assigned to them
-            if (!assignedUserId.equals(requestingUserId)) {
-                throw new CustomException("Access denied: Can only view your own assigned leads");
-            }
-            leads = leadsRepo.findByAssignedToAndDeletedAtIsNull(assignedUserId);
+        // Regular users can only see leads assigned to them
+        if (!isAdmin && !assignedUserId.equals(requestingUserId)) {
+            throw new CustomException("Access denied: Can only view your own assigned leads");
         }
 
-        return leads.stream()
-                .map(this::convertToWrapper)
-                .collect(Collectors.toList());
+        return findLeadsPage(null, null, null, null, assignedUserId, null, page, size);
     }
 
     /**
      * Get leads created by a specific user
      */
-    public List<LeadWrapper> getLeadsCreatedBy(Long createdByUserId, Long requestingUserId, String userRole) throws CustomException {
-        List<LeadsEntity> leads;
+    public Page<LeadWrapper> getLeadsCreatedBy(Long createdByUserId, Long requestingUserId, String userRole,
+                                               int page, int size) throws CustomException {
+        boolean isAdmin = "SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole);
 
-        if ("SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole)) {
-            leads = leadsRepo.findByCreatedByAndDeletedAtIsNull(createdByUserId);
-        } else {
-            // Regular users can only see their own created leads
-            if (!createdByUserId.equals(requestingUserId)) {
-                throw new CustomException("Access denied: Can only view your own created leads");
-            }
-            leads = leadsRepo.findByCreatedByAndDeletedAtIsNull(createdByUserId);
+        // Regular users can only see their own created leads
+        if (!isAdmin && !createdByUserId.equals(requestingUserId)) {
+            throw new CustomException("Access denied: Can only view your own created leads");
         }
 
-        return leads.stream()
-                .map(this::convertToWrapper)
-                .collect(Collectors.toList());
+        return findLeadsPage(null, null, null, null, null, createdByUserId, page, size);
+    }
+
+    /**
+     * Run the paged lead query; accessUserId is null when no owner restriction applies
+     */
+    private Page<LeadWrapper> findLeadsPage(Long accessUserId, String groupName, String subGroupName, String status,
+                                            Long assignedTo, Long createdBy, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        Page<LeadsEntity> leads = leadsRepo.findLeadsPage(
+            accessUserId,
+            hasText(groupName) ? groupName : null,
+            hasText(subGroupName) ? subGroupName : null,
+            hasText(status) ? status : null,
+            assignedTo,
+            createdBy,
+            pageable
+        );
+        return new PageImpl<>(convertToWrappers(leads.getContent()), pageable, leads.getTotalElements());
     }
 
     /**
@@ -514,62 +521,85 @@ public LeadWrapper updateLead(Long leadId, LeadRequestWrapper requestWrapper, Lo
      * Generate unique lead code
      */
     private String generateLeadCode() {
-        String year = String.valueOf(LocalDateTime.now().getYear());
-        
-        // Get count of leads with codes starting with "LEAD-2025"
-        long countInYear = leadsRepo.countByLeadCodeStartingWith("LEAD-" + year);
-        long nextSequence = countInYear + 1;
-        
-        // Use 4 digits minimum, expands automatically beyond 9999
-        return String.format("LEAD-%s-%04d", year, nextSequence);
+        // 4 digits minimum, expands automatically beyond 9999
+        return documentSequenceService.nextCode(DocumentSequenceService.Sequence.LEAD);
+    }
+
+    private boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
     }
 
     /**
      * Convert Entity to Wrapper
      */
     private LeadWrapper convertToWrapper(LeadsEntity entity) {
-        LeadWrapper wrapper = new LeadWrapper();
-        wrapper.setId(entity.getId());
-        wrapper.setLeadCode(entity.getLeadCode());
-        wrapper.setCustomerId(entity.getCustomerId());
-        wrapper.setName(entity.getName());
-        wrapper.setEmail(entity.getEmail());
-        wrapper.setPhone(entity.getPhone());
-        wrapper.setSource(entity.getSource());
-        wrapper.setPriority(entity.getPriority());
-        wrapper.setStatus(entity.getStatus());
-        wrapper.setEnquiry(entity.getEnquiry());
-        wrapper.setGroupName(entity.getGroupName());
-        wrapper.setSubGroupName(entity.getSubGroupName());
-        wrapper.setAssignedTo(entity.getAssignedTo());
-        wrapper.setCreatedBy(entity.getCreatedBy());
-        wrapper.setCreatedAt(entity.getCreatedAt() != null ? entity.getCreatedAt().toString() : null);
-        wrapper.setUpdatedAt(entity.getUpdatedAt() != null ? entity.getUpdatedAt().toString() : null);
-        
-        // Fetch user names
-        if (entity.getAssignedTo() != null) {
-            usersRepo.findById(entity.getAssignedTo()).ifPresent(user -> 
-                wrapper.setAssignedToName(user.getName())
-            );
+        return convertToWrappers(List.of(entity)).get(0);
+    }
+
+    /**
+     * Convert a list of leads, loading user names and pending followup counts
+     * for the whole list with one query each instead of per lead
+     */
+    private List<LeadWrapper> convertToWrappers(List<LeadsEntity> entities) {
+        if (entities.isEmpty()) {
+            return new ArrayList<>();
         }
-        
-        if (entity.getCreatedBy() != null) {
-            usersRepo.findById(entity.getCreatedBy()).ifPresent(user -> 
-                wrapper.setCreatedByName(user.getName())
-            );
+
+        Set<Long> leadIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (LeadsEntity entity : entities) {
+            leadIds.add(entity.getId());
+            if (entity.getAssignedTo() != null) {
+                userIds.add(entity.getAssignedTo());
+            }
+            if (entity.getCreatedBy() != null) {
+                userIds.add(entity.getCreatedBy());
+            }
         }
-        
-        // *** ADD THIS: Check for pending followups ***
+
+        // Fetch user names
+        Map<Long, String> userNames = userIds.isEmpty() ? Map.of() : usersRepo.findNamesByIdIn(userIds).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (String) row[1], (a, b) -> a));
+
+        // Pending followups
+        Map<Long, Integer> pendingCounts;
         try {
-            boolean hasPending = followupsService.hasLeadPendingFollowups(entity.getId());
-            int count = followupsService.getPendingFollowupsCountForLead(entity.getId());
-            wrapper.setHasPendingFollowups(hasPending);
-            wrapper.setPendingFollowupsCount(count);
+            pendingCounts = followupsService.getPendingFollowupsCountsForLeads(leadIds);
         } catch (Exception e) {
-            wrapper.setHasPendingFollowups(false);
-            wrapper.setPendingFollowupsCount(0);
+            pendingCounts = Map.of();
         }
-        
-        return wrapper;
+
+        List<LeadWrapper> wrappers = new ArrayList<>(entities.size());
+        for (LeadsEntity entity : entities) {
+            LeadWrapper wrapper = new LeadWrapper();
+            wrapper.setId(entity.getId());
+            wrapper.setLeadCode(entity.getLeadCode());
+            wrapper.setCustomerId(entity.getCustomerId());
+            wrapper.setName(entity.getName());
+            wrapper.setEmail(entity.getEmail());
+            wrapper.setPhone(entity.getPhone());
+            wrapper.setSource(entity.getSource());
+            wrapper.setPriority(entity.getPriority());
+            wrapper.setStatus(entity.getStatus());
+            wrapper.setEnquiry(entity.getEnquiry());
+            wrapper.setGroupName(entity.getGroupName());
+            wrapper.setSubGroupName(entity.getSubGroupName());
+            wrapper.setAssignedTo(entity.getAssignedTo());
+            wrapper.setCreatedBy(entity.getCreatedBy());
+            wrapper.setCreatedAt(entity.getCreatedAt() != null ? entity.getCreatedAt().toString() : null);
+            wrapper.setUpdatedAt(entity.getUpdatedAt() != null ? entity.getUpdatedAt().toString() : null);
+            if (entity.getAssignedTo() != null) {
+                wrapper.setAssignedToName(userNames.get(entity.getAssignedTo()));
+            }
+            if (entity.getCreatedBy() != null) {
+                wrapper.setCreatedByName(userNames.get(entity.getCreatedBy()));
+            }
+
+            int count = pendingCounts.getOrDefault(entity.getId(), 0);
+            wrapper.setHasPendingFollowups(count > 0);
+            wrapper.setPendingFollowupsCount(count);
+            wrappers.add(wrapper);
+        }
+        return wrappers;
     }
-}
\ No newline at end of file
+}
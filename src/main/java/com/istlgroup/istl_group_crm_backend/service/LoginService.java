@@ -1,18 +1,14 @@
 package com.istlgroup.istl_group_crm_backend.service;
 
-import java.lang.reflect.Field;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -54,10 +50,19 @@ public class LoginService {
 
 	@Autowired
 	private RolesRepo rolesRepo;
+
+	@Autowired
+	private ReferenceDataCacheService referenceData;
 	
 	@Autowired
 	private PagePermissionsRepo pagePermissions;
 	
+	@Autowired
+	private PermissionCountService permissionCountService;
+	
+	@Autowired
+	private AuthTokenService authTokenService;
+	
 	
 	@Value("${server.servlet.session.timeout}")
 	private Duration sessionTimeout;
@@ -76,23 +81,26 @@ public class LoginService {
 	        throw new CustomException("Invalid Credentials");
 	    }
 		
-	    UsernamePasswordAuthenticationToken authentication =
-	            new UsernamePasswordAuthenticationToken(
-	                    response.getUser_id(),
-	                    null,
-	                    List.of()
-	            );
-
-	    SecurityContextHolder.getContext().setAuthentication(authentication);
-
-	    request.getSession(true).setAttribute(
-	            HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
-	            SecurityContextHolder.getContext()
-	    );
-		
-	    HttpSession session = request.getSession(true);
-	    session.setAttribute("USER_ID", response.getId());
-//	    session.setMaxInactiveInterval(120); 
+	    // Token mode keeps no session; the token is issued below once permissions are loaded
+	    if (!authTokenService.isTokenMode()) {
+		    UsernamePasswordAuthenticationToken authentication =
+		            new UsernamePasswordAuthenticationToken(
+		                    response.getUser_id(),
+		                    null,
+		                    List.of()
+		            );
+
+		    SecurityContextHolder.getContext().setAuthentication(authentication);
+
+		    request.getSession(true).setAttribute(
+		            HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+		            SecurityContextHolder.getContext()
+		    );
+			
+		    HttpSession session = request.getSession(true);
+		    session.setAttribute("USER_ID", response.getId());
+//		    session.setMaxInactiveInterval(120); 
+	    }
 
 		Long byId = response.getCreated_by();
 
@@ -152,52 +160,24 @@ public class LoginService {
 		loginResponseWrapper.setWarningTime(warningTime.getSeconds());
 		loginResponseWrapper.setSessionTimeout(sessionTimeout.getSeconds());
 		
+		if (authTokenService.isTokenMode()) {
+			long[] pageBits = res.map(PagePermissionAccessors::encode).orElseGet(() -> new long[PagePermissionAccessors.WORDS]);
+			loginResponseWrapper.setToken(authTokenService.issue(response.getId(), response.getUser_id(),
+					response.getRole(), MenuPermissionAccessors.encode(permissions), pageBits));
+			loginResponseWrapper.setSessionTimeout(authTokenService.getTtl().getSeconds());
+		}
+		
 		return ResponseEntity.status(HttpStatus.OK).body(loginResponseWrapper);
 	}
 
 	private boolean hasAnyMenuPermission(MenuPermissionsEntity permissions) {
-	    return Stream.of(
-	            permissions.getDashboard(),
-	            permissions.getAnalytics(),
-	            permissions.getDocuments(),
-	            permissions.getSettings(),
-	            permissions.getFollow_ups(),
-	            permissions.getReports(),
-	            permissions.getInvoices(),
-	            permissions.getSales_clients(),
-	            permissions.getSales_leads(),
-	            permissions.getSales_estimation(),
-	            permissions.getProcurement_venders(),
-	            permissions.getProcurement_quotations_recived(),
-	            permissions.getProcurement_purchase_orders(),
-	            permissions.getProcurement_bills_received(),
-	            permissions.getOffice_use()
-	    ).anyMatch(value -> value != null && value == 1);
+	    return MenuPermissionAccessors.encode(permissions) != 0L;
 	}
 
 	
 	
 	private List<String> extractPermissions(MenuPermissionsEntity p) {
-
-	    List<String> permissions = new ArrayList<>();
-
-	    if (Integer.valueOf(1).equals(p.getDashboard())) permissions.add("DASHBOARD");
-	    if (Integer.valueOf(1).equals(p.getAnalytics())) permissions.add("ANALYTICS");
-	    if (Integer.valueOf(1).equals(p.getDocuments())) permissions.add("DOCUMENTS");
-	    if (Integer.valueOf(1).equals(p.getSettings())) permissions.add("SETTINGS");
-	    if (Integer.valueOf(1).equals(p.getFollow_ups())) permissions.add("FOLLOW_UPS");
-	    if (Integer.valueOf(1).equals(p.getReports())) permissions.add("REPORTS");
-	    if (Integer.valueOf(1).equals(p.getInvoices())) permissions.add("INVOICES");
-	    if (Integer.valueOf(1).equals(p.getSales_clients())) permissions.add("SALES_CLIENTS");
-	    if (Integer.valueOf(1).equals(p.getSales_leads())) permissions.add("SALES_LEADS");
-	    if (Integer.valueOf(1).equals(p.getSales_estimation())) permissions.add("SALES_ESTIMATION");
-	    if (Integer.valueOf(1).equals(p.getProcurement_venders())) permissions.add("PROCUREMENT_VENDERS");
-	    if (Integer.valueOf(1).equals(p.getProcurement_quotations_recived())) permissions.add("PROCUREMENT_QUOTATIONS");
-	    if (Integer.valueOf(1).equals(p.getProcurement_purchase_orders())) permissions.add("PROCUREMENT_PURCHASE_ORDERS");
-	    if (Integer.valueOf(1).equals(p.getProcurement_bills_received())) permissions.add("PROCUREMENT_BILLS");
-	    if (Integer.valueOf(1).equals(p.getOffice_use())) permissions.add("OFFICE_USE");
-
-	    return permissions;
+	    return MenuPermissionAccessors.labels(MenuPermissionAccessors.encode(p));
 	}
 
 
@@ -213,6 +193,8 @@ public class LoginService {
 		isUserExist.setUpdated_type("PROFILE_UPDATED");
 		
 		LoginEntity response=loginRepo.save(isUserExist);
+		referenceData.invalidate();
+		authTokenService.revokeUser(id);
 		if (response == null) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Update Failed");
 	    }
@@ -230,6 +212,7 @@ public class LoginService {
 			isUserExist.setUpdated_at(LocalDateTime.now(ZoneId.of("Asia/Kolkata")));
 			isUserExist.setUpdated_type("PASSWORD_UPDATED");
 			LoginEntity response=loginRepo.save(isUserExist);
+			authTokenService.revokeUser(id);
 			if (response == null) {
 				return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Update Failed");
 		    }
@@ -348,6 +331,10 @@ public class LoginService {
 	       
 	    }
 
+	    // Permission counts for the whole page in one query
+	    Map<Long, PermissionCountService.Counts> permissionCounts =
+	            permissionCountService.countByUserIds(users.stream().map(LoginEntity::getId).toList());
+
 	    List<UserWrapper> userWrappers = users.stream()
 	        .map(user -> {
 	            UserWrapper wrapper = new UserWrapper();
@@ -360,23 +347,11 @@ public class LoginService {
 	            wrapper.setCreated_at(user.getCreated_at());
 	            wrapper.setRole(user.getRole());
 
-	            // Page permissions count
-	            Optional<PagePermissionsEntity> p_permissions =
-	                    pagePermissions.findByUserId(user.getId());
-
-	            long totalPermissionCount = countEnabledPagePermissions(p_permissions);
-	            wrapper.setPagePermissionsCount(totalPermissionCount);
-
-	            // Menu permissions count
-	            MenuPermissionsEntity permissions =
-	                    menu_permissions.findByUsersId(user.getId());
-
-	            if (permissions == null) {
-	                wrapper.setMenuPermissionsCount(0L);
-	            } else {
-	                List<String> menu_list = extractPermissions(permissions);
-	                wrapper.setMenuPermissionsCount((long) menu_list.size());
-	            }
+	            // Page and menu permission counts
+	            PermissionCountService.Counts counts =
+	                    permissionCounts.getOrDefault(user.getId(), PermissionCountService.Counts.NONE);
+	            wrapper.setPagePermissionsCount(counts.getPageCount());
+	            wrapper.setMenuPermissionsCount(counts.getMenuCount());
 
 	            return wrapper;
 	        })
@@ -402,39 +377,7 @@ public class LoginService {
 	}
 
 	public long countEnabledPagePermissions(Optional<PagePermissionsEntity> res) {
-
-	    if (res.isEmpty()) {
-	        return 0L;
-	    }
-
-	    PagePermissionsEntity entity = res.get();
-	    long count = 0;
-
-	    for (Field field : PagePermissionsEntity.class.getDeclaredFields()) {
-	        field.setAccessible(true);
-
-	        try {
-	            Object value = field.get(entity);
-
-	            // Skip non-permission fields
-	            if (field.getName().equals("id") ||
-	                field.getName().equals("user_id") ||
-	                field.getName().equals("created_at") ||
-	                field.getName().equals("updated_at")) {
-	                continue;
-	            }
-
-	            // Count only enabled permissions
-	            if (value instanceof Integer && ((Integer) value) == 1) {
-	                count++;
-	            }
-
-	        } catch (IllegalAccessException e) {
-	            throw new RuntimeException("Failed to count page permissions", e);
-	        }
-	    }
-
-	    return count;
+	    return res.map(PagePermissionAccessors::countEnabled).orElse(0L);
 	}
 
 	public List<String> GetMenuPermissions(Long id) throws CustomException {
@@ -509,54 +452,8 @@ public class LoginService {
 	}
 
 	private Map<String, List<String>> extractPagePermissions(PagePermissionsEntity entity) {
-
-	    Map<String, List<String>> result = new LinkedHashMap<>();
-
-	    for (Field field : PagePermissionsEntity.class.getDeclaredFields()) {
-	        field.setAccessible(true);
-
-	        try {
-	            Object value = field.get(entity);
-
-	            // Skip non-enabled permissions
-	            if (!(value instanceof Integer) || ((Integer) value) != 1) {
-	                continue;
-	            }
-
-	            String fieldName = field.getName();
-
-	            // Skip non-permission fields
-	            if (fieldName.equals("id") ||
-	                fieldName.equals("user_id") ||
-	                fieldName.equals("created_at") ||
-	                fieldName.equals("updated_at")) {
-	                continue;
-	            }
-
-	            // users_view → USERS : VIEW
-	            // quotations_sales_approve → QUOTATIONS.SALES : APPROVE
-	            String[] parts = fieldName.split("_");
-
-	            String action = parts[parts.length - 1].toUpperCase();
-	            String module;
-
-	            if (parts.length > 2) {
-	                module = String.join(".",
-	                        Arrays.stream(parts, 0, parts.length - 1)
-	                              .map(String::toUpperCase)
-	                              .toArray(String[]::new));
-	            } else {
-	                module = parts[0].toUpperCase();
-	            }
-
-	            result.computeIfAbsent(module, k -> new ArrayList<>()).add(action);
-
-	        } catch (IllegalAccessException e) {
-	            throw new RuntimeException("Failed to extract page permissions", e);
-	        }
-	    }
-
-	    return result;
+	    // users_view → USERS : VIEW, quotations_sales_approve → QUOTATIONS.SALES : APPROVE
+	    return PagePermissionAccessors.decode(entity);
 	}
 
 	
@@ -611,55 +508,7 @@ public class LoginService {
 	    if (res.isEmpty()) {
 	        return Collections.emptyMap();
 	    }
-
-	    PagePermissionsEntity entity = res.get();
-	    Map<String, List<String>> result = new LinkedHashMap<>();
-
-	    for (Field field : PagePermissionsEntity.class.getDeclaredFields()) {
-	        field.setAccessible(true);
-
-	        try {
-	            Object value = field.get(entity);
-
-	            // Skip non-integer or non-enabled permissions
-	            if (!(value instanceof Integer) || ((Integer) value) != 1) {
-	                continue;
-	            }
-
-	            String fieldName = field.getName();
-
-	            // Skip non-permission fields
-	            if (fieldName.equals("id") ||
-	                fieldName.equals("user_id") ||
-	                fieldName.equals("created_at") ||
-	                fieldName.equals("updated_at")) {
-	                continue;
-	            }
-
-	            // Split column name
-	            String[] parts = fieldName.split("_");
-
-	            String action = parts[parts.length - 1].toUpperCase();
-	            String module;
-
-	            // Handle nested modules: quotations_sales_view → QUOTATIONS.SALES
-	            if (parts.length > 2) {
-	                module = String.join(".",
-	                        Arrays.stream(parts, 0, parts.length - 1)
-	                              .map(String::toUpperCase)
-	                              .toArray(String[]::new));
-	            } else {
-	                module = parts[0].toUpperCase();
-	            }
-
-	            result.computeIfAbsent(module, k -> new ArrayList<>()).add(action);
-
-	        } catch (IllegalAccessException e) {
-	            throw new RuntimeException("Failed to extract permissions", e);
-	        }
-	    }
-
-	    return result;
+	    return PagePermissionAccessors.decode(res.get());
 	}
 
 	public Map<String, Object> getUsers(int page, int size) {
@@ -0,0 +1,73 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.entity.MenuPermissionsEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The 15 menu permission columns of {@link MenuPermissionsEntity} as a bitmask
+ * (bit i = MENUS[i]). Labels are the names returned to the UI at login.
+ */
+public final class MenuPermissionAccessors {
+
+    private static final MenuFlag[] MENUS = {
+        new MenuFlag("DASHBOARD", MenuPermissionsEntity::getDashboard),
+        new MenuFlag("ANALYTICS", MenuPermissionsEntity::getAnalytics),
+        new MenuFlag("DOCUMENTS", MenuPermissionsEntity::getDocuments),
+        new MenuFlag("SETTINGS", MenuPermissionsEntity::getSettings),
+        new MenuFlag("FOLLOW_UPS", MenuPermissionsEntity::getFollow_ups),
+        new MenuFlag("REPORTS", MenuPermissionsEntity::getReports),
+        new MenuFlag("INVOICES", MenuPermissionsEntity::getInvoices),
+        new MenuFlag("SALES_CLIENTS", MenuPermissionsEntity::getSales_clients),
+        new MenuFlag("SALES_LEADS", MenuPermissionsEntity::getSales_leads),
+        new MenuFlag("SALES_ESTIMATION", MenuPermissionsEntity::getSales_estimation),
+        new MenuFlag("PROCUREMENT_VENDERS", MenuPermissionsEntity::getProcurement_venders),
+        new MenuFlag("PROCUREMENT_QUOTATIONS", MenuPermissionsEntity::getProcurement_quotations_recived),
+        new MenuFlag("PROCUREMENT_PURCHASE_ORDERS", MenuPermissionsEntity::getProcurement_purchase_orders),
+        new MenuFlag("PROCUREMENT_BILLS", MenuPermissionsEntity::getProcurement_bills_received),
+        new MenuFlag("OFFICE_USE", MenuPermissionsEntity::getOffice_use)
+    };
+
+    private MenuPermissionAccessors() {
+    }
+
+    public static long encode(MenuPermissionsEntity entity) {
+        long bits = 0;
+        for (int bit = 0; bit < MENUS.length; bit++) {
+            Integer value = MENUS[bit].getter.apply(entity);
+            if (value != null && value == 1) {
+                bits |= 1L << bit;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Labels of the set bits, in menu order
+     */
+    public static List<String> labels(long bits) {
+        List<String> labels = new ArrayList<>(Long.bitCount(bits));
+        for (int bit = 0; bit < MENUS.length; bit++) {
+            if ((bits & (1L << bit)) != 0) {
+                labels.add(MENUS[bit].label);
+            }
+        }
+        return labels;
+    }
+
+    public static int count(long bits) {
+        return Long.bitCount(bits);
+    }
+
+    private static final class MenuFlag {
+        private final String label;
+        private final Function<MenuPermissionsEntity, Integer> getter;
+
+        MenuFlag(String label, Function<MenuPermissionsEntity, Integer> getter) {
+            this.label = label;
+            this.getter = getter;
+        }
+    }
+}
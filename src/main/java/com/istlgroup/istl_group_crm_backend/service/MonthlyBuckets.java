@@ -0,0 +1,140 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calendar-month window for trend charts, read with one GROUP BY query.
+ *
+ * Repositories return one row per month that has data - Row: [year, month, sum, count] -
+ * for the half-open range [{@link #fromDateTime()}, {@link #toDateTime()}).
+ * {@link #fill(List)} turns those rows into one bucket per month of the window,
+ * oldest first, with empty months zero-filled.
+ */
+public final class MonthlyBuckets {
+
+    private final YearMonth first;
+    private final YearMonth last;
+
+    private MonthlyBuckets(YearMonth first, YearMonth last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * The last n months, the current month included
+     */
+    public static MonthlyBuckets lastMonths(int months) {
+        return lastMonths(months, YearMonth.now());
+    }
+
+    static MonthlyBuckets lastMonths(int months, YearMonth current) {
+        return new MonthlyBuckets(current.minusMonths(Math.max(1, months) - 1), current);
+    }
+
+    /**
+     * From the start of the current fiscal year up to the current month
+     */
+    public static MonthlyBuckets fiscalYearToDate(int fiscalYearStartMonth) {
+        return fiscalYearToDate(fiscalYearStartMonth, YearMonth.now());
+    }
+
+    static MonthlyBuckets fiscalYearToDate(int fiscalYearStartMonth, YearMonth current) {
+        YearMonth start = YearMonth.of(current.getYear(), fiscalYearStartMonth);
+        if (start.isAfter(current)) {
+            start = start.minusYears(1);
+        }
+        return new MonthlyBuckets(start, current);
+    }
+
+    /**
+     * Window from configuration: a number of months (6, 12, 24, ...) or "FY" for the fiscal year to date
+     */
+    public static MonthlyBuckets of(String window, int fiscalYearStartMonth) {
+        if (window == null || window.isBlank()) {
+            return lastMonths(6);
+        }
+        if ("FY".equalsIgnoreCase(window.trim())) {
+            return fiscalYearToDate(fiscalYearStartMonth);
+        }
+        try {
+            return lastMonths(Integer.parseInt(window.trim()));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid trend window: " + window, e);
+        }
+    }
+
+    public LocalDate fromDate() {
+        return first.atDay(1);
+    }
+
+    public LocalDate toDate() {
+        return last.plusMonths(1).atDay(1);
+    }
+
+    public LocalDateTime fromDateTime() {
+        return fromDate().atStartOfDay();
+    }
+
+    public LocalDateTime toDateTime() {
+        return toDate().atStartOfDay();
+    }
+
+    /**
+     * One bucket per month of the window, oldest first; months without a row are zero
+     */
+    public List<Bucket> fill(List<Object[]> rows) {
+        Map<YearMonth, Object[]> byMonth = new HashMap<>();
+        for (Object[] row : rows) {
+            byMonth.put(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()), row);
+        }
+
+        List<Bucket> buckets = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            Object[] row = byMonth.get(month);
+            BigDecimal total = row != null && row[2] != null ? toBigDecimal(row[2]) : BigDecimal.ZERO;
+            long count = row != null && row[3] != null ? ((Number) row[3]).longValue() : 0L;
+            buckets.add(new Bucket(month, total, count));
+        }
+        return buckets;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+    }
+
+    public static final class Bucket {
+        private final YearMonth month;
+        private final BigDecimal total;
+        private final long count;
+
+        private Bucket(YearMonth month, BigDecimal total, long count) {
+            this.month = month;
+            this.total = total;
+            this.count = count;
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        public BigDecimal getTotal() {
+            return total;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public BigDecimal getAverage() {
+            return count > 0 ? total.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+        }
+    }
+}
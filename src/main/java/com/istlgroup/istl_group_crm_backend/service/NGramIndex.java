@@ -0,0 +1,235 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over a few text fields per document.
+ *
+ * A query of 3+ characters only looks at documents holding every trigram of the
+ * query; the candidates are then checked for a real substring match, so results
+ * are the same as LOWER(field) LIKE '%term%' without scanning every row.
+ * Shorter queries fall back to a scan of the in-memory documents.
+ *
+ * Each document also carries up to two owner ids (creator / assignee) so
+ * searches can apply the same access rule as the repository queries.
+ */
+final class NGramIndex {
+
+    static final int GRAM = 3;
+
+    // Hit order: highest score first, newer (higher id) first on ties
+    private static final Comparator<long[]> RANK =
+        Comparator.<long[]>comparingLong(h -> h[1]).thenComparingLong(h -> h[0]).reversed();
+
+    private final int[] fieldWeights;
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param fieldWeights ranking weight of each indexed field, in the order passed to put
+     */
+    NGramIndex(int... fieldWeights) {
+        this.fieldWeights = fieldWeights;
+    }
+
+    void put(long id, Long ownerId, Long assigneeId, String... fields) {
+        String[] normalized = new String[fieldWeights.length];
+        for (int i = 0; i < normalized.length && i < fields.length; i++) {
+            normalized[i] = normalize(fields[i]);
+        }
+        Doc doc = new Doc(normalized, ownerId, assigneeId);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            docs.put(id, doc);
+            for (String gram : grams(doc.fields)) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the documents containing the query in any field, best match first.
+     * A non-null accessUserId keeps only documents owned by or assigned to that user.
+     */
+    List<Long> search(String query, Long accessUserId, int limit) {
+        String q = normalize(query);
+        if (q == null) {
+            return List.of();
+        }
+
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        // Keep only the best limit hits: the heap head is the weakest hit kept so far
+        PriorityQueue<long[]> top = new PriorityQueue<>(RANK.reversed());
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(q)) {
+                Doc doc = docs.get(id);
+                if (doc == null || !doc.visibleTo(accessUserId)) {
+                    continue;
+                }
+                long score = score(doc, q);
+                if (score <= 0) {
+                    continue;
+                }
+                long[] hit = { id, score };
+                if (top.size() < limit) {
+                    top.add(hit);
+                } else if (RANK.compare(hit, top.peek()) < 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<long[]> hits = new ArrayList<>(top);
+        hits.sort(RANK);
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (long[] hit : hits) {
+            ids.add(hit[0]);
+        }
+        return ids;
+    }
+
+    private Collection<Long> candidates(String q) {
+        if (q.length() < GRAM) {
+            return docs.keySet();
+        }
+
+        // Intersect posting lists, smallest first
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(q)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Exact field match > prefix > start of a word > anywhere, times the field weight
+     */
+    private long score(Doc doc, String q) {
+        long best = 0;
+        for (int i = 0; i < doc.fields.length; i++) {
+            String field = doc.fields[i];
+            if (field == null) {
+                continue;
+            }
+            int at = field.indexOf(q);
+            if (at < 0) {
+                continue;
+            }
+            int match;
+            if (field.length() == q.length()) {
+                match = 8;
+            } else if (at == 0) {
+                match = 4;
+            } else if (!Character.isLetterOrDigit(field.charAt(at - 1))) {
+                match = 2;
+            } else {
+                match = 1;
+            }
+            best = Math.max(best, (long) match * fieldWeights[i]);
+        }
+        return best;
+    }
+
+    private void removeLocked(long id) {
+        Doc previous = docs.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous.fields)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String... values) {
+        Set<String> grams = new HashSet<>();
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                grams.add(value.substring(i, i + GRAM));
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Doc {
+        private final String[] fields;
+        private final Long ownerId;
+        private final Long assigneeId;
+
+        Doc(String[] fields, Long ownerId, Long assigneeId) {
+            this.fields = fields;
+            this.ownerId = ownerId;
+            this.assigneeId = assigneeId;
+        }
+
+        boolean visibleTo(Long userId) {
+            return userId == null || userId.equals(ownerId) || userId.equals(assigneeId);
+        }
+    }
+}
@@ -45,6 +45,9 @@ public class OrderBookService {
     
     @Autowired
     private OrderBookRepo orderBookRepo;
+
+    @Autowired
+    private DocumentSequenceService documentSequenceService;
     
     @Autowired
     private OrderBookItemRepo orderBookItemRepo;
@@ -471,13 +474,7 @@ public class OrderBookService {
      * Generate unique order book number
      */
     private String generateOrderBookNo() {
-        String year = String.valueOf(LocalDateTime.now().getYear());
-        String prefix = "ORD-" + year + "-";
-        
-        long count = orderBookRepo.countByOrderBookNoStartingWith(prefix);
-        long nextSequence = count + 1;
-        
-        return String.format("%s%04d", prefix, nextSequence);
+        return documentSequenceService.nextCode(DocumentSequenceService.Sequence.ORDER_BOOK);
     }
     
     /**
@@ -0,0 +1,252 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.entity.PagePermissionsEntity;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precomputed accessors for the Integer flag columns of {@link PagePermissionsEntity}.
+ * The name parsing and getter/setter lookup happen once when the class loads.
+ *
+ * A user's page permissions are encoded as a bitmask (long[]) where bit i is
+ * COLUMNS[i]; this is the same numbering as the permission ids used by
+ * UsersService.UpdatePagePermissions (id = bit + 1). The columns stay the
+ * source of truth: masks are encoded from and applied to the entity.
+ *
+ * Column naming: users_view → USERS : VIEW, quotations_sales_approve → QUOTATIONS.SALES : APPROVE
+ */
+public final class PagePermissionAccessors {
+
+    private static final String[] COLUMNS = {
+        "users_view", "users_create", "users_edit", "users_delete",
+        "roles_manage",
+        "customers_view", "customers_create", "customers_edit", "customers_delete",
+        "vendors_view", "vendors_create", "vendors_edit", "vendors_delete",
+        "leads_view", "leads_create", "leads_edit", "leads_delete", "leads_assign",
+        "proposals_view", "proposals_create", "proposals_edit", "proposals_delete", "proposals_approve",
+        "quotations_sales_view", "quotations_sales_create", "quotations_sales_edit",
+        "quotations_sales_delete", "quotations_sales_approve",
+        "sales_orders_view", "sales_orders_create", "sales_orders_edit", "sales_orders_delete",
+        "sales_orders_approve",
+        "invoices_view", "invoices_create", "invoices_edit", "invoices_delete", "invoices_send",
+        "quotations_procurement_view", "quotations_procurement_create", "quotations_procurement_edit",
+        "quotations_procurement_delete", "quotations_procurement_approve",
+        "purchase_orders_view", "purchase_orders_create", "purchase_orders_edit",
+        "purchase_orders_delete", "purchase_orders_approve",
+        "bills_view", "bills_create", "bills_edit", "bills_delete", "bills_approve",
+        "payments_view", "payments_record", "payments_approve",
+        "reports_sales", "reports_procurement", "reports_financial", "reports_analytics",
+        "followups_view", "followups_create", "followups_edit", "followups_delete",
+        "settings_view", "settings_edit",
+        "activity_logs_view",
+        "attachments_upload", "attachments_delete"
+    };
+
+    public static final int SIZE = COLUMNS.length;
+    public static final int WORDS = (SIZE + 63) / 64;
+
+    private static final Set<String> NON_PERMISSION_FIELDS = Set.of("id", "user_id", "created_at", "updated_at");
+
+    private static final Accessor[] ACCESSORS;
+    private static final String[] MODULES;
+    private static final Map<String, Integer> BIT_BY_NAME;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<String> modules = new ArrayList<>();
+        Map<String, Integer> bitByName = new HashMap<>();
+        ACCESSORS = new Accessor[SIZE];
+
+        for (int bit = 0; bit < SIZE; bit++) {
+            String column = COLUMNS[bit];
+            String[] parts = column.split("_");
+            String action = parts[parts.length - 1].toUpperCase();
+            String module = String.join(".",
+                    Arrays.stream(parts, 0, Math.max(1, parts.length - 1))
+                          .map(String::toUpperCase)
+                          .toArray(String[]::new));
+
+            int moduleIndex = modules.indexOf(module);
+            if (moduleIndex < 0) {
+                moduleIndex = modules.size();
+                modules.add(module);
+            }
+
+            // Lombok accessors: users_view → getUsers_view / setUsers_view
+            String property = Character.toUpperCase(column.charAt(0)) + column.substring(1);
+            try {
+                MethodHandle getter = lookup.findVirtual(PagePermissionsEntity.class, "get" + property,
+                        MethodType.methodType(Integer.class));
+                MethodHandle setter = lookup.findVirtual(PagePermissionsEntity.class, "set" + property,
+                        MethodType.methodType(void.class, Integer.class));
+                ACCESSORS[bit] = new Accessor(action, moduleIndex, getter, setter);
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+            bitByName.put(column, bit);
+        }
+
+        // A flag column added to the entity must also get a bit here
+        for (Field field : PagePermissionsEntity.class.getDeclaredFields()) {
+            if (field.getType() == Integer.class
+                    && !Modifier.isStatic(field.getModifiers())
+                    && !NON_PERMISSION_FIELDS.contains(field.getName())
+                    && !bitByName.containsKey(field.getName())) {
+                throw new ExceptionInInitializerError(
+                        "Page permission column " + field.getName() + " has no bit assigned");
+            }
+        }
+
+        MODULES = modules.toArray(new String[0]);
+        BIT_BY_NAME = Collections.unmodifiableMap(bitByName);
+    }
+
+    private PagePermissionAccessors() {
+    }
+
+    /**
+     * Pack the enabled flags of the row into a bitmask
+     */
+    public static long[] encode(PagePermissionsEntity entity) {
+        long[] bits = new long[WORDS];
+        for (int bit = 0; bit < SIZE; bit++) {
+            if (ACCESSORS[bit].isEnabled(entity)) {
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Write the mask back to the columns (1 for set bits, 0 otherwise)
+     */
+    public static void apply(PagePermissionsEntity entity, long[] bits) {
+        for (int bit = 0; bit < SIZE; bit++) {
+            Integer value = test(bits, bit) ? 1 : 0;
+            try {
+                ACCESSORS[bit].setter.invokeExact(entity, value);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to set page permission " + COLUMNS[bit], e);
+            }
+        }
+    }
+
+    /**
+     * Mask from permission ids (1-based, see UsersService.UpdatePagePermissions); unknown ids are skipped
+     */
+    public static long[] fromPermissionIds(Collection<Integer> permissionIds) {
+        long[] bits = new long[WORDS];
+        for (Integer id : permissionIds) {
+            if (id != null && id >= 1 && id <= SIZE) {
+                int bit = id - 1;
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Decode the mask into MODULE → [ACTION, ...], in column order
+     */
+    public static Map<String, List<String>> decode(long[] bits) {
+        @SuppressWarnings("unchecked")
+        List<String>[] actionsByModule = new List[MODULES.length];
+
+        for (int bit = 0; bit < SIZE; bit++) {
+            if (test(bits, bit)) {
+                Accessor accessor = ACCESSORS[bit];
+                List<String> actions = actionsByModule[accessor.moduleIndex];
+                if (actions == null) {
+                    actions = new ArrayList<>(4);
+                    actionsByModule[accessor.moduleIndex] = actions;
+                }
+                actions.add(accessor.action);
+            }
+        }
+
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        for (int i = 0; i < MODULES.length; i++) {
+            if (actionsByModule[i] != null) {
+                result.put(MODULES[i], Collections.unmodifiableList(actionsByModule[i]));
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    public static Map<String, List<String>> decode(PagePermissionsEntity entity) {
+        return decode(encode(entity));
+    }
+
+    public static long count(long[] bits) {
+        long count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public static long countEnabled(PagePermissionsEntity entity) {
+        return count(encode(entity));
+    }
+
+    /**
+     * Whether a permission such as "users.view" is set in the mask; unknown names are false
+     */
+    public static boolean isEnabled(long[] bits, String permissionName) {
+        Integer bit = BIT_BY_NAME.get(permissionName.replace('.', '_'));
+        return bit != null && test(bits, bit);
+    }
+
+    /**
+     * Set a permission such as "users.view" in the mask; returns false for unknown names
+     */
+    public static boolean set(long[] bits, String permissionName) {
+        Integer bit = BIT_BY_NAME.get(permissionName.replace('.', '_'));
+        if (bit == null) {
+            return false;
+        }
+        bits[bit >>> 6] |= 1L << bit;
+        return true;
+    }
+
+    private static boolean test(long[] bits, int bit) {
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static final class Accessor {
+        private final String action;
+        private final int moduleIndex;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        Accessor(String action, int moduleIndex, MethodHandle getter, MethodHandle setter) {
+            this.action = action;
+            this.moduleIndex = moduleIndex;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        boolean isEnabled(PagePermissionsEntity entity) {
+            Integer value;
+            try {
+                value = (Integer) getter.invokeExact(entity);
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to read page permissions", e);
+            }
+            return value != null && value == 1;
+        }
+    }
+}
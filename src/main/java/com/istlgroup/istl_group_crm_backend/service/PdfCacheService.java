@@ -0,0 +1,338 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.customException.CustomException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier cache for generated PDFs, keyed by document type, entity id and a
+ * fingerprint of the rendered content.
+ * Tier 1 is a byte-bounded LRU in memory; tier 2 is a directory on disk
+ * ({type}/{id}/{fingerprint}.pdf) that survives restarts. On a miss the PDF is
+ * streamed to the client and to disk at the same time.
+ */
+@Service
+@Slf4j
+public class PdfCacheService {
+
+    public static final String INVOICE = "invoice";
+    public static final String PROPOSAL = "proposal";
+
+    @FunctionalInterface
+    public interface Renderer {
+        void render(OutputStream out) throws CustomException;
+    }
+
+    @Value("${pdf.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pdf.cache.dir:cache/pdf/}")
+    private String cacheDir;
+
+    @Value("${pdf.cache.memory-max-bytes:67108864}")
+    private long memoryMaxBytes;
+
+    @Value("${pdf.cache.memory-entry-max-bytes:2097152}")
+    private long memoryEntryMaxBytes;
+
+    @Value("${pdf.cache.disk-max-bytes:1073741824}")
+    private long diskMaxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry. Guarded by "this".
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Write the cached PDF to out, rendering and caching it first if needed
+     */
+    public void write(String type, Long id, String fingerprint, Renderer renderer, OutputStream out)
+            throws IOException, CustomException {
+        if (!enabled || id == null) {
+            renderer.render(out);
+            return;
+        }
+
+        String key = memoryKey(type, id, fingerprint);
+        byte[] cached = getFromMemory(key);
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            out.write(cached);
+            return;
+        }
+
+        Path path = resolve(type, id, fingerprint);
+        if (writeFromDisk(key, path, out)) {
+            diskHits.incrementAndGet();
+            return;
+        }
+
+        misses.incrementAndGet();
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), fingerprint, ".part");
+        boolean stored = false;
+        try {
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                renderer.render(new TeeOutputStream(out, file));
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            stored = true;
+        } finally {
+            if (!stored) {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        deleteOtherVersions(type, id, path);
+        if (Files.size(path) <= memoryEntryMaxBytes) {
+            putInMemory(key, Files.readAllBytes(path));
+        }
+    }
+
+    /**
+     * Drop every cached version of the document
+     */
+    public void invalidate(String type, Long id) {
+        if (id == null) {
+            return;
+        }
+        String prefix = type + ":" + id + ":";
+        synchronized (this) {
+            Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, byte[]> entry = it.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    memoryBytes -= entry.getValue().length;
+                    it.remove();
+                }
+            }
+        }
+        deleteOtherVersions(type, id, null);
+        invalidations.incrementAndGet();
+        log.debug("Invalidated cached PDFs for {} {}", type, id);
+    }
+
+    public synchronized void clear() {
+        memory.clear();
+        memoryBytes = 0;
+        try (Stream<Path> files = Files.walk(Paths.get(cacheDir))) {
+            files.filter(p -> p.toString().endsWith(".pdf")).forEach(this::deleteQuietly);
+        } catch (NoSuchFileException e) {
+            // Nothing cached on disk yet
+        } catch (IOException e) {
+            log.warn("Failed to clear PDF cache directory {}", cacheDir, e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hits = memoryHits.get() + diskHits.get();
+        long total = hits + misses.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("diskHits", diskHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", total > 0 ? (double) hits / total : 0.0);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        synchronized (this) {
+            stats.put("memoryEntries", memory.size());
+            stats.put("memoryBytes", memoryBytes);
+        }
+        stats.put("memoryMaxBytes", memoryMaxBytes);
+        return stats;
+    }
+
+    /**
+     * Keep the disk tier under its size limit, removing least recently used files first
+     */
+    @Scheduled(fixedDelayString = "${pdf.cache.disk-prune-interval-ms:600000}")
+    public void pruneDisk() {
+        if (!enabled) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(Paths.get(cacheDir))) {
+            walk.filter(p -> p.toString().endsWith(".pdf")).forEach(files::add);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            log.warn("Failed to scan PDF cache directory {}", cacheDir, e);
+            return;
+        }
+
+        long total = 0;
+        List<Object[]> entries = new ArrayList<>(files.size());
+        for (Path file : files) {
+            try {
+                long size = Files.size(file);
+                total += size;
+                entries.add(new Object[] { file, size, Files.getLastModifiedTime(file) });
+            } catch (IOException e) {
+                // Removed concurrently
+            }
+        }
+        if (total <= diskMaxBytes) {
+            return;
+        }
+
+        entries.sort(Comparator.comparing(e -> (FileTime) e[2]));
+        int removed = 0;
+        for (Object[] entry : entries) {
+            if (total <= diskMaxBytes) {
+                break;
+            }
+            deleteQuietly((Path) entry[0]);
+            total -= (Long) entry[1];
+            removed++;
+        }
+        evictions.addAndGet(removed);
+        log.info("Pruned {} PDFs from disk cache", removed);
+    }
+
+    /**
+     * SHA-256 over the given parts; used by the renderers to fingerprint their input
+     */
+    public static String fingerprint(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (Object part : parts) {
+            sb.append(part).append('\u001f');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private boolean writeFromDisk(String key, Path path, OutputStream out) throws IOException {
+        try {
+            long size = Files.size(path);
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            if (size <= memoryEntryMaxBytes) {
+                byte[] bytes = Files.readAllBytes(path);
+                putInMemory(key, bytes);
+                out.write(bytes);
+            } else {
+                Files.copy(path, out);
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private synchronized byte[] getFromMemory(String key) {
+        return memory.get(key);
+    }
+
+    private synchronized void putInMemory(String key, byte[] bytes) {
+        byte[] previous = memory.put(key, bytes);
+        if (previous != null) {
+            memoryBytes -= previous.length;
+        }
+        memoryBytes += bytes.length;
+
+        Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+        while (memoryBytes > memoryMaxBytes && it.hasNext()) {
+            Map.Entry<String, byte[]> eldest = it.next();
+            memoryBytes -= eldest.getValue().length;
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void deleteOtherVersions(String type, Long id, Path keep) {
+        Path dir = Paths.get(cacheDir).resolve(type).resolve(String.valueOf(id));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.pdf")) {
+            for (Path file : files) {
+                if (!file.equals(keep)) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing cached for this document
+        } catch (IOException e) {
+            log.warn("Failed to clean cached PDFs in {}", dir, e);
+        }
+    }
+
+    private Path resolve(String type, Long id, String fingerprint) {
+        return Paths.get(cacheDir).resolve(type).resolve(String.valueOf(id)).resolve(fingerprint + ".pdf");
+    }
+
+    private static String memoryKey(String type, Long id, String fingerprint) {
+        return type + ":" + id + ":" + fingerprint;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    /**
+     * Copies everything written to both the client stream and the cache file
+     */
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream first;
+        private final OutputStream second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resources shared by the PDF renderers.
+ * Font programs are parsed once at startup; each document only wraps them in
+ * its own PdfFont (iText binds PdfFont instances to a single document).
+ * Company header lines are built once per company instead of per request.
+ */
+@Service
+public class PdfResourceService {
+
+    public static final String STATE_CODE = "36";
+    public static final String STATE_NAME = "Telangana";
+
+    private final FontProgram boldProgram;
+    private final FontProgram normalProgram;
+
+    private final CompanyHeader istlHeader;
+    private final CompanyHeader sesolaHeader;
+
+    public PdfResourceService() {
+        try {
+            this.boldProgram = FontProgramFactory.createFont(StandardFonts.HELVETICA_BOLD);
+            this.normalProgram = FontProgramFactory.createFont(StandardFonts.HELVETICA);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load PDF fonts", e);
+        }
+
+        this.istlHeader = new CompanyHeader(
+                "ISCIENTIFIC TECHSOLUTIONS LABS PVT LTD",
+                "133/1/B, 1st Floor, Phase II, IDA Cherlapally",
+                "Hyderabad, Telangana - 500051",
+                "36AAGCI8913D1ZL",
+                "AAGCI8913D",
+                "accounts@istlabs.in",
+                "UDYAM(MSME)- TS-20-0045223",
+                "U31900KA2022PTC167257");
+        this.sesolaHeader = new CompanyHeader(
+                "SESOLA POWER PROJECTS PRIVATE LIMITED",
+                "8th Floor, Pranava Vaishnoi Business Park",
+                "Survey Nos.29, 30, 31, 32 And 33 Of Kothaguda Village, Serilingampally Mandal, Ranga Reddy District, Telangana India 500084",
+                "36AASCS1234D1ZL",
+                "AASCS1234D",
+                "accounts@sesola.com",
+                "",
+                "");
+    }
+
+    public PdfFont boldFont() {
+        return PdfFontFactory.createFont(boldProgram, PdfEncodings.WINANSI);
+    }
+
+    public PdfFont normalFont() {
+        return PdfFontFactory.createFont(normalProgram, PdfEncodings.WINANSI);
+    }
+
+    public CompanyHeader companyHeader(String company) {
+        return "SESOLA".equalsIgnoreCase(company) ? sesolaHeader : istlHeader;
+    }
+
+    /**
+     * Open a document that writes straight to the given stream.
+     * The stream is left open so the caller (usually the servlet container) owns it.
+     */
+    public PdfDocument openDocument(OutputStream out) {
+        PdfWriter writer = new PdfWriter(out, new WriterProperties().setFullCompressionMode(true));
+        writer.setCloseStream(false);
+        return new PdfDocument(writer);
+    }
+
+    /**
+     * Static company details plus the pre-built detail lines of the header block
+     */
+    public static final class CompanyHeader {
+        private final String name;
+        private final String pan;
+        private final List<String> detailLines;
+
+        CompanyHeader(String name, String address, String city, String gstin, String pan,
+                      String email, String udyam, String cin) {
+            this.name = name;
+            this.pan = pan;
+
+            List<String> lines = new ArrayList<>();
+            lines.add(address);
+            lines.add(city);
+            if (!udyam.isEmpty()) {
+                lines.add(udyam);
+            }
+            lines.add("GSTIN/UIN: " + gstin);
+            lines.add("State Name: " + STATE_NAME + ", Code: " + STATE_CODE);
+            if (!cin.isEmpty()) {
+                lines.add("CIN: " + cin);
+            }
+            lines.add("E-Mail: " + email);
+            this.detailLines = Collections.unmodifiableList(lines);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPan() {
+            return pan;
+        }
+
+        public List<String> getDetailLines() {
+            return detailLines;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.entity.MenuPermissionsEntity;
+import com.istlgroup.istl_group_crm_backend.entity.PagePermissionsEntity;
+import com.istlgroup.istl_group_crm_backend.repo.PagePermissionsRepo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enabled page/menu permission counts for user listings.
+ * One query loads the permission rows of the whole page; each row is packed
+ * into its bitmask and counted with popcount.
+ */
+@Service
+@RequiredArgsConstructor
+public class PermissionCountService {
+
+    private final PagePermissionsRepo pagePermissionsRepo;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Counts {
+        public static final Counts NONE = new Counts(0L, 0L);
+
+        private final long pageCount;
+        private final long menuCount;
+    }
+
+    /**
+     * Counts per user id; users without permission rows are absent (use {@link Counts#NONE})
+     */
+    public Map<Long, Counts> countByUserIds(Collection<Long> userIds) {
+        Map<Long, Counts> counts = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return counts;
+        }
+
+        for (Object[] row : pagePermissionsRepo.findPermissionRowsByUserIdIn(userIds)) {
+            PagePermissionsEntity page = (PagePermissionsEntity) row[1];
+            MenuPermissionsEntity menu = (MenuPermissionsEntity) row[2];
+
+            long pageCount = page != null ? PagePermissionAccessors.count(PagePermissionAccessors.encode(page)) : 0L;
+            long menuCount = menu != null ? MenuPermissionAccessors.count(MenuPermissionAccessors.encode(menu)) : 0L;
+            counts.put((Long) row[0], new Counts(pageCount, menuCount));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,109 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.ProjectDashboardDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Project dashboards kept in memory per project and reused while the
+ * project's data version ({@link ProjectDataVersionService}) is unchanged,
+ * so polling an unchanged dashboard does not touch the database.
+ *
+ * Each cached dashboard carries strong ETags (a hash of the JSON body) for
+ * the full dashboard and the financial / procurement parts. The hash is the
+ * same on every node for the same content. Entries also expire after a max
+ * age, which bounds staleness for changes made on other nodes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProjectDashboardCacheService {
+
+    public enum Part {
+        DASHBOARD(dashboard -> dashboard),
+        FINANCIAL(ProjectDashboardDTO::getFinancialData),
+        PROCUREMENT(ProjectDashboardDTO::getProcurementData);
+
+        private final Function<ProjectDashboardDTO, Object> body;
+
+        Part(Function<ProjectDashboardDTO, Object> body) {
+            this.body = body;
+        }
+    }
+
+    private final ProjectDashboardService dashboardService;
+    private final ProjectDataVersionService projectDataVersionService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${dashboard.cache.max-age-ms:60000}")
+    private long maxAgeMs;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Cached dashboard of the project, rebuilt when its data changed or the entry expired
+     */
+    public Snapshot get(String projectUniqueId) {
+        Snapshot snapshot = snapshots.get(projectUniqueId);
+        long version = projectDataVersionService.current(projectUniqueId);
+        if (snapshot != null && snapshot.version == version
+                && System.currentTimeMillis() - snapshot.builtAt < maxAgeMs) {
+            return snapshot;
+        }
+
+        // The version is read before building, so a change committed meanwhile leaves the new entry already stale
+        ProjectDashboardDTO dashboard = dashboardService.getDashboardData(projectUniqueId);
+        Snapshot built = new Snapshot(dashboard, version, System.currentTimeMillis());
+        if (dashboard.getUnavailableSections() == null || dashboard.getUnavailableSections().isEmpty()) {
+            snapshots.put(projectUniqueId, built);
+        } else {
+            // Partial dashboards are served once but never cached
+            snapshots.remove(projectUniqueId);
+        }
+        return built;
+    }
+
+    public final class Snapshot {
+        private final ProjectDashboardDTO dashboard;
+        private final long version;
+        private final long builtAt;
+        private final Map<Part, String> etags = new ConcurrentHashMap<>();
+
+        private Snapshot(ProjectDashboardDTO dashboard, long version, long builtAt) {
+            this.dashboard = dashboard;
+            this.version = version;
+            this.builtAt = builtAt;
+        }
+
+        public ProjectDashboardDTO getDashboard() {
+            return dashboard;
+        }
+
+        /**
+         * Strong ETag of the part's JSON body, computed once per snapshot
+         */
+        public String etag(Part part) {
+            return etags.computeIfAbsent(part, p -> hash(p.body.apply(dashboard)));
+        }
+    }
+
+    private String hash(Object body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(body));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not compute dashboard ETag", e);
+        }
+    }
+}
@@ -1,24 +1,31 @@
 package com.istlgroup.istl_group_crm_backend.service;
 
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.ProjectDashboardDTO;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.ProjectDashboardDTO.*;
-import com.istlgroup.istl_group_crm_backend.entity.BillEntity;
-import com.istlgroup.istl_group_crm_backend.entity.InvoiceEntity;
 import com.istlgroup.istl_group_crm_backend.entity.PaymentHistoryEntity;
 import com.istlgroup.istl_group_crm_backend.entity.ProjectEntity;
-import com.istlgroup.istl_group_crm_backend.entity.PurchaseOrderEntity;
 import com.istlgroup.istl_group_crm_backend.repo.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -30,17 +37,76 @@ public class ProjectDashboardService {
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final QuotationRepository quotationRepository;
     private final VendorRepository vendorRepository;
-    private final BillRepository billRepository;
     private final PaymentHistoryRepository paymentHistoryRepository; // FIXED TYPO
-    private final InvoiceRepository invoiceRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ProjectMetricsWriteBehind metricsWriteBehind;
+    private final ProjectTimelineService projectTimelineService;
+    private final VendorRankingService vendorRankingService;
+    
+    // Months shown by the spending trend: 6, 12, 24, ... or FY for the fiscal year to date
+    @Value("${dashboard.spending-trend.window:6}")
+    private String spendingTrendWindow;
+    
+    @Value("${dashboard.fiscal-year-start-month:4}")
+    private int fiscalYearStartMonth;
+    
+    // Timeline entries embedded in the dashboard; the rest is paged through /timeline
+    @Value("${dashboard.timeline.page-size:50}")
+    private int timelinePageSize;
+    
+    @Value("${dashboard.section-timeout-ms:5000}")
+    private long sectionTimeoutMs;
+    
+    // Sections running at once across all dashboard requests, each holding one pooled connection
+    @Value("${dashboard.section-concurrency:4}")
+    private int sectionConcurrency;
+    
+    private TransactionTemplate readOnlyTemplate;
+    private ExecutorService sectionExecutor;
+    private Semaphore sectionPermits;
+    
+    @PostConstruct
+    void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+        // Statements of a section still running at the deadline are stopped by the query timeout
+        readOnlyTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sectionTimeoutMs + 999)));
+        sectionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        sectionPermits = new Semaphore(Math.max(1, sectionConcurrency), true);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        sectionExecutor.shutdown();
+    }
     
-    @Transactional(readOnly = true)
+    /**
+     * Dashboard sections are independent, so each runs on its own virtual thread in
+     * its own read-only transaction. Only dashboard.section-concurrency sections hold
+     * a connection at any time, across all requests, so concurrent dashboards queue
+     * for permits instead of draining the connection pool. All sections share one
+     * deadline counted from the fan-out; a section that fails or misses it is
+     * cancelled, left empty and named in unavailableSections.
+     */
     public ProjectDashboardDTO getDashboardData(String projectUniqueId) {
         log.info("Fetching dashboard data for project: {}", projectUniqueId);
         
-        ProjectEntity project = projectRepository.findByProjectUniqueId(projectUniqueId)
-            .orElseThrow(() -> new RuntimeException("Project not found: " + projectUniqueId));
+        ProjectEntity project = readOnlyTemplate.execute(status -> projectRepository.findByProjectUniqueId(projectUniqueId)
+            .orElseThrow(() -> new RuntimeException("Project not found: " + projectUniqueId)));
+        
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+        Future<FinancialData> financialData = fork(() -> buildFinancialData(project));
+        Future<ProcurementData> procurementData = fork(() -> buildProcurementData(project, projectUniqueId));
+        Future<List<ActivityDTO>> recentActivities = fork(() -> getRecentActivities(projectUniqueId));
+        Future<List<VendorSummaryDTO>> topVendors = fork(() -> getTopVendors(projectUniqueId));
+        Future<List<SpendingTrendDTO>> spendingTrend = fork(() -> getSpendingTrend(projectUniqueId));
+        Future<KeysetPage<TimelineMilestoneDTO>> projectTimeline = fork(() -> projectTimelineService
+            .getTimeline(project, null, null, null, timelinePageSize));
+        Future<List<ChartDataDTO>> paymentMethodDistribution = fork(() -> getPaymentMethodDistribution(projectUniqueId));
+        Future<List<PaymentTrendDTO>> paymentTimeline = fork(() -> getPaymentTimeline(projectUniqueId));
         
+        List<String> unavailable = new ArrayList<>();
+        KeysetPage<TimelineMilestoneDTO> timeline = join("projectTimeline", projectTimeline, deadline, null, unavailable);
         ProjectDashboardDTO dashboard = ProjectDashboardDTO.builder()
             .projectId(project.getProjectUniqueId())
             .projectName(project.getProjectName())
@@ -51,22 +117,64 @@ public class ProjectDashboardService {
             .endDate(project.getEndDate())
             .manager(getProjectManager(project))
             .budget(project.getBudget())
-            .financialData(buildFinancialData(project))
-            .procurementData(buildProcurementData(project, projectUniqueId))
-            .recentActivities(getRecentActivities(projectUniqueId))
-            .topVendors(getTopVendors(projectUniqueId))
-            .spendingTrend(getSpendingTrend(projectUniqueId))
-            .projectTimeline(buildProjectTimeline(project, projectUniqueId)) // FIXED: Pass both parameters
-            .paymentMethodDistribution(getPaymentMethodDistribution(projectUniqueId)) // NEW
-            .paymentTimeline(getPaymentTimeline(projectUniqueId)) // NEW
+            .financialData(join("financialData", financialData, deadline, null, unavailable))
+            .procurementData(join("procurementData", procurementData, deadline, null, unavailable))
+            .recentActivities(join("recentActivities", recentActivities, deadline, Collections.emptyList(), unavailable))
+            .topVendors(join("topVendors", topVendors, deadline, Collections.emptyList(), unavailable))
+            .spendingTrend(join("spendingTrend", spendingTrend, deadline, Collections.emptyList(), unavailable))
+            .projectTimeline(timeline != null ? timeline.getContent() : Collections.emptyList())
+            .timelineNextCursor(timeline != null ? timeline.getNextCursor() : null)
+            .paymentMethodDistribution(join("paymentMethodDistribution", paymentMethodDistribution, deadline, Collections.emptyList(), unavailable))
+            .paymentTimeline(join("paymentTimeline", paymentTimeline, deadline, Collections.emptyList(), unavailable))
             .lastUpdate(project.getUpdatedAt())
             .statsCalculatedAt(project.getStatsCalculatedAt())
+            .unavailableSections(unavailable)
             .build();
         
-        log.info("Dashboard data built successfully for project: {}", projectUniqueId);
+        if (unavailable.isEmpty()) {
+            log.info("Dashboard data built successfully for project: {}", projectUniqueId);
+        } else {
+            log.warn("Dashboard for project {} built without sections {}", projectUniqueId, unavailable);
+        }
         return dashboard;
     }
     
+    /**
+     * Start a dashboard section on its own virtual thread; it opens its read-only
+     * transaction once a section permit is free
+     */
+    private <T> Future<T> fork(Supplier<T> section) {
+        return sectionExecutor.submit(() -> {
+            sectionPermits.acquire();
+            try {
+                return readOnlyTemplate.execute(status -> section.get());
+            } finally {
+                sectionPermits.release();
+            }
+        });
+    }
+    
+    /**
+     * Result of a section, or the fallback when it failed or did not finish by the deadline.
+     * A late section is cancelled: one still waiting for a permit gives up its place, and
+     * one running is interrupted and rolled back.
+     */
+    private <T> T join(String name, Future<T> section, long deadline, T fallback, List<String> unavailable) {
+        try {
+            return section.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            section.cancel(true);
+            log.warn("Dashboard section {} timed out after {} ms", name, sectionTimeoutMs);
+        } catch (ExecutionException e) {
+            log.error("Dashboard section {} failed", name, e.getCause());
+        } catch (InterruptedException e) {
+            section.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        unavailable.add(name);
+        return fallback;
+    }
+    
  
 	/**
  * Build financial data from project stats
@@ -149,17 +257,9 @@ private FinancialData buildFinancialData(ProjectEntity project) {
             .doubleValue()
         : 0.0;
     
-    // MANUALLY UPDATE PROJECT STATS
-    try {
-        project.setBudgetUtilized(amountSpent);
-        project.setBudgetUtilizationPercent(new BigDecimal(budgetUtilizationPercent));
-        project.setProjectedProfit(projectedProfit);
-        project.setProfitMarginPercent(new BigDecimal(profitMargin));
-        project.setStatsCalculatedAt(LocalDateTime.now());
-        projectRepository.save(project);
-    } catch (Exception e) {
-        log.warn("Could not update project stats", e);
-    }
+    // PERSIST DERIVED STATS - queued, the dashboard read itself stays read-only
+    metricsWriteBehind.enqueue(project, amountSpent, BigDecimal.valueOf(budgetUtilizationPercent),
+        projectedProfit, BigDecimal.valueOf(profitMargin));
     
     return FinancialData.builder()
         .totalProjectValue(totalProjectValue)
@@ -293,164 +393,24 @@ private FinancialData buildFinancialData(ProjectEntity project) {
     }
     
     private List<VendorSummaryDTO> getTopVendors(String projectUniqueId) {
-        return vendorRepository.findTop5ByProjectIdOrderByTotalPurchaseValueDesc(projectUniqueId)
-            .stream()
-            .map(vendor -> VendorSummaryDTO.builder()
-                .id(vendor.getId())
-                .name(vendor.getName())
-                .totalOrders(purchaseOrderRepository.countByVendorId(vendor.getId()).intValue())
-                .rating(vendor.getRating() != null ? vendor.getRating().doubleValue() : 0.0)
-                .totalPurchaseValue(vendor.getLastPurchaseAmount() != null ? vendor.getLastPurchaseAmount() : BigDecimal.ZERO)
-                .build())
-            .collect(Collectors.toList());
+        return vendorRankingService.getTopVendors(null, null, projectUniqueId, 5);
     }
     
     private List<SpendingTrendDTO> getSpendingTrend(String projectUniqueId) {
-        List<SpendingTrendDTO> trend = new ArrayList<>();
-        YearMonth currentMonth = YearMonth.now();
+        MonthlyBuckets window = MonthlyBuckets.of(spendingTrendWindow, fiscalYearStartMonth);
+        List<Object[]> rows = purchaseOrderRepository
+            .sumMonthlyByProjectId(projectUniqueId, window.fromDateTime(), window.toDateTime());
         
-        for (int i = 5; i >= 0; i--) {
-            YearMonth month = currentMonth.minusMonths(i);
-            LocalDate startOfMonth = month.atDay(1);
-            LocalDate endOfMonth = month.atEndOfMonth();
-            
-            BigDecimal monthlySpending = purchaseOrderRepository
-                .sumTotalValueByProjectIdAndDateRange(projectUniqueId, startOfMonth.atStartOfDay(), endOfMonth.atTime(23, 59, 59));
-            
-            Long monthlyOrders = purchaseOrderRepository
-                .countByProjectIdAndDateRange(projectUniqueId, startOfMonth.atStartOfDay(), endOfMonth.atTime(23, 59, 59));
-            
-            BigDecimal avgOrderValue = monthlyOrders > 0 && monthlySpending != null
-                ? monthlySpending.divide(new BigDecimal(monthlyOrders), 2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
-            
-            trend.add(SpendingTrendDTO.builder()
-                .month(month.getMonth().toString().substring(0, 3) + " " + String.valueOf(month.getYear()).substring(2))
-                .spending(monthlySpending != null ? monthlySpending : BigDecimal.ZERO)
-                .orders(monthlyOrders.intValue())
-                .avgOrderValue(avgOrderValue)
-                .build());
-        }
-        
-        return trend;
-    }
-    
-    /**
-     * Build comprehensive project timeline with procurement milestones
-     */
-    // ============================================================================
-// FIX FOR DATE CONVERSION ERROR IN buildProjectTimeline
-// ============================================================================
-
-// Replace the buildProjectTimeline method in ProjectDashboardService.java with this:
-
-private List<TimelineMilestoneDTO> buildProjectTimeline(ProjectEntity project, String projectUniqueId) {
-    List<TimelineMilestoneDTO> timeline = new ArrayList<>();
-    
-    if (project.getStartDate() != null) {
-        timeline.add(TimelineMilestoneDTO.builder()
-            .date(project.getStartDate())
-            .title("Project Kickoff")
-            .description(project.getProjectName() + " started")
-            .type("milestone")
-            .status("completed")
-            .build());
-    }
-    
-    // Add delivered POs
-    try {
-        List<PurchaseOrderEntity> deliveredPOs = purchaseOrderRepository
-            .findByProjectIdAndStatus(projectUniqueId, "Delivered");
-        
-        for (PurchaseOrderEntity po : deliveredPOs) {
-            // FIXED: Convert LocalDateTime to LocalDate
-            LocalDate poDate = null;
-            if (po.getExpectedDelivery() != null) {
-                poDate = po.getExpectedDelivery().toLocalDate();  // ← CONVERT HERE
-            } else if (po.getOrderDate() != null) {
-                poDate = po.getOrderDate().toLocalDate();         // ← CONVERT HERE
-            }
-            
-            timeline.add(TimelineMilestoneDTO.builder()
-                .date(poDate)
-                .title("PO Delivered")
-                .description("PO " + po.getPoNo() + " delivered")
-                .type("po_delivered")
-                .status("completed")
-                .amount(po.getTotalValue())
-                .reference(po.getPoNo())
-                .build());
-        }
-    } catch (Exception e) {
-        log.error("Error fetching delivered POs for timeline", e);
-    }
-    
-    // Add bills
-    try {
-        List<BillEntity> bills = billRepository
-            .findByProjectIdAndStatusNot(projectUniqueId, "Pending");
-        
-        for (BillEntity bill : bills) {
-            String billStatus = "Paid".equals(bill.getStatus()) ? "completed" : "in-progress";
-            timeline.add(TimelineMilestoneDTO.builder()
-                .date(bill.getBillDate())  // Already LocalDate ✓
-                .title("Paid".equals(bill.getStatus()) ? "Bill Paid" : "Bill Received")
-                .description("Bill " + bill.getBillNo() + " - " + bill.getStatus())
-                .type("Paid".equals(bill.getStatus()) ? "bill_paid" : "bill_received")
-                .status(billStatus)
-                .amount(bill.getTotalAmount())
-                .reference(bill.getBillNo())
-                .build());
-        }
-    } catch (Exception e) {
-        log.error("Error fetching bills for timeline", e);
-    }
-    
-    // Add invoices
-    try {
-        List<InvoiceEntity> invoices = invoiceRepository
-            .findByProjectIdAndDeletedAtIsNull(projectUniqueId);
-        
-        for (InvoiceEntity invoice : invoices) {
-            String invoiceStatus = "Paid".equals(invoice.getStatus()) ? "completed" : "in-progress";
-            timeline.add(TimelineMilestoneDTO.builder()
-                .date(invoice.getInvoiceDate())  // Already LocalDate ✓
-                .title("Paid".equals(invoice.getStatus()) ? "Invoice Paid" : "Invoice Raised")
-                .description("Invoice " + invoice.getInvoiceNo() + " - " + invoice.getStatus())
-                .type("Paid".equals(invoice.getStatus()) ? "invoice_paid" : "invoice_raised")
-                .status(invoiceStatus)
-                .amount(invoice.getTotalAmount())
-                .reference(invoice.getInvoiceNo())
-                .build());
-        }
-    } catch (Exception e) {
-        log.error("Error fetching invoices for timeline", e);
-    }
-    
-    if (project.getEndDate() != null) {
-        LocalDate now = LocalDate.now();
-        LocalDate end = project.getEndDate();
-        String status = now.isAfter(end) ? "overdue" : 
-                       now.isAfter(end.minusDays(30)) ? "in-progress" : "upcoming";
-        
-        timeline.add(TimelineMilestoneDTO.builder()
-            .date(project.getEndDate())
-            .title("Project Completion")
-            .description("Target completion date")
-            .type("milestone")
-            .status(status)
-            .build());
+        return window.fill(rows).stream()
+            .map(bucket -> SpendingTrendDTO.builder()
+                .month(bucket.getMonth().getMonth().toString().substring(0, 3) + " " + String.valueOf(bucket.getMonth().getYear()).substring(2))
+                .spending(bucket.getTotal())
+                .orders((int) bucket.getCount())
+                .avgOrderValue(bucket.getAverage())
+                .build())
+            .collect(Collectors.toList());
     }
     
-    // Sort by date
-    timeline.sort((a, b) -> {
-        if (a.getDate() == null) return 1;
-        if (b.getDate() == null) return -1;
-        return a.getDate().compareTo(b.getDate());
-    });
-    
-    return timeline;
-}
     
     /**
      * Get payment method distribution from payment_history
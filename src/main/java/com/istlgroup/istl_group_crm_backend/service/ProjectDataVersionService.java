@@ -0,0 +1,61 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory data version per project, bumped after every committed change to
+ * the project's POs, quotations, bills, invoices, vendors or stats row.
+ * Anything derived from that data (the dashboard) stays valid while the
+ * version it was built at is still current.
+ *
+ * The version is the sum of a per-project counter and a global one bumped
+ * for changes not tied to one project. Both only grow, so an unchanged
+ * version means no bump of either happened in between.
+ */
+@Service
+public class ProjectDataVersionService {
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    public long current(String projectId) {
+        AtomicLong version = versions.get(projectId);
+        return globalVersion.get() + (version != null ? version.get() : 0);
+    }
+
+    /**
+     * Bump the project's version once the current transaction commits, or now if there is none
+     */
+    public void changed(String projectId) {
+        if (projectId == null) {
+            return;
+        }
+        afterCommit(() -> versions.computeIfAbsent(projectId, k -> new AtomicLong()).incrementAndGet());
+    }
+
+    /**
+     * Bump every project's version, for changes that cannot be tied to one project
+     */
+    public void changedAll() {
+        afterCommit(globalVersion::incrementAndGet);
+    }
+
+    private static void afterCommit(Runnable bump) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump.run();
+                }
+            });
+        } else {
+            bump.run();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.entity.ProjectEntity;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persists the derived financial metrics computed by the dashboard
+ * (budget utilization, projected profit, margin) without writing on the read path.
+ *
+ * Metrics are queued per project, the latest value replacing any pending one,
+ * and flushed as one JDBC batch on a short interval. Metrics equal to the
+ * stored values are not queued, so repeated dashboard views cause no writes.
+ * Once a batch has committed, the data version of each written project is
+ * bumped so cached dashboards pick up the new values.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProjectMetricsWriteBehind {
+
+    private static final String UPDATE_METRICS_SQL =
+        "UPDATE projects SET " +
+        "budget_utilized = ?, " +
+        "budget_utilization_percent = ?, " +
+        "projected_profit = ?, " +
+        "profit_margin_percent = ?, " +
+        "stats_calculated_at = ? " +
+        "WHERE project_unique_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final ProjectDataVersionService projectDataVersionService;
+
+    private final Map<String, Metrics> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Queue the metrics of the project unless they match what the project row already holds
+     */
+    public void enqueue(ProjectEntity project, BigDecimal budgetUtilized, BigDecimal budgetUtilizationPercent,
+                        BigDecimal projectedProfit, BigDecimal profitMarginPercent) {
+        if (project.getProjectUniqueId() == null) {
+            return;
+        }
+        if (same(project.getBudgetUtilized(), budgetUtilized)
+                && same(project.getBudgetUtilizationPercent(), budgetUtilizationPercent)
+                && same(project.getProjectedProfit(), projectedProfit)
+                && same(project.getProfitMarginPercent(), profitMarginPercent)) {
+            return;
+        }
+        pending.put(project.getProjectUniqueId(), new Metrics(budgetUtilized, budgetUtilizationPercent,
+            projectedProfit, profitMarginPercent, LocalDateTime.now()));
+    }
+
+    /**
+     * Write all pending metrics as one batch
+     */
+    @Scheduled(fixedDelayString = "${project-stats.metrics.flush-interval-ms:2000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<String> projectIds = new ArrayList<>();
+        List<Metrics> metrics = new ArrayList<>();
+        for (String projectId : new ArrayList<>(pending.keySet())) {
+            Metrics m = pending.remove(projectId);
+            if (m != null) {
+                projectIds.add(projectId);
+                metrics.add(m);
+            }
+        }
+        if (metrics.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(metrics.size());
+        for (int i = 0; i < metrics.size(); i++) {
+            Metrics m = metrics.get(i);
+            batchArgs.add(new Object[] {
+                m.budgetUtilized, m.budgetUtilizationPercent, m.projectedProfit, m.profitMarginPercent,
+                Timestamp.valueOf(m.calculatedAt), projectIds.get(i)
+            });
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> jdbcTemplate.batchUpdate(UPDATE_METRICS_SQL, batchArgs));
+            projectIds.forEach(projectDataVersionService::changed);
+            log.debug("Flushed derived metrics for {} projects", metrics.size());
+        } catch (Exception e) {
+            // The batch rolled back as a whole; put the metrics back unless a newer value was queued meanwhile
+            for (int i = 0; i < metrics.size(); i++) {
+                pending.putIfAbsent(projectIds.get(i), metrics.get(i));
+            }
+            log.error("Failed to flush derived metrics for {} projects, will retry", metrics.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static boolean same(BigDecimal stored, BigDecimal computed) {
+        if (stored == null || computed == null) {
+            return stored == computed;
+        }
+        return stored.compareTo(computed) == 0;
+    }
+
+    private static final class Metrics {
+        private final BigDecimal budgetUtilized;
+        private final BigDecimal budgetUtilizationPercent;
+        private final BigDecimal projectedProfit;
+        private final BigDecimal profitMarginPercent;
+        private final LocalDateTime calculatedAt;
+
+        Metrics(BigDecimal budgetUtilized, BigDecimal budgetUtilizationPercent,
+                BigDecimal projectedProfit, BigDecimal profitMarginPercent, LocalDateTime calculatedAt) {
+            this.budgetUtilized = budgetUtilized;
+            this.budgetUtilizationPercent = budgetUtilizationPercent;
+            this.projectedProfit = projectedProfit;
+            this.profitMarginPercent = profitMarginPercent;
+            this.calculatedAt = calculatedAt;
+        }
+    }
+}
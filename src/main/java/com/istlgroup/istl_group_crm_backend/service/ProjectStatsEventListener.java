@@ -0,0 +1,197 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.event.ProjectStatsDelta;
+import com.istlgroup.istl_group_crm_backend.event.ProjectStatsEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies {@link ProjectStatsEvent}s to the stats columns of the projects table.
+ *
+ * The increment of each committed event (new contribution - old contribution of
+ * the row) is merged into a pending delta per project; a short-interval flush
+ * writes all pending deltas as one JDBC batch of O(1) increments in a single
+ * transaction, so a failed flush rolls back as a whole and can be retried.
+ * Projects with a RESYNC event are recalculated from the base tables instead.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProjectStatsEventListener {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final ProjectStatsService projectStatsService;
+
+    private final ProjectDataVersionService projectDataVersionService;
+
+    private final Map<String, ProjectStatsDelta> pendingDeltas = new ConcurrentHashMap<>();
+
+    private final Set<String> pendingResyncs = ConcurrentHashMap.newKeySet();
+
+    // MySQL evaluates SET assignments left to right, so the derived financial
+    // columns see the incremented values; they are rounded like calculateFinancialMetrics
+    private static final String APPLY_DELTA_SQL =
+        "UPDATE projects SET " +
+        "total_po_count = COALESCE(total_po_count, 0) + ?, " +
+        "total_po_value = COALESCE(total_po_value, 0) + ?, " +
+        "delivered_po_count = COALESCE(delivered_po_count, 0) + ?, " +
+        "delivered_po_value = COALESCE(delivered_po_value, 0) + ?, " +
+        "pending_po_value = COALESCE(pending_po_value, 0) + ?, " +
+        "cancelled_po_value = COALESCE(cancelled_po_value, 0) + ?, " +
+        "total_quotation_count = COALESCE(total_quotation_count, 0) + ?, " +
+        "total_quotation_value = COALESCE(total_quotation_value, 0) + ?, " +
+        "approved_quotation_count = COALESCE(approved_quotation_count, 0) + ?, " +
+        "approved_quotation_value = COALESCE(approved_quotation_value, 0) + ?, " +
+        "total_bill_count = COALESCE(total_bill_count, 0) + ?, " +
+        "total_bill_value = COALESCE(total_bill_value, 0) + ?, " +
+        "paid_bill_count = COALESCE(paid_bill_count, 0) + ?, " +
+        "paid_bill_value = COALESCE(paid_bill_value, 0) + ?, " +
+        "pending_payment_value = COALESCE(pending_payment_value, 0) + ?, " +
+        "total_invoice_count = COALESCE(total_invoice_count, 0) + ?, " +
+        "total_invoice_value = COALESCE(total_invoice_value, 0) + ?, " +
+        "paid_invoice_count = COALESCE(paid_invoice_count, 0) + ?, " +
+        "paid_invoice_value = COALESCE(paid_invoice_value, 0) + ?, " +
+        "pending_invoice_value = COALESCE(pending_invoice_value, 0) + ?, " +
+        "active_vendor_count = COALESCE(active_vendor_count, 0) + ?, " +
+        "total_vendor_spend = COALESCE(total_vendor_spend, 0) + ?, " +
+        "budget_utilized = total_po_value - cancelled_po_value, " +
+        "budget_utilization_percent = CASE WHEN budget > 0 " +
+        "THEN ROUND(ROUND(budget_utilized / budget, 4) * 100, 2) ELSE 0 END, " +
+        "projected_profit = COALESCE(budget, 0) - budget_utilized, " +
+        "profit_margin_percent = CASE WHEN budget > 0 " +
+        "THEN ROUND(ROUND(projected_profit / budget, 4) * 100, 2) ELSE 0 END, " +
+        "last_procurement_update = NOW() " +
+        "WHERE project_unique_id = ?";
+
+    /**
+     * Merge the increment of the event into the pending delta of its project
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProjectStatsEvent(ProjectStatsEvent event) {
+        if (event.getProjectId() == null) {
+            return;
+        }
+        if (event.getType() == ProjectStatsEvent.Type.RESYNC) {
+            pendingResyncs.add(event.getProjectId());
+            log.debug("Queued stats resync of project {} after {} {} update",
+                event.getProjectId(), event.getEntityType(), event.getEntityId());
+            return;
+        }
+        ProjectStatsDelta delta = event.delta();
+        if (delta.isEmpty()) {
+            return;
+        }
+        pendingDeltas.merge(event.getProjectId(), delta,
+            (existing, incoming) -> new ProjectStatsDelta().add(existing).add(incoming));
+        log.debug("Queued {} {} {} delta for project {}",
+            event.getEntityType(), event.getEntityId(), event.getType(), event.getProjectId());
+    }
+
+    /**
+     * Write all pending deltas as one batch, then recalculate the projects queued for resync
+     */
+    @Scheduled(fixedDelayString = "${project-stats.events.flush-interval-ms:2000}")
+    public void flush() {
+        flushDeltas();
+        flushResyncs();
+    }
+
+    private void flushDeltas() {
+        if (pendingDeltas.isEmpty()) {
+            return;
+        }
+
+        List<String> projectIds = new ArrayList<>();
+        List<ProjectStatsDelta> deltas = new ArrayList<>();
+        for (String projectId : new ArrayList<>(pendingDeltas.keySet())) {
+            ProjectStatsDelta delta = pendingDeltas.remove(projectId);
+            if (delta != null && !delta.isEmpty()) {
+                projectIds.add(projectId);
+                deltas.add(delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        for (int i = 0; i < deltas.size(); i++) {
+            ProjectStatsDelta d = deltas.get(i);
+            batchArgs.add(new Object[] {
+                d.getTotalPoCount(), d.getTotalPoValue(),
+                d.getDeliveredPoCount(), d.getDeliveredPoValue(),
+                d.getPendingPoValue(), d.getCancelledPoValue(),
+                d.getTotalQuotationCount(), d.getTotalQuotationValue(),
+                d.getApprovedQuotationCount(), d.getApprovedQuotationValue(),
+                d.getTotalBillCount(), d.getTotalBillValue(),
+                d.getPaidBillCount(), d.getPaidBillValue(), d.getPendingPaymentValue(),
+                d.getTotalInvoiceCount(), d.getTotalInvoiceValue(),
+                d.getPaidInvoiceCount(), d.getPaidInvoiceValue(), d.getPendingInvoiceValue(),
+                d.getActiveVendorCount(), d.getTotalVendorSpend(),
+                projectIds.get(i)
+            });
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, batchArgs));
+            projectIds.forEach(projectDataVersionService::changed);
+            log.debug("Flushed stats deltas for {} projects", deltas.size());
+        } catch (Exception e) {
+            // The batch rolled back as a whole; put the deltas back so the next flush retries them
+            for (int i = 0; i < deltas.size(); i++) {
+                pendingDeltas.merge(projectIds.get(i), deltas.get(i),
+                    (existing, incoming) -> new ProjectStatsDelta().add(existing).add(incoming));
+            }
+            log.error("Failed to flush stats deltas for {} projects, will retry", deltas.size(), e);
+        }
+    }
+
+    private void flushResyncs() {
+        if (pendingResyncs.isEmpty()) {
+            return;
+        }
+
+        List<String> projectIds = new ArrayList<>();
+        for (String projectId : new ArrayList<>(pendingResyncs)) {
+            if (pendingResyncs.remove(projectId)) {
+                // Already committed, so the recalculation includes them
+                pendingDeltas.remove(projectId);
+                projectIds.add(projectId);
+            }
+        }
+        if (projectIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            int updated = projectStatsService.recalculateProjects(projectIds);
+            log.debug("Resynced stats for {} of {} queued projects", updated, projectIds.size());
+        } catch (Exception e) {
+            pendingResyncs.addAll(projectIds);
+            log.error("Failed to resync stats for {} projects, will retry", projectIds.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -4,16 +4,27 @@ package com.istlgroup.istl_group_crm_backend.service;
 
 import com.istlgroup.istl_group_crm_backend.entity.ProjectEntity;
 import com.istlgroup.istl_group_crm_backend.repo.*;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.StatsRecalculationResultDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -24,7 +35,28 @@ public class ProjectStatsService {
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final QuotationRepository quotationRepository;
     private final BillRepository billRepository;
+    private final InvoiceRepository invoiceRepository;
     private final VendorRepository vendorRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ProjectDataVersionService projectDataVersionService;
+
+    @Value("${scheduler.project-stats.bulk.chunk-size:200}")
+    private int bulkChunkSize;
+
+    private static final String BULK_UPDATE_SQL =
+        "UPDATE projects SET " +
+        "total_po_count = ?, total_po_value = ?, delivered_po_count = ?, delivered_po_value = ?, " +
+        "pending_po_value = ?, cancelled_po_value = ?, " +
+        "total_quotation_count = ?, total_quotation_value = ?, " +
+        "approved_quotation_count = ?, approved_quotation_value = ?, " +
+        "total_bill_count = ?, total_bill_value = ?, paid_bill_count = ?, paid_bill_value = ?, " +
+        "pending_payment_value = ?, " +
+        "total_invoice_count = ?, total_invoice_value = ?, paid_invoice_count = ?, paid_invoice_value = ?, " +
+        "pending_invoice_value = ?, active_vendor_count = ?, total_vendor_spend = ?, " +
+        "budget_utilized = ?, budget_utilization_percent = ?, projected_profit = ?, " +
+        "profit_margin_percent = ?, stats_calculated_at = ?, last_procurement_update = ? " +
+        "WHERE project_unique_id = ?";
 
     /**
      * Recalculate ALL project statistics from scratch
@@ -41,6 +73,7 @@ public class ProjectStatsService {
         calculatePOStats(project);
         calculateQuotationStats(project);
         calculateBillStats(project);
+        calculateInvoiceStats(project);
         calculateVendorStats(project);
         calculateFinancialMetrics(project);
         
@@ -54,105 +87,127 @@ public class ProjectStatsService {
 
     /**
      * Calculate Purchase Order statistics
+     * Single conditional-aggregation query instead of one round-trip per status
      */
     private void calculatePOStats(ProjectEntity project) {
-        String projectId = project.getProjectUniqueId();
-        
-        // Total POs
-        Long totalCount = purchaseOrderRepository.countByProjectId(projectId);
-        project.setTotalPoCount(totalCount != null ? totalCount.intValue() : 0);
-        
-        BigDecimal totalValue = purchaseOrderRepository.sumTotalValueByProjectId(projectId)
-            .orElse(BigDecimal.ZERO);
-        project.setTotalPoValue(totalValue);
-        
-        // Delivered POs
-        Long deliveredCount = purchaseOrderRepository.countByProjectIdAndStatus(projectId, "Delivered");
-        project.setDeliveredPoCount(deliveredCount != null ? deliveredCount.intValue() : 0);
-        
-        BigDecimal deliveredValue = purchaseOrderRepository
-            .sumTotalValueByProjectIdAndStatus(projectId, "Delivered")
-            .orElse(BigDecimal.ZERO);
-        project.setDeliveredPoValue(deliveredValue);
-        
+        Object[] row = firstRow(purchaseOrderRepository
+            .aggregateStatsByProjectId(project.getProjectUniqueId()));
+        applyPOStats(project, row);
+    }
+
+    /**
+     * Row: [totalCount, totalValue, deliveredCount, deliveredValue, pendingValue, cancelledValue]
+     */
+    private void applyPOStats(ProjectEntity project, Object[] row) {
+        project.setTotalPoCount(toInt(row, 0));
+        project.setTotalPoValue(toDecimal(row, 1));
+        project.setDeliveredPoCount(toInt(row, 2));
+        project.setDeliveredPoValue(toDecimal(row, 3));
         // Pending POs (Approved, Ordered, In-Transit)
-        BigDecimal pendingValue = BigDecimal.ZERO;
-        List<String> pendingStatuses = Arrays.asList("Approved", "Ordered", "In-Transit");
-        
-        for (String status : pendingStatuses) {
-            BigDecimal statusValue = purchaseOrderRepository
-                .sumTotalValueByProjectIdAndStatus(projectId, status)
-                .orElse(BigDecimal.ZERO);
-            pendingValue = pendingValue.add(statusValue);
-        }
-        project.setPendingPoValue(pendingValue);
-        
-        // Cancelled POs
-        BigDecimal cancelledValue = purchaseOrderRepository
-            .sumTotalValueByProjectIdAndStatus(projectId, "Cancelled")
-            .orElse(BigDecimal.ZERO);
-        project.setCancelledPoValue(cancelledValue);
+        project.setPendingPoValue(toDecimal(row, 4));
+        project.setCancelledPoValue(toDecimal(row, 5));
     }
 
     /**
      * Calculate Quotation statistics
      */
     private void calculateQuotationStats(ProjectEntity project) {
-        String projectId = project.getProjectUniqueId();
-        
-        Long totalCount = quotationRepository.countByProjectId(projectId);
-        project.setTotalQuotationCount(totalCount != null ? totalCount.intValue() : 0);
-        
-        BigDecimal totalValue = quotationRepository.sumTotalValueByProjectId(projectId)
-            .orElse(BigDecimal.ZERO);
-        project.setTotalQuotationValue(totalValue);
-        
-        Long approvedCount = quotationRepository.countByProjectIdAndStatus(projectId, "Approved");
-        project.setApprovedQuotationCount(approvedCount != null ? approvedCount.intValue() : 0);
-        
-        BigDecimal approvedValue = quotationRepository
-            .sumTotalValueByProjectIdAndStatus(projectId, "Approved")
-            .orElse(BigDecimal.ZERO);
-        project.setApprovedQuotationValue(approvedValue);
+        Object[] row = firstRow(quotationRepository
+            .aggregateStatsByProjectId(project.getProjectUniqueId()));
+        applyQuotationStats(project, row);
+    }
+
+    /**
+     * Row: [totalCount, totalValue, approvedCount, approvedValue]
+     */
+    private void applyQuotationStats(ProjectEntity project, Object[] row) {
+        project.setTotalQuotationCount(toInt(row, 0));
+        project.setTotalQuotationValue(toDecimal(row, 1));
+        project.setApprovedQuotationCount(toInt(row, 2));
+        project.setApprovedQuotationValue(toDecimal(row, 3));
     }
 
     /**
      * Calculate Bill statistics
      */
     private void calculateBillStats(ProjectEntity project) {
-        String projectId = project.getProjectUniqueId();
-        
-        Long totalCount = billRepository.countByProjectId(projectId);
-        project.setTotalBillCount(totalCount != null ? totalCount.intValue() : 0);
-        
-        BigDecimal totalAmount = billRepository.sumTotalAmountByProjectId(projectId)
-            .orElse(BigDecimal.ZERO);
-        project.setTotalBillValue(totalAmount);
-        
-        Long paidCount = billRepository.countByProjectIdAndStatus(projectId, "Paid");
-        project.setPaidBillCount(paidCount != null ? paidCount.intValue() : 0);
-        
-        BigDecimal paidAmount = billRepository.sumPaidAmountByProjectId(projectId)
-            .orElse(BigDecimal.ZERO);
-        project.setPaidBillValue(paidAmount);
-        
-        BigDecimal balanceAmount = billRepository.sumBalanceAmountByProjectId(projectId)
-            .orElse(BigDecimal.ZERO);
-        project.setPendingPaymentValue(balanceAmount);
+        Object[] row = firstRow(billRepository
+            .aggregateStatsByProjectId(project.getProjectUniqueId()));
+        applyBillStats(project, row);
+    }
+
+    /**
+     * Row: [totalCount, totalAmount, paidCount, paidAmount, balanceAmount]
+     */
+    private void applyBillStats(ProjectEntity project, Object[] row) {
+        project.setTotalBillCount(toInt(row, 0));
+        project.setTotalBillValue(toDecimal(row, 1));
+        project.setPaidBillCount(toInt(row, 2));
+        project.setPaidBillValue(toDecimal(row, 3));
+        project.setPendingPaymentValue(toDecimal(row, 4));
+    }
+
+    /**
+     * Calculate client invoice statistics
+     */
+    private void calculateInvoiceStats(ProjectEntity project) {
+        Object[] row = firstRow(invoiceRepository
+            .aggregateStatsByProjectId(project.getProjectUniqueId()));
+        applyInvoiceStats(project, row);
+    }
+
+    /**
+     * Row: [totalCount, totalAmount, paidCount, paidAmount, pendingAmount]
+     */
+    private void applyInvoiceStats(ProjectEntity project, Object[] row) {
+        project.setTotalInvoiceCount(toInt(row, 0));
+        project.setTotalInvoiceValue(toDecimal(row, 1));
+        project.setPaidInvoiceCount(toInt(row, 2));
+        project.setPaidInvoiceValue(toDecimal(row, 3));
+        project.setPendingInvoiceValue(toDecimal(row, 4));
     }
 
     /**
      * Calculate Vendor statistics
      */
     private void calculateVendorStats(ProjectEntity project) {
-        String projectId = project.getProjectUniqueId();
-        
-        Long activeCount = vendorRepository.countByProjectIdAndStatus(projectId, "Active");
-        project.setActiveVendorCount(activeCount != null ? activeCount.intValue() : 0);
-        
-        BigDecimal totalSpend = vendorRepository.sumTotalPurchaseValueByProjectId(projectId)
-            .orElse(BigDecimal.ZERO);
-        project.setTotalVendorSpend(totalSpend);
+        Object[] row = firstRow(vendorRepository
+            .aggregateStatsByProjectId(project.getProjectUniqueId()));
+        applyVendorStats(project, row);
+    }
+
+    /**
+     * Row: [activeCount, totalPurchaseValue]
+     */
+    private void applyVendorStats(ProjectEntity project, Object[] row) {
+        project.setActiveVendorCount(toInt(row, 0));
+        project.setTotalVendorSpend(toDecimal(row, 1));
+    }
+
+    /**
+     * Aggregate queries without GROUP BY always return exactly one row;
+     * an empty array is treated as all zeros.
+     */
+    private static Object[] firstRow(List<Object[]> rows) {
+        return rows == null || rows.isEmpty() ? new Object[0] : rows.get(0);
+    }
+
+    private static int toInt(Object[] row, int index) {
+        if (index >= row.length || row[index] == null) {
+            return 0;
+        }
+        return ((Number) row[index]).intValue();
+    }
+
+    private static BigDecimal toDecimal(Object[] row, int index) {
+        if (index >= row.length || row[index] == null) {
+            return BigDecimal.ZERO;
+        }
+        Object value = row[index];
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return new BigDecimal(value.toString());
     }
 
     /**
@@ -220,6 +275,157 @@ public class ProjectStatsService {
             successCount, failCount);
     }
 
+    /**
+     * Set-based recalculation of all active projects
+     * Stats are computed with GROUP BY project_id queries per chunk of projects and
+     * written back with a JDBC batch; each chunk commits in its own transaction so a
+     * failing chunk does not roll back the others.
+     */
+    public StatsRecalculationResultDTO recalculateAllProjectStatsBulk() {
+        long startTime = System.currentTimeMillis();
+        int chunkSize = Math.max(1, bulkChunkSize);
+
+        List<Object[]> activeProjects = projectRepository.findActiveProjectIdsAndBudgets();
+        log.info("Starting bulk recalculation for {} active projects (chunk size {})",
+            activeProjects.size(), chunkSize);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<StatsRecalculationResultDTO.ChunkResult> chunks = new ArrayList<>();
+        int updatedProjects = 0;
+        int failedProjects = 0;
+
+        for (int from = 0, chunkIndex = 0; from < activeProjects.size(); from += chunkSize, chunkIndex++) {
+            List<Object[]> chunk = activeProjects.subList(from, Math.min(from + chunkSize, activeProjects.size()));
+            long chunkStart = System.currentTimeMillis();
+
+            try {
+                Integer updated = transactionTemplate.execute(status -> recalculateChunk(chunk));
+                int updatedCount = updated != null ? updated : 0;
+                updatedProjects += updatedCount;
+                chunks.add(StatsRecalculationResultDTO.ChunkResult.builder()
+                    .chunkIndex(chunkIndex)
+                    .projectCount(chunk.size())
+                    .updatedCount(updatedCount)
+                    .success(true)
+                    .executionTimeMs(System.currentTimeMillis() - chunkStart)
+                    .build());
+            } catch (Exception e) {
+                failedProjects += chunk.size();
+                log.error("Bulk stats recalculation failed for chunk {} ({} projects)",
+                    chunkIndex, chunk.size(), e);
+                chunks.add(StatsRecalculationResultDTO.ChunkResult.builder()
+                    .chunkIndex(chunkIndex)
+                    .projectCount(chunk.size())
+                    .updatedCount(0)
+                    .success(false)
+                    .error(e.getMessage())
+                    .executionTimeMs(System.currentTimeMillis() - chunkStart)
+                    .build());
+            }
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        log.info("Completed bulk recalculation in {} ms. Updated: {}, Failed: {}, Chunks: {}",
+            duration, updatedProjects, failedProjects, chunks.size());
+
+        return StatsRecalculationResultDTO.builder()
+            .success(failedProjects == 0)
+            .message(String.format("Updated %d of %d projects", updatedProjects, activeProjects.size()))
+            .calculatedAt(LocalDateTime.now())
+            .executionTimeMs(duration)
+            .totalProjects(activeProjects.size())
+            .updatedProjects(updatedProjects)
+            .failedProjects(failedProjects)
+            .chunkSize(chunkSize)
+            .chunks(chunks)
+            .build();
+    }
+
+    /**
+     * Set-based recalculation of the given projects in one transaction, used for
+     * projects changed since the last event flush. Returns the number of rows updated.
+     */
+    public int recalculateProjects(Collection<String> projectUniqueIds) {
+        if (projectUniqueIds.isEmpty()) {
+            return 0;
+        }
+        int chunkSize = Math.max(1, bulkChunkSize);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer updated = transactionTemplate.execute(status -> {
+            List<Object[]> projects = projectRepository.findProjectIdsAndBudgets(projectUniqueIds);
+            int count = 0;
+            for (int from = 0; from < projects.size(); from += chunkSize) {
+                count += recalculateChunk(projects.subList(from, Math.min(from + chunkSize, projects.size())));
+            }
+            return count;
+        });
+        return updated != null ? updated : 0;
+    }
+
+    /**
+     * Compute and persist stats for one chunk of [projectUniqueId, budget] rows
+     * Returns the number of project rows updated
+     */
+    private int recalculateChunk(List<Object[]> chunk) {
+        Map<String, ProjectEntity> projects = new HashMap<>();
+        for (Object[] row : chunk) {
+            // Detached holder; fields default to zero for projects without any rows
+            ProjectEntity project = new ProjectEntity();
+            project.setProjectUniqueId((String) row[0]);
+            project.setBudget((BigDecimal) row[1]);
+            projects.put(project.getProjectUniqueId(), project);
+        }
+
+        for (Object[] row : purchaseOrderRepository.aggregateStatsGroupByProjectId(projects.keySet())) {
+            applyPOStats(projects.get((String) row[0]), Arrays.copyOfRange(row, 1, row.length));
+        }
+        for (Object[] row : quotationRepository.aggregateStatsGroupByProjectId(projects.keySet())) {
+            applyQuotationStats(projects.get((String) row[0]), Arrays.copyOfRange(row, 1, row.length));
+        }
+        for (Object[] row : billRepository.aggregateStatsGroupByProjectId(projects.keySet())) {
+            applyBillStats(projects.get((String) row[0]), Arrays.copyOfRange(row, 1, row.length));
+        }
+        for (Object[] row : invoiceRepository.aggregateStatsGroupByProjectId(projects.keySet())) {
+            applyInvoiceStats(projects.get((String) row[0]), Arrays.copyOfRange(row, 1, row.length));
+        }
+        for (Object[] row : vendorRepository.aggregateStatsGroupByProjectId(projects.keySet())) {
+            applyVendorStats(projects.get((String) row[0]), Arrays.copyOfRange(row, 1, row.length));
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(projects.size());
+        for (ProjectEntity project : projects.values()) {
+            calculateFinancialMetrics(project);
+            batchArgs.add(new Object[] {
+                project.getTotalPoCount(), project.getTotalPoValue(),
+                project.getDeliveredPoCount(), project.getDeliveredPoValue(),
+                project.getPendingPoValue(), project.getCancelledPoValue(),
+                project.getTotalQuotationCount(), project.getTotalQuotationValue(),
+                project.getApprovedQuotationCount(), project.getApprovedQuotationValue(),
+                project.getTotalBillCount(), project.getTotalBillValue(),
+                project.getPaidBillCount(), project.getPaidBillValue(),
+                project.getPendingPaymentValue(),
+                project.getTotalInvoiceCount(), project.getTotalInvoiceValue(),
+                project.getPaidInvoiceCount(), project.getPaidInvoiceValue(),
+                project.getPendingInvoiceValue(),
+                project.getActiveVendorCount(), project.getTotalVendorSpend(),
+                project.getBudgetUtilized(), project.getBudgetUtilizationPercent(),
+                project.getProjectedProfit(), project.getProfitMarginPercent(),
+                now, now,
+                project.getProjectUniqueId()
+            });
+        }
+
+        int[] results = jdbcTemplate.batchUpdate(BULK_UPDATE_SQL, batchArgs);
+        projects.keySet().forEach(projectDataVersionService::changed);
+        int updated = 0;
+        for (int result : results) {
+            // Drivers may report SUCCESS_NO_INFO (-2) for rewritten batches
+            updated += result > 0 ? result : (result == Statement.SUCCESS_NO_INFO ? 1 : 0);
+        }
+        return updated;
+    }
+
     /**
      * Quick update after PO status change
      */
@@ -305,26 +511,59 @@ public class ProjectStatsService {
     public boolean verifyProjectStats(String projectUniqueId) {
         ProjectEntity project = projectRepository.findByProjectUniqueId(projectUniqueId)
             .orElseThrow(() -> new RuntimeException("Project not found"));
-        
-        // Verify PO count
-        Long actualPOCount = purchaseOrderRepository.countByProjectId(projectUniqueId);
-        if (!actualPOCount.equals(Long.valueOf(project.getTotalPoCount()))) {
-            log.warn("PO count mismatch for project {}: stored={}, actual={}", 
-                projectUniqueId, project.getTotalPoCount(), actualPOCount);
+
+        // Every column kept by the delta events is compared, so drift in any of them is caught
+        ProjectEntity actual = new ProjectEntity();
+        actual.setProjectUniqueId(projectUniqueId);
+        calculatePOStats(actual);
+        calculateQuotationStats(actual);
+        calculateBillStats(actual);
+        calculateInvoiceStats(actual);
+        calculateVendorStats(actual);
+
+        boolean consistent =
+            matches(projectUniqueId, "PO count", project.getTotalPoCount(), actual.getTotalPoCount())
+            & matches(projectUniqueId, "PO value", project.getTotalPoValue(), actual.getTotalPoValue())
+            & matches(projectUniqueId, "delivered PO count", project.getDeliveredPoCount(), actual.getDeliveredPoCount())
+            & matches(projectUniqueId, "delivered PO value", project.getDeliveredPoValue(), actual.getDeliveredPoValue())
+            & matches(projectUniqueId, "pending PO value", project.getPendingPoValue(), actual.getPendingPoValue())
+            & matches(projectUniqueId, "cancelled PO value", project.getCancelledPoValue(), actual.getCancelledPoValue())
+            & matches(projectUniqueId, "quotation count", project.getTotalQuotationCount(), actual.getTotalQuotationCount())
+            & matches(projectUniqueId, "quotation value", project.getTotalQuotationValue(), actual.getTotalQuotationValue())
+            & matches(projectUniqueId, "approved quotation count", project.getApprovedQuotationCount(), actual.getApprovedQuotationCount())
+            & matches(projectUniqueId, "approved quotation value", project.getApprovedQuotationValue(), actual.getApprovedQuotationValue())
+            & matches(projectUniqueId, "bill count", project.getTotalBillCount(), actual.getTotalBillCount())
+            & matches(projectUniqueId, "bill value", project.getTotalBillValue(), actual.getTotalBillValue())
+            & matches(projectUniqueId, "paid bill count", project.getPaidBillCount(), actual.getPaidBillCount())
+            & matches(projectUniqueId, "paid bill value", project.getPaidBillValue(), actual.getPaidBillValue())
+            & matches(projectUniqueId, "pending payment value", project.getPendingPaymentValue(), actual.getPendingPaymentValue())
+            & matches(projectUniqueId, "invoice count", project.getTotalInvoiceCount(), actual.getTotalInvoiceCount())
+            & matches(projectUniqueId, "invoice value", project.getTotalInvoiceValue(), actual.getTotalInvoiceValue())
+            & matches(projectUniqueId, "paid invoice count", project.getPaidInvoiceCount(), actual.getPaidInvoiceCount())
+            & matches(projectUniqueId, "paid invoice value", project.getPaidInvoiceValue(), actual.getPaidInvoiceValue())
+            & matches(projectUniqueId, "pending invoice value", project.getPendingInvoiceValue(), actual.getPendingInvoiceValue())
+            & matches(projectUniqueId, "active vendor count", project.getActiveVendorCount(), actual.getActiveVendorCount())
+            & matches(projectUniqueId, "vendor spend", project.getTotalVendorSpend(), actual.getTotalVendorSpend());
+
+        if (consistent) {
+            log.info("Project stats verified successfully for: {}", projectUniqueId);
+        }
+        return consistent;
+    }
+
+    private static boolean matches(String projectUniqueId, String column, Integer stored, Integer actual) {
+        if (stored == null || stored.intValue() != actual.intValue()) {
+            log.warn("{} mismatch for project {}: stored={}, actual={}", column, projectUniqueId, stored, actual);
             return false;
         }
-        
-        // Verify PO value
-        BigDecimal actualPOValue = purchaseOrderRepository
-            .sumTotalValueByProjectId(projectUniqueId)
-            .orElse(BigDecimal.ZERO);
-        if (project.getTotalPoValue().compareTo(actualPOValue) != 0) {
-            log.warn("PO value mismatch for project {}: stored={}, actual={}", 
-                projectUniqueId, project.getTotalPoValue(), actualPOValue);
+        return true;
+    }
+
+    private static boolean matches(String projectUniqueId, String column, BigDecimal stored, BigDecimal actual) {
+        if (stored == null || stored.compareTo(actual) != 0) {
+            log.warn("{} mismatch for project {}: stored={}, actual={}", column, projectUniqueId, stored, actual);
             return false;
         }
-        
-        log.info("Project stats verified successfully for: {}", projectUniqueId);
         return true;
     }
 
@@ -345,6 +584,11 @@ public class ProjectStatsService {
             }
         }
         
-        log.info("Fixed stats for {} projects", fixedCount);
+        if (fixedCount > 0) {
+            // The stats are maintained by delta events, so any repair here means they drifted
+            log.warn("Fixed drifted stats for {} of {} projects", fixedCount, projects.size());
+        } else {
+            log.info("Stats of all {} projects are consistent", projects.size());
+        }
     }
 }
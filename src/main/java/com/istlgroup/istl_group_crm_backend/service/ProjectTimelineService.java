@@ -0,0 +1,258 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.entity.ProjectEntity;
+import com.istlgroup.istl_group_crm_backend.repo.BillRepository;
+import com.istlgroup.istl_group_crm_backend.repo.InvoiceRepository;
+import com.istlgroup.istl_group_crm_backend.repo.ProjectRepository;
+import com.istlgroup.istl_group_crm_backend.repo.PurchaseOrderRepository;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.ProjectDashboardDTO.TimelineMilestoneDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Project timeline: project kickoff, delivered POs, non-pending bills, invoices
+ * and the target completion date, ordered by date.
+ *
+ * Each source is read as a narrow (date, id) ordered projection that starts
+ * after the cursor and stops at one row more than the page, so no source ever
+ * contributes more rows than a page can hold. The sorted sources are then
+ * k-way merged and only the requested slice is turned into DTOs.
+ *
+ * Entries of the same date keep a fixed source order (kickoff, POs, bills,
+ * invoices, completion), so the cursor is (date, source, id).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProjectTimelineService {
+
+    private static final String SCOPE = "project-timeline";
+
+    // Source order among entries of the same date
+    static final int KICKOFF = 0;
+    static final int PO = 1;
+    static final int BILL = 2;
+    static final int INVOICE = 3;
+    static final int COMPLETION = 4;
+
+    private static final Comparator<Entry> ORDER = Comparator.<Entry, LocalDate>comparing(e -> e.date)
+        .thenComparingInt(e -> e.source)
+        .thenComparingLong(e -> e.id);
+
+    private final ProjectRepository projectRepository;
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final BillRepository billRepository;
+    private final InvoiceRepository invoiceRepository;
+
+    /**
+     * One page of the timeline of a project; from and to bound the dates (inclusive) when set
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<TimelineMilestoneDTO> getTimeline(String projectUniqueId, LocalDate from, LocalDate to,
+                                                        String cursor, int size) {
+        ProjectEntity project = projectRepository.findByProjectUniqueId(projectUniqueId)
+            .orElseThrow(() -> new RuntimeException("Project not found: " + projectUniqueId));
+        return getTimeline(project, from, to, cursor, size);
+    }
+
+    public KeysetPage<TimelineMilestoneDTO> getTimeline(ProjectEntity project, LocalDate from, LocalDate to,
+                                                        String cursor, int size) {
+        Entry after = decode(KeysetCursor.decode(SCOPE, cursor));
+        String projectId = project.getProjectUniqueId();
+        Pageable fetch = KeysetCursor.fetch(size);
+        LocalDate afterDate = after != null ? after.date : null;
+
+        List<List<Entry>> sources = new ArrayList<>();
+        sources.add(milestone(KICKOFF, project.getStartDate(), from, to, after));
+        // Row: [id, date, poNo, totalValue]
+        sources.add(entries(PO, purchaseOrderRepository.findTimelineRows(
+            projectId, from, to, afterDate, afterId(PO, after), fetch)));
+        // Row: [id, billDate, billNo, totalAmount, status]
+        sources.add(entries(BILL, billRepository.findTimelineRows(
+            projectId, from, to, afterDate, afterId(BILL, after), fetch)));
+        // Row: [id, invoiceDate, invoiceNo, totalAmount, status]
+        sources.add(entries(INVOICE, invoiceRepository.findTimelineRows(
+            projectId, from, to, afterDate, afterId(INVOICE, after), fetch)));
+        sources.add(milestone(COMPLETION, project.getEndDate(), from, to, after));
+
+        List<Entry> merged = merge(sources, fetch.getPageSize());
+        KeysetPage<Entry> page = KeysetCursor.page(SCOPE, merged, size,
+            e -> e.date + "~" + e.source, e -> e.id, null);
+
+        List<TimelineMilestoneDTO> content = new ArrayList<>(page.getContent().size());
+        for (Entry entry : page.getContent()) {
+            content.add(toDto(entry, project));
+        }
+        return KeysetPage.<TimelineMilestoneDTO>builder()
+            .content(content)
+            .nextCursor(page.getNextCursor())
+            .hasNext(page.isHasNext())
+            .size(page.getSize())
+            .build();
+    }
+
+    /**
+     * Lazily merge the sorted sources, taking at most limit entries
+     */
+    static List<Entry> merge(List<List<Entry>> sources, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing((Head h) -> h.current, ORDER));
+        for (List<Entry> source : sources) {
+            Iterator<Entry> it = source.iterator();
+            if (it.hasNext()) {
+                heads.add(new Head(it.next(), it));
+            }
+        }
+
+        List<Entry> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.current);
+            if (head.rest.hasNext()) {
+                heads.add(new Head(head.rest.next(), head.rest));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Seek id for a source: rows of the cursor date are all after the cursor for later
+     * sources, none are for earlier sources, and only higher ids are for the cursor's own source
+     */
+    private static Long afterId(int source, Entry after) {
+        if (after == null) {
+            return null;
+        }
+        if (source < after.source) {
+            return Long.MAX_VALUE;
+        }
+        return source == after.source ? after.id : Long.MIN_VALUE;
+    }
+
+    private static List<Entry> entries(int source, List<Object[]> rows) {
+        List<Entry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            entries.add(new Entry(source, ((Number) row[0]).longValue(), (LocalDate) row[1], row));
+        }
+        return entries;
+    }
+
+    private static List<Entry> milestone(int source, LocalDate date, LocalDate from, LocalDate to, Entry after) {
+        if (date == null || (from != null && date.isBefore(from)) || (to != null && date.isAfter(to))) {
+            return List.of();
+        }
+        Entry entry = new Entry(source, 0L, date, null);
+        return after == null || ORDER.compare(entry, after) > 0 ? List.of(entry) : List.of();
+    }
+
+    private static TimelineMilestoneDTO toDto(Entry entry, ProjectEntity project) {
+        Object[] row = entry.row;
+        switch (entry.source) {
+            case KICKOFF:
+                return TimelineMilestoneDTO.builder()
+                    .date(entry.date)
+                    .title("Project Kickoff")
+                    .description(project.getProjectName() + " started")
+                    .type("milestone")
+                    .status("completed")
+                    .build();
+            case PO:
+                return TimelineMilestoneDTO.builder()
+                    .date(entry.date)
+                    .title("PO Delivered")
+                    .description("PO " + row[2] + " delivered")
+                    .type("po_delivered")
+                    .status("completed")
+                    .amount((BigDecimal) row[3])
+                    .reference((String) row[2])
+                    .build();
+            case BILL:
+                return document(entry, "Bill", "Bill Paid", "Bill Received", "bill_paid", "bill_received");
+            case INVOICE:
+                return document(entry, "Invoice", "Invoice Paid", "Invoice Raised", "invoice_paid", "invoice_raised");
+            default:
+                LocalDate now = LocalDate.now();
+                String status = now.isAfter(entry.date) ? "overdue" :
+                               now.isAfter(entry.date.minusDays(30)) ? "in-progress" : "upcoming";
+                return TimelineMilestoneDTO.builder()
+                    .date(entry.date)
+                    .title("Project Completion")
+                    .description("Target completion date")
+                    .type("milestone")
+                    .status(status)
+                    .build();
+        }
+    }
+
+    /**
+     * Bill or invoice entry - Row: [id, date, number, totalAmount, status]
+     */
+    private static TimelineMilestoneDTO document(Entry entry, String label, String paidTitle, String openTitle,
+                                                 String paidType, String openType) {
+        Object[] row = entry.row;
+        boolean paid = "Paid".equals(row[4]);
+        return TimelineMilestoneDTO.builder()
+            .date(entry.date)
+            .title(paid ? paidTitle : openTitle)
+            .description(label + " " + row[2] + " - " + row[4])
+            .type(paid ? paidType : openType)
+            .status(paid ? "completed" : "in-progress")
+            .amount((BigDecimal) row[3])
+            .reference((String) row[2])
+            .build();
+    }
+
+    /**
+     * Cursor position from a "date~source" sort key
+     */
+    private static Entry decode(KeysetCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        String[] key = cursor.getSortKey().split("~");
+        try {
+            if (key.length != 2) {
+                throw new RuntimeException("Invalid cursor");
+            }
+            return new Entry(Integer.parseInt(key[1]), cursor.getId(), LocalDate.parse(key[0]), null);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor", e);
+        }
+    }
+
+    static final class Entry {
+        final int source;
+        final long id;
+        final LocalDate date;
+        private final Object[] row;
+
+        Entry(int source, long id, LocalDate date, Object[] row) {
+            this.source = source;
+            this.id = id;
+            this.date = date;
+            this.row = row;
+        }
+    }
+
+    private static final class Head {
+        private final Entry current;
+        private final Iterator<Entry> rest;
+
+        Head(Entry current, Iterator<Entry> rest) {
+            this.current = current;
+            this.rest = rest;
+        }
+    }
+}
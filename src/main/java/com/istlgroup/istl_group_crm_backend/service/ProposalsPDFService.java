@@ -1,13 +1,15 @@
 package com.istlgroup.istl_group_crm_backend.service;
 
 import com.istlgroup.istl_group_crm_backend.customException.CustomException;
+import com.istlgroup.istl_group_crm_backend.entity.CustomersEntity;
+import com.istlgroup.istl_group_crm_backend.entity.LeadsEntity;
 import com.istlgroup.istl_group_crm_backend.entity.ProposalsEntity;
+import com.istlgroup.istl_group_crm_backend.entity.UsersEntity;
 import com.istlgroup.istl_group_crm_backend.repo.ProposalsRepo;
 import com.istlgroup.istl_group_crm_backend.repo.LeadsRepo;
 import com.istlgroup.istl_group_crm_backend.repo.CustomersRepo;
 import com.istlgroup.istl_group_crm_backend.repo.UsersRepo;
 import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
@@ -18,7 +20,6 @@ import com.itextpdf.layout.properties.UnitValue;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.font.PdfFont;
-import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.layout.borders.SolidBorder;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -26,7 +27,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
@@ -46,10 +50,37 @@ public class ProposalsPDFService {
     @Autowired
     private UsersRepo usersRepo; 
     
+    @Autowired
+    private PdfResourceService pdfResources;
+    
+    @Autowired
+    private PdfCacheService pdfCache;
+    
     private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    
+    // BOM rows are flushed to the output every this many rows
+    private static final int TABLE_FLUSH_ROWS = 50;
+    
+    // Part of the cache fingerprint; bump when the layout changes
+    private static final String LAYOUT_VERSION = "1";
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     public byte[] generateProposalPDF(Long proposalId, Long userId, String userRole) throws CustomException {
+        ProposalsEntity proposal = loadForDownload(proposalId, userId, userRole);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            writeProposalPDF(proposal, baos);
+        } catch (IOException e) {
+            throw new CustomException("Error generating PDF: " + e.getMessage());
+        }
+        return baos.toByteArray();
+    }
+    
+    /**
+     * Load the proposal and check it can be downloaded by the user.
+     * Called before streaming starts so errors can still produce a normal response.
+     */
+    public ProposalsEntity loadForDownload(Long proposalId, Long userId, String userRole) throws CustomException {
         ProposalsEntity proposal = proposalsRepo.findById(proposalId)
             .orElseThrow(() -> new CustomException("Proposal not found"));
         
@@ -60,16 +91,45 @@ public class ProposalsPDFService {
         if (!isAccessible(proposal, userId, userRole)) {
             throw new CustomException("You don't have permission to download this proposal");
         }
+        return proposal;
+    }
+    
+    /**
+     * Write the proposal PDF into the given stream (left open), served from the
+     * PDF cache when the proposal and its lead/customer are unchanged
+     */
+    public void writeProposalPDF(ProposalsEntity proposal, OutputStream out) throws CustomException, IOException {
+        pdfCache.write(PdfCacheService.PROPOSAL, proposal.getId(), fingerprint(proposal),
+                o -> renderProposalPDF(proposal, o), out);
+    }
+    
+    /**
+     * Fingerprint of the proposal row plus the lead and customer rows shown on the title page
+     * and the preparer's name from the "Prepared By" line
+     */
+    public String fingerprint(ProposalsEntity proposal) {
+        LocalDateTime leadUpdatedAt = proposal.getLeadId() == null ? null
+            : leadsRepo.findById(proposal.getLeadId()).map(LeadsEntity::getUpdatedAt).orElse(null);
+        LocalDateTime customerUpdatedAt = proposal.getCustomerId() == null ? null
+            : customersRepo.findById(proposal.getCustomerId()).map(CustomersEntity::getUpdatedAt).orElse(null);
+        String preparedByName = proposal.getPreparedBy() == null ? null
+            : usersRepo.findById(proposal.getPreparedBy()).map(UsersEntity::getName).orElse(null);
         
+        return PdfCacheService.fingerprint(LAYOUT_VERSION,
+            proposal.getUpdatedAt(), proposal.getVersion(), proposal.getStatus(),
+            proposal.getLeadId(), leadUpdatedAt,
+            proposal.getCustomerId(), customerUpdatedAt,
+            proposal.getPreparedBy(), preparedByName);
+    }
+    
+    private void renderProposalPDF(ProposalsEntity proposal, OutputStream out) throws CustomException {
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter writer = new PdfWriter(baos);
-            PdfDocument pdfDoc = new PdfDocument(writer);
+            PdfDocument pdfDoc = pdfResources.openDocument(out);
             Document document = new Document(pdfDoc);
             document.setMargins(36, 36, 36, 36);
             
-            PdfFont boldFont = PdfFontFactory.createFont(com.itextpdf.io.font.constants.StandardFonts.HELVETICA_BOLD);
-            PdfFont normalFont = PdfFontFactory.createFont(com.itextpdf.io.font.constants.StandardFonts.HELVETICA);
+            PdfFont boldFont = pdfResources.boldFont();
+            PdfFont normalFont = pdfResources.normalFont();
             
             // PAGE 1: Title Page
             addTitlePage(document, proposal, boldFont, normalFont);
@@ -119,7 +179,6 @@ public class ProposalsPDFService {
             }
             
             document.close();
-            return baos.toByteArray();
             
         } catch (Exception e) {
             throw new CustomException("Error generating PDF: " + e.getMessage());
@@ -284,7 +343,8 @@ public class ProposalsPDFService {
         
         List<Map<String, String>> bomItems = objectMapper.readValue(bomJson, new TypeReference<List<Map<String, String>>>() {});
         
-        Table table = new Table(6).setWidth(UnitValue.createPercentValue(100));
+        // Large-table mode: rendered rows are flushed instead of held until the table is complete
+        Table table = new Table(6, true).setWidth(UnitValue.createPercentValue(100));
         
         String[] headers = {"Item", "Specification", "Quantity", "Unit", "Rate (₹)", "Amount (₹)"};
         for (String header : headers) {
@@ -293,8 +353,18 @@ public class ProposalsPDFService {
                 .setFontColor(ColorConstants.WHITE)
                 .setPadding(8));
         }
+        document.add(table);
         
+        try {
+            addBomRows(table, bomItems, boldFont, normalFont);
+        } finally {
+            table.complete();
+        }
+    }
+    
+    private void addBomRows(Table table, List<Map<String, String>> bomItems, PdfFont boldFont, PdfFont normalFont) {
         double total = 0;
+        int rows = 0;
         for (Map<String, String> item : bomItems) {
             table.addCell(new Cell().add(new Paragraph(item.getOrDefault("item", "")).setFont(normalFont).setFontSize(9)).setPadding(6));
             table.addCell(new Cell().add(new Paragraph(item.getOrDefault("specification", "")).setFont(normalFont).setFontSize(9)).setPadding(6));
@@ -305,6 +375,10 @@ public class ProposalsPDFService {
             double amount = Double.parseDouble(item.getOrDefault("amount", "0"));
             total += amount;
             table.addCell(new Cell().add(new Paragraph(String.format("%,.2f", amount)).setFont(normalFont).setFontSize(9)).setPadding(6));
+            
+            if (++rows % TABLE_FLUSH_ROWS == 0) {
+                table.flush();
+            }
         }
         
         table.addCell(new Cell(1, 5).add(new Paragraph("Total").setFont(boldFont).setFontSize(10))
@@ -314,8 +388,6 @@ public class ProposalsPDFService {
         table.addCell(new Cell().add(new Paragraph(String.format("₹%,.2f", total)).setFont(boldFont).setFontSize(10))
             .setBackgroundColor(new DeviceRgb(247, 250, 252))
             .setPadding(8));
-        
-        document.add(table);
     }
     
     private void addClientInformation(Document document, ProposalsEntity proposal, PdfFont boldFont, PdfFont normalFont) {
@@ -13,6 +13,7 @@ import com.istlgroup.istl_group_crm_backend.wrapperClasses.ProposalWrapper;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.ProposalRequestWrapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -21,7 +22,6 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +42,15 @@ public class ProposalsService {
     @Autowired
     private UsersRepo usersRepo;
     
+    @Autowired
+    private PdfCacheService pdfCache;
+
+    @Autowired
+    private DocumentSequenceService documentSequenceService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+    
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
     
     /**
@@ -104,8 +113,29 @@ public Page<ProposalWrapper> getAllProposalsPaginated(Long userId, String userRo
         LocalDateTime toDate = parseDate(filterRequest.getToDate());
         
         Page<ProposalsEntity> proposalPage;
+        boolean isAdmin = "SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole);
+        
+        // Ranked ids from the search index, hydrated with the remaining filters and paged in rank order
+        // (best match first, in place of the newest-first sort); null for too-broad terms, which use the SQL search
+        List<Long> hitIds = searchIndexService.searchProposals(filterRequest.getSearchTerm(), isAdmin ? null : userId);
+        if (hitIds != null) {
+            List<ProposalsEntity> hits = hitIds.isEmpty() ? List.of() : proposalsRepo.findSearchHits(
+                hitIds,
+                isAdmin ? null : userId,
+                filterRequest.getFilterStatus(),
+                filterRequest.getFilterGroup(),
+                filterRequest.getFilterSubGroup(),
+                isAdmin ? filterRequest.getFilterPreparedBy() : null,
+                fromDate,
+                toDate
+            );
+            List<ProposalsEntity> ranked = SearchIndexService.inRankOrder(hitIds, hits, ProposalsEntity::getId);
+            int from = (int) Math.min(pageable.getOffset(), ranked.size());
+            int to = Math.min(from + pageable.getPageSize(), ranked.size());
+            return new PageImpl<>(ranked.subList(from, to), pageable, ranked.size()).map(this::convertToWrapper);
+        }
         
-        if ("SUPERADMIN".equalsIgnoreCase(userRole) || "ADMIN".equalsIgnoreCase(userRole)) {
+        if (isAdmin) {
             // Admin searches all proposals
             proposalPage = proposalsRepo.searchProposalsPaginated(
                 filterRequest.getSearchTerm(),
@@ -189,6 +219,7 @@ public Page<ProposalWrapper> getAllProposalsPaginated(Long userId, String userRo
         proposal.setBomItems(requestWrapper.getBomItems());
         
         ProposalsEntity saved = proposalsRepo.save(proposal);
+        searchIndexService.indexProposal(saved);
         return convertToWrapper(saved);
     }
     
@@ -265,6 +296,8 @@ public Page<ProposalWrapper> getAllProposalsPaginated(Long userId, String userRo
         }
         
         ProposalsEntity updated = proposalsRepo.save(proposal);
+        pdfCache.invalidate(PdfCacheService.PROPOSAL, proposalId);
+        searchIndexService.indexProposal(updated);
         return convertToWrapper(updated);
     }
     
@@ -286,19 +319,15 @@ public Page<ProposalWrapper> getAllProposalsPaginated(Long userId, String userRo
         
         proposal.setDeletedAt(LocalDateTime.now());
         proposalsRepo.save(proposal);
+        pdfCache.invalidate(PdfCacheService.PROPOSAL, proposalId);
+        searchIndexService.indexProposal(proposal);
     }
     
     /**
      * Generate proposal number: PROP-YYYY-NNNN
      */
     private String generateProposalNumber() {
-        int currentYear = Calendar.getInstance().get(Calendar.YEAR);
-        String prefix = "PROP-" + currentYear + "-";
-        
-        long count = proposalsRepo.countByProposalNoStartingWith(prefix);
-        String sequence = String.format("%04d", count + 1);
-        
-        return prefix + sequence;
+        return documentSequenceService.nextCode(DocumentSequenceService.Sequence.PROPOSAL);
     }
     
     /**
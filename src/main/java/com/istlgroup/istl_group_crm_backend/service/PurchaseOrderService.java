@@ -2,6 +2,7 @@ package com.istlgroup.istl_group_crm_backend.service;
 
 import com.istlgroup.istl_group_crm_backend.entity.*;
 import com.istlgroup.istl_group_crm_backend.repo.*;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
 import com.istlgroup.istl_group_crm_backend.wrapperClasses.PurchaseOrderDropdownWrapper;
 
 import lombok.RequiredArgsConstructor;
@@ -18,6 +19,7 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +36,10 @@ public class PurchaseOrderService {
     private final QuotationRepository quotationRepository;
     private final QuotationItemRepository quotationItemRepository;
     private final VendorRepository vendorRepository;
+    private final DocumentSequenceService documentSequenceService;
+    private final VendorPickerService vendorPickerService;
+
+    private static final String KEYSET_SCOPE = "po";
     
 
 /**
@@ -199,6 +205,47 @@ public Page<PurchaseOrderEntity> getPurchaseOrders(
     }
 }
     
+    /**
+     * Cursor (keyset) variant of getPurchaseOrders, ordered by orderDate DESC, id DESC.
+     * Same scope precedence: project > group + subgroup > group. Search is not supported.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<PurchaseOrderEntity> getPurchaseOrdersKeyset(
+            String groupName,
+            String subGroupName,
+            String projectId,
+            String status,
+            String paymentStatus,
+            Long userId,
+            String userRole,
+            String cursor,
+            int size,
+            boolean includeTotal
+    ) {
+        KeysetCursor after = KeysetCursor.decode(KEYSET_SCOPE, cursor);
+        
+        String scopeProject = hasText(projectId) ? projectId : null;
+        String scopeSubGroup = scopeProject == null && hasText(subGroupName) ? subGroupName : null;
+        String scopeGroup = scopeProject == null && hasText(groupName) ? groupName : null;
+        String statusFilter = hasText(status) ? status : null;
+        String paymentFilter = hasText(paymentStatus) ? paymentStatus : null;
+        Long accessUserId = isAdmin(userRole) ? null : userId;
+        
+        List<PurchaseOrderEntity> rows = purchaseOrderRepository.findKeysetPage(
+                scopeGroup, scopeSubGroup, scopeProject, statusFilter, paymentFilter, accessUserId,
+                after != null ? after.dateTimeKey() : null,
+                after != null ? after.getId() : null,
+                KeysetCursor.fetch(size)
+        );
+        Long total = includeTotal
+                ? purchaseOrderRepository.countKeysetPage(
+                        scopeGroup, scopeSubGroup, scopeProject, statusFilter, paymentFilter, accessUserId)
+                : null;
+        
+        return KeysetCursor.page(KEYSET_SCOPE, rows, size,
+                PurchaseOrderEntity::getOrderDate, PurchaseOrderEntity::getId, total);
+    }
+    
     /**
      * Get PO by ID
      */
@@ -279,6 +326,9 @@ public Page<PurchaseOrderEntity> getPurchaseOrders(
             
             // Save PO FIRST to get ID
             PurchaseOrderEntity savedPO = purchaseOrderRepository.save(po);
+            if (hasText(savedPO.getVendorName())) {
+                vendorPickerService.invalidate();
+            }
             log.info("Saved PO with ID: {} and vendorId: {}", savedPO.getId(), savedPO.getVendorId());
             
             // Create PO items
@@ -405,6 +455,9 @@ public Page<PurchaseOrderEntity> getPurchaseOrders(
             
             // Save PO FIRST
             PurchaseOrderEntity savedPO = purchaseOrderRepository.save(po);
+            if (hasText(savedPO.getVendorName())) {
+                vendorPickerService.invalidate();
+            }
             log.info("Saved PO from order books with ID: {} and vendorId: {}", savedPO.getId(), savedPO.getVendorId());
             
             // Create PO items
@@ -514,6 +567,7 @@ public Page<PurchaseOrderEntity> getPurchaseOrders(
                     .build();
             
             VendorEntity savedVendor = vendorRepository.save(vendor);
+            vendorPickerService.invalidate();
             log.info("✅ Created new vendor {} with ID: {}", vendorName, savedVendor.getId());
             
             return savedVendor.getId();
@@ -689,6 +743,9 @@ public Page<PurchaseOrderEntity> getPurchaseOrders(
         }
         
         PurchaseOrderEntity savedPO = purchaseOrderRepository.save(po);
+        if (savedPO.hasNewVendor()) {
+            vendorPickerService.invalidate();
+        }
         
         // Save items
         if (po.getItems() != null) {
@@ -799,36 +856,35 @@ public Page<PurchaseOrderEntity> getPurchaseOrders(
     public POStats getStatistics(String groupName, String subGroupName, String projectId, Long userId, String userRole) {
         boolean isAdmin = isAdmin(userRole);
         
-        Page<PurchaseOrderEntity> allPOs = getPurchaseOrders(
-                groupName, subGroupName, projectId, null, null,null,
-                userId, userRole, 0, Integer.MAX_VALUE, "orderDate", "DESC"
-        );
-        
-        List<PurchaseOrderEntity> pos = allPOs.getContent();
-        
-        long total = pos.size();
-        long draft = pos.stream().filter(p -> "Draft".equals(p.getStatus())).count();
-        long approved = pos.stream().filter(p -> "Approved".equals(p.getStatus())).count();
-        long ordered = pos.stream().filter(p -> "Ordered".equals(p.getStatus())).count();
-        long inTransit = pos.stream().filter(p -> "In-Transit".equals(p.getStatus())).count();
-        long delivered = pos.stream().filter(p -> "Delivered".equals(p.getStatus())).count();
-        long cancelled = pos.stream().filter(p -> "Cancelled".equals(p.getStatus())).count();
-        
-        Double totalValue = pos.stream()
-                .map(PurchaseOrderEntity::getTotalValue)
-                .filter(v -> v != null)
-                .mapToDouble(BigDecimal::doubleValue)
-                .sum();
+        // Same scope precedence as getPurchaseOrders: project > group + subgroup > group
+        String scopeProject = hasText(projectId) ? projectId : null;
+        String scopeSubGroup = scopeProject == null && hasText(subGroupName) ? subGroupName : null;
+        String scopeGroup = scopeProject == null && hasText(groupName) ? groupName : null;
+        
+        List<Object[]> rows = purchaseOrderRepository.countAndSumGroupByStatus(
+                scopeGroup, scopeSubGroup, scopeProject, isAdmin ? null : userId);
+        
+        Map<String, Long> countByStatus = new HashMap<>();
+        long total = 0;
+        BigDecimal totalValue = BigDecimal.ZERO;
+        for (Object[] row : rows) {
+            long count = ((Number) row[1]).longValue();
+            countByStatus.put((String) row[0], count);
+            total += count;
+            if (row[2] != null) {
+                totalValue = totalValue.add(new BigDecimal(row[2].toString()));
+            }
+        }
         
         return POStats.builder()
                 .totalPOs(total)
-                .draft(draft)
-                .approved(approved)
-                .ordered(ordered)
-                .inTransit(inTransit)
-                .delivered(delivered)
-                .cancelled(cancelled)
-                .totalValue(totalValue)
+                .draft(countByStatus.getOrDefault("Draft", 0L))
+                .approved(countByStatus.getOrDefault("Approved", 0L))
+                .ordered(countByStatus.getOrDefault("Ordered", 0L))
+                .inTransit(countByStatus.getOrDefault("In-Transit", 0L))
+                .delivered(countByStatus.getOrDefault("Delivered", 0L))
+                .cancelled(countByStatus.getOrDefault("Cancelled", 0L))
+                .totalValue(totalValue.doubleValue())
                 .build();
     }
     
@@ -838,9 +894,12 @@ public Page<PurchaseOrderEntity> getPurchaseOrders(
         return "ADMIN".equalsIgnoreCase(userRole) || "SUPERADMIN".equalsIgnoreCase(userRole);
     }
     
+    private boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+    
     private String generatePONumber() {
-        long count = purchaseOrderRepository.countActivePOs();
-        return String.format("PO-2024-%03d", count + 1);
+        return documentSequenceService.nextCode(DocumentSequenceService.Sequence.PURCHASE_ORDER);
     }
     
     /**
@@ -0,0 +1,142 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.customException.FileStorageException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Filesystem store for quotation attachments, keyed by quotation id.
+ * Files are written and served as streams so the bytes never sit in the
+ * quotations row or on the heap.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuotationFileStorageService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${file.quotation-upload-dir:uploads/quotations/}")
+    private String uploadDir;
+
+    /**
+     * Stream the content into the store, replacing any previous attachment
+     */
+    public void store(Long quotationId, InputStream content) {
+        Path target = resolve(quotationId);
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), quotationId + "-", ".part");
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new FileStorageException("Failed to store file for quotation " + quotationId, e);
+        }
+    }
+
+    /**
+     * Path of the stored attachment. Attachments still held in the legacy
+     * quotation_file column are moved to the store on first access.
+     * Returns null when the quotation has no attachment.
+     */
+    @Transactional
+    public Path open(Long quotationId) {
+        Path path = resolve(quotationId);
+        if (Files.exists(path)) {
+            return path;
+        }
+
+        // Stream the legacy blob straight from the result set into the store
+        Boolean migrated = jdbcTemplate.query(
+            "SELECT quotation_file FROM quotations WHERE id = ? AND quotation_file IS NOT NULL",
+            rs -> {
+                if (!rs.next()) {
+                    return false;
+                }
+                try (InputStream in = rs.getBinaryStream(1)) {
+                    store(quotationId, in);
+                } catch (IOException e) {
+                    throw new FileStorageException("Failed to read legacy file of quotation " + quotationId, e);
+                }
+                return true;
+            },
+            quotationId);
+        if (!Boolean.TRUE.equals(migrated)) {
+            return null;
+        }
+
+        jdbcTemplate.update("UPDATE quotations SET quotation_file = NULL WHERE id = ?", quotationId);
+        log.info("Migrated legacy attachment of quotation {} to file store", quotationId);
+        return path;
+    }
+
+    /**
+     * Drop the attachment of a hard-deleted quotation (soft deletes keep it): the legacy
+     * column is cleared in the current transaction, the stored file once that transaction commits
+     */
+    @Transactional
+    public void delete(Long quotationId) {
+        jdbcTemplate.update("UPDATE quotations SET quotation_file = NULL WHERE id = ? AND quotation_file IS NOT NULL",
+            quotationId);
+        Path path = resolve(quotationId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteQuietly(path);
+                }
+            });
+        } else {
+            deleteQuietly(path);
+        }
+    }
+
+    /**
+     * Remove the stored file if the current transaction rolls back; for
+     * attachments of quotations created in that transaction
+     */
+    public void deleteOnRollback(Long quotationId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Path path = resolve(quotationId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    deleteQuietly(path);
+                }
+            }
+        });
+    }
+
+    private Path resolve(Long quotationId) {
+        return Paths.get(uploadDir).resolve(String.valueOf(quotationId));
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.istlgroup.istl_group_crm_backend.repo.QuotationRepository;
 import com.istlgroup.istl_group_crm_backend.repo.OrderBookItemRepo;
 import com.istlgroup.istl_group_crm_backend.repo.OrderBookRepo;
 import com.istlgroup.istl_group_crm_backend.repo.QuotationItemRepository;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -16,7 +17,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
@@ -35,6 +39,10 @@ public class QuotationService {
     private final QuotationItemRepository quotationItemRepository;
     private final OrderBookRepo orderBookRepo;
     private final OrderBookItemRepo orderBookItemRepo;
+    private final QuotationFileStorageService fileStorageService;
+    private final DocumentSequenceService documentSequenceService;
+    
+    private static final String KEYSET_SCOPE = "quotation";
     /**
      * Get quotations with role-based and project-based filtering
      */
@@ -91,6 +99,44 @@ public class QuotationService {
         }
     }
     
+    /**
+     * Cursor (keyset) variant of getQuotations, ordered by uploadedAt DESC, id DESC.
+     * Same scope precedence: project > group + subgroup > group. Search is not supported.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<QuotationEntity> getQuotationsKeyset(
+            String groupName,
+            String subGroupName,
+            String projectId,
+            String status,
+            Long userId,
+            String userRole,
+            String cursor,
+            int size,
+            boolean includeTotal
+    ) {
+        KeysetCursor after = KeysetCursor.decode(KEYSET_SCOPE, cursor);
+        
+        String scopeProject = hasText(projectId) ? projectId : null;
+        String scopeSubGroup = scopeProject == null && hasText(subGroupName) ? subGroupName : null;
+        String scopeGroup = scopeProject == null && hasText(groupName) ? groupName : null;
+        String statusFilter = hasText(status) ? status : null;
+        Long accessUserId = isAdmin(userRole) ? null : userId;
+        
+        List<QuotationEntity> rows = quotationRepository.findKeysetPage(
+                scopeGroup, scopeSubGroup, scopeProject, statusFilter, accessUserId,
+                after != null ? after.dateTimeKey() : null,
+                after != null ? after.getId() : null,
+                KeysetCursor.fetch(size)
+        );
+        Long total = includeTotal
+                ? quotationRepository.countKeysetPage(scopeGroup, scopeSubGroup, scopeProject, statusFilter, accessUserId)
+                : null;
+        
+        return KeysetCursor.page(KEYSET_SCOPE, rows, size,
+                QuotationEntity::getUploadedAt, QuotationEntity::getId, total);
+    }
+    
     /**
      * Get quotation by ID
      */
@@ -100,6 +146,40 @@ public class QuotationService {
                 .orElseThrow(() -> new RuntimeException("Quotation not found with id: " + id));
     }
     
+    /**
+     * Stream an uploaded attachment into the file store and record its metadata
+     */
+    @Transactional
+    public QuotationEntity attachFile(Long id, MultipartFile file) throws IOException {
+        QuotationEntity quotation = getQuotationById(id);
+        
+        try (InputStream in = file.getInputStream()) {
+            fileStorageService.store(id, in);
+        }
+        
+        quotation.setFileName(file.getOriginalFilename());
+        quotation.setFileType(file.getContentType());
+        quotation.setFileSize(file.getSize());
+        
+        log.info("Attached file {} to quotation {}", file.getOriginalFilename(), quotation.getQuoteNo());
+        return quotationRepository.save(quotation);
+    }
+    
+    /**
+     * Create a quotation and attach its uploaded file in one transaction. If the
+     * attach fails the quotation is rolled back and the stored file removed.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public QuotationEntity createQuotationWithFile(QuotationEntity quotation, Long userId, MultipartFile file)
+            throws IOException {
+        QuotationEntity created = createQuotation(quotation, userId);
+        if (file == null || file.isEmpty()) {
+            return created;
+        }
+        fileStorageService.deleteOnRollback(created.getId());
+        return attachFile(created.getId(), file);
+    }
+    
     /**
      * Create new procurement quotation
      * FIXED: Proper handling of bidirectional relationship and cascade
@@ -267,7 +347,8 @@ public class QuotationService {
     }
     
     /**
-     * Soft delete quotation
+     * Soft delete quotation. The attachment and its metadata are kept so the
+     * quotation can be restored; only a hard delete removes the stored file.
      */
     @Transactional
     public void deleteQuotation(Long id) {
@@ -309,29 +390,30 @@ public class QuotationService {
     public QuotationStats getStatistics(String groupName, String subGroupName, String projectId, Long userId, String userRole) {
         boolean isAdmin = isAdmin(userRole);
         
-        // Get filtered quotations based on project and role
-        Page<QuotationEntity> allQuotations = getQuotations(
-                groupName, subGroupName, projectId, null, null,
-                userId, userRole, 0, Integer.MAX_VALUE, "uploadedAt", "DESC"
-        );
+        // Same scope precedence as getQuotations: project > group + subgroup > group
+        String scopeProject = hasText(projectId) ? projectId : null;
+        String scopeSubGroup = scopeProject == null && hasText(subGroupName) ? subGroupName : null;
+        String scopeGroup = scopeProject == null && hasText(groupName) ? groupName : null;
         
-        List<QuotationEntity> quotations = allQuotations.getContent();
+        // Single GROUP BY status query instead of loading every quotation
+        List<Object[]> rows = quotationRepository.countProcurementGroupByStatus(
+                scopeGroup, scopeSubGroup, scopeProject, isAdmin ? null : userId);
         
-        // Calculate stats from filtered quotations
-        long total = quotations.size();
-        long newQuotations = quotations.stream().filter(q -> "New".equals(q.getStatus())).count();
-        long shortlisted = quotations.stream().filter(q -> "Shortlisted".equals(q.getStatus())).count();
-        long approved = quotations.stream().filter(q -> "Approved".equals(q.getStatus())).count();
-        long rejected = quotations.stream().filter(q -> "Rejected".equals(q.getStatus())).count();
-        long expired = quotations.stream().filter(q -> "Expired".equals(q.getStatus())).count();
+        Map<String, Long> countByStatus = new HashMap<>();
+        long total = 0;
+        for (Object[] row : rows) {
+            long count = ((Number) row[1]).longValue();
+            countByStatus.put((String) row[0], count);
+            total += count;
+        }
         
         return QuotationStats.builder()
                 .totalQuotations(total)
-                .newQuotations(newQuotations)
-                .shortlisted(shortlisted)
-                .approved(approved)
-                .rejected(rejected)
-                .expired(expired)
+                .newQuotations(countByStatus.getOrDefault("New", 0L))
+                .shortlisted(countByStatus.getOrDefault("Shortlisted", 0L))
+                .approved(countByStatus.getOrDefault("Approved", 0L))
+                .rejected(countByStatus.getOrDefault("Rejected", 0L))
+                .expired(countByStatus.getOrDefault("Expired", 0L))
                 .build();
     }
     
@@ -384,9 +466,12 @@ public class QuotationService {
         return "ADMIN".equalsIgnoreCase(userRole) || "SUPERADMIN".equalsIgnoreCase(userRole);
     }
     
+    private boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+    
     private String generateQuoteNumber() {
-        long count = quotationRepository.countProcurementQuotations();
-        return String.format("QUO-2024-%03d", count + 1);
+        return documentSequenceService.nextCode(DocumentSequenceService.Sequence.QUOTATION);
     }
     
     private BigDecimal calculateTotalValue(List<QuotationItemEntity> items) {
@@ -0,0 +1,248 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.istlgroup.istl_group_crm_backend.repo.BomItemsMasterRepo;
+import com.istlgroup.istl_group_crm_backend.repo.DropdownGroupRepository;
+import com.istlgroup.istl_group_crm_backend.repo.DropdownProjectRepository;
+import com.istlgroup.istl_group_crm_backend.repo.DropdownSubGroupRepository;
+import com.istlgroup.istl_group_crm_backend.repo.RolesRepo;
+import com.istlgroup.istl_group_crm_backend.repo.UsersRepo;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.DropdownGroupWrapper;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.DropdownProjectWrapper;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.DropdownSubGroupWrapper;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.GetRolesWrapper;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.LeadsUserWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Dropdown and master reference data (groups, sub-groups, projects, lead
+ * users, roles, BOM categories) held as one immutable snapshot.
+ *
+ * Writers call {@link #invalidate()}; once their transaction commits the global
+ * version moves on and the next read rebuilds the snapshot and swaps it in, so
+ * readers always see one consistent snapshot. Snapshots also expire after a max
+ * age, which covers writes made on other nodes or directly in the database.
+ *
+ * Each snapshot carries a strong ETag (hash of its content) that the dropdown
+ * endpoints use to answer repeated screen loads with 304.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceDataCacheService {
+
+    private final DropdownGroupRepository groupRepository;
+    private final DropdownSubGroupRepository subGroupRepository;
+    private final DropdownProjectRepository projectRepository;
+    private final UsersRepo usersRepo;
+    private final RolesRepo rolesRepo;
+    private final BomItemsMasterRepo bomItemsMasterRepo;
+    private final ObjectMapper objectMapper;
+
+    @Value("${reference-data.max-age-ms:300000}")
+    private long maxAgeMs;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Current snapshot, rebuilt first if reference data changed or the snapshot expired
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (!isFresh(current)) {
+                current = build(version.get());
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Move to a new version once the current transaction commits, or now if there is none
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+    private boolean isFresh(Snapshot s) {
+        return s != null && s.version == version.get() && System.currentTimeMillis() - s.builtAt < maxAgeMs;
+    }
+
+    /**
+     * Read every reference table; the version is taken before reading, so a change
+     * committed meanwhile makes the new snapshot stale at once
+     */
+    private Snapshot build(long builtVersion) {
+        long start = System.currentTimeMillis();
+
+        List<DropdownGroupWrapper> groups = groupRepository.findByIsActiveTrue().stream()
+            .map(group -> new DropdownGroupWrapper(group.getGroupName(), group.getGroupLabel()))
+            .collect(Collectors.toList());
+
+        // Row: [groupName, subGroupName, subGroupLabel]
+        Map<String, List<DropdownSubGroupWrapper>> subGroups = new HashMap<>();
+        for (Object[] row : subGroupRepository.findActiveDropdownRows()) {
+            subGroups.computeIfAbsent(key((String) row[0]), k -> new ArrayList<>())
+                .add(new DropdownSubGroupWrapper((String) row[1], (String) row[2]));
+        }
+
+        // Row: [groupName, subGroupName, projectUniqueId, projectName, location, status]
+        Map<String, List<DropdownProjectWrapper>> projects = new HashMap<>();
+        for (Object[] row : projectRepository.findActiveDropdownRows()) {
+            projects.computeIfAbsent(key((String) row[0], (String) row[1]), k -> new ArrayList<>())
+                .add(new DropdownProjectWrapper((String) row[2], (String) row[3], (String) row[4],
+                    row[5] != null ? ((Enum<?>) row[5]).name() : null));
+        }
+
+        List<LeadsUserWrapper> leadsUsers = usersRepo.findAllActiveUsers().stream()
+            .map(user -> new LeadsUserWrapper(
+                user.getId(),
+                user.getName() != null ? user.getName() : user.getUser_id()
+            ))
+            .collect(Collectors.toList());
+
+        List<GetRolesWrapper> roles = rolesRepo.getAllRolesWithIds();
+        List<String> bomCategories = bomItemsMasterRepo.findDistinctCategories();
+
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("groups", groups);
+        content.put("subGroups", new TreeMap<>(subGroups));
+        content.put("projects", new TreeMap<>(projects));
+        content.put("leadsUsers", leadsUsers);
+        content.put("roles", roles);
+        content.put("bomCategories", bomCategories);
+
+        Snapshot built = new Snapshot(builtVersion, System.currentTimeMillis(), hash(content),
+            freeze(groups), freezeAll(subGroups), freezeAll(projects),
+            freeze(leadsUsers), freeze(roles), freeze(bomCategories));
+        log.info("Reference data snapshot v{} built in {} ms", builtVersion, System.currentTimeMillis() - start);
+        return built;
+    }
+
+    private String hash(Object content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(content));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not compute reference data ETag", e);
+        }
+    }
+
+    // Unmodifiable copies; unlike List.copyOf these keep null entries such as a null BOM category
+    private static <T> List<T> freeze(List<T> list) {
+        return Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    private static <T> Map<String, List<T>> freezeAll(Map<String, List<T>> lists) {
+        Map<String, List<T>> frozen = new HashMap<>(lists.size() * 2);
+        lists.forEach((k, v) -> frozen.put(k, freeze(v)));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    // Names are matched case-insensitively, as the database collation did
+    private static String key(String... names) {
+        StringBuilder key = new StringBuilder();
+        for (String name : names) {
+            key.append(name == null ? "" : name.toLowerCase(Locale.ROOT)).append('|');
+        }
+        return key.toString();
+    }
+
+    public static final class Snapshot {
+        private final long version;
+        private final long builtAt;
+        private final List<DropdownGroupWrapper> groups;
+        private final Map<String, List<DropdownSubGroupWrapper>> subGroups;
+        private final Map<String, List<DropdownProjectWrapper>> projects;
+        private final List<LeadsUserWrapper> leadsUsers;
+        private final List<GetRolesWrapper> roles;
+        private final List<String> bomCategories;
+        private final String etag;
+
+        private Snapshot(long version, long builtAt, String etag, List<DropdownGroupWrapper> groups,
+                         Map<String, List<DropdownSubGroupWrapper>> subGroups,
+                         Map<String, List<DropdownProjectWrapper>> projects,
+                         List<LeadsUserWrapper> leadsUsers, List<GetRolesWrapper> roles, List<String> bomCategories) {
+            this.version = version;
+            this.builtAt = builtAt;
+            this.etag = etag;
+            this.groups = groups;
+            this.subGroups = subGroups;
+            this.projects = projects;
+            this.leadsUsers = leadsUsers;
+            this.roles = roles;
+            this.bomCategories = bomCategories;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Strong ETag covering all reference data of this snapshot
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        public List<DropdownGroupWrapper> getGroups() {
+            return groups;
+        }
+
+        public List<DropdownSubGroupWrapper> getSubGroups(String groupName) {
+            return subGroups.getOrDefault(key(groupName), List.of());
+        }
+
+        public List<DropdownProjectWrapper> getProjects(String groupName, String subGroupName) {
+            return projects.getOrDefault(key(groupName, subGroupName), List.of());
+        }
+
+        public List<LeadsUserWrapper> getLeadsUsers() {
+            return leadsUsers;
+        }
+
+        public List<GetRolesWrapper> getRoles() {
+            return roles;
+        }
+
+        public List<String> getBomCategories() {
+            return bomCategories;
+        }
+    }
+}
@@ -16,6 +16,9 @@ public class RolesService {
 
 	@Autowired
 	private RolesRepo rolesRepo;
+
+	@Autowired
+	private ReferenceDataCacheService referenceData;
 	
 	public List<GetRolesWrapper> GetAllRoles() {
 		
@@ -31,6 +34,7 @@ public class RolesService {
 	    }
 
 	    rolesRepo.save(newRole);
+	    referenceData.invalidate();
 	    return "New Role Created Successfully";
 		
 	}
@@ -0,0 +1,322 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.entity.CustomersEntity;
+import com.istlgroup.istl_group_crm_backend.entity.LeadsEntity;
+import com.istlgroup.istl_group_crm_backend.entity.ProposalsEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory n-gram search over leads, customers and proposals, replacing the
+ * LOWER(col) LIKE '%term%' scans of the search queries.
+ *
+ * The indexes are built in the background at startup and kept current two ways:
+ * the services push every create/update/delete after commit, and a periodic
+ * refresh re-reads rows whose updated_at moved, which also picks up writes made
+ * by other nodes. Searches return ranked ids; callers hydrate them with a
+ * repository query that re-checks deletedAt, access and the remaining filters.
+ * Index results are ordered by relevance, not by the list's usual sort.
+ *
+ * Until the first build finishes the search methods return null and callers
+ * use the existing LIKE queries. They also return null when a term matches more
+ * than search.index.max-results rows: the remaining filters are applied after
+ * the index lookup, so a truncated hit list could drop rows that pass them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService {
+
+    private static final String LEAD_COLUMNS =
+        "id, name, lead_code, email, phone, created_by, assigned_to, deleted_at";
+    private static final String CUSTOMER_COLUMNS =
+        "id, name, customer_code, company_name, email, phone, gst_number, created_by, assigned_to, deleted_at";
+    private static final String PROPOSAL_COLUMNS =
+        "id, proposal_no, title, description, prepared_by, deleted_at";
+
+    // Rows updated shortly before the last refresh are read again, to cover clock skew between nodes
+    private static final long REFRESH_OVERLAP_SECONDS = 120;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.index.max-results:1000}")
+    private int maxResults;
+
+    private volatile NGramIndex leads;
+    private volatile NGramIndex customers;
+    private volatile NGramIndex proposals;
+    private volatile LocalDateTime lastRefresh;
+
+    /**
+     * Ranked ids of matching leads, best match first, or null when the term is blank,
+     * the index is not ready or the term matches more than max-results rows
+     */
+    public List<Long> searchLeads(String term, Long accessUserId) {
+        return search(leads, term, accessUserId);
+    }
+
+    public List<Long> searchCustomers(String term, Long accessUserId) {
+        return search(customers, term, accessUserId);
+    }
+
+    /**
+     * Proposals are visible to their preparer only; accessUserId is null for admins
+     */
+    public List<Long> searchProposals(String term, Long accessUserId) {
+        return search(proposals, term, accessUserId);
+    }
+
+    public void indexLead(LeadsEntity lead) {
+        if (lead == null || lead.getId() == null) {
+            return;
+        }
+        Long id = lead.getId();
+        boolean deleted = lead.getDeletedAt() != null;
+        String name = lead.getName();
+        String code = lead.getLeadCode();
+        String email = lead.getEmail();
+        String phone = lead.getPhone();
+        Long createdBy = lead.getCreatedBy();
+        Long assignedTo = lead.getAssignedTo();
+        afterCommit(() -> {
+            NGramIndex index = leads;
+            if (index == null) {
+                return;
+            }
+            if (deleted) {
+                index.remove(id);
+            } else {
+                index.put(id, createdBy, assignedTo, name, code, email, phone);
+            }
+        });
+    }
+
+    public void indexCustomer(CustomersEntity customer) {
+        if (customer == null || customer.getId() == null) {
+            return;
+        }
+        Long id = customer.getId();
+        boolean deleted = customer.getDeletedAt() != null;
+        String name = customer.getName();
+        String code = customer.getCustomerCode();
+        String company = customer.getCompanyName();
+        String email = customer.getEmail();
+        String phone = customer.getPhone();
+        String gst = customer.getGstNumber();
+        Long createdBy = customer.getCreatedBy();
+        Long assignedTo = customer.getAssignedTo();
+        afterCommit(() -> {
+            NGramIndex index = customers;
+            if (index == null) {
+                return;
+            }
+            if (deleted) {
+                index.remove(id);
+            } else {
+                index.put(id, createdBy, assignedTo, name, code, company, email, phone, gst);
+            }
+        });
+    }
+
+    public void indexProposal(ProposalsEntity proposal) {
+        if (proposal == null || proposal.getId() == null) {
+            return;
+        }
+        Long id = proposal.getId();
+        boolean deleted = proposal.getDeletedAt() != null;
+        String proposalNo = proposal.getProposalNo();
+        String title = proposal.getTitle();
+        String description = proposal.getDescription();
+        Long preparedBy = proposal.getPreparedBy();
+        afterCommit(() -> {
+            NGramIndex index = proposals;
+            if (index == null) {
+                return;
+            }
+            if (deleted) {
+                index.remove(id);
+            } else {
+                index.put(id, preparedBy, null, proposalNo, title, description);
+            }
+        });
+    }
+
+    /**
+     * Build the indexes on the first run, then apply rows changed since the previous run
+     */
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (lastRefresh == null) {
+                rebuild();
+            } else {
+                LocalDateTime startedAt = LocalDateTime.now();
+                applyChanges(lastRefresh.minusSeconds(REFRESH_OVERLAP_SECONDS));
+                lastRefresh = startedAt;
+            }
+        } catch (Exception e) {
+            log.error("Search index refresh failed", e);
+        }
+    }
+
+    /**
+     * Rebuild every index from the database and swap it in
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        NGramIndex newLeads = newLeadIndex();
+        NGramIndex newCustomers = newCustomerIndex();
+        NGramIndex newProposals = newProposalIndex();
+        jdbcTemplate.query("SELECT " + LEAD_COLUMNS + " FROM leads WHERE deleted_at IS NULL",
+            rs -> { putLead(newLeads, rs); });
+        jdbcTemplate.query("SELECT " + CUSTOMER_COLUMNS + " FROM customers WHERE deleted_at IS NULL",
+            rs -> { putCustomer(newCustomers, rs); });
+        jdbcTemplate.query("SELECT " + PROPOSAL_COLUMNS + " FROM proposals WHERE deleted_at IS NULL",
+            rs -> { putProposal(newProposals, rs); });
+
+        leads = newLeads;
+        customers = newCustomers;
+        proposals = newProposals;
+
+        // Writes committed while the tables were read are applied by the next refresh
+        lastRefresh = startedAt;
+        log.info("Search index built in {} ms: {} leads, {} customers, {} proposals",
+            System.currentTimeMillis() - start, newLeads.size(), newCustomers.size(), newProposals.size());
+    }
+
+    /**
+     * Put matching entities in the order of the ranked ids; ids missing from entities are dropped
+     */
+    public static <T> List<T> inRankOrder(List<Long> rankedIds, Collection<T> entities, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>(entities.size() * 2);
+        for (T entity : entities) {
+            byId.put(idOf.apply(entity), entity);
+        }
+        List<T> ordered = new ArrayList<>(byId.size());
+        for (Long id : rankedIds) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+
+    private List<Long> search(NGramIndex index, String term, Long accessUserId) {
+        if (!enabled || index == null || term == null || term.isBlank()) {
+            return null;
+        }
+        // The cap is applied before the caller's status/group/date filters, so a capped hit
+        // list could hide matching rows and give a wrong total; leave those terms to SQL
+        List<Long> hits = index.search(term, accessUserId, maxResults + 1);
+        if (hits.size() > maxResults) {
+            log.debug("Search term '{}' matched more than {} rows, using the SQL search", term, maxResults);
+            return null;
+        }
+        return hits;
+    }
+
+    private synchronized void applyChanges(LocalDateTime since) {
+        Timestamp from = Timestamp.valueOf(since);
+        NGramIndex leadIndex = leads;
+        NGramIndex customerIndex = customers;
+        NGramIndex proposalIndex = proposals;
+        jdbcTemplate.query("SELECT " + LEAD_COLUMNS + " FROM leads WHERE updated_at >= ?",
+            rs -> { putLead(leadIndex, rs); }, from);
+        jdbcTemplate.query("SELECT " + CUSTOMER_COLUMNS + " FROM customers WHERE updated_at >= ?",
+            rs -> { putCustomer(customerIndex, rs); }, from);
+        jdbcTemplate.query("SELECT " + PROPOSAL_COLUMNS + " FROM proposals WHERE updated_at >= ?",
+            rs -> { putProposal(proposalIndex, rs); }, from);
+    }
+
+    private void putLead(NGramIndex index, ResultSet rs) throws SQLException {
+        long id = rs.getLong("id");
+        if (rs.getTimestamp("deleted_at") != null) {
+            index.remove(id);
+            return;
+        }
+        index.put(id, longOrNull(rs, "created_by"), longOrNull(rs, "assigned_to"),
+            rs.getString("name"), rs.getString("lead_code"), rs.getString("email"), rs.getString("phone"));
+    }
+
+    private void putCustomer(NGramIndex index, ResultSet rs) throws SQLException {
+        long id = rs.getLong("id");
+        if (rs.getTimestamp("deleted_at") != null) {
+            index.remove(id);
+            return;
+        }
+        index.put(id, longOrNull(rs, "created_by"), longOrNull(rs, "assigned_to"),
+            rs.getString("name"), rs.getString("customer_code"), rs.getString("company_name"),
+            rs.getString("email"), rs.getString("phone"), rs.getString("gst_number"));
+    }
+
+    private void putProposal(NGramIndex index, ResultSet rs) throws SQLException {
+        long id = rs.getLong("id");
+        if (rs.getTimestamp("deleted_at") != null) {
+            index.remove(id);
+            return;
+        }
+        index.put(id, longOrNull(rs, "prepared_by"), null,
+            rs.getString("proposal_no"), rs.getString("title"), rs.getString("description"));
+    }
+
+    // Field weights in the order of putLead / putCustomer / putProposal:
+    // names and codes rank above contact details and free text
+    private static NGramIndex newLeadIndex() {
+        return new NGramIndex(4, 4, 2, 2);
+    }
+
+    private static NGramIndex newCustomerIndex() {
+        return new NGramIndex(4, 4, 3, 2, 2, 2);
+    }
+
+    private static NGramIndex newProposalIndex() {
+        return new NGramIndex(4, 3, 1);
+    }
+
+    private static Long longOrNull(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * Apply the index change once the surrounding transaction commits, or now if there is none
+     */
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
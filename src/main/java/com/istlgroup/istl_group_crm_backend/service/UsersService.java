@@ -1,12 +1,10 @@
 package com.istlgroup.istl_group_crm_backend.service;
 
-import java.lang.reflect.Field;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import org.mindrot.jbcrypt.BCrypt;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,6 +46,15 @@ public class UsersService {
     @Autowired
 	private PagePermissionsRepo pagePermissions;
     
+    @Autowired
+    private PermissionCountService permissionCountService;
+
+    @Autowired
+    private ReferenceDataCacheService referenceData;
+
+    @Autowired
+    private AuthTokenService authTokenService;
+    
     @Autowired
     private RolesRepo rolesRepo;  // ← ADD THIS
 
@@ -63,6 +70,8 @@ public class UsersService {
         isUserExist.setUpdated_type("PROFILE_UPDATED");
 
         UsersEntity response = usersRepo.save(isUserExist);
+        referenceData.invalidate();
+        authTokenService.revokeUser(id);
         if (response == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Update Failed");
         }
@@ -84,6 +93,8 @@ public class UsersService {
 
         // Delete user
         usersRepo.deleteById(id);
+        referenceData.invalidate();
+        authTokenService.revokeUser(id);
         
         return ResponseEntity.ok("User deleted successfully");
     }
@@ -115,6 +126,7 @@ public class UsersService {
         menuPerms.setOffice_use(permissions.getOrDefault("office_use", 0));
 
         menuPermissionsRepo.save(menuPerms);
+        authTokenService.revokeUser(id);
 
         return ResponseEntity.ok("Menu permissions updated successfully");
     }
@@ -142,246 +154,24 @@ public class UsersService {
                     return newPermissions;
                 });
         
-        // Reset all permissions to 0
-        resetAllPermissions(userPermissions);
-        
-        // Set selected permissions to 1 based on permission IDs
+        // Selected permission IDs (1-69) become bits; every column is rewritten from the mask
         for (Integer permissionId : permissionIds) {
-            setPermissionById(userPermissions, permissionId);
+            if (permissionId == null || permissionId < 1 || permissionId > PagePermissionAccessors.SIZE) {
+                return ResponseEntity.badRequest().body("Unknown permission ID: " + permissionId);
+            }
         }
+        PagePermissionAccessors.apply(userPermissions, PagePermissionAccessors.fromPermissionIds(permissionIds));
         
         // Update timestamp
         userPermissions.setUpdated_at(LocalDateTime.now());
         
         // Save to database
         pagePermissions.save(userPermissions);
+        authTokenService.revokeUser(id);
 
         return ResponseEntity.ok("Page permissions updated successfully for user: " + user.getName());
     }
 
-    // Helper method to reset all permissions to 0
-    private void resetAllPermissions(PagePermissionsEntity permissions) {
-        // USERS
-        permissions.setUsers_view(0);
-        permissions.setUsers_create(0);
-        permissions.setUsers_edit(0);
-        permissions.setUsers_delete(0);
-
-        // ROLES
-        permissions.setRoles_manage(0);
-
-        // CUSTOMERS
-        permissions.setCustomers_view(0);
-        permissions.setCustomers_create(0);
-        permissions.setCustomers_edit(0);
-        permissions.setCustomers_delete(0);
-
-        // VENDORS
-        permissions.setVendors_view(0);
-        permissions.setVendors_create(0);
-        permissions.setVendors_edit(0);
-        permissions.setVendors_delete(0);
-
-        // LEADS
-        permissions.setLeads_view(0);
-        permissions.setLeads_create(0);
-        permissions.setLeads_edit(0);
-        permissions.setLeads_delete(0);
-        permissions.setLeads_assign(0);
-
-        // PROPOSALS
-        permissions.setProposals_view(0);
-        permissions.setProposals_create(0);
-        permissions.setProposals_edit(0);
-        permissions.setProposals_delete(0);
-        permissions.setProposals_approve(0);
-
-        // QUOTATIONS SALES
-        permissions.setQuotations_sales_view(0);
-        permissions.setQuotations_sales_create(0);
-        permissions.setQuotations_sales_edit(0);
-        permissions.setQuotations_sales_delete(0);
-        permissions.setQuotations_sales_approve(0);
-
-        // SALES ORDERS
-        permissions.setSales_orders_view(0);
-        permissions.setSales_orders_create(0);
-        permissions.setSales_orders_edit(0);
-        permissions.setSales_orders_delete(0);
-        permissions.setSales_orders_approve(0);
-
-        // INVOICES
-        permissions.setInvoices_view(0);
-        permissions.setInvoices_create(0);
-        permissions.setInvoices_edit(0);
-        permissions.setInvoices_delete(0);
-        permissions.setInvoices_send(0);
-
-        // QUOTATIONS PROCUREMENT
-        permissions.setQuotations_procurement_view(0);
-        permissions.setQuotations_procurement_create(0);
-        permissions.setQuotations_procurement_edit(0);
-        permissions.setQuotations_procurement_delete(0);
-        permissions.setQuotations_procurement_approve(0);
-
-        // PURCHASE ORDERS
-        permissions.setPurchase_orders_view(0);
-        permissions.setPurchase_orders_create(0);
-        permissions.setPurchase_orders_edit(0);
-        permissions.setPurchase_orders_delete(0);
-        permissions.setPurchase_orders_approve(0);
-
-        // BILLS
-        permissions.setBills_view(0);
-        permissions.setBills_create(0);
-        permissions.setBills_edit(0);
-        permissions.setBills_delete(0);
-        permissions.setBills_approve(0);
-
-        // PAYMENTS
-        permissions.setPayments_view(0);
-        permissions.setPayments_record(0);
-        permissions.setPayments_approve(0);
-
-        // REPORTS
-        permissions.setReports_sales(0);
-        permissions.setReports_procurement(0);
-        permissions.setReports_financial(0);
-        permissions.setReports_analytics(0);
-
-        // FOLLOWUPS
-        permissions.setFollowups_view(0);
-        permissions.setFollowups_create(0);
-        permissions.setFollowups_edit(0);
-        permissions.setFollowups_delete(0);
-
-        // SETTINGS
-        permissions.setSettings_view(0);
-        permissions.setSettings_edit(0);
-
-        // ACTIVITY LOGS
-        permissions.setActivity_logs_view(0);
-
-        // ATTACHMENTS
-        permissions.setAttachments_upload(0);
-        permissions.setAttachments_delete(0);
-    }
-
-    // Helper method to set permission based on ID
-    private void setPermissionById(PagePermissionsEntity permissions, Integer permissionId) {
-        switch (permissionId) {
-            // USERS (1-4)
-            case 1: permissions.setUsers_view(1); break;
-            case 2: permissions.setUsers_create(1); break;
-            case 3: permissions.setUsers_edit(1); break;
-            case 4: permissions.setUsers_delete(1); break;
-
-            // ROLES (5)
-            case 5: permissions.setRoles_manage(1); break;
-
-            // CUSTOMERS (6-9)
-            case 6: permissions.setCustomers_view(1); break;
-            case 7: permissions.setCustomers_create(1); break;
-            case 8: permissions.setCustomers_edit(1); break;
-            case 9: permissions.setCustomers_delete(1); break;
-
-            // VENDORS (10-13)
-            case 10: permissions.setVendors_view(1); break;
-            case 11: permissions.setVendors_create(1); break;
-            case 12: permissions.setVendors_edit(1); break;
-            case 13: permissions.setVendors_delete(1); break;
-
-            // LEADS (14-18)
-            case 14: permissions.setLeads_view(1); break;
-            case 15: permissions.setLeads_create(1); break;
-            case 16: permissions.setLeads_edit(1); break;
-            case 17: permissions.setLeads_delete(1); break;
-            case 18: permissions.setLeads_assign(1); break;
-
-            // PROPOSALS (19-23)
-            case 19: permissions.setProposals_view(1); break;
-            case 20: permissions.setProposals_create(1); break;
-            case 21: permissions.setProposals_edit(1); break;
-            case 22: permissions.setProposals_delete(1); break;
-            case 23: permissions.setProposals_approve(1); break;
-
-            // QUOTATIONS SALES (24-28)
-            case 24: permissions.setQuotations_sales_view(1); break;
-            case 25: permissions.setQuotations_sales_create(1); break;
-            case 26: permissions.setQuotations_sales_edit(1); break;
-            case 27: permissions.setQuotations_sales_delete(1); break;
-            case 28: permissions.setQuotations_sales_approve(1); break;
-
-            // SALES ORDERS (29-33)
-            case 29: permissions.setSales_orders_view(1); break;
-            case 30: permissions.setSales_orders_create(1); break;
-            case 31: permissions.setSales_orders_edit(1); break;
-            case 32: permissions.setSales_orders_delete(1); break;
-            case 33: permissions.setSales_orders_approve(1); break;
-
-            // INVOICES (34-38)
-            case 34: permissions.setInvoices_view(1); break;
-            case 35: permissions.setInvoices_create(1); break;
-            case 36: permissions.setInvoices_edit(1); break;
-            case 37: permissions.setInvoices_delete(1); break;
-            case 38: permissions.setInvoices_send(1); break;
-
-            // QUOTATIONS PROCUREMENT (39-43)
-            case 39: permissions.setQuotations_procurement_view(1); break;
-            case 40: permissions.setQuotations_procurement_create(1); break;
-            case 41: permissions.setQuotations_procurement_edit(1); break;
-            case 42: permissions.setQuotations_procurement_delete(1); break;
-            case 43: permissions.setQuotations_procurement_approve(1); break;
-
-            // PURCHASE ORDERS (44-48)
-            case 44: permissions.setPurchase_orders_view(1); break;
-            case 45: permissions.setPurchase_orders_create(1); break;
-            case 46: permissions.setPurchase_orders_edit(1); break;
-            case 47: permissions.setPurchase_orders_delete(1); break;
-            case 48: permissions.setPurchase_orders_approve(1); break;
-
-            // BILLS (49-53)
-            case 49: permissions.setBills_view(1); break;
-            case 50: permissions.setBills_create(1); break;
-            case 51: permissions.setBills_edit(1); break;
-            case 52: permissions.setBills_delete(1); break;
-            case 53: permissions.setBills_approve(1); break;
-
-            // PAYMENTS (54-56)
-            case 54: permissions.setPayments_view(1); break;
-            case 55: permissions.setPayments_record(1); break;
-            case 56: permissions.setPayments_approve(1); break;
-
-            // REPORTS (57-60)
-            case 57: permissions.setReports_sales(1); break;
-            case 58: permissions.setReports_procurement(1); break;
-            case 59: permissions.setReports_financial(1); break;
-            case 60: permissions.setReports_analytics(1); break;
-
-            // FOLLOWUPS (61-64)
-            case 61: permissions.setFollowups_view(1); break;
-            case 62: permissions.setFollowups_create(1); break;
-            case 63: permissions.setFollowups_edit(1); break;
-            case 64: permissions.setFollowups_delete(1); break;
-
-            // SETTINGS (65-66)
-            case 65: permissions.setSettings_view(1); break;
-            case 66: permissions.setSettings_edit(1); break;
-
-            // ACTIVITY LOGS (67)
-            case 67: permissions.setActivity_logs_view(1); break;
-
-            // ATTACHMENTS (68-69)
-            case 68: permissions.setAttachments_upload(1); break;
-            case 69: permissions.setAttachments_delete(1); break;
-
-            default:
-                // Log warning for unknown permission ID
-                System.out.println("Warning: Unknown permission ID: " + permissionId);
-                break;
-        }
-    }
-
 	public boolean IsUserIdExist(String userid) {
 		UsersEntity re=usersRepo.isUserIdExist(userid);
 		System.err.println(re);
@@ -415,6 +205,7 @@ public class UsersService {
 
 	    // ---------------- SAVE USER ----------------
 	    UsersEntity newUser = usersRepo.save(user);
+	    referenceData.invalidate();
 	    if (newUser == null) {
 	        throw new CustomException("Insertion Failed");
 	    }
@@ -485,36 +276,23 @@ public class UsersService {
 	    PagePermissionsEntity newPermissions = new PagePermissionsEntity();
 	    newPermissions.setUser_id(newUserId);
 
+	    // New user gets the role's permissions that the creator also holds
+	    long[] creatorBits = PagePermissionAccessors.encode(creatorPermissions);
+	    long[] grantedBits = new long[PagePermissionAccessors.WORDS];
+
 	    for (PermissionsEntity rolePerm : rolePermissions) {
 	        String permName = rolePerm.getName(); // users.view
 
-	        if (hasPagePermission(creatorPermissions, permName)) {
-	            try {
-	                String fieldName = permName.replace(".", "_");
-	                Field field = PagePermissionsEntity.class.getDeclaredField(fieldName);
-	                field.setAccessible(true);
-	                field.set(newPermissions, 1);
-	            } catch (Exception ignored) {
-	            }
+	        if (PagePermissionAccessors.isEnabled(creatorBits, permName)) {
+	            PagePermissionAccessors.set(grantedBits, permName);
 	        }
 	    }
+	    PagePermissionAccessors.apply(newPermissions, grantedBits);
 	    return newPermissions;
 	}
 
 	
-	private boolean hasPagePermission(PagePermissionsEntity entity, String permissionName) {
-	    try {
-	        String fieldName = permissionName.replace(".", "_"); // users.view → users_view
-	        Field field = PagePermissionsEntity.class.getDeclaredField(fieldName);
-	        field.setAccessible(true);
-
-	        Object value = field.get(entity);
-	        return value instanceof Integer && ((Integer) value) == 1;
 
-	    } catch (NoSuchFieldException | IllegalAccessException e) {
-	        return false;
-	    }
-	}
 
 	
 //	private List<String> extractPermissions(MenuPermissionsEntity p) {
@@ -611,6 +389,10 @@ public class UsersService {
 	        }
 	    }
 
+	    // Permission counts for the whole page in one query
+	    Map<Long, PermissionCountService.Counts> permissionCounts =
+	            permissionCountService.countByUserIds(users.stream().map(UsersEntity::getId).toList());
+
 	    // Transform users with permission counts
 	    List<UserWrapper> userWrappers = users.stream()
 	        .map(user -> {
@@ -624,23 +406,11 @@ public class UsersService {
 	            wrapper.setCreated_at(user.getCreated_at());
 	            wrapper.setRole(user.getRole());
 
-	            // Page permissions count
-	            Optional<PagePermissionsEntity> p_permissions = 
-	                    pagePermissions.findByUserId(user.getId());
-
-	            long totalPermissionCount = countEnabledPagePermissions(p_permissions);
-	            wrapper.setPagePermissionsCount(totalPermissionCount);
-
-	            // Menu permissions count
-	            MenuPermissionsEntity permissions = 
-	                    menuPermissionsRepo.findByUsersId(user.getId());
-
-	            if (permissions == null) {
-	                wrapper.setMenuPermissionsCount(0L);
-	            } else {
-	                int menuCount = countMenuPermissions(permissions);
-	                wrapper.setMenuPermissionsCount((long) menuCount);
-	            }
+	            // Page and menu permission counts
+	            PermissionCountService.Counts counts =
+	                    permissionCounts.getOrDefault(user.getId(), PermissionCountService.Counts.NONE);
+	            wrapper.setPagePermissionsCount(counts.getPageCount());
+	            wrapper.setMenuPermissionsCount(counts.getMenuCount());
 
 	            return wrapper;
 	        })
@@ -676,61 +446,4 @@ public class UsersService {
 	
 	
 	
-	// Helper method to count page permissions
-	private long countEnabledPagePermissions(Optional<PagePermissionsEntity> res) {
-	    if (res.isEmpty()) {
-	        return 0L;
-	    }
-
-	    PagePermissionsEntity entity = res.get();
-	    long count = 0;
-
-	    for (Field field : PagePermissionsEntity.class.getDeclaredFields()) {
-	        field.setAccessible(true);
-
-	        try {
-	            Object value = field.get(entity);
-
-	            // Skip non-permission fields
-	            if (field.getName().equals("id") ||
-	                field.getName().equals("user_id") ||
-	                field.getName().equals("created_at") ||
-	                field.getName().equals("updated_at")) {
-	                continue;
-	            }
-
-	            // Count only enabled permissions
-	            if (value instanceof Integer && ((Integer) value) == 1) {
-	                count++;
-	            }
-
-	        } catch (IllegalAccessException e) {
-	            throw new RuntimeException("Failed to count page permissions", e);
-	        }
-	    }
-
-	    return count;
-	}
-
-	// Helper method to count menu permissions
-	private int countMenuPermissions(MenuPermissionsEntity perms) {
-	    int count = 0;
-	    if (perms.getDashboard() == 1) count++;
-	    if (perms.getAnalytics() == 1) count++;
-	    if (perms.getDocuments() == 1) count++;
-	    if (perms.getSettings() == 1) count++;
-	    if (perms.getFollow_ups() == 1) count++;
-	    if (perms.getReports() == 1) count++;
-	    if (perms.getInvoices() == 1) count++;
-	    if (perms.getSales_clients() == 1) count++;
-	    if (perms.getSales_leads() == 1) count++;
-	    if (perms.getSales_estimation() == 1) count++;
-	    if (perms.getProcurement_venders() == 1) count++;
-	    if (perms.getProcurement_quotations_recived() == 1) count++;
-	    if (perms.getProcurement_purchase_orders() == 1) count++;
-	    if (perms.getProcurement_bills_received() == 1) count++;
-	    if (perms.getOffice_use() == 1) count++;
-	    return count;
-	}
-	
 }
\ No newline at end of file
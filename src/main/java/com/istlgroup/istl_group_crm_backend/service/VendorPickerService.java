@@ -0,0 +1,134 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.repo.PurchaseOrderRepository;
+import com.istlgroup.istl_group_crm_backend.repo.VendorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vendor list of the bills page: vendors from the vendors table plus vendor
+ * names typed inline on purchase orders, de-duplicated by name.
+ *
+ * Only (id, name, contact) columns are read, and the result is cached per
+ * (group, sub-group, project) scope for a short time. Vendor and inline PO
+ * vendor writes on this node clear the cache once they commit; the TTL bounds
+ * staleness for writes made elsewhere.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VendorPickerService {
+
+    private final VendorRepository vendorRepository;
+    private final PurchaseOrderRepository purchaseOrderRepository;
+
+    @Value("${vendor-picker.cache-ttl-ms:60000}")
+    private long cacheTtlMs;
+
+    private final Map<String, CachedVendors> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Vendors for the bills page, sorted by name
+     */
+    public List<Map<String, Object>> getVendorsForBills(String groupName, String subGroupName, String projectId) {
+        String scopeProject = hasText(projectId) ? projectId : null;
+        String scopeSubGroup = scopeProject == null && hasText(subGroupName) ? subGroupName : null;
+        String scopeGroup = scopeProject == null && hasText(groupName) ? groupName : null;
+        String key = scopeGroup + "|" + scopeSubGroup + "|" + scopeProject;
+
+        CachedVendors cached = cache.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < cacheTtlMs) {
+            return new ArrayList<>(cached.vendors);
+        }
+
+        List<Map<String, Object>> vendors = load(scopeGroup, scopeSubGroup, scopeProject);
+        cache.put(key, new CachedVendors(Collections.unmodifiableList(vendors), System.currentTimeMillis()));
+        return new ArrayList<>(vendors);
+    }
+
+    /**
+     * Drop every cached scope once the current transaction commits, or now if there is none
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.clear();
+                }
+            });
+        } else {
+            cache.clear();
+        }
+    }
+
+    private List<Map<String, Object>> load(String groupName, String subGroupName, String projectId) {
+        List<Map<String, Object>> vendors = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+
+        // 1. Vendors from vendors table - Row: [id, name, phone]
+        for (Object[] row : vendorRepository.findPickerRows(groupName, subGroupName, projectId)) {
+            Map<String, Object> vendorMap = new LinkedHashMap<>();
+            vendorMap.put("id", row[0]);
+            vendorMap.put("name", row[1]);
+            vendorMap.put("contact", row[2]);
+            vendorMap.put("source", "vendors_table");
+            vendors.add(vendorMap);
+            if (row[1] != null) {
+                names.add(foldCase((String) row[1]));
+            }
+        }
+
+        // 2. Vendors created inline with a PO, unless the name is already listed - Row: [poId, vendorName, vendorContact]
+        for (Object[] row : purchaseOrderRepository.findInlineVendorRows(groupName, subGroupName, projectId)) {
+            String vendorName = (String) row[1];
+            if (!names.add(foldCase(vendorName))) {
+                continue;
+            }
+            Map<String, Object> vendorMap = new LinkedHashMap<>();
+            vendorMap.put("id", "PO_" + vendorName); // Use vendor name as ID
+            vendorMap.put("name", vendorName);
+            vendorMap.put("contact", row[2]);
+            vendorMap.put("source", "po_vendor");
+            vendorMap.put("poId", row[0]);
+            vendors.add(vendorMap);
+        }
+
+        vendors.sort(Comparator.comparing(v -> (String) v.get("name"), Comparator.nullsLast(Comparator.naturalOrder())));
+        log.info("Loaded {} vendors for bills (including PO vendors)", vendors.size());
+        return vendors;
+    }
+
+    private static String foldCase(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    private static final class CachedVendors {
+        private final List<Map<String, Object>> vendors;
+        private final long loadedAt;
+
+        CachedVendors(List<Map<String, Object>> vendors, long loadedAt) {
+            this.vendors = vendors;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import com.istlgroup.istl_group_crm_backend.repo.VendorRepository;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.ProjectDashboardDTO.VendorSummaryDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Top vendors by purchase order value, with order counts, delivered value and
+ * rating, read in one grouped join per call. The narrowest scope given wins
+ * (project, then sub-group, then group); no scope gives the company-wide
+ * leaderboard. Non-admin users only see vendors they created or are assigned
+ * to, as in the vendor list.
+ */
+@Service
+@RequiredArgsConstructor
+public class VendorRankingService {
+
+    public static final int MAX_LIMIT = 100;
+
+    private final VendorRepository vendorRepository;
+
+    /**
+     * Leaderboard of the whole scope, for views that are not tied to a user (the project dashboard)
+     */
+    @Transactional(readOnly = true)
+    public List<VendorSummaryDTO> getTopVendors(String groupName, String subGroupName, String projectId, int limit) {
+        return getTopVendors(groupName, subGroupName, projectId, null, "ADMIN", limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<VendorSummaryDTO> getTopVendors(String groupName, String subGroupName, String projectId,
+                                                Long userId, String userRole, int limit) {
+        Long accessUserId = isAdmin(userRole) ? null : userId;
+        String scopeProject = hasText(projectId) ? projectId : null;
+        String scopeSubGroup = scopeProject == null && hasText(subGroupName) ? subGroupName : null;
+        String scopeGroup = scopeProject == null && hasText(groupName) ? groupName : null;
+
+        List<Object[]> rows = vendorRepository.findVendorRanking(scopeGroup, scopeSubGroup, scopeProject,
+            accessUserId, PageRequest.of(0, Math.max(1, Math.min(limit, MAX_LIMIT))));
+
+        // Row: [vendorId, name, orderCount, totalValue, deliveredValue, rating]
+        List<VendorSummaryDTO> vendors = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            vendors.add(VendorSummaryDTO.builder()
+                .id(((Number) row[0]).longValue())
+                .name((String) row[1])
+                .totalOrders(((Number) row[2]).intValue())
+                .totalPurchaseValue((BigDecimal) row[3])
+                .deliveredValue((BigDecimal) row[4])
+                .rating(row[5] != null ? ((Number) row[5]).doubleValue() : 0.0)
+                .build());
+        }
+        return vendors;
+    }
+
+    private static boolean isAdmin(String userRole) {
+        return "ADMIN".equalsIgnoreCase(userRole) || "SUPERADMIN".equalsIgnoreCase(userRole);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
@@ -1,9 +1,7 @@
 package com.istlgroup.istl_group_crm_backend.service;
 
-import com.istlgroup.istl_group_crm_backend.entity.PurchaseOrderEntity;
 import com.istlgroup.istl_group_crm_backend.entity.QuotationEntity;
 import com.istlgroup.istl_group_crm_backend.entity.VendorEntity;
-import com.istlgroup.istl_group_crm_backend.repo.PurchaseOrderRepository;
 import com.istlgroup.istl_group_crm_backend.repo.QuotationRepository;
 import com.istlgroup.istl_group_crm_backend.repo.VendorRepository;
 import lombok.RequiredArgsConstructor;
@@ -18,11 +16,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.HashSet;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,7 +27,8 @@ public class VendorService {
     
     private final VendorRepository vendorRepository;
     private final QuotationRepository quotationRepository;
-    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final DocumentSequenceService documentSequenceService;
+    private final VendorPickerService vendorPickerService;
     /**
      * Get vendors with role-based and project-based filtering + category + status
      */
@@ -142,6 +138,7 @@ public class VendorService {
                 .build();
         
         VendorEntity savedVendor = vendorRepository.save(vendor);
+        vendorPickerService.invalidate();
         log.info("Created new vendor {} with ID: {}", vendorName, savedVendor.getId());
         
         return savedVendor.getId();
@@ -160,69 +157,7 @@ public class VendorService {
          String subGroupName, 
          String projectId
  ) {
-     Set<Map<String, Object>> vendorSet = new HashSet<>();
-     
-     // 1. Get vendors from vendors table (filtered by project)
-     List<VendorEntity> vendorsFromTable;
-     if (projectId != null && !projectId.isEmpty()) {
-         vendorsFromTable = vendorRepository.findByProjectId(projectId);
-     } else if (subGroupName != null && !subGroupName.isEmpty()) {
-         vendorsFromTable = vendorRepository.findByGroupNameAndSubGroupName(groupName, subGroupName);
-     } else if (groupName != null && !groupName.isEmpty()) {
-         vendorsFromTable = vendorRepository.findByGroupName(groupName);
-     } else {
-         vendorsFromTable = vendorRepository.findAll();
-     }
-     
-     // Add vendors from vendors table
-     for (VendorEntity vendor : vendorsFromTable) {
-         Map<String, Object> vendorMap = new LinkedHashMap<>();
-         vendorMap.put("id", vendor.getId());
-         vendorMap.put("name", vendor.getName());
-         vendorMap.put("contact", vendor.getPhone());
-         vendorMap.put("source", "vendors_table");
-         vendorSet.add(vendorMap);
-     }
-     
-     // 2. Get new vendors from POs (vendors created inline with PO)
-     List<PurchaseOrderEntity> pos;
-     if (projectId != null && !projectId.isEmpty()) {
-         pos = purchaseOrderRepository.findByProjectId(projectId);
-     } else if (subGroupName != null && !subGroupName.isEmpty()) {
-         pos = purchaseOrderRepository.findByGroupNameAndSubGroupName(groupName, subGroupName);
-     } else if (groupName != null && !groupName.isEmpty()) {
-         pos = purchaseOrderRepository.findByGroupName(groupName);
-     } else {
-         pos = purchaseOrderRepository.findAll();
-     }
-     
-     // Add vendors from POs (new vendors with vendor_name and vendor_contact)
-     for (PurchaseOrderEntity po : pos) {
-         if (po.getVendorName() != null && !po.getVendorName().trim().isEmpty()) {
-             // This is a new vendor created with PO
-             Map<String, Object> vendorMap = new LinkedHashMap<>();
-             vendorMap.put("id", "PO_" + po.getVendorName()); // Use vendor name as ID
-             vendorMap.put("name", po.getVendorName());
-             vendorMap.put("contact", po.getVendorContact());
-             vendorMap.put("source", "po_vendor");
-             vendorMap.put("poId", po.getId());
-             
-             // Check if not already added (avoid duplicates by name)
-             boolean exists = vendorSet.stream()
-                 .anyMatch(v -> v.get("name").toString().equalsIgnoreCase(po.getVendorName()));
-             
-             if (!exists) {
-                 vendorSet.add(vendorMap);
-             }
-         }
-     }
-     
-     // Convert to list and sort by name
-     List<Map<String, Object>> result = new ArrayList<>(vendorSet);
-     result.sort((v1, v2) -> v1.get("name").toString().compareTo(v2.get("name").toString()));
-     
-     log.info("Found {} vendors for bills (including PO vendors)", result.size());
-     return result;
+     return vendorPickerService.getVendorsForBills(groupName, subGroupName, projectId);
  }
     /**
      * Create new vendor manually
@@ -253,6 +188,7 @@ public class VendorService {
         if (vendor.getSubGroupName() == null) vendor.setSubGroupName("General");
         
         VendorEntity savedVendor = vendorRepository.save(vendor);
+        vendorPickerService.invalidate();
         log.info("Created vendor: {} by user: {}", vendor.getName(), userId);
         
         return savedVendor;
@@ -292,6 +228,7 @@ public class VendorService {
         
         existing.setUpdatedAt(LocalDateTime.now());
         
+        vendorPickerService.invalidate();
         return vendorRepository.save(existing);
     }
     
@@ -304,6 +241,7 @@ public class VendorService {
         vendor.setDeletedAt(LocalDateTime.now());
         vendor.setStatus("Inactive");
         vendorRepository.save(vendor);
+        vendorPickerService.invalidate();
         
         log.info("Soft deleted vendor: {}", vendor.getName());
     }
@@ -389,8 +327,7 @@ public class VendorService {
     }
     
     private String generateVendorCode() {
-        long count = vendorRepository.countActiveVendors();
-        return String.format("VEN-%05d", count + 1);
+        return documentSequenceService.nextCode(DocumentSequenceService.Sequence.VENDOR);
     }
     
     // Stats inner class
@@ -0,0 +1,24 @@
+package com.istlgroup.istl_group_crm_backend.wrapperClasses;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Claims carried by a signed auth token (token auth mode). Times are epoch milliseconds.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthTokenClaims {
+
+	private Long id;          // users.id
+	private String userId;    // login name, the authentication principal
+	private String role;
+	private long menu;        // MenuPermissionAccessors bitmask
+	private long[] pages;     // PagePermissionAccessors bitmask
+	private long auth;        // login time, kept across renewals
+	private long iat;
+	private long exp;
+	private String jti;
+}
@@ -19,4 +19,7 @@ public class LoginResponseWrapper {
 
 	private Long warningTime;
 
+	// Signed auth token, only set in token auth mode (auth.mode=token)
+	private String token;
+
 }
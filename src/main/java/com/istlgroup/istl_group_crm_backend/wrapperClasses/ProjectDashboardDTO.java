@@ -35,6 +35,8 @@ public class ProjectDashboardDTO {
     private List<VendorSummaryDTO> topVendors;
     private List<SpendingTrendDTO> spendingTrend;
     private List<TimelineMilestoneDTO> projectTimeline;
+    // Cursor for the rest of the timeline at /api/projects/{projectId}/timeline, null when complete
+    private String timelineNextCursor;
     
     // PAYMENT ANALYTICS (NEW) ← ADD THESE
     private List<ChartDataDTO> paymentMethodDistribution;
@@ -44,6 +46,9 @@ public class ProjectDashboardDTO {
     private LocalDateTime lastUpdate;
     private LocalDateTime statsCalculatedAt;
     
+    // Sections left empty because they failed or timed out
+    private List<String> unavailableSections;
+    
     // ========================================================================
     // NESTED CLASSES
     // ========================================================================
@@ -167,6 +172,7 @@ public class ProjectDashboardDTO {
         private Integer totalOrders;
         private Double rating;
         private BigDecimal totalPurchaseValue;
+        private BigDecimal deliveredValue;
     }
     
     @Data
@@ -6,8 +6,6 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 @Data
@@ -20,4 +18,24 @@ public class StatsRecalculationResultDTO {
     private String message;
     private LocalDateTime calculatedAt;
     private Long executionTimeMs;
+
+    // Bulk recalculation summary
+    private Integer totalProjects;
+    private Integer updatedProjects;
+    private Integer failedProjects;
+    private Integer chunkSize;
+    private List<ChunkResult> chunks;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChunkResult {
+        private Integer chunkIndex;
+        private Integer projectCount;
+        private Integer updatedCount;
+        private Boolean success;
+        private String error;
+        private Long executionTimeMs;
+    }
 }
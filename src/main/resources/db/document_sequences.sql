@@ -0,0 +1,12 @@
+-- Counter rows for DocumentSequenceService: one per (prefix, year), year 0 for
+-- sequences that do not restart yearly. The schema is managed outside the
+-- application (spring.jpa.hibernate.ddl-auto=validate), so apply this script to
+-- each database before deploying a build that uses the sequences.
+
+CREATE TABLE IF NOT EXISTS document_sequences (
+    seq_prefix VARCHAR(100) NOT NULL,
+    seq_year   INT          NOT NULL,
+    next_value BIGINT       NOT NULL,
+    updated_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (seq_prefix, seq_year)
+);
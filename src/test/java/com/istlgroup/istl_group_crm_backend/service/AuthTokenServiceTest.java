@@ -0,0 +1,264 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.istlgroup.istl_group_crm_backend.entity.LoginEntity;
+import com.istlgroup.istl_group_crm_backend.entity.MenuPermissionsEntity;
+import com.istlgroup.istl_group_crm_backend.entity.PagePermissionsEntity;
+import com.istlgroup.istl_group_crm_backend.repo.LoginRepo;
+import com.istlgroup.istl_group_crm_backend.repo.MenuPermissionsRepo;
+import com.istlgroup.istl_group_crm_backend.repo.PagePermissionsRepo;
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.AuthTokenClaims;
+
+class AuthTokenServiceTest {
+
+	private static final String SECRET = "0123456789abcdef0123456789abcdef";
+	private static final Duration TTL = Duration.ofMinutes(15);
+	private static final Duration MAX_LIFETIME = Duration.ofHours(12);
+	private static final long MENU = 1L;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private LoginRepo loginRepo;
+	private MenuPermissionsRepo menuPermissionsRepo;
+	private PagePermissionsRepo pagePermissionsRepo;
+	private AuthTokenService service;
+
+	@BeforeEach
+	void setUp() {
+		loginRepo = mock(LoginRepo.class);
+		menuPermissionsRepo = mock(MenuPermissionsRepo.class);
+		pagePermissionsRepo = mock(PagePermissionsRepo.class);
+		when(pagePermissionsRepo.findByUserId(anyLong())).thenReturn(Optional.empty());
+		service = new AuthTokenService(objectMapper, loginRepo, menuPermissionsRepo, pagePermissionsRepo);
+		ReflectionTestUtils.setField(service, "mode", "token");
+		ReflectionTestUtils.setField(service, "secret", SECRET);
+		ReflectionTestUtils.setField(service, "ttl", TTL);
+		ReflectionTestUtils.setField(service, "maxLifetime", MAX_LIFETIME);
+		service.init();
+	}
+
+	@Test
+	void verifiesIssuedToken() {
+		AuthTokenClaims claims = service.verify(service.issue(7L, "jdoe", "ADMIN", MENU, pages()));
+
+		assertNotNull(claims);
+		assertEquals(7L, claims.getId());
+		assertEquals("jdoe", claims.getUserId());
+		assertEquals("ADMIN", claims.getRole());
+		assertEquals(MENU, claims.getMenu());
+		assertArrayEquals(pages(), claims.getPages());
+		assertEquals(claims.getAuth(), claims.getIat());
+		assertEquals(claims.getIat() + TTL.toMillis(), claims.getExp());
+	}
+
+	@Test
+	void rejectsTamperedPayload() throws Exception {
+		String token = service.issue(7L, "jdoe", "USER", MENU, pages());
+		String signature = token.substring(token.indexOf('.') + 1);
+		AuthTokenClaims claims = service.verify(token);
+		claims.setRole("SUPERADMIN");
+
+		String forged = encode(objectMapper.writeValueAsBytes(claims)) + "." + signature;
+
+		assertNull(service.verify(forged));
+	}
+
+	@Test
+	void rejectsTokenSignedWithAnotherSecret() throws Exception {
+		long now = System.currentTimeMillis();
+		AuthTokenClaims claims = new AuthTokenClaims(7L, "jdoe", "USER", MENU, pages(), now, now, now + TTL.toMillis(), "jti");
+
+		assertNull(service.verify(sign(claims, "another-secret-another-secret-32b")));
+	}
+
+	@Test
+	void rejectsMalformedTokens() {
+		assertNull(service.verify(null));
+		assertNull(service.verify(""));
+		assertNull(service.verify("no-dot"));
+		assertNull(service.verify("a.b.c"));
+		assertNull(service.verify("!!!.???"));
+	}
+
+	@Test
+	void rejectsExpiredToken() throws Exception {
+		long now = System.currentTimeMillis();
+		AuthTokenClaims claims = new AuthTokenClaims(7L, "jdoe", "USER", MENU, pages(), now - 60_000, now - 60_000, now - 1, "jti");
+
+		assertNull(service.verify(sign(claims, SECRET)));
+	}
+
+	@Test
+	void rejectsTokenPastMaxLifetime() throws Exception {
+		long now = System.currentTimeMillis();
+		long auth = now - MAX_LIFETIME.toMillis() - 1;
+		AuthTokenClaims claims = new AuthTokenClaims(7L, "jdoe", "USER", MENU, pages(), auth, now, now + TTL.toMillis(), "jti");
+
+		assertNull(service.verify(sign(claims, SECRET)));
+	}
+
+	@Test
+	void rejectsRevokedToken() {
+		String token = service.issue(7L, "jdoe", "USER", MENU, pages());
+		String other = service.issue(7L, "jdoe", "USER", MENU, pages());
+
+		service.revoke(service.verify(token));
+
+		assertNull(service.verify(token));
+		assertNotNull(service.verify(other));
+	}
+
+	@Test
+	void revokeUserRejectsEarlierTokensOnly() throws Exception {
+		String token = service.issue(7L, "jdoe", "USER", MENU, pages());
+		String otherUser = service.issue(8L, "asmith", "USER", MENU, pages());
+		Thread.sleep(2);
+
+		service.revokeUser(7L);
+		Thread.sleep(2);
+
+		assertNull(service.verify(token));
+		assertNotNull(service.verify(otherUser));
+		assertNotNull(service.verify(service.issue(7L, "jdoe", "USER", MENU, pages())));
+	}
+
+	@Test
+	void renewalIsDueAfterHalfTheTtl() {
+		long now = System.currentTimeMillis();
+		AuthTokenClaims fresh = new AuthTokenClaims(7L, "jdoe", "USER", MENU, pages(), now, now, now + TTL.toMillis(), "a");
+		AuthTokenClaims half = new AuthTokenClaims(7L, "jdoe", "USER", MENU, pages(), now - 600_000, now - 600_000,
+				now + TTL.toMillis() / 2 - 1_000, "b");
+
+		assertFalse(service.isRenewalDue(fresh));
+		assertTrue(service.isRenewalDue(half));
+	}
+
+	@Test
+	void renewalIsNotDueWhenMaxLifetimeIsReached() {
+		long now = System.currentTimeMillis();
+		long auth = now - MAX_LIFETIME.toMillis() + 60_000;
+		AuthTokenClaims claims = new AuthTokenClaims(7L, "jdoe", "USER", MENU, pages(), auth, now - 60_000, auth + MAX_LIFETIME.toMillis(), "a");
+
+		assertFalse(service.isRenewalDue(claims));
+	}
+
+	@Test
+	void renewalReloadsRoleAndKeepsLoginTime() {
+		when(loginRepo.findById(7L)).thenReturn(Optional.of(user(7L, "MANAGER", 1L)));
+		when(menuPermissionsRepo.findByUsersId(7L)).thenReturn(menu(1));
+		long now = System.currentTimeMillis();
+		long auth = now - 3_600_000;
+		AuthTokenClaims claims = new AuthTokenClaims(7L, "jdoe", "USER", MENU, pages(), auth, now - 600_000, now + 60_000, "old");
+
+		AuthTokenClaims renewed = service.verify(service.renew(claims));
+
+		assertNotNull(renewed);
+		assertEquals("MANAGER", renewed.getRole());
+		assertEquals(auth, renewed.getAuth());
+		assertNotEquals("old", renewed.getJti());
+		assertTrue(renewed.getExp() > claims.getExp());
+	}
+
+	@Test
+	void renewalReloadsPermissionBitmasks() {
+		PagePermissionsEntity pagePermissions = new PagePermissionsEntity();
+		pagePermissions.setUsers_view(1);
+		when(loginRepo.findById(7L)).thenReturn(Optional.of(user(7L, "USER", 1L)));
+		when(menuPermissionsRepo.findByUsersId(7L)).thenReturn(menu(1));
+		when(pagePermissionsRepo.findByUserId(7L)).thenReturn(Optional.of(pagePermissions));
+		long now = System.currentTimeMillis();
+		AuthTokenClaims claims = new AuthTokenClaims(7L, "jdoe", "USER", 0L, pages(), now, now - 600_000, now + 60_000, "old");
+
+		AuthTokenClaims renewed = service.verify(service.renew(claims));
+
+		assertNotNull(renewed);
+		assertEquals(MenuPermissionAccessors.encode(menu(1)), renewed.getMenu());
+		assertArrayEquals(PagePermissionAccessors.encode(pagePermissions), renewed.getPages());
+	}
+
+	@Test
+	void renewalIsCappedAtMaxLifetime() {
+		when(loginRepo.findById(7L)).thenReturn(Optional.of(user(7L, "USER", 1L)));
+		when(menuPermissionsRepo.findByUsersId(7L)).thenReturn(menu(1));
+		long now = System.currentTimeMillis();
+		long auth = now - MAX_LIFETIME.toMillis() + 120_000;
+		AuthTokenClaims claims = new AuthTokenClaims(7L, "jdoe", "USER", MENU, pages(), auth, now - 600_000, now + 60_000, "old");
+
+		AuthTokenClaims renewed = service.verify(service.renew(claims));
+
+		assertNotNull(renewed);
+		assertEquals(auth + MAX_LIFETIME.toMillis(), renewed.getExp());
+	}
+
+	@Test
+	void renewalIsRefusedForInactiveOrMissingUser() {
+		when(loginRepo.findById(7L)).thenReturn(Optional.of(user(7L, "USER", 0L)));
+		when(loginRepo.findById(8L)).thenReturn(Optional.empty());
+		when(menuPermissionsRepo.findByUsersId(7L)).thenReturn(menu(1));
+		long now = System.currentTimeMillis();
+
+		assertNull(service.renew(new AuthTokenClaims(7L, "jdoe", "USER", MENU, pages(), now, now, now + 60_000, "a")));
+		assertNull(service.renew(new AuthTokenClaims(8L, "asmith", "USER", MENU, pages(), now, now, now + 60_000, "b")));
+	}
+
+	@Test
+	void renewalIsRefusedWithoutMenuPermissions() {
+		when(loginRepo.findById(7L)).thenReturn(Optional.of(user(7L, "USER", 1L)));
+		when(menuPermissionsRepo.findByUsersId(7L)).thenReturn(menu(0));
+		long now = System.currentTimeMillis();
+
+		assertNull(service.renew(new AuthTokenClaims(7L, "jdoe", "USER", MENU, pages(), now, now, now + 60_000, "a")));
+	}
+
+	private static LoginEntity user(Long id, String role, Long active) {
+		LoginEntity user = new LoginEntity();
+		user.setId(id);
+		user.setUser_id("jdoe");
+		user.setRole(role);
+		user.setIs_active(active);
+		return user;
+	}
+
+	private static long[] pages() {
+		return new long[PagePermissionAccessors.WORDS];
+	}
+
+	private static MenuPermissionsEntity menu(int dashboard) {
+		MenuPermissionsEntity menu = new MenuPermissionsEntity();
+		menu.setDashboard(dashboard);
+		return menu;
+	}
+
+	private String sign(AuthTokenClaims claims, String secret) throws Exception {
+		byte[] payload = objectMapper.writeValueAsBytes(claims);
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		return encode(payload) + "." + encode(mac.doFinal(payload));
+	}
+
+	private static String encode(byte[] bytes) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+}
@@ -0,0 +1,124 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.istlgroup.istl_group_crm_backend.wrapperClasses.KeysetPage;
+
+class KeysetCursorTest {
+
+	@Test
+	void dateCursorRoundTrips() {
+		String token = KeysetCursor.encode("bills", LocalDate.of(2025, 1, 31), 42L);
+
+		KeysetCursor cursor = KeysetCursor.decode("bills", token);
+
+		assertEquals(LocalDate.of(2025, 1, 31), cursor.dateKey());
+		assertEquals(42L, cursor.getId());
+	}
+
+	@Test
+	void dateTimeCursorRoundTrips() {
+		LocalDateTime createdAt = LocalDateTime.of(2025, 3, 9, 14, 5, 7);
+
+		KeysetCursor cursor = KeysetCursor.decode("purchase-orders",
+				KeysetCursor.encode("purchase-orders", createdAt, 7L));
+
+		assertEquals(createdAt, cursor.dateTimeKey());
+		assertEquals(7L, cursor.getId());
+	}
+
+	@Test
+	void tokenIsUrlSafe() {
+		String token = KeysetCursor.encode("bills", "key~with/odd+chars?", Long.MAX_VALUE);
+
+		assertTrue(token.matches("[A-Za-z0-9_-]+"));
+		assertEquals("key~with/odd+chars?", KeysetCursor.decode("bills", token).getSortKey());
+	}
+
+	@Test
+	void blankTokenIsTheFirstPage() {
+		assertNull(KeysetCursor.decode("bills", null));
+		assertNull(KeysetCursor.decode("bills", " "));
+	}
+
+	@Test
+	void cursorOfAnotherListingIsRejected() {
+		String token = KeysetCursor.encode("purchase-orders", LocalDate.of(2025, 1, 1), 1L);
+
+		assertThrows(RuntimeException.class, () -> KeysetCursor.decode("bills", token));
+	}
+
+	@Test
+	void tamperedTokensAreRejected() {
+		assertThrows(RuntimeException.class, () -> KeysetCursor.decode("bills", "not base64!"));
+		assertThrows(RuntimeException.class, () -> KeysetCursor.decode("bills", raw("bills|2025-01-01")));
+		assertThrows(RuntimeException.class, () -> KeysetCursor.decode("bills", raw("bills|2025-01-01|1|2")));
+		assertThrows(RuntimeException.class, () -> KeysetCursor.decode("bills", raw("bills|2025-01-01|abc")));
+	}
+
+	@Test
+	void tamperedSortKeyIsRejectedWhenRead() {
+		KeysetCursor cursor = KeysetCursor.decode("bills", raw("bills|2025-13-45|1"));
+
+		assertThrows(RuntimeException.class, cursor::dateKey);
+		assertThrows(RuntimeException.class, cursor::dateTimeKey);
+	}
+
+	@Test
+	void pageSizeIsClamped() {
+		assertEquals(1, KeysetCursor.pageSize(0));
+		assertEquals(50, KeysetCursor.pageSize(50));
+		assertEquals(KeysetCursor.MAX_PAGE_SIZE, KeysetCursor.pageSize(10_000));
+		assertEquals(11, KeysetCursor.fetch(10).getPageSize());
+	}
+
+	@Test
+	void pageTrimsTheExtraRowAndPointsAfterTheLastRowKept() {
+		List<long[]> rows = List.of(new long[] { 30, 3 }, new long[] { 20, 2 }, new long[] { 10, 1 });
+
+		KeysetPage<long[]> page = KeysetCursor.page("rows", rows, 2, r -> r[0], r -> r[1], 3L);
+
+		assertEquals(2, page.getContent().size());
+		assertTrue(page.isHasNext());
+		assertEquals(2, page.getSize());
+		assertEquals(3L, page.getTotalElements());
+		KeysetCursor next = KeysetCursor.decode("rows", page.getNextCursor());
+		assertEquals("20", next.getSortKey());
+		assertEquals(2L, next.getId());
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		List<long[]> rows = List.of(new long[] { 30, 3 }, new long[] { 20, 2 });
+
+		KeysetPage<long[]> page = KeysetCursor.page("rows", rows, 2, r -> r[0], r -> r[1], null);
+
+		assertFalse(page.isHasNext());
+		assertNull(page.getNextCursor());
+		assertEquals(2, page.getContent().size());
+	}
+
+	@Test
+	void onlyTheDefaultSortIsAccepted() {
+		assertDoesNotThrow(() -> KeysetCursor.requireDefaultSort("billDate", "billDate", "desc"));
+		assertThrows(RuntimeException.class, () -> KeysetCursor.requireDefaultSort("billDate", "billDate", "ASC"));
+		assertThrows(RuntimeException.class, () -> KeysetCursor.requireDefaultSort("billDate", "vendorName", "DESC"));
+	}
+
+	private static String raw(String value) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+}
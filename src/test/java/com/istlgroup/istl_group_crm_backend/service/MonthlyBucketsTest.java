@@ -0,0 +1,116 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class MonthlyBucketsTest {
+
+	@Test
+	void windowIsHalfOpenOnMonthStarts() {
+		MonthlyBuckets window = MonthlyBuckets.lastMonths(6, YearMonth.of(2025, 6));
+
+		assertEquals(LocalDate.of(2025, 1, 1), window.fromDate());
+		assertEquals(LocalDate.of(2025, 7, 1), window.toDate());
+		assertEquals(LocalDateTime.of(2025, 1, 1, 0, 0), window.fromDateTime());
+		assertEquals(LocalDateTime.of(2025, 7, 1, 0, 0), window.toDateTime());
+	}
+
+	@Test
+	void windowCrossesTheYearBoundary() {
+		MonthlyBuckets window = MonthlyBuckets.lastMonths(3, YearMonth.of(2025, 1));
+
+		assertEquals(LocalDate.of(2024, 11, 1), window.fromDate());
+		assertEquals(LocalDate.of(2025, 2, 1), window.toDate());
+		assertEquals(List.of(YearMonth.of(2024, 11), YearMonth.of(2024, 12), YearMonth.of(2025, 1)),
+				months(window.fill(List.of())));
+	}
+
+	@Test
+	void decemberWindowEndsOnFirstOfJanuary() {
+		MonthlyBuckets window = MonthlyBuckets.lastMonths(1, YearMonth.of(2024, 12));
+
+		assertEquals(LocalDate.of(2024, 12, 1), window.fromDate());
+		assertEquals(LocalDate.of(2025, 1, 1), window.toDate());
+	}
+
+	@Test
+	void atLeastOneMonth() {
+		assertEquals(1, MonthlyBuckets.lastMonths(0, YearMonth.of(2025, 3)).fill(List.of()).size());
+	}
+
+	@Test
+	void fillZeroFillsMissingMonthsAndIgnoresRowsOutsideTheWindow() {
+		MonthlyBuckets window = MonthlyBuckets.lastMonths(3, YearMonth.of(2025, 1));
+		List<Object[]> rows = List.of(
+				new Object[] { 2024, 12, new BigDecimal("100.00"), 3L },
+				new Object[] { 2024, 10, new BigDecimal("999.00"), 9L },
+				new Object[] { 2025, 2, new BigDecimal("999.00"), 9L });
+
+		List<MonthlyBuckets.Bucket> buckets = window.fill(rows);
+
+		assertEquals(3, buckets.size());
+		assertEquals(BigDecimal.ZERO, buckets.get(0).getTotal());
+		assertEquals(0L, buckets.get(0).getCount());
+		assertEquals(BigDecimal.ZERO, buckets.get(0).getAverage());
+		assertEquals(new BigDecimal("100.00"), buckets.get(1).getTotal());
+		assertEquals(3L, buckets.get(1).getCount());
+		assertEquals(new BigDecimal("33.33"), buckets.get(1).getAverage());
+		assertEquals(BigDecimal.ZERO, buckets.get(2).getTotal());
+	}
+
+	@Test
+	void fillAcceptsOtherNumericTypes() {
+		MonthlyBuckets window = MonthlyBuckets.lastMonths(1, YearMonth.of(2025, 5));
+		List<Object[]> rows = List.<Object[]>of(new Object[] { 2025L, 5L, 12.5d, 2 });
+
+		MonthlyBuckets.Bucket bucket = window.fill(rows).get(0);
+
+		assertEquals(new BigDecimal("12.5"), bucket.getTotal());
+		assertEquals(2L, bucket.getCount());
+	}
+
+	@Test
+	void fiscalYearBeforeTheStartMonthBeginsLastYear() {
+		MonthlyBuckets window = MonthlyBuckets.fiscalYearToDate(4, YearMonth.of(2025, 3));
+
+		assertEquals(LocalDate.of(2024, 4, 1), window.fromDate());
+		assertEquals(LocalDate.of(2025, 4, 1), window.toDate());
+		assertEquals(12, window.fill(List.of()).size());
+	}
+
+	@Test
+	void fiscalYearOnTheStartMonthIsOneMonth() {
+		MonthlyBuckets window = MonthlyBuckets.fiscalYearToDate(4, YearMonth.of(2025, 4));
+
+		assertEquals(LocalDate.of(2025, 4, 1), window.fromDate());
+		assertEquals(LocalDate.of(2025, 5, 1), window.toDate());
+	}
+
+	@Test
+	void fiscalYearStartingInJanuaryIsTheCalendarYear() {
+		MonthlyBuckets window = MonthlyBuckets.fiscalYearToDate(1, YearMonth.of(2025, 12));
+
+		assertEquals(LocalDate.of(2025, 1, 1), window.fromDate());
+		assertEquals(LocalDate.of(2026, 1, 1), window.toDate());
+	}
+
+	@Test
+	void windowFromConfiguration() {
+		assertEquals(6, MonthlyBuckets.of(null, 4).fill(List.of()).size());
+		assertEquals(12, MonthlyBuckets.of(" 12 ", 4).fill(List.of()).size());
+		assertEquals(MonthlyBuckets.fiscalYearToDate(4).fromDate(), MonthlyBuckets.of("fy", 4).fromDate());
+		assertThrows(RuntimeException.class, () -> MonthlyBuckets.of("quarter", 4));
+	}
+
+	private static List<YearMonth> months(List<MonthlyBuckets.Bucket> buckets) {
+		return buckets.stream().map(MonthlyBuckets.Bucket::getMonth).toList();
+	}
+}
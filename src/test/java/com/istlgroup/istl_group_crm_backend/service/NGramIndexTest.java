@@ -0,0 +1,101 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class NGramIndexTest {
+
+	@Test
+	void ranksExactThenPrefixThenWordStartThenSubstring() {
+		NGramIndex index = new NGramIndex(2, 1);
+		index.put(1, null, null, "xalpha", null);        // substring       1 x 2 = 2
+		index.put(2, null, null, "big alpha", null);     // word start      2 x 2 = 4
+		index.put(3, null, null, "alphabet", null);      // prefix          4 x 2 = 8
+		index.put(4, null, null, "alpha", null);         // exact           8 x 2 = 16
+		index.put(5, null, null, "other", "alpha");      // exact, weight 1 8 x 1 = 8
+
+		assertEquals(List.of(4L, 5L, 3L, 2L, 1L), index.search("Alpha", null, 10));
+	}
+
+	@Test
+	void tiesGoToTheHigherId() {
+		NGramIndex index = new NGramIndex(1);
+		index.put(3, null, null, "steel pipe");
+		index.put(10, null, null, "steel beam");
+		index.put(7, null, null, "steel rod");
+
+		assertEquals(List.of(10L, 7L, 3L), index.search("steel", null, 10));
+	}
+
+	@Test
+	void topKKeepsTheHighestIdsAmongTiesAtTheCutoff() {
+		NGramIndex index = new NGramIndex(1);
+		for (long id = 1; id <= 20; id++) {
+			index.put(id, null, null, "cable " + id);
+		}
+		index.put(21, null, null, "cable");
+
+		assertEquals(List.of(21L, 20L, 19L), index.search("cable", null, 3));
+	}
+
+	@Test
+	void topKDoesNotDependOnInsertionOrder() {
+		NGramIndex forward = new NGramIndex(1);
+		NGramIndex backward = new NGramIndex(1);
+		for (long id = 1; id <= 50; id++) {
+			forward.put(id, null, null, id % 5 == 0 ? "valve" : "gate valve " + id);
+			backward.put(51 - id, null, null, (51 - id) % 5 == 0 ? "valve" : "gate valve " + (51 - id));
+		}
+
+		List<Long> expected = List.of(50L, 45L, 40L, 35L, 30L, 25L, 20L);
+		assertEquals(expected, forward.search("valve", null, 7));
+		assertEquals(expected, backward.search("valve", null, 7));
+	}
+
+	@Test
+	void accessUserSeesOwnedAndAssignedDocumentsOnly() {
+		NGramIndex index = new NGramIndex(1);
+		index.put(1, 100L, null, "acme corp");
+		index.put(2, 200L, 100L, "acme ltd");
+		index.put(3, 200L, 300L, "acme inc");
+
+		assertEquals(List.of(2L, 1L), index.search("acme", 100L, 10));
+		assertEquals(List.of(3L, 2L, 1L), index.search("acme", null, 10));
+	}
+
+	@Test
+	void shortQueriesScanAllDocuments() {
+		NGramIndex index = new NGramIndex(1);
+		index.put(1, null, null, "ab");
+		index.put(2, null, null, "cab");
+		index.put(3, null, null, "xyz");
+
+		assertEquals(List.of(1L, 2L), index.search("ab", null, 10));
+	}
+
+	@Test
+	void updatesAndRemovesAreSearchable() {
+		NGramIndex index = new NGramIndex(1);
+		index.put(1, null, null, "copper wire");
+		index.put(1, null, null, "aluminium wire");
+		index.put(2, null, null, "copper plate");
+		index.remove(2);
+
+		assertTrue(index.search("copper", null, 10).isEmpty());
+		assertEquals(List.of(1L), index.search("aluminium", null, 10));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void blankQueryOrNoLimitFindsNothing() {
+		NGramIndex index = new NGramIndex(1);
+		index.put(1, null, null, "anything");
+
+		assertTrue(index.search("  ", null, 10).isEmpty());
+		assertTrue(index.search("any", null, 0).isEmpty());
+	}
+}
@@ -0,0 +1,103 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.istlgroup.istl_group_crm_backend.entity.PagePermissionsEntity;
+
+/**
+ * Page permission decoding: the former per-call reflection over the entity
+ * fields against the precomputed MethodHandle table of PagePermissionAccessors.
+ *
+ * Not part of the unit test run; build the test classes and start it with
+ * java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main PagePermissionDecodeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PagePermissionDecodeBenchmark {
+
+	private PagePermissionsEntity entity;
+
+	@Setup
+	public void setUp() {
+		// Every third permission enabled, about what a mid-level role holds
+		List<Integer> ids = new ArrayList<>();
+		for (int id = 1; id <= PagePermissionAccessors.SIZE; id += 3) {
+			ids.add(id);
+		}
+		entity = new PagePermissionsEntity();
+		PagePermissionAccessors.apply(entity, PagePermissionAccessors.fromPermissionIds(ids));
+	}
+
+	@Benchmark
+	public Map<String, List<String>> decodeReflective() throws IllegalAccessException {
+		Map<String, List<String>> result = new LinkedHashMap<>();
+		for (Field field : PagePermissionsEntity.class.getDeclaredFields()) {
+			field.setAccessible(true);
+			Object value = field.get(entity);
+			if (!(value instanceof Integer) || ((Integer) value) != 1) {
+				continue;
+			}
+			String fieldName = field.getName();
+			if (fieldName.equals("id") || fieldName.equals("user_id")
+					|| fieldName.equals("created_at") || fieldName.equals("updated_at")) {
+				continue;
+			}
+			String[] parts = fieldName.split("_");
+			String action = parts[parts.length - 1].toUpperCase();
+			String module = parts.length > 2
+					? String.join(".", Arrays.stream(parts, 0, parts.length - 1)
+							.map(String::toUpperCase).toArray(String[]::new))
+					: parts[0].toUpperCase();
+			result.computeIfAbsent(module, k -> new ArrayList<>()).add(action);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public Map<String, List<String>> decodeAccessors() {
+		return PagePermissionAccessors.decode(entity);
+	}
+
+	@Benchmark
+	public long countReflective() throws IllegalAccessException {
+		long count = 0;
+		for (Field field : PagePermissionsEntity.class.getDeclaredFields()) {
+			field.setAccessible(true);
+			Object value = field.get(entity);
+			if (field.getName().equals("id") || field.getName().equals("user_id")
+					|| field.getName().equals("created_at") || field.getName().equals("updated_at")) {
+				continue;
+			}
+			if (value instanceof Integer && ((Integer) value) == 1) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public long countAccessors() {
+		return PagePermissionAccessors.countEnabled(entity);
+	}
+}
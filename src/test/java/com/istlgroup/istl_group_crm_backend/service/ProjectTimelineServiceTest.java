@@ -0,0 +1,71 @@
+package com.istlgroup.istl_group_crm_backend.service;
+
+import static com.istlgroup.istl_group_crm_backend.service.ProjectTimelineService.BILL;
+import static com.istlgroup.istl_group_crm_backend.service.ProjectTimelineService.COMPLETION;
+import static com.istlgroup.istl_group_crm_backend.service.ProjectTimelineService.INVOICE;
+import static com.istlgroup.istl_group_crm_backend.service.ProjectTimelineService.KICKOFF;
+import static com.istlgroup.istl_group_crm_backend.service.ProjectTimelineService.PO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.istlgroup.istl_group_crm_backend.service.ProjectTimelineService.Entry;
+
+class ProjectTimelineServiceTest {
+
+	private static final LocalDate DAY = LocalDate.of(2025, 6, 1);
+
+	@Test
+	void mergesSourcesByDate() {
+		List<List<Entry>> sources = List.of(
+				List.of(entry(PO, 1, DAY), entry(PO, 2, DAY.plusDays(4))),
+				List.of(entry(BILL, 5, DAY.plusDays(2))),
+				List.of(entry(INVOICE, 9, DAY.plusDays(1)), entry(INVOICE, 3, DAY.plusDays(3))));
+
+		assertEquals(List.of("PO-1", "INVOICE-9", "BILL-5", "INVOICE-3", "PO-2"),
+				labels(ProjectTimelineService.merge(sources, 10)));
+	}
+
+	@Test
+	void equalDatesFollowTheSourceOrderThenId() {
+		List<List<Entry>> sources = List.of(
+				List.of(entry(COMPLETION, 0, DAY)),
+				List.of(entry(INVOICE, 4, DAY)),
+				List.of(entry(BILL, 8, DAY), entry(BILL, 9, DAY)),
+				List.of(entry(PO, 6, DAY), entry(PO, 7, DAY)),
+				List.of(entry(KICKOFF, 0, DAY)));
+
+		assertEquals(List.of("KICKOFF-0", "PO-6", "PO-7", "BILL-8", "BILL-9", "INVOICE-4", "COMPLETION-0"),
+				labels(ProjectTimelineService.merge(sources, 10)));
+	}
+
+	@Test
+	void stopsAtTheLimit() {
+		List<List<Entry>> sources = List.of(
+				List.of(entry(PO, 1, DAY), entry(PO, 2, DAY.plusDays(1)), entry(PO, 3, DAY.plusDays(2))),
+				List.of(entry(BILL, 1, DAY), entry(BILL, 2, DAY.plusDays(1))));
+
+		assertEquals(List.of("PO-1", "BILL-1", "PO-2"), labels(ProjectTimelineService.merge(sources, 3)));
+	}
+
+	@Test
+	void emptySourcesAreSkipped() {
+		List<List<Entry>> sources = List.of(List.of(), List.of(entry(BILL, 1, DAY)), List.of());
+
+		assertEquals(List.of("BILL-1"), labels(ProjectTimelineService.merge(sources, 10)));
+		assertTrue(ProjectTimelineService.merge(List.of(List.of(), List.of()), 10).isEmpty());
+	}
+
+	private static Entry entry(int source, long id, LocalDate date) {
+		return new Entry(source, id, date, null);
+	}
+
+	private static List<String> labels(List<Entry> entries) {
+		String[] names = { "KICKOFF", "PO", "BILL", "INVOICE", "COMPLETION" };
+		return entries.stream().map(e -> names[e.source] + "-" + e.id).toList();
+	}
+}